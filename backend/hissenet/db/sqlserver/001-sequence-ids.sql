@@ -0,0 +1,70 @@
+-- orders, stock_transactions ve wallet_transactions tablolarını IDENTITY kimlikten sıra tabanlı
+-- kimliğe (SequenceBaseEntity) geçirir. Mevcut veritabanında, uygulama durdurulmuşken bir kez
+-- çalıştırılır; tekrar çalıştırmak zararsızdır.
+--
+-- * id sütunu IDENTITY özelliği olmadan yeniden kurulur, değerler korunur.
+-- * Bu tablolara başvuran dış anahtarlar düşürülür; açılışta ddl-auto: update yeniden kurar.
+-- * <tablo>_seq sırası son kimliğin üstünden, Hibernate'in beklediği 50 artışla başlatılır.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+DECLARE @table sysname, @sequence sysname, @pk sysname, @sql nvarchar(max), @next bigint;
+DECLARE table_cursor CURSOR LOCAL FAST_FORWARD FOR
+    SELECT name FROM (VALUES (N'orders'), (N'stock_transactions'), (N'wallet_transactions')) AS t(name);
+
+OPEN table_cursor;
+FETCH NEXT FROM table_cursor INTO @table;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    IF COLUMNPROPERTY(OBJECT_ID(@table), N'id', 'IsIdentity') = 1
+    BEGIN
+        SET @sql = N'';
+        SELECT @sql += N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(fk.parent_object_id)) + N'.'
+                     + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N';'
+        FROM sys.foreign_keys fk
+        WHERE fk.referenced_object_id = OBJECT_ID(@table);
+        EXEC sp_executesql @sql;
+
+        SELECT @pk = name FROM sys.key_constraints WHERE type = 'PK' AND parent_object_id = OBJECT_ID(@table);
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' DROP CONSTRAINT ' + QUOTENAME(@pk) + N';';
+        EXEC sp_executesql @sql;
+
+        -- Her adım ayrı derlenir; yeni sütun önceki adım çalışmadan görünmez
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ADD id_new bigint NULL;';
+        EXEC sp_executesql @sql;
+        SET @sql = N'UPDATE ' + QUOTENAME(@table) + N' SET id_new = id;';
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' DROP COLUMN id;';
+        EXEC sp_executesql @sql;
+        SET @sql = @table + N'.id_new';
+        EXEC sp_rename @sql, N'id', N'COLUMN';
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ALTER COLUMN id bigint NOT NULL;';
+        EXEC sp_executesql @sql;
+        SET @sql = N'ALTER TABLE ' + QUOTENAME(@table) + N' ADD CONSTRAINT ' + QUOTENAME(N'PK_' + @table) + N' PRIMARY KEY (id);';
+        EXEC sp_executesql @sql;
+    END
+
+    -- Pooled optimizer bir çağrıda [değer - 49, değer] aralığını kullanır; başlangıç en az MAX(id) + 50 olmalı
+    SET @sql = N'SELECT @next = ISNULL(MAX(id), 0) + 100 FROM ' + QUOTENAME(@table) + N';';
+    EXEC sp_executesql @sql, N'@next bigint OUTPUT', @next = @next OUTPUT;
+    SET @sequence = @table + N'_seq';
+    IF OBJECT_ID(@sequence, 'SO') IS NULL
+    BEGIN
+        SET @sql = N'CREATE SEQUENCE ' + QUOTENAME(@sequence) + N' AS bigint START WITH '
+                 + CAST(@next AS nvarchar(20)) + N' INCREMENT BY 50;';
+        EXEC sp_executesql @sql;
+    END
+    ELSE IF (SELECT CAST(current_value AS bigint) FROM sys.sequences WHERE object_id = OBJECT_ID(@sequence)) < @next
+    BEGIN
+        -- Uygulama betikten önce açıldıysa ddl-auto sırayı 1'den başlatmıştır
+        SET @sql = N'ALTER SEQUENCE ' + QUOTENAME(@sequence) + N' RESTART WITH ' + CAST(@next AS nvarchar(20)) + N';';
+        EXEC sp_executesql @sql;
+    END
+
+    FETCH NEXT FROM table_cursor INTO @table;
+END
+CLOSE table_cursor;
+DEALLOCATE table_cursor;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,97 @@
+package com.infina.hissenet.benchmark;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.HisseFiyatEntry;
+import com.infina.hissenet.dto.response.StockData;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic fixtures shared by the benchmarks. Every generator takes its own
+ * {@link #SEED}-seeded random, so two runs (or two machines) measure the same inputs.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 42L;
+
+    /** Roughly the number of BIST symbols Collect returns in one refresh. */
+    public static final int SYMBOLS = 600;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * {@code count} distinct upper-case codes: {@code AAAA}, {@code AAAB}, ...
+     */
+    public static List<String> codes(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            char[] code = new char[4];
+            int n = i;
+            for (int c = code.length - 1; c >= 0; c--) {
+                code[c] = (char) ('A' + n % 26);
+                n /= 26;
+            }
+            codes.add(new String(code));
+        }
+        return codes;
+    }
+
+    /**
+     * Collect records as the stream decoder produces them: display twins left {@code null}.
+     */
+    public static List<StockData> collectRecords(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<StockData> records = new ArrayList<>(count);
+        for (String code : codes(count)) {
+            BigDecimal last = price(random);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(-1000, 1000), 2);
+            BigDecimal volume = BigDecimal.valueOf(random.nextLong(1_000_000, 5_000_000_000L), 2);
+            records.add(new StockData(rate, last, null, volume, volume.toPlainString(), last.subtract(BigDecimal.ONE),
+                    null, last.add(BigDecimal.ONE), null, "17:59:59", code + " A.S.", code, "up"));
+        }
+        return records;
+    }
+
+    /**
+     * Infina daily entries matching {@link #collectRecords(int)}; {@code dayOffset} shifts
+     * the prices so today and yesterday differ.
+     */
+    public static List<HisseFiyatEntry> infinaEntries(int count, int dayOffset) {
+        SplittableRandom random = new SplittableRandom(SEED + dayOffset);
+        List<HisseFiyatEntry> entries = new ArrayList<>(count);
+        for (String code : codes(count)) {
+            BigDecimal close = price(random);
+            entries.add(new HisseFiyatEntry(code + dayOffset, code, "2025-08-1" + dayOffset, "2025-08-1" + dayOffset,
+                    close, close.add(BigDecimal.TEN), close.subtract(BigDecimal.TEN), close.subtract(BigDecimal.ONE)));
+        }
+        return entries;
+    }
+
+    /**
+     * A combined price snapshot of {@code count} symbols, as stored in the cache.
+     */
+    public static List<CombinedStockData> snapshot(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<CombinedStockData> snapshot = new ArrayList<>(count);
+        for (String code : codes(count)) {
+            BigDecimal last = price(random);
+            BigDecimal open = last.subtract(BigDecimal.valueOf(random.nextInt(-500, 500), 2));
+            BigDecimal volume = BigDecimal.valueOf(random.nextLong(1_000_000, 5_000_000_000L), 2);
+            snapshot.add(new CombinedStockData(code, last, open, last.subtract(open), open,
+                    BigDecimal.valueOf(random.nextInt(-1000, 1000), 2), last, volume, volume.toPlainString(),
+                    last.subtract(BigDecimal.ONE), last.add(BigDecimal.ONE), "17:59:59", code + " A.S.", "up"));
+        }
+        return snapshot;
+    }
+
+    /**
+     * A price between 1 and 1000 TRY with two decimals, like Collect quotes.
+     */
+    public static BigDecimal price(SplittableRandom random) {
+        return BigDecimal.valueOf(random.nextLong(100, 100_000), 2);
+    }
+}
@@ -0,0 +1,107 @@
+package com.infina.hissenet.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Money} against the BigDecimal chains it replaced: a limit-order fill
+ * (trigger check, amount, commission, wallet debit) and a 64-row
+ * {@code mergeTransactions} style accumulation.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"};
+ * the {@code gc.alloc.rate.norm} column shows bytes allocated per call.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MoneyBenchmark {
+
+    private static final int ROWS = 64;
+    private static final BigDecimal RATE = new BigDecimal("0.002");
+
+    private BigDecimal marketPrice;
+    private BigDecimal limitPrice;
+    private int quantity;
+
+    private final BigDecimal[] prices = new BigDecimal[ROWS];
+    private final int[] quantities = new int[ROWS];
+    private final BigDecimal[] commissions = new BigDecimal[ROWS];
+
+    @Setup
+    public void setUp() {
+        // Sabit tohum: her çalıştırmada aynı girdiler
+        SplittableRandom random = new SplittableRandom(42);
+        marketPrice = BigDecimal.valueOf(random.nextLong(1_000_000, 5_000_000), 4);
+        limitPrice = marketPrice.add(new BigDecimal("0.05"));
+        quantity = random.nextInt(1, 10_000);
+        for (int i = 0; i < ROWS; i++) {
+            prices[i] = BigDecimal.valueOf(random.nextLong(1_000_000, 5_000_000), 4);
+            quantities[i] = random.nextInt(1, 1_000);
+            commissions[i] = prices[i].multiply(BigDecimal.valueOf(quantities[i])).multiply(RATE)
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal fillBigDecimal() {
+        if (marketPrice.compareTo(limitPrice) > 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal total = limitPrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal commission = total.multiply(RATE);
+        return total.add(commission);
+    }
+
+    @Benchmark
+    public BigDecimal fillMoney() {
+        Money limit = Money.of(limitPrice);
+        if (Money.of(marketPrice).compareTo(limit) > 0) {
+            return BigDecimal.ZERO;
+        }
+        Money total = limit.times(quantity);
+        return total.plus(total.commission(RATE)).toBigDecimal();
+    }
+
+    @Benchmark
+    public BigDecimal mergeBigDecimal() {
+        BigDecimal priceAmount = BigDecimal.ZERO;
+        BigDecimal commission = BigDecimal.ZERO;
+        int totalQuantity = 0;
+        for (int i = 0; i < ROWS; i++) {
+            priceAmount = priceAmount.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+            commission = commission.add(commissions[i]);
+            totalQuantity += quantities[i];
+        }
+        return priceAmount.divide(BigDecimal.valueOf(totalQuantity), 4, RoundingMode.HALF_UP).add(commission);
+    }
+
+    @Benchmark
+    public BigDecimal mergeMoney() {
+        Money priceAmount = Money.ZERO;
+        Money commission = Money.ZERO;
+        int totalQuantity = 0;
+        for (int i = 0; i < ROWS; i++) {
+            priceAmount = priceAmount.plus(Money.of(prices[i]).times(quantities[i]));
+            commission = commission.plus(Money.of(commissions[i]));
+            totalQuantity += quantities[i];
+        }
+        return priceAmount.dividedBy(totalQuantity).plus(commission).toBigDecimal();
+    }
+}
@@ -0,0 +1,190 @@
+package com.infina.hissenet.entity;
+
+import com.infina.hissenet.entity.base.SequenceBaseEntity;
+import com.infina.hissenet.entity.enums.OrderCategory;
+import com.infina.hissenet.entity.enums.OrderStatus;
+import com.infina.hissenet.entity.enums.OrderType;
+import com.infina.hissenet.entity.enums.StockTransactionType;
+import com.infina.hissenet.entity.enums.TransactionStatus;
+import com.infina.hissenet.entity.enums.TransactionType;
+import jakarta.persistence.Entity;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of the order path's rows: one {@link Order}, its {@link StockTransaction}
+ * and a {@link WalletTransaction} per order, {@value #ORDERS} orders per database transaction,
+ * against an in-memory H2 database with the production batching settings.
+ * <p>
+ * {@code ids=identity} maps {@link SequenceBaseEntity#getId()} back to an IDENTITY column
+ * (the previous mapping), which makes Hibernate insert each row on persist to read its key;
+ * {@code ids=sequence} is the current pooled sequence mapping with JDBC batching. H2 runs
+ * in-process, so the gap is a lower bound for a networked SQL Server where every statement
+ * is a round-trip.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class EntityInsertBenchmark {
+
+    static final int ORDERS = 100;
+
+    private static final String IDENTITY_MAPPING = """
+            <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+              <mapped-superclass class="com.infina.hissenet.entity.base.SequenceBaseEntity">
+                <attributes>
+                  <id name="id"><generated-value strategy="IDENTITY"/></id>
+                </attributes>
+              </mapped-superclass>
+            </entity-mappings>
+            """;
+
+    @Param({"identity", "sequence"})
+    public String ids;
+
+    private SessionFactory sessionFactory;
+    private Customer customer;
+    private Wallet wallet;
+    private Portfolio portfolio;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Hibernate açılış kayıtları ölçüm çıktısına karışmasın
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.hibernate"))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        Configuration cfg = new Configuration();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition bd : scanner.findCandidateComponents("com.infina.hissenet.entity")) {
+            try {
+                cfg.addAnnotatedClass(Class.forName(bd.getBeanClassName()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        if (ids.equals("identity")) {
+            cfg.addInputStream(new ByteArrayInputStream(IDENTITY_MAPPING.getBytes(StandardCharsets.UTF_8)));
+        }
+        cfg.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        cfg.setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+                "jdbc:h2:mem:insert-" + ids + ";DATABASE_TO_UPPER=FALSE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1");
+        cfg.setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa");
+        cfg.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        cfg.setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none");
+        // application.yml ile aynı toplu yazma ayarları
+        cfg.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+        cfg.setProperty(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        cfg.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        cfg.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        sessionFactory = cfg.buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            IndividualCustomer c = new IndividualCustomer();
+            c.setCustomerNumber("BENCH0001");
+            c.setEmail("bench@hissenet.local");
+            c.setFirstName("Bench");
+            c.setLastName("Mark");
+            c.setTcNumber("10000000001");
+            session.persist(c);
+
+            Wallet w = new Wallet();
+            w.setCustomer(c);
+            w.setBalance(new BigDecimal("1000000"));
+            w.setAvailableBalance(new BigDecimal("1000000"));
+            session.persist(w);
+
+            Portfolio p = new Portfolio();
+            p.setCustomer(c);
+            p.setPortfolioName("Bench");
+            session.persist(p);
+
+            customer = c;
+            wallet = w;
+            portfolio = p;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void insertOrders() {
+        sessionFactory.inTransaction(this::insert);
+    }
+
+    private void insert(Session session) {
+        Customer c = session.getReference(Customer.class, customer.getId());
+        Wallet w = session.getReference(Wallet.class, wallet.getId());
+        Portfolio p = session.getReference(Portfolio.class, portfolio.getId());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setCustomer(c);
+            order.setCategory(OrderCategory.MARKET);
+            order.setType(OrderType.BUY);
+            order.setStatus(OrderStatus.FILLED);
+            order.setStockCode("THYAO");
+            order.setQuantity(new BigDecimal("10"));
+            order.setPrice(new BigDecimal("300.25"));
+            order.setTotalAmount(new BigDecimal("3002.50"));
+            session.persist(order);
+
+            StockTransaction st = new StockTransaction();
+            st.setPortfolio(p);
+            st.setOrder(order);
+            st.setStockCode("THYAO");
+            st.setTransactionType(StockTransactionType.BUY);
+            st.setTransactionStatus(TransactionStatus.PENDING);
+            st.setQuantity(10);
+            st.setPrice(new BigDecimal("300.25"));
+            st.setTotalAmount(new BigDecimal("3002.50"));
+            st.setTransactionDate(now);
+            session.persist(st);
+
+            WalletTransaction wt = new WalletTransaction();
+            wt.setWallet(w);
+            wt.setAmount(new BigDecimal("3004.00"));
+            wt.setTransactionType(TransactionType.STOCK_PURCHASE);
+            wt.setTransactionStatus(TransactionStatus.COMPLETED);
+            wt.setTransactionDate(now);
+            wt.setSource("WALLET");
+            wt.setDestination("EXTERNAL");
+            session.persist(wt);
+        }
+    }
+}
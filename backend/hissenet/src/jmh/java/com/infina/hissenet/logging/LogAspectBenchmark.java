@@ -0,0 +1,90 @@
+package com.infina.hissenet.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.infina.hissenet.benchmark.BenchmarkData;
+import com.infina.hissenet.properties.TraceLogProperties;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.service.CacheFacade;
+import com.infina.hissenet.service.CombinedCacheService;
+import com.infina.hissenet.service.abstracts.ICacheFacade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link LogAspect#logAround} on a cheap service call: the same
+ * {@link CacheFacade#findByCode} invoked directly, through a Spring AOP proxy with no
+ * advice, and through a proxy carrying the aspect.
+ * <p>
+ * Root appenders are detached so only the advice is measured, not console or file I/O.
+ * {@code level} is the {@link LogAspect} logger level, inherited by the per-target trace
+ * loggers: at {@code INFO} the entry/exit records are built and logged, at {@code WARN}
+ * the logger is disabled.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class LogAspectBenchmark {
+
+    private static final String CACHE = CombinedCacheService.CACHE_NAME;
+
+    @Param({"INFO", "WARN"})
+    public String level;
+
+    private ICacheFacade direct;
+    private ICacheFacade proxied;
+    private ICacheFacade advised;
+    private String code;
+
+    @Setup
+    public void setUp() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(Level.INFO);
+        ((Logger) LoggerFactory.getLogger(LogAspect.class)).setLevel(Level.toLevel(level));
+
+        CacheFacade facade = new CacheFacade(new CaffeineCacheManager(CACHE));
+        facade.putIfNonEmpty(CACHE, BenchmarkData.snapshot(BenchmarkData.SYMBOLS), CombinedStockData::code);
+        code = BenchmarkData.codes(1).get(0);
+
+        direct = facade;
+        proxied = new AspectJProxyFactory(facade).getProxy();
+        AspectJProxyFactory factory = new AspectJProxyFactory(facade);
+        factory.addAspect(new LogAspect(new TraceLogProperties()));
+        advised = factory.getProxy();
+    }
+
+    @Benchmark
+    public Optional<CombinedStockData> direct() {
+        return direct.findByCode(CACHE, code, CombinedStockData::code);
+    }
+
+    @Benchmark
+    public Optional<CombinedStockData> proxyWithoutAdvice() {
+        return proxied.findByCode(CACHE, code, CombinedStockData::code);
+    }
+
+    @Benchmark
+    public Optional<CombinedStockData> proxyWithLogAspect() {
+        return advised.findByCode(CACHE, code, CombinedStockData::code);
+    }
+}
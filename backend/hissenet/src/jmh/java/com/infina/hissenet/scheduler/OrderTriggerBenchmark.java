@@ -0,0 +1,104 @@
+package com.infina.hissenet.scheduler;
+
+import com.infina.hissenet.benchmark.BenchmarkData;
+import com.infina.hissenet.common.Money;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.entity.Order;
+import com.infina.hissenet.entity.enums.OrderCategory;
+import com.infina.hissenet.entity.enums.OrderStatus;
+import com.infina.hissenet.entity.enums.OrderType;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.service.OrderBookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The limit-order trigger path: the order book pass run on every price refresh
+ * ({@link OrderBookService#onPricesRefreshed} followed by the scheduler's
+ * {@link OrderBookService#drainTriggered}), and the per-order fill decision
+ * {@link OrderScheduler#shouldFill}, run here over every open order.
+ * <p>
+ * Open limits sit within ±5% of the snapshot price, so a refresh triggers a realistic
+ * share of them rather than none or all.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class OrderTriggerBenchmark {
+
+    @Param({"1000", "10000"})
+    public int openOrders;
+
+    private OrderBookService orderBook;
+    private StockPricesRefreshedEvent refresh;
+
+    private Order[] orders;
+    private Map<String, BigDecimal> lastPrices;
+
+    @Setup
+    public void setUp() {
+        List<CombinedStockData> snapshot = BenchmarkData.snapshot(BenchmarkData.SYMBOLS);
+        refresh = new StockPricesRefreshedEvent(this, snapshot);
+
+        lastPrices = new HashMap<>();
+        snapshot.forEach(stock -> lastPrices.put(stock.code(), stock.lastPrice()));
+
+        orderBook = new OrderBookService(null);
+        orders = new Order[openOrders];
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        for (int i = 0; i < openOrders; i++) {
+            CombinedStockData stock = snapshot.get(random.nextInt(snapshot.size()));
+            BigDecimal limit = stock.lastPrice()
+                    .multiply(BigDecimal.valueOf(random.nextInt(95, 106), 2))
+                    .setScale(2, RoundingMode.HALF_UP);
+            Order order = new Order();
+            order.setId((long) i + 1);
+            order.setStockCode(stock.code());
+            order.setType(random.nextBoolean() ? OrderType.BUY : OrderType.SELL);
+            order.setCategory(OrderCategory.LIMIT);
+            order.setStatus(OrderStatus.OPEN);
+            order.setPrice(limit);
+            orderBook.track(order);
+            orders[i] = order;
+        }
+    }
+
+    @Benchmark
+    public List<Long> refreshAndDrain() {
+        orderBook.onPricesRefreshed(refresh);
+        return orderBook.drainTriggered();
+    }
+
+    @Benchmark
+    public int fillDecisions() {
+        int fills = 0;
+        for (Order order : orders) {
+            Money market = Money.of(lastPrices.get(order.getStockCode()));
+            if (OrderScheduler.shouldFill(order.getType(), market, Money.of(order.getPrice()))) {
+                fills++;
+            }
+        }
+        return fills;
+    }
+}
@@ -0,0 +1,73 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.benchmark.BenchmarkData;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CacheFacade#findByCode} against a full snapshot in the same Caffeine-backed
+ * manager the application uses: indexed lookups as stored by {@link CombinedCacheService},
+ * a code that needs normalising, a miss, and the linear scan over a snapshot stored
+ * without a code extractor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CacheFacadeBenchmark {
+
+    private static final String INDEXED = CombinedCacheService.CACHE_NAME;
+    private static final String UNINDEXED = "unindexed";
+
+    private CacheFacade facade;
+    private String hit;
+    private String unnormalized;
+
+    @Setup
+    public void setUp() {
+        facade = new CacheFacade(new CaffeineCacheManager(INDEXED, UNINDEXED));
+        List<CombinedStockData> snapshot = BenchmarkData.snapshot(BenchmarkData.SYMBOLS);
+        facade.putIfNonEmpty(INDEXED, snapshot, CombinedStockData::code);
+        facade.putIfNonEmpty(UNINDEXED, snapshot);
+
+        // Listenin ortasından: taramada ortalama maliyet
+        hit = snapshot.get(snapshot.size() / 2).code();
+        unnormalized = " " + hit.toLowerCase() + " ";
+    }
+
+    @Benchmark
+    public Optional<CombinedStockData> indexedHit() {
+        return facade.findByCode(INDEXED, hit, CombinedStockData::code);
+    }
+
+    @Benchmark
+    public Optional<CombinedStockData> indexedUnnormalizedHit() {
+        return facade.findByCode(INDEXED, unnormalized, CombinedStockData::code);
+    }
+
+    @Benchmark
+    public Optional<CombinedStockData> indexedMiss() {
+        return facade.findByCode(INDEXED, "ZZZZZ", CombinedStockData::code);
+    }
+
+    @Benchmark
+    public Optional<CombinedStockData> scanHit() {
+        return facade.findByCode(UNINDEXED, hit, CombinedStockData::code);
+    }
+}
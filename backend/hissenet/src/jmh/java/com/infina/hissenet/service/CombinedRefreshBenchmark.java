@@ -0,0 +1,80 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.benchmark.BenchmarkData;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.HisseFiyatEntry;
+import com.infina.hissenet.dto.response.StockData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-refresh merge of Collect and Infina data: {@link CombinedRefreshService#toCombined}
+ * over a full snapshot, and each branch of {@link CombinedRefreshService#computeChange}
+ * on its own (open price known, open from rate, open estimated from last price and rate).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CombinedRefreshBenchmark {
+
+    private List<StockData> records;
+    private List<HisseFiyatEntry> today;
+    private List<HisseFiyatEntry> yesterday;
+
+    private BigDecimal last;
+    private BigDecimal open;
+    private BigDecimal rate;
+
+    @Setup
+    public void setUp() {
+        records = BenchmarkData.collectRecords(BenchmarkData.SYMBOLS);
+        today = BenchmarkData.infinaEntries(BenchmarkData.SYMBOLS, 5);
+        yesterday = BenchmarkData.infinaEntries(BenchmarkData.SYMBOLS, 4);
+
+        StockData first = records.get(0);
+        last = first.lastprice();
+        rate = first.rate();
+        open = today.get(0).openPrice();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void toCombinedSnapshot(Blackhole bh) {
+        for (int i = 0; i < records.size(); i++) {
+            StockData s = records.get(i);
+            CombinedStockData combined = CombinedRefreshService.toCombined(s.code(), s, today.get(i), yesterday.get(i));
+            bh.consume(combined);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal changeFromOpen() {
+        return CombinedRefreshService.computeChange(last, open, rate);
+    }
+
+    @Benchmark
+    public BigDecimal changeFromOpenAndRate() {
+        return CombinedRefreshService.computeChange(null, open, rate);
+    }
+
+    @Benchmark
+    public BigDecimal changeFromLastAndRate() {
+        return CombinedRefreshService.computeChange(last, null, rate);
+    }
+}
@@ -0,0 +1,141 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.benchmark.BenchmarkData;
+import com.infina.hissenet.dto.response.StockTransactionResponse;
+import com.infina.hissenet.entity.Customer;
+import com.infina.hissenet.entity.Portfolio;
+import com.infina.hissenet.entity.StockPosition;
+import com.infina.hissenet.entity.StockTransaction;
+import com.infina.hissenet.entity.enums.StockTransactionType;
+import com.infina.hissenet.entity.enums.TransactionStatus;
+import com.infina.hissenet.mapper.StockTransactionMapperImpl;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CommonFinancialService#mergeTransactions} over the BUY rows of one stock, with
+ * the generated MapStruct mapper and an in-memory ledger answer in place of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MergeTransactionsBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int rows;
+
+    private CommonFinancialService service;
+    private List<StockTransaction> transactions;
+
+    @Setup
+    public void setUp() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.setCustomer(customer);
+        portfolio.setPortfolioName("Benchmark");
+
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        transactions = new ArrayList<>(rows);
+        int quantity = 0;
+        for (int i = 0; i < rows; i++) {
+            StockTransaction tx = new StockTransaction();
+            tx.setId((long) i + 1);
+            tx.setPortfolio(portfolio);
+            tx.setStockCode("THYAO");
+            tx.setTransactionType(StockTransactionType.BUY);
+            tx.setTransactionStatus(TransactionStatus.SETTLED);
+            tx.setQuantity(random.nextInt(1, 1_000));
+            tx.setPrice(BenchmarkData.price(random));
+            tx.setTotalAmount(tx.getPrice().multiply(BigDecimal.valueOf(tx.getQuantity())));
+            tx.setCommission(tx.getTotalAmount().multiply(new BigDecimal("0.002")).setScale(2, RoundingMode.HALF_UP));
+            transactions.add(tx);
+            quantity += tx.getQuantity();
+        }
+
+        service = new CommonFinancialService(null, new StockTransactionMapperImpl(), null, new FixedLedger(quantity));
+    }
+
+    @Benchmark
+    public StockTransactionResponse merge() {
+        return service.mergeTransactions(transactions);
+    }
+
+    /**
+     * Answers only the settled-quantity lookup {@code mergeTransactions} makes.
+     */
+    private record FixedLedger(int settledQuantity) implements IPositionLedgerService {
+
+        @Override
+        public int getSettledQuantity(Long customerId, String stockCode) {
+            return settledQuantity;
+        }
+
+        @Override
+        public void recordTransaction(StockTransaction transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void recordSettlement(StockTransaction transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void recordSettlements(Collection<StockTransaction> transactions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void recordCancellation(StockTransaction transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void movePosition(Long customerId, String stockCode, Long newPortfolioId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getPendingSellQuantity(Long customerId, String stockCode) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getAvailableQuantity(Long customerId, String stockCode) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<StockPosition> getOpenPositions(Long portfolioId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int rebuild() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.infina.hissenet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infina.hissenet.benchmark.BenchmarkData;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON serialization of a full {@link CombinedStockData} snapshot with a mapper built the
+ * way Spring Boot builds the application's: plain bytes (REST and WebSocket payloads) and
+ * gzip as {@link PriceSnapshotStore} writes it, both into memory so disk speed is left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PriceSnapshotJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<CombinedStockData> snapshot;
+    private ByteArrayOutputStream buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        snapshot = BenchmarkData.snapshot(BenchmarkData.SYMBOLS);
+        buffer = new ByteArrayOutputStream(objectMapper.writeValueAsBytes(snapshot).length);
+    }
+
+    @Benchmark
+    public byte[] writeBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public int writeGzip() throws IOException {
+        buffer.reset();
+        try (OutputStream out = new GZIPOutputStream(buffer, 64 * 1024)) {
+            objectMapper.writeValue(out, snapshot);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,273 @@
+package com.infina.hissenet.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a running application the way the trading desk does at market open: each virtual
+ * user logs its actions under one employee session and alternates between placing orders
+ * (market and limit buys around the last price) and reading portfolios, while STOMP
+ * clients stay subscribed to the price feed.
+ * <p>
+ * Report rows: HTTP endpoints with request latency; {@code WS CONNECT} with the time to the
+ * STOMP {@code CONNECTED} frame; {@code WS MESSAGE} with the gap between two price messages
+ * on one client, so its p99 is the worst staleness a screen saw.
+ * </p>
+ */
+final class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String PRICE_TOPIC = "/topic/prices";
+    private static final int MAX_FRAME_BYTES = 4 * 1024 * 1024;
+
+    private final LoadTestConfig config;
+    private final URI target;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http;
+    private final LoadReport report = new LoadReport();
+
+    private String sessionCookie;
+    private List<Long> customerIds;
+    private List<String> codes;
+    private Map<String, BigDecimal> lastPrices;
+
+    LoadDriver(LoadTestConfig config, URI target) {
+        this.config = config;
+        this.target = target;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    LoadReport run() throws Exception {
+        login();
+        customerIds = customerIds();
+        loadPrices();
+        System.out.printf("Driving %s: %d users, %d STOMP clients, %d customers, %d symbols, warm-up %s, run %s%n",
+                target, config.users(), config.wsClients(), customerIds.size(), codes.size(),
+                config.warmup(), config.duration());
+
+        // Tüm semboller için ilk delta istemcinin 8 KB varsayılan tamponunu aşar; tarayıcıda böyle bir sınır yok
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(MAX_FRAME_BYTES);
+        container.setDefaultMaxBinaryMessageBufferSize(MAX_FRAME_BYTES);
+        WebSocketStompClient stomp = new WebSocketStompClient(new StandardWebSocketClient(container));
+        stomp.setInboundMessageSizeLimit(MAX_FRAME_BYTES);
+        stomp.setMessageConverter(new MappingJackson2MessageConverter(objectMapper));
+        List<StompSession> sessions = new ArrayList<>();
+
+        long end = System.nanoTime() + config.warmup().toNanos() + config.duration().toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.users(); i++) {
+                users.execute(() -> user(end));
+            }
+            TimeUnit.NANOSECONDS.sleep(config.warmup().toNanos());
+            report.startRecording();
+            // Ekranlar yük altında açılır ki bağlanma süresi de ölçülsün
+            for (int i = 0; i < config.wsClients(); i++) {
+                connectFeed(stomp).thenAccept(session -> {
+                    if (session != null) {
+                        synchronized (sessions) {
+                            sessions.add(session);
+                        }
+                    }
+                });
+            }
+            TimeUnit.NANOSECONDS.sleep(config.duration().toNanos());
+            report.stopRecording();
+        }
+        synchronized (sessions) {
+            sessions.stream().filter(StompSession::isConnected).forEach(StompSession::disconnect);
+        }
+        stomp.stop();
+        report.print(System.out);
+        return report;
+    }
+
+    private void user(long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            Long customerId = customerIds.get(random.nextInt(customerIds.size()));
+            if (random.nextDouble() < config.orderShare()) {
+                placeOrder(customerId, random);
+            } else if (random.nextBoolean()) {
+                get("GET /api/v1/orders/enhanced-portfolio", "/api/v1/orders/enhanced-portfolio?customerId=" + customerId);
+            } else {
+                get("GET /api/v1/portfolio/customer/{id}", "/api/v1/portfolio/customer/" + customerId);
+            }
+            pause(config.thinkTime());
+        }
+    }
+
+    private void placeOrder(Long customerId, ThreadLocalRandom random) {
+        String code = codes.get(random.nextInt(codes.size()));
+        boolean limit = random.nextBoolean();
+        // Limitler son fiyatın ±%1'i içinde: bir kısmı hemen, bir kısmı fiyat hareketiyle gerçekleşir
+        BigDecimal price = lastPrices.get(code)
+                .multiply(BigDecimal.valueOf(random.nextInt(990, 1011), 3))
+                .setScale(2, RoundingMode.HALF_UP);
+        String body = """
+                {"customerId":%d,"category":"%s","type":"BUY","stockCode":"%s","quantity":%d,"price":%s}"""
+                .formatted(customerId, limit ? "LIMIT" : "MARKET", code, random.nextInt(1, 101), price);
+        send("POST /api/v1/orders", request("/api/v1/orders")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private void get(String endpoint, String path) {
+        send(endpoint, request(path).GET().build());
+    }
+
+    private void send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                report.success(endpoint, start);
+            } else {
+                report.failure(endpoint, start);
+            }
+        } catch (IOException e) {
+            report.failure(endpoint, start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<StompSession> connectFeed(WebSocketStompClient stomp) {
+        String url = "ws://" + target.getHost() + ":" + target.getPort() + "/ws-stock";
+        long start = System.nanoTime();
+        AtomicLong lastMessage = new AtomicLong();
+        return stomp.connectAsync(url, new StompSessionHandlerAdapter() {
+            @Override
+            public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                report.success("WS CONNECT /ws-stock", start);
+                lastMessage.set(System.nanoTime());
+                session.subscribe(PRICE_TOPIC, new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return JsonNode.class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        report.success("WS MESSAGE " + PRICE_TOPIC + " (gap)", lastMessage.getAndSet(System.nanoTime()));
+                    }
+                });
+            }
+
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                report.failure("WS CONNECT /ws-stock", start);
+            }
+        }).exceptionally(e -> {
+            report.failure("WS CONNECT /ws-stock", start);
+            return null;
+        });
+    }
+
+    private void login() throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", config.email(), "password", config.password()));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(target.resolve("/api/v1/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        sessionCookie = response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("sessionId="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Login failed (" + response.statusCode() + "): " + response.body()));
+    }
+
+    private List<Long> customerIds() throws IOException, InterruptedException {
+        JsonNode data = getJson("/api/v1/customers").path("data");
+        List<Long> ids = new ArrayList<>();
+        data.forEach(customer -> ids.add(customer.path("id").asLong()));
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No customers to place orders for");
+        }
+        return ids;
+    }
+
+    // İlk fiyat yenilemesi tamamlanana kadar beklenir
+    private void loadPrices() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (true) {
+            JsonNode snapshot = getJson("/api/cache/combined");
+            if (snapshot.isArray() && !snapshot.isEmpty()) {
+                List<String> found = new ArrayList<>();
+                Map<String, BigDecimal> prices = new HashMap<>();
+                snapshot.forEach(stock -> {
+                    if (stock.hasNonNull("code") && stock.hasNonNull("lastPrice")) {
+                        found.add(stock.get("code").asText());
+                        prices.put(stock.get("code").asText(), stock.get("lastPrice").decimalValue());
+                    }
+                });
+                codes = found;
+                lastPrices = prices;
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Price cache still empty after 2 minutes");
+            }
+            pause(Duration.ofSeconds(1));
+        }
+    }
+
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(target.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Cookie", sessionCookie);
+    }
+
+    private static void pause(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
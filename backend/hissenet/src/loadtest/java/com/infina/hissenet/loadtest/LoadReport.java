@@ -0,0 +1,81 @@
+package com.infina.hissenet.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint samples of one run: successes, failures and a latency histogram in
+ * microseconds. Samples taken before {@link #startRecording()} (the warm-up) are dropped.
+ */
+final class LoadReport {
+
+    // 10 dakikaya kadar, 3 anlamlı basamak
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Stats> endpoints = new ConcurrentSkipListMap<>();
+    private volatile boolean recording;
+    private volatile long startedNanos;
+    private volatile long stoppedNanos;
+
+    void startRecording() {
+        startedNanos = System.nanoTime();
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+        stoppedNanos = System.nanoTime();
+    }
+
+    void success(String endpoint, long startNanos) {
+        if (recording) {
+            Stats stats = stats(endpoint);
+            stats.ok.increment();
+            stats.latency.recordValue(Math.min(MAX_MICROS, (System.nanoTime() - startNanos) / 1_000));
+        }
+    }
+
+    void failure(String endpoint, long startNanos) {
+        if (recording) {
+            Stats stats = stats(endpoint);
+            stats.failed.increment();
+            stats.latency.recordValue(Math.min(MAX_MICROS, (System.nanoTime() - startNanos) / 1_000));
+        }
+    }
+
+    boolean hasErrors() {
+        return endpoints.values().stream().anyMatch(stats -> stats.failed.sum() > 0);
+    }
+
+    void print(PrintStream out) {
+        double seconds = Duration.ofNanos(stoppedNanos - startedNanos).toMillis() / 1000.0;
+        out.printf("%nLoad test: %.1f s measured%n", seconds);
+        out.printf("%-48s %9s %10s %9s %9s %9s %8s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        endpoints.forEach((name, stats) -> {
+            long ok = stats.ok.sum();
+            long failed = stats.failed.sum();
+            long total = ok + failed;
+            Histogram h = stats.latency;
+            out.printf("%-48s %9d %10.1f %9.2f %9.2f %9.2f %7.2f%%%n", name, total, total / seconds,
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                    h.getMaxValue() / 1000.0, total == 0 ? 0.0 : failed * 100.0 / total);
+        });
+    }
+
+    private Stats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, e -> new Stats());
+    }
+
+    private static final class Stats {
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+    }
+}
@@ -0,0 +1,47 @@
+package com.infina.hissenet.loadtest;
+
+import com.infina.hissenet.HissenetApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+
+/**
+ * Entry point of the load test. Without {@code --target} it starts the Redis stand-in,
+ * the Collect and Infina stubs and the application (profile {@code loadtest}, H2 in SQL
+ * Server mode) in this JVM, seeds it, drives it and prints the report.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        if (!config.inProcess()) {
+            new LoadDriver(config, config.target()).run();
+            System.exit(0);
+        }
+        // devtools yeniden başlatıcısı uygulamayı ayrı bir sınıf yükleyicide açıp ölçümü bozmasın
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (RedisStub redis = new RedisStub();
+             UpstreamStub upstream = new UpstreamStub(config);
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(HissenetApplication.class)
+                     .profiles("loadtest")
+                     .properties(
+                             "server.port=0",
+                             "loadtest.redis-port=" + redis.port(),
+                             "loadtest.collect-url=" + upstream.collectBaseUrl(),
+                             "loadtest.infina-url=" + upstream.infinaBaseUrl(),
+                             "loadtest.customers=" + config.customers(),
+                             "loadtest.email=" + config.email(),
+                             "loadtest.password=" + config.password())
+                     .run()) {
+            URI target = URI.create("http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port"));
+            new LoadDriver(config, target).run();
+            System.out.printf("Upstream stub calls: collect=%d infina=%d%n", upstream.collectCalls(), upstream.infinaCalls());
+        }
+        // Uygulamanın daemon olmayan iş parçacıkları kapanışı beklemesin
+        System.exit(0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.infina.hissenet.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load test settings, parsed from {@code --name=value} arguments. Durations accept the
+ * Spring Boot forms ({@code 500ms}, {@code 30s}, {@code 2m}).
+ *
+ * @param target           base URL of an already running application; {@code null} starts
+ *                         the stubs and the application in this JVM
+ * @param warmup           run time before samples are recorded
+ * @param duration         measured run time
+ * @param users            concurrent virtual users placing orders and reading portfolios
+ * @param orderShare       share of user actions that place an order, the rest are reads
+ * @param thinkTime        pause between two actions of one user
+ * @param wsClients        STOMP clients subscribed to the price feed
+ * @param customers        customers seeded in the in-process database
+ * @param symbols          symbols served by the Collect stub
+ * @param collectLatency   mean Collect stub latency
+ * @param collectErrorRate share of Collect calls answered with 503
+ * @param infinaLatency    mean Infina stub latency
+ * @param infinaErrorRate  share of Infina calls answered with 503
+ * @param email            employee to log in as
+ * @param password         that employee's password
+ */
+record LoadTestConfig(URI target,
+                      Duration warmup,
+                      Duration duration,
+                      int users,
+                      double orderShare,
+                      Duration thinkTime,
+                      int wsClients,
+                      int customers,
+                      int symbols,
+                      Duration collectLatency,
+                      double collectErrorRate,
+                      Duration infinaLatency,
+                      double infinaErrorRate,
+                      String email,
+                      String password) {
+
+    static final String DEFAULT_EMAIL = "loadtest@hissenet.local";
+    static final String DEFAULT_PASSWORD = "loadtest123";
+
+    private static final Set<String> KEYS = Set.of("target", "warmup", "duration", "users", "order-share",
+            "think-time", "ws-clients", "customers", "symbols", "collect-latency", "collect-error-rate",
+            "infina-latency", "infina-error-rate", "email", "password");
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option --" + key + ", expected one of " + KEYS);
+            }
+            values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                values.containsKey("target") ? URI.create(values.get("target")) : null,
+                duration(values, "warmup", "10s"),
+                duration(values, "duration", "60s"),
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                Double.parseDouble(values.getOrDefault("order-share", "0.3")),
+                duration(values, "think-time", "50ms"),
+                Integer.parseInt(values.getOrDefault("ws-clients", "100")),
+                Integer.parseInt(values.getOrDefault("customers", "200")),
+                Integer.parseInt(values.getOrDefault("symbols", "600")),
+                duration(values, "collect-latency", "150ms"),
+                Double.parseDouble(values.getOrDefault("collect-error-rate", "0")),
+                duration(values, "infina-latency", "40ms"),
+                Double.parseDouble(values.getOrDefault("infina-error-rate", "0")),
+                values.getOrDefault("email", DEFAULT_EMAIL),
+                values.getOrDefault("password", DEFAULT_PASSWORD));
+        if (config.users < 1 || config.orderShare < 0 || config.orderShare > 1
+                || config.collectErrorRate < 0 || config.collectErrorRate > 1
+                || config.infinaErrorRate < 0 || config.infinaErrorRate > 1) {
+            throw new IllegalArgumentException("users must be >= 1 and shares/rates within [0, 1]");
+        }
+        return config;
+    }
+
+    boolean inProcess() {
+        return target == null;
+    }
+
+    /**
+     * Codes served by the Collect stub: {@code AAAAA}, {@code AAAAB}, ...
+     */
+    List<String> symbolCodes() {
+        List<String> codes = new ArrayList<>(symbols);
+        for (int i = 0; i < symbols; i++) {
+            char[] code = new char[5];
+            int n = i;
+            for (int c = code.length - 1; c >= 0; c--) {
+                code[c] = (char) ('A' + n % 26);
+                n /= 26;
+            }
+            codes.add(new String(code));
+        }
+        return codes;
+    }
+
+    private static Duration duration(Map<String, String> values, String key, String fallback) {
+        return DurationStyle.detectAndParse(values.getOrDefault(key, fallback));
+    }
+}
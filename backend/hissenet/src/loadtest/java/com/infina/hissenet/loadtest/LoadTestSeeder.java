@@ -0,0 +1,112 @@
+package com.infina.hissenet.loadtest;
+
+import com.infina.hissenet.entity.Employee;
+import com.infina.hissenet.entity.IndividualCustomer;
+import com.infina.hissenet.entity.Portfolio;
+import com.infina.hissenet.entity.Role;
+import com.infina.hissenet.entity.Wallet;
+import com.infina.hissenet.repository.CustomerRepository;
+import com.infina.hissenet.repository.EmployeeRepository;
+import com.infina.hissenet.repository.PortfolioRepository;
+import com.infina.hissenet.repository.RoleRepository;
+import com.infina.hissenet.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Seeds the in-memory database of the {@code loadtest} profile before the driver starts:
+ * one ADMIN employee to log in with, and customers that each have a funded wallet and a
+ * portfolio, so every order the driver places can be filled.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestSeeder.class);
+    private static final BigDecimal BALANCE = new BigDecimal("1000000000");
+
+    private final RoleRepository roleRepository;
+    private final EmployeeRepository employeeRepository;
+    private final CustomerRepository customerRepository;
+    private final WalletRepository walletRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${loadtest.customers}")
+    private int customers;
+    @Value("${loadtest.email}")
+    private String email;
+    @Value("${loadtest.password}")
+    private String password;
+
+    public LoadTestSeeder(RoleRepository roleRepository, EmployeeRepository employeeRepository,
+                          CustomerRepository customerRepository, WalletRepository walletRepository,
+                          PortfolioRepository portfolioRepository, PasswordEncoder passwordEncoder) {
+        this.roleRepository = roleRepository;
+        this.employeeRepository = employeeRepository;
+        this.customerRepository = customerRepository;
+        this.walletRepository = walletRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Role admin = new Role();
+        admin.setName("ADMIN");
+        admin = roleRepository.save(admin);
+
+        Employee employee = new Employee();
+        employee.setFirstName("Load");
+        employee.setLastName("Test");
+        employee.setEmail(email);
+        employee.setPassword(passwordEncoder.encode(password));
+        employee.setHireDate(LocalDate.now());
+        employee.setRoles(Set.of(admin));
+        employeeRepository.save(employee);
+
+        List<IndividualCustomer> created = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            IndividualCustomer customer = new IndividualCustomer();
+            customer.setCustomerNumber("LT%06d".formatted(i));
+            customer.setEmail("customer%06d@hissenet.local".formatted(i));
+            customer.setFirstName("Müşteri");
+            customer.setLastName(Integer.toString(i));
+            customer.setTcNumber("%011d".formatted(10_000_000_000L + i));
+            created.add(customer);
+        }
+        customerRepository.saveAll(created);
+
+        List<Wallet> wallets = new ArrayList<>(customers);
+        List<Portfolio> portfolios = new ArrayList<>(customers);
+        for (IndividualCustomer customer : created) {
+            Wallet wallet = new Wallet();
+            wallet.setCustomer(customer);
+            wallet.setBalance(BALANCE);
+            wallet.setAvailableBalance(BALANCE);
+            wallets.add(wallet);
+
+            Portfolio portfolio = new Portfolio();
+            portfolio.setCustomer(customer);
+            portfolio.setPortfolioName("Yük testi");
+            portfolios.add(portfolio);
+        }
+        walletRepository.saveAll(wallets);
+        portfolioRepository.saveAll(portfolios);
+        log.info("Load test data seeded: {} customers, login {}", customers, email);
+    }
+}
@@ -0,0 +1,335 @@
+package com.infina.hissenet.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory Redis stand-in speaking RESP2 on a local port. It implements only what the
+ * application sends through Lettuce: string values with expiry (tokens, verification
+ * codes, counters), the hash commands Spring Session uses, and the connection handshake.
+ * {@code HELLO} is refused so the client falls back to RESP2. Unknown commands answer
+ * {@code -ERR}, which surfaces in the load report as failed requests.
+ */
+final class RedisStub implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+
+    RedisStub() throws IOException {
+        this.server = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("redis-stub").start(this::accept);
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            socket.setTcpNoDelay(true);
+            while (true) {
+                List<String> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                boolean quit = execute(command, out);
+                // Boru hattındaki sonraki komut hazırsa yanıtlar birlikte gönderilir
+                if (in.available() == 0) {
+                    out.flush();
+                }
+                if (quit) {
+                    out.flush();
+                    return;
+                }
+            }
+        } catch (IOException ignored) {
+            // bağlantı kapandı
+        }
+    }
+
+    private boolean execute(List<String> cmd, OutputStream out) throws IOException {
+        String name = cmd.get(0).toUpperCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "AUTH", "SELECT", "CLIENT", "READONLY" -> simple(out, "OK");
+            case "HELLO" -> error(out, "ERR unknown command 'HELLO'");
+            case "QUIT" -> {
+                simple(out, "OK");
+                return true;
+            }
+            case "FLUSHDB", "FLUSHALL" -> {
+                data.clear();
+                simple(out, "OK");
+            }
+            case "GET" -> {
+                Entry e = live(cmd.get(1), now);
+                bulk(out, e != null && e.value instanceof String s ? s : null);
+            }
+            case "SET" -> set(cmd, out, now);
+            case "SETEX" -> {
+                data.put(cmd.get(1), new Entry(cmd.get(3), now + Long.parseLong(cmd.get(2)) * 1000));
+                simple(out, "OK");
+            }
+            case "PSETEX" -> {
+                data.put(cmd.get(1), new Entry(cmd.get(3), now + Long.parseLong(cmd.get(2))));
+                simple(out, "OK");
+            }
+            case "DEL", "UNLINK" -> {
+                long removed = 0;
+                for (int i = 1; i < cmd.size(); i++) {
+                    Entry e = data.remove(cmd.get(i));
+                    if (e != null && !e.expired(now)) {
+                        removed++;
+                    }
+                }
+                integer(out, removed);
+            }
+            case "EXISTS" -> {
+                long found = 0;
+                for (int i = 1; i < cmd.size(); i++) {
+                    if (live(cmd.get(i), now) != null) {
+                        found++;
+                    }
+                }
+                integer(out, found);
+            }
+            case "INCR", "INCRBY" -> {
+                long delta = name.equals("INCR") ? 1 : Long.parseLong(cmd.get(2));
+                Entry updated = data.compute(cmd.get(1), (k, e) -> {
+                    long current = e == null || e.expired(now) ? 0 : Long.parseLong((String) e.value);
+                    return new Entry(Long.toString(current + delta), e == null || e.expired(now) ? 0 : e.expiresAt);
+                });
+                integer(out, Long.parseLong((String) updated.value));
+            }
+            case "EXPIRE", "PEXPIRE" -> {
+                long ttl = Long.parseLong(cmd.get(2)) * (name.equals("EXPIRE") ? 1000 : 1);
+                Entry updated = data.computeIfPresent(cmd.get(1),
+                        (k, e) -> e.expired(now) ? null : new Entry(e.value, now + ttl));
+                integer(out, updated != null ? 1 : 0);
+            }
+            case "PERSIST" -> {
+                Entry updated = data.computeIfPresent(cmd.get(1),
+                        (k, e) -> e.expired(now) ? null : new Entry(e.value, 0));
+                integer(out, updated != null ? 1 : 0);
+            }
+            case "TTL", "PTTL" -> {
+                Entry e = live(cmd.get(1), now);
+                long ttl = e == null ? -2 : e.expiresAt == 0 ? -1 : e.expiresAt - now;
+                integer(out, ttl > 0 && name.equals("TTL") ? (ttl + 999) / 1000 : ttl);
+            }
+            case "RENAME" -> {
+                Entry e = data.remove(cmd.get(1));
+                if (e == null || e.expired(now)) {
+                    error(out, "ERR no such key");
+                } else {
+                    data.put(cmd.get(2), e);
+                    simple(out, "OK");
+                }
+            }
+            case "HSET", "HMSET" -> {
+                long[] added = {0};
+                data.compute(cmd.get(1), (k, e) -> {
+                    Map<String, String> hash = e != null && !e.expired(now) && e.value instanceof Map<?, ?>
+                            ? hash(e) : new LinkedHashMap<>();
+                    for (int i = 2; i + 1 < cmd.size(); i += 2) {
+                        if (hash.put(cmd.get(i), cmd.get(i + 1)) == null) {
+                            added[0]++;
+                        }
+                    }
+                    return new Entry(hash, e != null && !e.expired(now) ? e.expiresAt : 0);
+                });
+                if (name.equals("HMSET")) {
+                    simple(out, "OK");
+                } else {
+                    integer(out, added[0]);
+                }
+            }
+            case "HGET" -> {
+                Entry e = live(cmd.get(1), now);
+                bulk(out, e != null && e.value instanceof Map<?, ?> ? hash(e).get(cmd.get(2)) : null);
+            }
+            case "HMGET" -> {
+                Entry e = live(cmd.get(1), now);
+                Map<String, String> hash = e != null && e.value instanceof Map<?, ?> ? hash(e) : Map.of();
+                out.write(('*' + Integer.toString(cmd.size() - 2) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (int i = 2; i < cmd.size(); i++) {
+                    bulk(out, hash.get(cmd.get(i)));
+                }
+            }
+            case "HGETALL" -> {
+                Entry e = live(cmd.get(1), now);
+                Map<String, String> hash = e != null && e.value instanceof Map<?, ?> ? hash(e) : Map.of();
+                out.write(('*' + Integer.toString(hash.size() * 2) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (Map.Entry<String, String> field : hash.entrySet()) {
+                    bulk(out, field.getKey());
+                    bulk(out, field.getValue());
+                }
+            }
+            case "HDEL" -> {
+                long[] removed = {0};
+                data.computeIfPresent(cmd.get(1), (k, e) -> {
+                    if (e.expired(now) || !(e.value instanceof Map<?, ?>)) {
+                        return e;
+                    }
+                    Map<String, String> hash = hash(e);
+                    for (int i = 2; i < cmd.size(); i++) {
+                        if (hash.remove(cmd.get(i)) != null) {
+                            removed[0]++;
+                        }
+                    }
+                    return hash.isEmpty() ? null : new Entry(hash, e.expiresAt);
+                });
+                integer(out, removed[0]);
+            }
+            default -> error(out, "ERR unknown command '" + cmd.get(0) + "'");
+        }
+        return false;
+    }
+
+    private void set(List<String> cmd, OutputStream out, long now) throws IOException {
+        String key = cmd.get(1);
+        long expiresAt = 0;
+        boolean nx = false;
+        boolean xx = false;
+        for (int i = 3; i < cmd.size(); i++) {
+            switch (cmd.get(i).toUpperCase(Locale.ROOT)) {
+                case "EX" -> expiresAt = now + Long.parseLong(cmd.get(++i)) * 1000;
+                case "PX" -> expiresAt = now + Long.parseLong(cmd.get(++i));
+                case "NX" -> nx = true;
+                case "XX" -> xx = true;
+                default -> { }
+            }
+        }
+        boolean exists = live(key, now) != null;
+        if ((nx && exists) || (xx && !exists)) {
+            bulk(out, null);
+            return;
+        }
+        data.put(key, new Entry(cmd.get(2), expiresAt));
+        simple(out, "OK");
+    }
+
+    private Entry live(String key, long now) {
+        Entry e = data.get(key);
+        if (e != null && e.expired(now)) {
+            data.remove(key, e);
+            return null;
+        }
+        return e;
+    }
+
+    // Hash değerleri her yazımda kopyalanır; okuyucular eski kopyayı güvenle gezebilir
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> hash(Entry e) {
+        return new LinkedHashMap<>((Map<String, String>) e.value);
+    }
+
+    private static List<String> readCommand(InputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        if (first != '*') {
+            // Satır içi komut (ör. redis-cli ile elle deneme)
+            String line = (char) first + readLine(in);
+            return List.of(line.trim().split("\\s+"));
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<String> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("expected bulk string");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException();
+            }
+            in.skipNBytes(2);
+            args.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c < 0) {
+                throw new EOFException();
+            }
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((':' + Long.toString(value) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(('$' + Integer.toString(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * A string or hash value; {@code expiresAt} is epoch millis, 0 for no expiry.
+     */
+    private record Entry(Object value, long expiresAt) {
+        boolean expired(long now) {
+            return expiresAt != 0 && expiresAt <= now;
+        }
+    }
+}
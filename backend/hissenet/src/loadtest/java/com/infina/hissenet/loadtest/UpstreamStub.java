@@ -0,0 +1,226 @@
+package com.infina.hissenet.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP stand-ins for the Collect and Infina APIs, one server each so latency and
+ * failures can be set per upstream. Prices follow a small random walk on every Collect
+ * call so limit orders trigger and the WebSocket feed has deltas to publish.
+ * <p>
+ * A failed call answers 503, which the clients treat as an upstream error, exactly as a
+ * real outage would.
+ * </p>
+ */
+final class UpstreamStub implements AutoCloseable {
+
+    static final String COLLECT_PATH = "/economy";
+    static final String INFINA_PATH = "/infina";
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final LoadTestConfig config;
+    private final List<String> codes;
+    private final Map<String, long[]> walk = new HashMap<>();
+    private final HttpServer collect;
+    private final HttpServer infina;
+    private final AtomicLong collectCalls = new AtomicLong();
+    private final AtomicLong infinaCalls = new AtomicLong();
+
+    UpstreamStub(LoadTestConfig config) throws IOException {
+        this.config = config;
+        this.codes = config.symbolCodes();
+        // Fiyatlar kuruş cinsinden: [son, açılış, kümülatif hacim]
+        for (int i = 0; i < codes.size(); i++) {
+            long price = 1_000 + (i * 7_919L) % 99_000;
+            walk.put(codes.get(i), new long[]{price, price, 0});
+        }
+        this.collect = start("collect-stub", COLLECT_PATH, this::collect);
+        this.infina = start("infina-stub", INFINA_PATH, this::infina);
+    }
+
+    String collectBaseUrl() {
+        return "http://127.0.0.1:" + collect.getAddress().getPort() + COLLECT_PATH;
+    }
+
+    String infinaBaseUrl() {
+        return "http://127.0.0.1:" + infina.getAddress().getPort() + INFINA_PATH;
+    }
+
+    long collectCalls() {
+        return collectCalls.get();
+    }
+
+    long infinaCalls() {
+        return infinaCalls.get();
+    }
+
+    @Override
+    public void close() {
+        collect.stop(0);
+        infina.stop(0);
+    }
+
+    private HttpServer start(String name, String context, Handler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        server.setExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory()));
+        server.createContext(context, exchange -> {
+            try (exchange) {
+                handler.handle(exchange);
+            } catch (IOException | RuntimeException e) {
+                // istemci bağlantıyı kapattı
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private void collect(HttpExchange exchange) throws IOException {
+        collectCalls.incrementAndGet();
+        if (delayOrFail(exchange, config.collectLatency(), config.collectErrorRate())) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/hisseSenedi")) {
+            respond(exchange, stocksJson());
+        } else if (path.endsWith("/borsaIstanbul")) {
+            respond(exchange, """
+                    {"success":true,"result":[{"current":10250.35,"changerate":0.85,"opening":10180.10,\
+                    "closing":10163.90,"min":10120.00,"max":10290.50,"time":"%s","date":"18.10.2026"}]}"""
+                    .formatted(LocalTime.now().format(TIME)));
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+        }
+    }
+
+    private void infina(HttpExchange exchange) throws IOException {
+        infinaCalls.incrementAndGet();
+        if (delayOrFail(exchange, config.infinaLatency(), config.infinaErrorRate())) {
+            return;
+        }
+        Map<String, String> query = query(exchange.getRequestURI());
+        String code = query.getOrDefault("asset_code", "");
+        long[] state;
+        synchronized (walk) {
+            state = walk.get(code);
+        }
+        if (state == null) {
+            respond(exchange, "{\"result\":{\"data\":{\"HisseFiyat\":[]},\"summary\":{}}}");
+            return;
+        }
+        BigDecimal open = kurus(state[1]);
+        respond(exchange, """
+                {"result":{"data":{"HisseFiyat":[{"record_id":"%s-%s","asset_code":"%s","data_date":"%s",\
+                "record_date":"%s","close_price":%s,"high_price":%s,"low_price":%s,"open_price":%s}]},"summary":{}}}"""
+                .formatted(code, query.get("data_date"), code, query.get("data_date"), query.get("data_date"),
+                        open, open.add(BigDecimal.ONE), open.subtract(BigDecimal.ONE), open));
+    }
+
+    private String stocksJson() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String time = LocalTime.now().format(TIME);
+        StringBuilder json = new StringBuilder(codes.size() * 220).append("{\"success\":true,\"result\":[");
+        synchronized (walk) {
+            for (int i = 0; i < codes.size(); i++) {
+                String code = codes.get(i);
+                long[] state = walk.get(code);
+                // Her çağrıda ±%0.5 içinde rastgele yürüyüş
+                state[0] = Math.max(100, state[0] + state[0] * random.nextInt(-5, 6) / 1000);
+                state[2] += random.nextInt(1_000, 100_000);
+                BigDecimal last = kurus(state[0]);
+                BigDecimal rate = BigDecimal.valueOf((state[0] - state[1]) * 10_000 / state[1], 2);
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"rate\":").append(rate)
+                        .append(",\"lastprice\":").append(last)
+                        .append(",\"lastpricestr\":\"").append(last).append('"')
+                        .append(",\"hacim\":").append(state[2])
+                        .append(",\"hacimstr\":\"₺").append(state[2]).append('"')
+                        .append(",\"min\":").append(last.subtract(BigDecimal.ONE))
+                        .append(",\"minstr\":\"").append(last.subtract(BigDecimal.ONE)).append('"')
+                        .append(",\"max\":").append(last.add(BigDecimal.ONE))
+                        .append(",\"maxstr\":\"").append(last.add(BigDecimal.ONE)).append('"')
+                        .append(",\"time\":\"").append(time).append('"')
+                        .append(",\"text\":\"").append(code).append(" A.Ş.\"")
+                        .append(",\"code\":\"").append(code).append('"')
+                        .append(",\"icon\":\"").append(rate.signum() >= 0 ? "up" : "down").append("\"}");
+            }
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Sleeps for the configured latency and, at the configured rate, answers 503.
+     *
+     * @return {@code true} if the failure response was sent
+     */
+    private static boolean delayOrFail(HttpExchange exchange, Duration latency, double errorRate) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long millis = latency.toMillis();
+        if (millis > 0) {
+            try {
+                // ±%50 sapma: sabit gecikme eşzamanlılık sınırlayıcısını gerçekçi sınamaz
+                Thread.sleep(millis / 2 + random.nextLong(millis + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            exchange.sendResponseHeaders(503, -1);
+            return true;
+        }
+        return false;
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static BigDecimal kurus(long value) {
+        return BigDecimal.valueOf(value, 2);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
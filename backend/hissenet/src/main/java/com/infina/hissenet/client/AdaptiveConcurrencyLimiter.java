@@ -0,0 +1,184 @@
+package com.infina.hissenet.client;
+
+import com.infina.hissenet.exception.stock.CollectApiRateLimitException;
+import com.infina.hissenet.exception.stock.CollectApiUpstreamException;
+import com.infina.hissenet.exception.stock.InfinaApiRateLimitException;
+import com.infina.hissenet.exception.stock.InfinaApiUpstreamException;
+import com.infina.hissenet.properties.FetchProperties;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AIMD concurrency limit for calls to one upstream API.
+ * <p>
+ * A call that completes within the latency threshold raises the limit by roughly one per
+ * full window of calls ({@code limit += 1 / limit}). A timeout, 429, 5xx, connection
+ * failure, slow response or cancellation multiplies it by the backoff ratio; at most one
+ * backoff is applied per latency-threshold interval so a burst of simultaneous timeouts
+ * counts once. The limit stays between the configured min and max.
+ * </p>
+ * <p>
+ * Callers over the limit wait briefly and try again instead of queueing, so a cancelled
+ * caller never holds a permit.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Duration WAIT_INTERVAL = Duration.ofMillis(10);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    // Aşağıdaki alanlar this kilidi altında güncellenir
+    private double limit;
+    private int inFlight;
+    private long lastBackoffNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, FetchProperties.Limiter config) {
+        this.name = name;
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = Math.max(config.getMinLimit(), config.getMaxLimit());
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+        this.backoffRatio = config.getBackoffRatio();
+        this.limit = clamp(initialLimit);
+        this.lastBackoffNanos = System.nanoTime() - latencyThresholdNanos;
+    }
+
+    /**
+     * Subscribes to {@code call} once a permit is free and feeds its outcome back into the limit.
+     */
+    public <T> Mono<T> run(Mono<T> call) {
+        return run(call, null);
+    }
+
+    /**
+     * Like {@link #run(Mono)}, with {@code timeout} applied to the call itself; time spent
+     * waiting for a permit does not count against it.
+     */
+    public <T> Mono<T> run(Mono<T> call, Duration timeout) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.delay(WAIT_INTERVAL).then(run(call, timeout));
+            }
+            long start = System.nanoTime();
+            // İzin, sonuç aşağı akışa iletilmeden bırakılır; sıradaki çağrı hemen alabilir
+            Runnable releaseOnce = releaseOnce();
+            return (timeout != null ? call.timeout(timeout) : call)
+                    .doOnSuccess(v -> onResponse(System.nanoTime() - start))
+                    .doOnError(this::onError)
+                    .doOnCancel(this::backoff)
+                    .doOnTerminate(releaseOnce)
+                    .doOnCancel(releaseOnce);
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #run(Mono)}; latency is measured to completion, so the
+     * caller should buffer downstream of this call rather than slow the stream down.
+     */
+    public <T> Flux<T> runMany(Flux<T> call) {
+        return Flux.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.delay(WAIT_INTERVAL).thenMany(runMany(call));
+            }
+            long start = System.nanoTime();
+            Runnable releaseOnce = releaseOnce();
+            return call
+                    .doOnComplete(() -> onResponse(System.nanoTime() - start))
+                    .doOnError(this::onError)
+                    .doOnCancel(this::backoff)
+                    .doOnTerminate(releaseOnce)
+                    .doOnCancel(releaseOnce);
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        };
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    private synchronized void release() {
+        inFlight--;
+    }
+
+    private void onResponse(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos) {
+            backoff();
+        } else {
+            increase();
+        }
+    }
+
+    private void onError(Throwable error) {
+        if (isOverload(error)) {
+            backoff();
+        }
+    }
+
+    private synchronized void increase() {
+        limit = clamp(limit + 1.0 / limit);
+    }
+
+    private synchronized void backoff() {
+        long now = System.nanoTime();
+        if (now - lastBackoffNanos < latencyThresholdNanos) {
+            return;
+        }
+        lastBackoffNanos = now;
+        limit = clamp(limit * backoffRatio);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    static boolean isOverload(Throwable error) {
+        if (error instanceof WebClientResponseException wex) {
+            int status = wex.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return error instanceof TimeoutException
+                || error instanceof WebClientRequestException
+                || error instanceof InfinaApiRateLimitException
+                || error instanceof InfinaApiUpstreamException
+                || error instanceof CollectApiRateLimitException
+                || error instanceof CollectApiUpstreamException;
+    }
+}
@@ -2,19 +2,26 @@ package com.infina.hissenet.client;
 
 
 import com.infina.hissenet.dto.response.BorsaIstanbulApiResponse;
-import com.infina.hissenet.dto.response.StockApiResponse;
+import com.infina.hissenet.dto.response.StockData;
 import com.infina.hissenet.exception.stock.CollectApiRateLimitException;
 import com.infina.hissenet.exception.stock.CollectApiUpstreamException;
 import com.infina.hissenet.properties.CollectApiProperties;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -22,14 +29,15 @@ import java.util.concurrent.atomic.AtomicLong;
  * <p>
  * Provides methods to retrieve:
  * <ul>
- *   <li>General stock data (fetchStocks)</li>
+ *   <li>General stock data, streamed record by record (streamStocks)</li>
  *   <li>Borsa Istanbul data (fetchBorsaIstanbul)</li>
  * </ul>
  * Handles:
  * <ul>
  *   <li>API key authentication via {@code Authorization} header</li>
  *   <li>Rate limiting via cooldown logic</li>
- *   <li>Graceful fallback with empty responses when errors occur</li>
+ *   <li>Adaptive concurrency via {@link AdaptiveConcurrencyLimiter}</li>
+ *   <li>Graceful fallback with empty Borsa Istanbul responses when errors occur</li>
  * </ul>
  *
  * This client uses {@link WebClient} for non-blocking HTTP calls and
@@ -44,55 +52,60 @@ import java.util.concurrent.atomic.AtomicLong;
 public class CollectApiClient {
     private final WebClient collectApiWebClient;
     private final CollectApiProperties props;
+    private final AdaptiveConcurrencyLimiter collectLimiter;
     private final AtomicLong coolDownUntilEpochMs = new AtomicLong(0);
 
 
-    public CollectApiClient(WebClient collectApiWebClient, CollectApiProperties props) {
+    public CollectApiClient(WebClient collectApiWebClient, CollectApiProperties props, AdaptiveConcurrencyLimiter collectLimiter) {
         this.collectApiWebClient = collectApiWebClient;
         this.props = props;
+        this.collectLimiter = collectLimiter;
     }
 
     /**
-     * Fetches stock data from the Collect API's stocks endpoint.
+     * Streams stock data from the Collect API's stocks endpoint.
      * <p>
-     * - Applies cooldown when a 429 (rate limit) response is received.
-     * - Returns an empty {@link StockApiResponse} on errors or cooldown.
+     * - Records are decoded incrementally by {@link CollectStockStreamDecoder} and emitted
+     *   as each one is complete; display-only string fields are left {@code null}.
+     * - Completes empty while a 429 cooldown is active.
+     * - Errors, including a body cut off mid-stream, are propagated so the caller can drop
+     *   the partial snapshot.
      * </p>
      *
-     * @return a {@link Mono} emitting the {@link StockApiResponse} or empty data on failure
+     * @return a {@link Flux} of {@link StockData}
      * @throws CollectApiRateLimitException if rate limit (429) is triggered
      * @throws CollectApiUpstreamException  if an upstream error occurs
      */
-    public Mono<StockApiResponse> fetchStocks() {
+    public Flux<StockData> streamStocks() {
         long now = System.currentTimeMillis();
         long until = coolDownUntilEpochMs.get();
         if (now < until) {
-            return Mono.just(new StockApiResponse(false, Collections.emptyList()));
+            return Flux.empty();
         }
 
-        return collectApiWebClient.get()
-                .uri(props.getEndpoints().getStocks())
-                .header(HttpHeaders.AUTHORIZATION, "apikey " + props.getApiKey())
-                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .exchangeToMono(resp -> {
-                    HttpStatusCode st = resp.statusCode();
-
-                    if (st.value() == 429) {
-                        var cd = props.getCooldown() != null ? props.getCooldown() : Duration.ofSeconds(30);
-                        coolDownUntilEpochMs.set(System.currentTimeMillis() + cd.toMillis());
-                        return Mono.error(new CollectApiRateLimitException("API rate limit aşıldı"));
-                    }
-
-                    if (st.is2xxSuccessful()) {
-                        return resp.bodyToMono(StockApiResponse.class)
-                                .defaultIfEmpty(new StockApiResponse(false, Collections.emptyList()));
-                    }
-
-                    return resp.bodyToMono(String.class)
-                            .defaultIfEmpty("")
-                            .flatMap(b -> Mono.error(new CollectApiUpstreamException("Stocks upstream error: HTTP " + st.value())));
-                })
-                .onErrorResume(e -> Mono.just(new StockApiResponse(false, Collections.emptyList())));
+        return collectLimiter.runMany(collectApiWebClient.get()
+                        .uri(props.getEndpoints().getStocks())
+                        .header(HttpHeaders.AUTHORIZATION, "apikey " + props.getApiKey())
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                        .exchangeToFlux(resp -> {
+                            HttpStatusCode st = resp.statusCode();
+
+                            if (st.value() == 429) {
+                                var cd = props.getCooldown() != null ? props.getCooldown() : Duration.ofSeconds(30);
+                                coolDownUntilEpochMs.set(System.currentTimeMillis() + cd.toMillis());
+                                return Flux.error(new CollectApiRateLimitException("API rate limit aşıldı"));
+                            }
+
+                            if (st.is2xxSuccessful()) {
+                                return decode(resp.bodyToFlux(DataBuffer.class));
+                            }
+
+                            return resp.bodyToMono(String.class)
+                                    .defaultIfEmpty("")
+                                    .flatMapMany(b -> Flux.error(new CollectApiUpstreamException("Stocks upstream error: HTTP " + st.value())));
+                        }))
+                // Gövde ağ hızında okunur; yavaş aşağı akış sınırlayıcının gecikme ölçümünü bozmaz
+                .onBackpressureBuffer();
     }
 
     /**
@@ -106,23 +119,55 @@ public class CollectApiClient {
      * @throws CollectApiUpstreamException if an upstream error occurs
      */
     public Mono<BorsaIstanbulApiResponse> fetchBorsaIstanbul() {
-        return collectApiWebClient.get()
-                .uri(props.getEndpoints().getBorsaIstanbul())
-                .header(HttpHeaders.AUTHORIZATION, "apikey " + props.getApiKey())
-                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .exchangeToMono(resp -> {
-                    HttpStatusCode st = resp.statusCode();
-
-                    if (st.is2xxSuccessful()) {
-                        return resp.bodyToMono(BorsaIstanbulApiResponse.class)
-                                .defaultIfEmpty(new BorsaIstanbulApiResponse(false, Collections.emptyList()));
-                    }
-
-                    return resp.bodyToMono(String.class)
-                            .defaultIfEmpty("")
-                            .flatMap(b -> Mono.error(new CollectApiUpstreamException("BIST upstream error: HTTP " + st.value())));
-                })
+        return collectLimiter.run(collectApiWebClient.get()
+                        .uri(props.getEndpoints().getBorsaIstanbul())
+                        .header(HttpHeaders.AUTHORIZATION, "apikey " + props.getApiKey())
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                        .exchangeToMono(resp -> {
+                            HttpStatusCode st = resp.statusCode();
+
+                            if (st.is2xxSuccessful()) {
+                                return resp.bodyToMono(BorsaIstanbulApiResponse.class)
+                                        .defaultIfEmpty(new BorsaIstanbulApiResponse(false, Collections.emptyList()));
+                            }
+
+                            return resp.bodyToMono(String.class)
+                                    .defaultIfEmpty("")
+                                    .flatMap(b -> Mono.error(new CollectApiUpstreamException("BIST upstream error: HTTP " + st.value())));
+                        }))
                 .onErrorResume(e -> Mono.just(new BorsaIstanbulApiResponse(false, Collections.emptyList())));
 
     }
-}
\ No newline at end of file
+
+    // Her parça tamamen çözülür ve hemen bırakılır; kopya yapılmaz
+    private static Flux<StockData> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            CollectStockStreamDecoder decoder;
+            try {
+                decoder = new CollectStockStreamDecoder();
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+            return body.concatMapIterable(buffer -> {
+                        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                            List<StockData> out = new ArrayList<>();
+                            while (chunks.hasNext()) {
+                                out.addAll(decoder.feed(chunks.next()));
+                            }
+                            return out;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> {
+                        try {
+                            return Flux.fromIterable(decoder.endOfInput());
+                        } catch (IOException e) {
+                            return Flux.error(e);
+                        }
+                    }));
+        });
+    }
+}
@@ -0,0 +1,237 @@
+package com.infina.hissenet.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.infina.hissenet.dto.response.StockApiResponse;
+import com.infina.hissenet.dto.response.StockData;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental decoder for the Collect stocks body ({@link StockApiResponse} shape).
+ * <p>
+ * Bytes are fed as they arrive and each {@link StockData} is returned as soon as its
+ * object closes, so per-symbol work can start before the body is complete. Only the
+ * fields the refresh reads are kept: the {@code lastpricestr}, {@code minstr} and
+ * {@code maxstr} display twins and any unknown field are skipped token by token. Prices
+ * are parsed from the token characters into a scaled long instead of through a string.
+ * </p>
+ * One instance per response; not thread-safe.
+ */
+final class CollectStockStreamDecoder {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private static final int ROOT = 1;
+    private static final int RESULT_ARRAY = 2;
+    private static final int RECORD = 3;
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+
+    private int depth;
+    // >= 0 iken ilgilenilmeyen bir değer atlanıyor; derinlik buna dönünce biter
+    private int skipTo = -1;
+    private String field;
+    private Fields current;
+
+    CollectStockStreamDecoder() throws IOException {
+        this.parser = FACTORY.createNonBlockingByteBufferParser();
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Consumes {@code chunk} completely and returns the records it closed, possibly none.
+     */
+    List<StockData> feed(ByteBuffer chunk) throws IOException {
+        feeder.feedInput(chunk);
+        return drain();
+    }
+
+    /**
+     * Signals the end of the body.
+     *
+     * @throws IOException if the body ended inside the JSON document
+     */
+    List<StockData> endOfInput() throws IOException {
+        feeder.endOfInput();
+        List<StockData> out = drain();
+        if (depth != 0) {
+            throw new IOException("Collect stocks body ended at depth " + depth);
+        }
+        return out;
+    }
+
+    private List<StockData> drain() throws IOException {
+        List<StockData> out = List.of();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            StockData data = handle(token);
+            if (data != null) {
+                if (out.isEmpty()) {
+                    out = new ArrayList<>();
+                }
+                out.add(data);
+            }
+        }
+        return out;
+    }
+
+    private StockData handle(JsonToken token) throws IOException {
+        if (skipTo >= 0) {
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == skipTo) {
+                skipTo = -1;
+            }
+            return null;
+        }
+        switch (token) {
+            case START_OBJECT -> {
+                if (depth == 0 || depth == RESULT_ARRAY) {
+                    depth++;
+                    if (depth == RECORD) {
+                        current = new Fields();
+                    }
+                } else {
+                    skip();
+                }
+            }
+            case START_ARRAY -> {
+                if (depth == ROOT && "result".equals(field)) {
+                    depth++;
+                } else {
+                    skip();
+                }
+            }
+            case END_OBJECT -> {
+                depth--;
+                if (depth == RESULT_ARRAY && current != null) {
+                    StockData data = current.build();
+                    current = null;
+                    return data;
+                }
+            }
+            case END_ARRAY -> depth--;
+            // Alan adları parser tarafından kanonikleştirilir; karşılaştırma yeni String üretmez
+            case FIELD_NAME -> field = parser.currentName();
+            default -> {
+                if (depth == RECORD && current != null) {
+                    current.set(field, token, parser);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void skip() {
+        skipTo = depth;
+        depth++;
+    }
+
+    /**
+     * Parses a plain decimal ({@code -12.345}) into {@code unscaled × 10^-scale}. Exponents
+     * and more than 18 digits fall back to {@link BigDecimal}'s own parser.
+     *
+     * @return the value, or {@code null} if the characters are not a number
+     */
+    static BigDecimal parseDecimal(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_LONG_DIGITS) {
+                    return slowParse(chars, offset, length);
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return slowParse(chars, offset, length);
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    private static BigDecimal slowParse(char[] chars, int offset, int length) {
+        try {
+            return new BigDecimal(chars, offset, length);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Values of the record being read; fields the refresh never reads are not stored.
+     */
+    private static final class Fields {
+        private BigDecimal rate;
+        private BigDecimal lastprice;
+        private BigDecimal hacim;
+        private String hacimstr;
+        private BigDecimal min;
+        private BigDecimal max;
+        private String time;
+        private String text;
+        private String code;
+        private String icon;
+
+        void set(String name, JsonToken token, JsonParser parser) throws IOException {
+            if (name == null) {
+                return;
+            }
+            switch (name) {
+                case "rate" -> rate = decimal(token, parser);
+                case "lastprice" -> lastprice = decimal(token, parser);
+                case "hacim" -> hacim = decimal(token, parser);
+                case "min" -> min = decimal(token, parser);
+                case "max" -> max = decimal(token, parser);
+                case "hacimstr" -> hacimstr = text(token, parser);
+                case "time" -> time = text(token, parser);
+                case "text" -> text = text(token, parser);
+                case "code" -> code = text(token, parser);
+                case "icon" -> icon = text(token, parser);
+                default -> { }
+            }
+        }
+
+        StockData build() {
+            return new StockData(rate, lastprice, null, hacim, hacimstr, min, null, max, null,
+                    time, text, code, icon);
+        }
+
+        private static BigDecimal decimal(JsonToken token, JsonParser parser) throws IOException {
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT
+                    || token == JsonToken.VALUE_STRING) {
+                return parseDecimal(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            }
+            return null;
+        }
+
+        private static String text(JsonToken token, JsonParser parser) throws IOException {
+            return token == JsonToken.VALUE_NULL || token.isStructStart() ? null : parser.getText();
+        }
+    }
+}
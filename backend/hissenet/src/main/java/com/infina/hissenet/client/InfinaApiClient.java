@@ -3,6 +3,7 @@ package com.infina.hissenet.client;
 import com.infina.hissenet.dto.response.HisseApiResponse;
 import com.infina.hissenet.exception.stock.InfinaApiRateLimitException;
 import com.infina.hissenet.exception.stock.InfinaApiUpstreamException;
+import com.infina.hissenet.properties.FetchProperties;
 import com.infina.hissenet.properties.InfinaApiProperties;
 import com.infina.hissenet.utils.MessageUtils;
 import org.springframework.stereotype.Component;
@@ -10,28 +11,38 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.TimeoutException;
+
 @Component
 public class InfinaApiClient {
     private final WebClient infinaApiWebClient;
     private final InfinaApiProperties props;
+    private final AdaptiveConcurrencyLimiter infinaLimiter;
+    private final FetchProperties fetchProps;
 
-    public InfinaApiClient(WebClient infinaApiWebClient, InfinaApiProperties props) {
+    public InfinaApiClient(WebClient infinaApiWebClient, InfinaApiProperties props, AdaptiveConcurrencyLimiter infinaLimiter,
+                           FetchProperties fetchProps) {
         this.infinaApiWebClient = infinaApiWebClient;
         this.props = props;
+        this.infinaLimiter = infinaLimiter;
+        this.fetchProps = fetchProps;
     }
 
     public Mono<HisseApiResponse> fetchPriceByCodeAndDate(String assetCode, String date) {
-        return infinaApiWebClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path(props.getEndpoint())
-                        .queryParam("api_key", props.getApiKey())
-                        .queryParam("asset_code", assetCode)
-                        .queryParam("data_date", date)
-                        .build())
-                .retrieve()
-                .bodyToMono(HisseApiResponse.class)
-                .defaultIfEmpty(new HisseApiResponse(null))
+        // Eşzamanlı istek sayısı gecikme ve 429/5xx yanıtlarına göre ayarlanır; zaman aşımı izin beklemeyi kapsamaz
+        return infinaLimiter.run(infinaApiWebClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path(props.getEndpoint())
+                                .queryParam("api_key", props.getApiKey())
+                                .queryParam("asset_code", assetCode)
+                                .queryParam("data_date", date)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(HisseApiResponse.class)
+                        .defaultIfEmpty(new HisseApiResponse(null)), fetchProps.getRequestTimeout())
                 .onErrorResume(ex -> {
+                    // Zaman aşımı çağırana iletilir; sembol bazında yeniden denenir
+                    if (ex instanceof TimeoutException) return Mono.error(ex);
                     if (ex instanceof WebClientResponseException wex) {
                         int sc = wex.getRawStatusCode();
                         if (sc == 429) return Mono.error(new InfinaApiRateLimitException(MessageUtils.getMessage("collect.api.rate.limit")));
@@ -0,0 +1,182 @@
+package com.infina.hissenet.common;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount or price as a count of 0.0001 TRY in a {@code long}, for in-memory arithmetic on
+ * order, commission and wallet paths. Entities and DTOs keep {@link BigDecimal}; convert
+ * with {@link #of(BigDecimal)} on the way in and {@link #toBigDecimal()} on the way out.
+ * <p>
+ * Rounding rules:
+ * <ul>
+ *   <li>Inputs with more than four decimals are rounded {@link RoundingMode#HALF_UP}.</li>
+ *   <li>Products ({@link #times(BigDecimal)}) are computed exactly and rounded once,
+ *       {@code HALF_UP}, to four decimals.</li>
+ *   <li>Commissions ({@link #commission(BigDecimal)}) are computed exactly and rounded once,
+ *       {@code HALF_UP}, to whole kuruş (two decimals).</li>
+ * </ul>
+ * Results that do not fit in a {@code long} fall back to {@link BigDecimal} and then throw
+ * {@link ArithmeticException} if they still do not fit; nothing wraps around silently.
+ * </p>
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 4;
+    public static final int COMMISSION_SCALE = 2;
+    public static final Money ZERO = new Money(0L);
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    private static final long KURUS = POWERS_OF_TEN[SCALE - COMMISSION_SCALE];
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    /**
+     * @return the amount rounded to four decimals, or {@code null} for {@code null}
+     */
+    public static Money of(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        int scale = value.scale();
+        if (scale >= 0 && scale <= SCALE && value.precision() <= 18 - (SCALE - scale)) {
+            return ofUnits(unscaled(value) * POWERS_OF_TEN[SCALE - scale]);
+        }
+        return ofUnits(value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Money negate() {
+        return ofUnits(Math.negateExact(units));
+    }
+
+    public Money times(long factor) {
+        return ofUnits(Math.multiplyExact(units, factor));
+    }
+
+    /**
+     * Multiplies by a quantity or rate; the exact product is rounded once to four decimals.
+     */
+    public Money times(BigDecimal factor) {
+        return ofUnits(multiplyRounded(factor, 0));
+    }
+
+    /**
+     * Commission on this amount at {@code rate}; the exact product is rounded once to kuruş.
+     */
+    public Money commission(BigDecimal rate) {
+        return ofUnits(Math.multiplyExact(multiplyRounded(rate, SCALE - COMMISSION_SCALE), KURUS));
+    }
+
+    /**
+     * Divides by a count, rounding {@code HALF_UP} to four decimals.
+     */
+    public Money dividedBy(long divisor) {
+        if (divisor <= 0) {
+            throw new ArithmeticException("divisor must be positive: " + divisor);
+        }
+        return ofUnits(roundHalfUp(units, divisor));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public boolean isZero() {
+        return units == 0;
+    }
+
+    /**
+     * @return the value at the smallest non-negative scale (at most four) that holds it
+     *         exactly, e.g. {@code 100} rather than {@code 100.0000}
+     */
+    public BigDecimal toBigDecimal() {
+        long unscaled = units;
+        int scale = SCALE;
+        while (scale > 0 && unscaled % 10 == 0) {
+            unscaled /= 10;
+            scale--;
+        }
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && units == other.units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     * {@code units × factor}, rounded HALF_UP and expressed in units of
+     * {@code 10^-(SCALE - dropDigits)}.
+     */
+    private long multiplyRounded(BigDecimal factor, int dropDigits) {
+        int shift = factor.scale() + dropDigits;
+        if (shift >= 0 && shift < POWERS_OF_TEN.length && factor.precision() <= 18) {
+            long f = unscaled(factor);
+            long high = Math.multiplyHigh(units, f);
+            long low = units * f;
+            // Çarpım long'a sığıyorsa BigDecimal'e hiç dokunulmaz
+            if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+                return roundHalfUp(low, POWERS_OF_TEN[shift]);
+            }
+        }
+        BigDecimal exact = BigDecimal.valueOf(units, SCALE).multiply(factor);
+        return exact.setScale(SCALE - dropDigits, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Unscaled value of a non-negative-scale decimal of at most 18 digits. Goes through
+     * {@code movePointRight} instead of {@code unscaledValue()}, which builds a BigInteger.
+     */
+    private static long unscaled(BigDecimal value) {
+        return value.movePointRight(value.scale()).longValue();
+    }
+
+    private static long roundHalfUp(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = Math.abs(value % divisor);
+        if (remainder >= divisor - remainder) {
+            quotient += value < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
@@ -4,12 +4,20 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.infina.hissenet.properties.StockProperties;
 import com.infina.hissenet.service.BorsaIstanbulCacheService;
 import com.infina.hissenet.service.CombinedCacheService;
+import com.infina.hissenet.service.abstracts.ICacheFacade;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 @Configuration
 @EnableCaching
 public class CacheConfig {
@@ -29,4 +37,24 @@ public class CacheConfig {
         mgr.setCaffeine(caffeine);
         return mgr;
     }
+
+    // Anlık görüntü boyutu ve yaşı her kazımada okunur; henüz yazılmamışsa yaş NaN döner
+    @Bean
+    public MeterBinder cacheSnapshotMetrics(ICacheFacade cacheFacade) {
+        return registry -> {
+            for (String cacheName : List.of(CombinedCacheService.CACHE_NAME, BorsaIstanbulCacheService.CACHE_NAME)) {
+                Gauge.builder(MetricsUtils.CACHE_SNAPSHOT_SIZE, cacheFacade, f -> f.snapshotSize(cacheName))
+                        .description("Entries in the current cache snapshot")
+                        .tag("cache", cacheName)
+                        .register(registry);
+                Gauge.builder(MetricsUtils.CACHE_SNAPSHOT_AGE, cacheFacade, f -> f.snapshotStoredAt(cacheName)
+                                .map(at -> Duration.between(at, Instant.now()).toMillis() / 1000.0)
+                                .orElse(Double.NaN))
+                        .description("Seconds since the current cache snapshot was stored")
+                        .baseUnit("seconds")
+                        .tag("cache", cacheName)
+                        .register(registry);
+            }
+        };
+    }
 }
\ No newline at end of file
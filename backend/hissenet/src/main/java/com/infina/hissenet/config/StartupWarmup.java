@@ -13,10 +13,21 @@ public class StartupWarmup {
     public ApplicationRunner warmUp(CombinedCacheService combined, BorsaIstanbulCacheService bist) {
         return args -> {
             try {
-                System.out.println("[WarmUp] combined refresh");
-                combined.refreshAsync().block();
-                System.out.println("[WarmUp] bist refresh");
-                bist.refreshAsync().block();
+                // Diskteki son snapshot varsa hemen yüklenir, upstream doğrulaması arka planda yapılır
+                if (combined.restoreLastKnown()) {
+                    System.out.println("[WarmUp] combined son snapshot yüklendi (stale) → arka planda yenileniyor");
+                    combined.refreshAsync().subscribe();
+                } else {
+                    System.out.println("[WarmUp] combined refresh");
+                    combined.refreshAsync().block();
+                }
+                if (bist.restoreLastKnown()) {
+                    System.out.println("[WarmUp] bist son snapshot yüklendi (stale) → arka planda yenileniyor");
+                    bist.refreshAsync().subscribe();
+                } else {
+                    System.out.println("[WarmUp] bist refresh");
+                    bist.refreshAsync().block();
+                }
             } catch (Exception e) {
                 System.out.println("[WarmUp] hata: " + e.getMessage());
             }
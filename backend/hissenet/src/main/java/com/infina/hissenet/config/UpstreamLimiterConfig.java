@@ -0,0 +1,35 @@
+package com.infina.hissenet.config;
+
+import com.infina.hissenet.client.AdaptiveConcurrencyLimiter;
+import com.infina.hissenet.properties.FetchProperties;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UpstreamLimiterConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter infinaLimiter(FetchProperties props, MeterRegistry meterRegistry) {
+        return register(new AdaptiveConcurrencyLimiter("infina", props.getConcurrency(), props.getLimiter()), meterRegistry);
+    }
+
+    // Collect tüm hisseleri tek istekte döner; sınır 429/yavaşlıkta geri çekilmek için tutulur
+    @Bean
+    public AdaptiveConcurrencyLimiter collectLimiter(FetchProperties props, MeterRegistry meterRegistry) {
+        return register(new AdaptiveConcurrencyLimiter("collect", props.getLimiter().getMinLimit(), props.getLimiter()), meterRegistry);
+    }
+
+    private static AdaptiveConcurrencyLimiter register(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder(MetricsUtils.UPSTREAM_CONCURRENCY_LIMIT, limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("client", limiter.getName())
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder(MetricsUtils.UPSTREAM_CONCURRENCY_INFLIGHT, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("client", limiter.getName())
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -1,15 +1,27 @@
 package com.infina.hissenet.config;
 
+import com.infina.hissenet.websocket.EncodedSnapshotMessageConverter;
+import com.infina.hissenet.websocket.PriceSubscriptionRegistry;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final PriceSubscriptionRegistry subscriptionRegistry;
+
+    public WebSocketConfig(PriceSubscriptionRegistry subscriptionRegistry) {
+        this.subscriptionRegistry = subscriptionRegistry;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
@@ -21,4 +33,17 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-stock")
                 .setAllowedOriginPatterns("*");
             }
-}
\ No newline at end of file
+
+    // Abonelik sayıları tutulur; fiyatlar yalnızca izlenen sembollere yayınlanır
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(subscriptionRegistry);
+    }
+
+    // Önceden kodlanmış snapshot baytları tekrar serileştirilmeden gönderilir; varsayılanlar arkasından eklenir
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new EncodedSnapshotMessageConverter());
+        return true;
+    }
+}
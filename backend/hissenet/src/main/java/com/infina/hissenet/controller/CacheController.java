@@ -1,25 +1,51 @@
 package com.infina.hissenet.controller;
 
 import com.infina.hissenet.controller.doc.CacheControllerDoc;
+import com.infina.hissenet.dto.response.CandleResponse;
 import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.EncodedSnapshot;
+import com.infina.hissenet.dto.response.PricePointResponse;
 import com.infina.hissenet.service.CacheManagerService;
+import com.infina.hissenet.entity.enums.CandleInterval;
+import com.infina.hissenet.service.abstracts.IIntradayTickStore;
+import com.infina.hissenet.service.abstracts.IPriceHistoryStore;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/cache")
 public class CacheController implements CacheControllerDoc {
+    private static final String STALE_HEADER = "X-Snapshot-Stale";
+    private static final int MAX_CANDLES = 1000;
+
     private final CacheManagerService cacheService;
+    private final IPriceSnapshotBuffer snapshotBuffer;
+    private final IIntradayTickStore tickStore;
+    private final IPriceHistoryStore historyStore;
 
-    public CacheController(CacheManagerService cacheService) {
+    public CacheController(CacheManagerService cacheService, IPriceSnapshotBuffer snapshotBuffer,
+                           IIntradayTickStore tickStore, IPriceHistoryStore historyStore) {
         this.cacheService = cacheService;
+        this.snapshotBuffer = snapshotBuffer;
+        this.tickStore = tickStore;
+        this.historyStore = historyStore;
     }
 
     @GetMapping("/combined/{code}")
@@ -34,9 +60,78 @@ public class CacheController implements CacheControllerDoc {
     }
 
     @GetMapping("/combined")
-    public ResponseEntity<List<CombinedStockData>> getAll() {
-        List<CombinedStockData> all = cacheService.getAllCached();
-        return ResponseEntity.ok(all);
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EncodedSnapshot snapshot = snapshotBuffer.current();
+        String etag = snapshot.getETag();
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                // Açılışta diskten yüklenen ve henüz doğrulanmamış veri işaretlenir
+                .header(STALE_HEADER, String.valueOf(cacheService.isStale()));
+        if (snapshot.hasGzip() && acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    @GetMapping("/candles/{code}")
+    public ResponseEntity<List<CandleResponse>> getCandles(@PathVariable String code,
+                                                           @RequestParam(defaultValue = "1m") String interval,
+                                                           @RequestParam(defaultValue = "120") int limit) {
+        CandleInterval candleInterval;
+        try {
+            candleInterval = CandleInterval.fromCode(interval);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int capped = Math.max(1, Math.min(limit, MAX_CANDLES));
+        return ResponseEntity.ok(tickStore.getCandles(code, candleInterval, capped));
+    }
+
+    @GetMapping("/history/{code}")
+    public ResponseEntity<List<PricePointResponse>> getHistory(@PathVariable String code,
+                                                               @RequestParam Instant from,
+                                                               @RequestParam Instant to,
+                                                               @RequestParam(defaultValue = "5000") int limit) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(historyStore.getRange(code, from, to, limit));
+    }
+
+    @GetMapping("/history/{code}/daily")
+    public ResponseEntity<List<CandleResponse>> getDailyHistory(@PathVariable String code,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(historyStore.getDailyBars(code, from, to));
+    }
+
+    // If-None-Match birden fazla etiket veya * içerebilir; zayıf karşılaştırma yapılır
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(opaque) || tag.equals("W/" + opaque)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
 
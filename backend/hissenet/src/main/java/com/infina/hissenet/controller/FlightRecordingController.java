@@ -0,0 +1,59 @@
+package com.infina.hissenet.controller;
+
+import com.infina.hissenet.common.ApiResponse;
+import com.infina.hissenet.controller.doc.FlightRecordingControllerDoc;
+import com.infina.hissenet.dto.response.FlightRecordingResponse;
+import com.infina.hissenet.service.abstracts.IFlightRecordingService;
+import com.infina.hissenet.utils.MessageUtils;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/admin/jfr")
+public class FlightRecordingController implements FlightRecordingControllerDoc {
+
+    private final IFlightRecordingService flightRecordingService;
+
+    public FlightRecordingController(IFlightRecordingService flightRecordingService) {
+        this.flightRecordingService = flightRecordingService;
+    }
+
+    @PostMapping("/start")
+    public ApiResponse<FlightRecordingResponse> start(@RequestParam(defaultValue = "default") String settings,
+                                                      @RequestParam(required = false) Integer minutes) {
+        Duration duration = minutes != null ? Duration.ofMinutes(minutes) : null;
+        return ApiResponse.ok(MessageUtils.getMessage("jfr.recording.started"), flightRecordingService.start(settings, duration));
+    }
+
+    @PostMapping("/stop")
+    public ApiResponse<FlightRecordingResponse> stop() {
+        return ApiResponse.ok(MessageUtils.getMessage("jfr.recording.stopped"), flightRecordingService.stop());
+    }
+
+    @GetMapping
+    public ApiResponse<FlightRecordingResponse> status() {
+        return ApiResponse.ok(MessageUtils.getMessage("jfr.recording.retrieved"), flightRecordingService.status());
+    }
+
+    @GetMapping("/download")
+    public ResponseEntity<Resource> download() {
+        Path file = flightRecordingService.dump();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
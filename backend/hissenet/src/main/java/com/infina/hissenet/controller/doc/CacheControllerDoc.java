@@ -1,7 +1,10 @@
 package com.infina.hissenet.controller.doc;
 
+import com.infina.hissenet.dto.response.CandleResponse;
 import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.PricePointResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @Tag(name = "Cache", description = "Önbelleğe alınmış birleşik hisse verileri")
@@ -38,14 +43,89 @@ public interface CacheControllerDoc {
 
     @Operation(
             summary = "Tüm cache'lenmiş birleşik verileri getir",
-            description = "Önbellekte bulunan bütün CombinedStockData kayıtlarını döner (boş liste olabilir).",
+            description = "Önbellekte bulunan bütün CombinedStockData kayıtlarını döner (boş liste olabilir). "
+                    + "Gövde her fiyat sürümü için bir kez kodlanır; ETag süreç önekiyle sürümü taşır, If-None-Match eşleşirse 304 döner. "
+                    + "Accept-Encoding gzip ise sıkıştırılmış kopya gönderilir.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Liste döndü",
                             content = @Content(array = @ArraySchema(schema = @Schema(implementation = CombinedStockData.class)))
-                    )
+                    ),
+                    @ApiResponse(responseCode = "304", description = "Veri istemcideki sürümle aynı")
             }
     )
-    ResponseEntity<List<CombinedStockData>> getAll();
+    ResponseEntity<byte[]> getAll(
+            @Parameter(in = ParameterIn.HEADER, name = "If-None-Match", description = "Daha önce alınan ETag", example = "W/\"3k9x0q7zpl2m-42\"")
+            String ifNoneMatch,
+            @Parameter(in = ParameterIn.HEADER, name = "Accept-Encoding", description = "gzip desteği", example = "gzip")
+            String acceptEncoding
+    );
+
+    @Operation(
+            summary = "Hisse için gün içi mum verisini getir",
+            description = "Bellekteki fiyat akışından üretilen 1m/5m/1h OHLCV mumlarını eskiden yeniye döner. "
+                    + "Veritabanına erişilmez; son mum henüz kapanmamış olabilir.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Mumlar döndü (sembol için veri yoksa boş liste)",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CandleResponse.class)))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz aralık")
+            }
+    )
+    ResponseEntity<List<CandleResponse>> getCandles(
+            @Parameter(description = "Hisse kodu", required = true, example = "THYAO")
+            String code,
+            @Parameter(description = "Mum aralığı: 1m, 5m veya 1h", example = "5m")
+            String interval,
+            @Parameter(description = "En fazla kaç mum dönüleceği (1-1000)", example = "120")
+            int limit
+    );
+
+    @Operation(
+            summary = "Hisse için fiyat geçmişini getir",
+            description = "Diskteki günlük segmentlerden verilen zaman aralığındaki fiyat noktalarını eskiden yeniye döner. "
+                    + "Hacim, bir önceki noktadan bu yana işlem gören miktardır.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Noktalar döndü (aralıkta kayıt yoksa boş liste)",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = PricePointResponse.class)))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Başlangıç bitişten sonra")
+            }
+    )
+    ResponseEntity<List<PricePointResponse>> getHistory(
+            @Parameter(description = "Hisse kodu", required = true, example = "THYAO")
+            String code,
+            @Parameter(description = "Başlangıç (ISO-8601)", required = true, example = "2025-08-14T07:00:00Z")
+            Instant from,
+            @Parameter(description = "Bitiş (ISO-8601, dahil)", required = true, example = "2025-08-14T15:00:00Z")
+            Instant to,
+            @Parameter(description = "En fazla kaç nokta dönüleceği", example = "5000")
+            int limit
+    );
+
+    @Operation(
+            summary = "Hisse için günlük mumları getir",
+            description = "Her kayıtlı gün için bir OHLCV mumu döner. Kapanmış günler segment özetinden okunur.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Günlük mumlar döndü",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CandleResponse.class)))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Başlangıç bitişten sonra")
+            }
+    )
+    ResponseEntity<List<CandleResponse>> getDailyHistory(
+            @Parameter(description = "Hisse kodu", required = true, example = "THYAO")
+            String code,
+            @Parameter(description = "İlk gün", required = true, example = "2025-08-01")
+            LocalDate from,
+            @Parameter(description = "Son gün (dahil)", required = true, example = "2025-08-14")
+            LocalDate to
+    );
 }
@@ -0,0 +1,60 @@
+package com.infina.hissenet.controller.doc;
+
+import com.infina.hissenet.common.ApiResponse;
+import com.infina.hissenet.dto.response.FlightRecordingResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+
+@Tag(name = "Flight Recorder", description = "JDK Flight Recorder kaydı yönetimi (yalnızca ADMIN)")
+public interface FlightRecordingControllerDoc {
+
+    @Operation(
+            summary = "Kaydı başlatır",
+            description = "JDK'nın hazır ayarlarından biriyle kayıt başlatır; emir, dolum, cüzdan ve fiyat yenileme olayları "
+                    + "eşiksiz kaydedilir. Aynı anda tek kayıt çalışır; önceki kayıt ve dosyası silinir.",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Kayıt başladı"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Geçersiz ayar adı"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Çalışan bir kayıt var")
+            }
+    )
+    ApiResponse<FlightRecordingResponse> start(
+            @Parameter(description = "default (düşük ek yük) veya profile (daha ayrıntılı)", example = "default")
+            String settings,
+            @Parameter(description = "Kendiliğinden durma süresi (dakika); boşsa yapılandırılmış üst sınır", example = "10")
+            Integer minutes
+    );
+
+    @Operation(
+            summary = "Kaydı durdurur",
+            description = "Çalışan kaydı durdurur ve dosyaya yazar.",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Kayıt durdu"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Çalışan kayıt yok")
+            }
+    )
+    ApiResponse<FlightRecordingResponse> stop();
+
+    @Operation(
+            summary = "Kayıt durumunu getirir",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Son kayıt"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Kayıt başlatılmamış")
+            }
+    )
+    ApiResponse<FlightRecordingResponse> status();
+
+    @Operation(
+            summary = "Kayıt dosyasını indirir",
+            description = "Kayıt sürüyorsa o ana kadarki verinin kopyası, durduysa yazılan .jfr dosyası döner. "
+                    + "Dosya JDK Mission Control veya 'jfr print' ile açılır.",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = ".jfr dosyası"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "İndirilecek kayıt yok")
+            }
+    )
+    ResponseEntity<Resource> download();
+}
@@ -0,0 +1,15 @@
+package com.infina.hissenet.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * One OHLCV candle; {@code time} is the bucket start in epoch milliseconds.
+ */
+public record CandleResponse(
+        long time,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal close,
+        BigDecimal volume
+) {}
@@ -0,0 +1,48 @@
+package com.infina.hissenet.dto.response;
+
+/**
+ * A snapshot already encoded to JSON, shared read-only by every reader of one version.
+ * <p>
+ * {@code gzip} is {@code null} when compression is disabled or the body is too small
+ * to be worth it. The arrays are never modified after construction.
+ * </p>
+ */
+public final class EncodedSnapshot {
+
+    private final String epoch;
+    private final long version;
+    private final byte[] json;
+    private final byte[] gzip;
+
+    public EncodedSnapshot(String epoch, long version, byte[] json, byte[] gzip) {
+        this.epoch = epoch;
+        this.version = version;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    /**
+     * Weak validator: the JSON and gzip bodies of one version are the same representation.
+     * The version sequence restarts with every process, so the epoch of the buffer that
+     * produced it keeps a validator from an earlier process from matching.
+     */
+    public String getETag() {
+        return "W/\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,20 @@
+package com.infina.hissenet.dto.response;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of the admin-controlled JDK Flight Recorder recording.
+ *
+ * @param id        recording id assigned by the JVM
+ * @param name      recording name
+ * @param state     {@code RUNNING}, or {@code CLOSED} once stopped and written to disk
+ * @param settings  predefined configuration used, {@code default} or {@code profile}
+ * @param startTime when recording started
+ * @param stopTime  when recording stopped, {@code null} while running
+ * @param duration  automatic stop after this long
+ * @param size      bytes recorded so far, or the size of the dump file once stopped
+ */
+public record FlightRecordingResponse(long id, String name, String state, String settings,
+                                      Instant startTime, Instant stopTime, Duration duration, long size) {
+}
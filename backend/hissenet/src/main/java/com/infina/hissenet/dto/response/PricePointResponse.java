@@ -0,0 +1,13 @@
+package com.infina.hissenet.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * One recorded price; {@code time} is epoch milliseconds and {@code volume} the amount
+ * traded since the symbol's previous point that day.
+ */
+public record PricePointResponse(
+        long time,
+        BigDecimal price,
+        BigDecimal volume
+) {}
@@ -0,0 +1,35 @@
+package com.infina.hissenet.dto.response;
+
+import java.util.List;
+
+/**
+ * Frame sent on the combined price topic.
+ * <ul>
+ *   <li>{@code SNAPSHOT}: every symbol; {@code seq} is the sequence the snapshot reflects.</li>
+ *   <li>{@code DELTA}: only symbols that changed or were removed since {@code seq - 1}.</li>
+ *   <li>{@code HEARTBEAT}: no payload; carries the current {@code seq} so idle clients can detect a gap.</li>
+ * </ul>
+ * A client applies a DELTA only when its {@code seq} is exactly one past the last one it
+ * applied; otherwise it requests a new snapshot.
+ */
+public record PriceStreamMessage(
+        Type type,
+        long seq,
+        List<CombinedStockData> items,
+        List<String> removed,
+        long timestamp
+) {
+    public enum Type { SNAPSHOT, DELTA, HEARTBEAT }
+
+    public static PriceStreamMessage snapshot(long seq, List<CombinedStockData> items) {
+        return new PriceStreamMessage(Type.SNAPSHOT, seq, items, List.of(), System.currentTimeMillis());
+    }
+
+    public static PriceStreamMessage delta(long seq, List<CombinedStockData> changed, List<String> removed) {
+        return new PriceStreamMessage(Type.DELTA, seq, changed, removed, System.currentTimeMillis());
+    }
+
+    public static PriceStreamMessage heartbeat(long seq) {
+        return new PriceStreamMessage(Type.HEARTBEAT, seq, List.of(), List.of(), System.currentTimeMillis());
+    }
+}
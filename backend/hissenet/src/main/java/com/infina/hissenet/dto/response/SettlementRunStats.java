@@ -0,0 +1,22 @@
+package com.infina.hissenet.dto.response;
+
+/**
+ * Outcome of one T+2 settlement run for a single ledger (stock or wallet).
+ *
+ * @param ledger        which side was settled, e.g. {@code stock} or {@code wallet}
+ * @param rows          transactions marked SETTLED
+ * @param groups        distinct portfolios or wallets touched
+ * @param chunks        chunks processed, each in its own database transaction
+ * @param skipped       due transactions left unsettled because their group could not be applied
+ * @param elapsedMillis wall-clock duration of the run
+ */
+public record SettlementRunStats(String ledger, int rows, int groups, int chunks, int skipped, long elapsedMillis) {
+
+    public static SettlementRunStats empty(String ledger, long elapsedMillis) {
+        return new SettlementRunStats(ledger, 0, 0, 0, 0, elapsedMillis);
+    }
+
+    public double rowsPerSecond() {
+        return elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows;
+    }
+}
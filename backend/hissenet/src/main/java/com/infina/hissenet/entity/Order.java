@@ -3,7 +3,7 @@ package com.infina.hissenet.entity;
 import java.math.BigDecimal;
 import java.util.List;
 
-import com.infina.hissenet.entity.base.BaseEntity;
+import com.infina.hissenet.entity.base.SequenceBaseEntity;
 import com.infina.hissenet.entity.enums.OrderCategory;
 import com.infina.hissenet.entity.enums.OrderStatus;
 import com.infina.hissenet.entity.enums.OrderType;
@@ -14,7 +14,7 @@ import org.hibernate.annotations.SQLRestriction;
 @Entity
 @Table(name = "orders", indexes = @Index(name = "idx_order_status", columnList = "order_status"))
 @SQLRestriction("is_deleted = false")
-public class Order extends BaseEntity{
+public class Order extends SequenceBaseEntity {
 
 	@ManyToOne(optional = false, fetch = FetchType.LAZY)
 	@JoinColumn(name = "customer_id", nullable = false)
@@ -150,8 +150,8 @@ public class Order extends BaseEntity{
 	            ", totalAmount=" + totalAmount +
 	            ", createdAt=" + getCreatedAt() +
 	            ", updatedAt=" + getUpdatedAt() +
-	            ", createdBy=" + (getCreatedBy() != null ? getCreatedBy().getId() : null) +
-	            ", updatedBy=" + (getUpdatedBy() != null ? getUpdatedBy().getId() : null) +
+	            ", createdBy=" + getCreatedById() +
+	            ", updatedBy=" + getUpdatedById() +
 	            '}';
 	}
 	
@@ -0,0 +1,264 @@
+package com.infina.hissenet.entity;
+
+import com.infina.hissenet.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Running position of a customer in a single stock, maintained incrementally
+ * from {@link StockTransaction} writes so reads never have to scan the
+ * transaction history.
+ *
+ * <p>Quantities follow the transaction lifecycle: a COMPLETED row is pending
+ * until the settlement job marks it SETTLED, at which point it moves into
+ * {@code settledQuantity}. Pending sells are the T+2 blocked quantity.</p>
+ */
+@Entity
+@Table(name = "stock_positions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_positions_customer_stock", columnNames = {"customer_id", "stock_code"}))
+@SQLRestriction("is_deleted = false")
+public class StockPosition extends BaseEntity {
+
+    private static final int COST_SCALE = 4;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "portfolio_id")
+    private Portfolio portfolio;
+
+    @Column(name = "stock_code", nullable = false, length = 20)
+    private String stockCode;
+
+    @Column(name = "settled_quantity", nullable = false)
+    private Integer settledQuantity = 0;
+
+    @Column(name = "pending_buy_quantity", nullable = false)
+    private Integer pendingBuyQuantity = 0;
+
+    @Column(name = "pending_sell_quantity", nullable = false)
+    private Integer pendingSellQuantity = 0;
+
+    @Column(name = "average_cost", precision = 19, scale = 4, nullable = false)
+    private BigDecimal averageCost = BigDecimal.ZERO;
+
+    @Column(name = "total_commission", precision = 19, scale = 4, nullable = false)
+    private BigDecimal totalCommission = BigDecimal.ZERO;
+
+    @Column(name = "total_tax", precision = 19, scale = 4, nullable = false)
+    private BigDecimal totalTax = BigDecimal.ZERO;
+
+    @Column(name = "total_other_fees", precision = 19, scale = 4, nullable = false)
+    private BigDecimal totalOtherFees = BigDecimal.ZERO;
+
+    @Column(name = "last_price", precision = 19, scale = 4)
+    private BigDecimal lastPrice;
+
+    @Column(name = "last_transaction_id")
+    private Long lastTransactionId;
+
+    @Column(name = "last_settled_at")
+    private LocalDateTime lastSettledAt;
+
+    public StockPosition() {
+    }
+
+    public StockPosition(Customer customer, Portfolio portfolio, String stockCode) {
+        this.customer = customer;
+        this.portfolio = portfolio;
+        this.stockCode = stockCode;
+    }
+
+    public void addPendingBuy(int quantity) {
+        this.pendingBuyQuantity += quantity;
+    }
+
+    public void addPendingSell(int quantity) {
+        this.pendingSellQuantity += quantity;
+    }
+
+    public void cancelPendingBuy(int quantity) {
+        this.pendingBuyQuantity = Math.max(0, this.pendingBuyQuantity - quantity);
+    }
+
+    public void cancelPendingSell(int quantity) {
+        this.pendingSellQuantity = Math.max(0, this.pendingSellQuantity - quantity);
+    }
+
+    /**
+     * Moves a pending BUY into the settled quantity and folds its price into the
+     * weighted average cost.
+     */
+    public void settleBuy(int quantity, BigDecimal price, BigDecimal commission, BigDecimal tax, BigDecimal otherFees) {
+        cancelPendingBuy(quantity);
+        int newQuantity = this.settledQuantity + quantity;
+        if (newQuantity > 0 && price != null) {
+            BigDecimal heldCost = this.averageCost.multiply(BigDecimal.valueOf(Math.max(0, this.settledQuantity)));
+            BigDecimal addedCost = price.multiply(BigDecimal.valueOf(quantity));
+            this.averageCost = heldCost.add(addedCost)
+                    .divide(BigDecimal.valueOf(newQuantity), COST_SCALE, RoundingMode.HALF_UP);
+        }
+        this.settledQuantity = newQuantity;
+        this.totalCommission = this.totalCommission.add(orZero(commission));
+        this.totalTax = this.totalTax.add(orZero(tax));
+        this.totalOtherFees = this.totalOtherFees.add(orZero(otherFees));
+        this.lastSettledAt = LocalDateTime.now();
+    }
+
+    /**
+     * Moves a pending SELL out of the settled quantity. Average cost is unchanged;
+     * accumulated fees are released in proportion to the quantity sold.
+     */
+    public void settleSell(int quantity) {
+        cancelPendingSell(quantity);
+        releaseSettled(quantity);
+    }
+
+    // İptal edilen, takası tamamlanmış alışın adetleri geri alınır
+    public void reverseSettledBuy(int quantity) {
+        releaseSettled(quantity);
+    }
+
+    // İptal edilen, takası tamamlanmış satışın adetleri ortalama maliyet değişmeden geri eklenir
+    public void reverseSettledSell(int quantity) {
+        this.settledQuantity += quantity;
+        this.lastSettledAt = LocalDateTime.now();
+    }
+
+    private void releaseSettled(int quantity) {
+        int previous = this.settledQuantity;
+        this.settledQuantity = previous - quantity;
+        if (this.settledQuantity <= 0) {
+            this.averageCost = BigDecimal.ZERO;
+            this.totalCommission = BigDecimal.ZERO;
+            this.totalTax = BigDecimal.ZERO;
+            this.totalOtherFees = BigDecimal.ZERO;
+        } else if (previous > 0) {
+            BigDecimal remaining = BigDecimal.valueOf(this.settledQuantity);
+            BigDecimal held = BigDecimal.valueOf(previous);
+            this.totalCommission = this.totalCommission.multiply(remaining).divide(held, COST_SCALE, RoundingMode.HALF_UP);
+            this.totalTax = this.totalTax.multiply(remaining).divide(held, COST_SCALE, RoundingMode.HALF_UP);
+            this.totalOtherFees = this.totalOtherFees.multiply(remaining).divide(held, COST_SCALE, RoundingMode.HALF_UP);
+        }
+        this.lastSettledAt = LocalDateTime.now();
+    }
+
+    // Satılabilir adet: takası tamamlanmış adetten bekleyen satışlar düşülür
+    public int getAvailableQuantity() {
+        return Math.max(0, this.settledQuantity - this.pendingSellQuantity);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public void setPortfolio(Portfolio portfolio) {
+        this.portfolio = portfolio;
+    }
+
+    public String getStockCode() {
+        return stockCode;
+    }
+
+    public void setStockCode(String stockCode) {
+        this.stockCode = stockCode;
+    }
+
+    public Integer getSettledQuantity() {
+        return settledQuantity;
+    }
+
+    public void setSettledQuantity(Integer settledQuantity) {
+        this.settledQuantity = settledQuantity;
+    }
+
+    public Integer getPendingBuyQuantity() {
+        return pendingBuyQuantity;
+    }
+
+    public void setPendingBuyQuantity(Integer pendingBuyQuantity) {
+        this.pendingBuyQuantity = pendingBuyQuantity;
+    }
+
+    public Integer getPendingSellQuantity() {
+        return pendingSellQuantity;
+    }
+
+    public void setPendingSellQuantity(Integer pendingSellQuantity) {
+        this.pendingSellQuantity = pendingSellQuantity;
+    }
+
+    public BigDecimal getAverageCost() {
+        return averageCost;
+    }
+
+    public void setAverageCost(BigDecimal averageCost) {
+        this.averageCost = averageCost;
+    }
+
+    public BigDecimal getTotalCommission() {
+        return totalCommission;
+    }
+
+    public void setTotalCommission(BigDecimal totalCommission) {
+        this.totalCommission = totalCommission;
+    }
+
+    public BigDecimal getTotalTax() {
+        return totalTax;
+    }
+
+    public void setTotalTax(BigDecimal totalTax) {
+        this.totalTax = totalTax;
+    }
+
+    public BigDecimal getTotalOtherFees() {
+        return totalOtherFees;
+    }
+
+    public void setTotalOtherFees(BigDecimal totalOtherFees) {
+        this.totalOtherFees = totalOtherFees;
+    }
+
+    public BigDecimal getLastPrice() {
+        return lastPrice;
+    }
+
+    public void setLastPrice(BigDecimal lastPrice) {
+        this.lastPrice = lastPrice;
+    }
+
+    public Long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public void setLastTransactionId(Long lastTransactionId) {
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    public LocalDateTime getLastSettledAt() {
+        return lastSettledAt;
+    }
+
+    public void setLastSettledAt(LocalDateTime lastSettledAt) {
+        this.lastSettledAt = lastSettledAt;
+    }
+}
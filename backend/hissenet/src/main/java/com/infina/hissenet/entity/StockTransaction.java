@@ -1,6 +1,6 @@
 package com.infina.hissenet.entity;
 
-import com.infina.hissenet.entity.base.BaseEntity;
+import com.infina.hissenet.entity.base.SequenceBaseEntity;
 import com.infina.hissenet.entity.enums.MarketOrderType;
 import com.infina.hissenet.entity.enums.StockTransactionType;
 import com.infina.hissenet.entity.enums.TransactionStatus;
@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "stock_transactions")
 @SQLRestriction("is_deleted = false")
-public class StockTransaction extends BaseEntity {
+public class StockTransaction extends SequenceBaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
     private Portfolio portfolio;
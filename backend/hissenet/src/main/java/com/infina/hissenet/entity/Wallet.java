@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
@@ -70,13 +71,22 @@ public class Wallet extends BaseEntity {
     @Column(name = "status", nullable = false)
     private Status walletStatus = Status.ACTIVE;
 
-    @OneToMany(mappedBy = "wallet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Salt okunur geçmiş; hareketler WalletTransactionRepository ile doğrudan eklenir
+    @OneToMany(mappedBy = "wallet", fetch = FetchType.LAZY)
     private List<WalletTransaction> transactions = new ArrayList<>();
 
-    @Column(name = "blocked_balance", precision = 19, nullable = false, scale = 2, columnDefinition = "DECIMAL(19,2) DEFAULT 0.00")
+    // Toplu UPDATE'ler de artırır; arada bakiye hareketi görmüş eski kopya kaydedilemez
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @ColumnDefault("0.00")
+    @Column(name = "blocked_balance", precision = 19, nullable = false, scale = 2)
     private BigDecimal blockedBalance = BigDecimal.ZERO;
 
-    @Column(name = "available_balance", precision = 19, nullable = false, scale = 2, columnDefinition = "DECIMAL(19,2) DEFAULT 0.00")
+    @ColumnDefault("0.00")
+    @Column(name = "available_balance", precision = 19, nullable = false, scale = 2)
     private BigDecimal availableBalance = BigDecimal.ZERO;
     public void addBalance(BigDecimal amount) {
         this.balance = this.balance.add(amount);
@@ -131,6 +141,10 @@ public class Wallet extends BaseEntity {
         this.lastResetDate = LocalDate.now();
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public BigDecimal getBlockedBalance() {
         return blockedBalance;
     }
@@ -188,14 +202,6 @@ public class Wallet extends BaseEntity {
     public void unlockWallet() {
         this.isLocked = false;
     }
-    public void addTransaction(WalletTransaction transaction){
-        if (this.transactions == null){
-            this.transactions = new ArrayList<>();
-        }
-        else transactions.add(transaction);
-        transaction.setWallet(this);
-    }
-
     public Wallet(){}
 
     public Wallet(Customer customer, BigDecimal balance, String currency, BigDecimal dailyLimit, BigDecimal monthlyLimit, BigDecimal dailyUsedAmount, BigDecimal monthlyUsedAmount, LocalDate lastResetDate) {
@@ -1,6 +1,6 @@
 package com.infina.hissenet.entity;
 
-import com.infina.hissenet.entity.base.BaseEntity;
+import com.infina.hissenet.entity.base.SequenceBaseEntity;
 import com.infina.hissenet.entity.enums.TransactionStatus;
 import com.infina.hissenet.entity.enums.TransactionType;
 import jakarta.persistence.*;
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "wallet_transactions")
 @SQLRestriction("is_deleted = false")
-public class WalletTransaction extends BaseEntity {
+public class WalletTransaction extends SequenceBaseEntity {
 
     @NotNull(message = "Wallet cannot be null")
     @ManyToOne(fetch = FetchType.LAZY)
@@ -86,11 +86,9 @@ public class WalletTransaction extends BaseEntity {
         return wallet;
     }
 
+    // Koleksiyona eklenmez: contains() tembel geçmişin tamamını yüklerdi
     public void setWallet(Wallet wallet) {
         this.wallet = wallet;
-        if(wallet != null && !wallet.getTransactions().contains(this)){
-            wallet.addTransaction(this);
-        }
     }
 
 
@@ -0,0 +1,99 @@
+package com.infina.hissenet.entity.base;
+
+
+import com.infina.hissenet.entity.Employee;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit columns shared by every entity. The identifier is declared by the subclass so that
+ * each table can pick its generation strategy: {@link BaseEntity} uses an IDENTITY column,
+ * {@link SequenceBaseEntity} a pooled sequence that allows JDBC batch inserts.
+ */
+@MappedSuperclass
+public abstract class AuditableEntity {
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "is_deleted", nullable = false)
+    private Boolean isDeleted = false;
+
+    // Denetim referansları tembel yüklenir; listeler ve zamanlayıcılar yalnızca kimliği okur
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by_employee_id", referencedColumnName = "id")
+    private Employee createdBy;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "udated_by_employee_id", referencedColumnName = "id")
+    private  Employee updatedBy;
+
+
+
+    public abstract Long getId();
+
+    public abstract void setId(Long id);
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Boolean getDeleted() {
+        return isDeleted;
+    }
+
+    public void setDeleted(Boolean deleted) {
+        isDeleted = deleted;
+    }
+
+    public Employee getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(Employee createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Employee getUpdatedBy() {
+        return updatedBy;
+    }
+
+    /**
+     * Id of the creating employee. Reading the id of a lazy proxy does not initialize it,
+     * so DTO mapping through this accessor never loads the employee row.
+     */
+    public Long getCreatedById() {
+        return createdBy != null ? createdBy.getId() : null;
+    }
+
+    /**
+     * Id of the last updating employee; see {@link #getCreatedById()}.
+     */
+    public Long getUpdatedById() {
+        return updatedBy != null ? updatedBy.getId() : null;
+    }
+
+    public void setUpdatedBy(Employee updatedBy) {
+        this.updatedBy = updatedBy;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.infina.hissenet.entity.base;
+
+
+import jakarta.persistence.*;
+
+/**
+ * Entity with a sequence-generated identifier. Hibernate gives each subclass its own
+ * {@code <entity>_seq} sequence (increment 50, pooled optimizer) and hands out 50 ids per
+ * sequence call, so inserts need no round-trip for the key and can be sent as JDBC batches.
+ */
+@MappedSuperclass
+public abstract class SequenceBaseEntity extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,40 @@
+package com.infina.hissenet.entity.enums;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Mum grafiği aralığını temsil eder.
+ */
+public enum CandleInterval {
+
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1));
+
+    private final String code;
+    private final long millis;
+
+    CandleInterval(String code, Duration duration) {
+        this.code = code;
+        this.millis = duration.toMillis();
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * "1m", "5m" veya "1h" kodundan aralığı bulur.
+     */
+    public static CandleInterval fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(i -> i.code.equalsIgnoreCase(code))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown candle interval: " + code));
+    }
+}
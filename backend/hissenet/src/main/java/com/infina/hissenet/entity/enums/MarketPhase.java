@@ -0,0 +1,32 @@
+package com.infina.hissenet.entity.enums;
+
+/**
+ * Borsanın gün içindeki evresini temsil eder.
+ */
+public enum MarketPhase {
+
+    /**
+     * Hafta içi, emir toplama başlangıcından seans açılışına kadar.
+     */
+    PRE_OPEN,
+
+    /**
+     * Sürekli işlem seansı.
+     */
+    SESSION,
+
+    /**
+     * Seans kapanışından sonra gün sonu işlemlerinin sürdüğü aralık.
+     */
+    AFTER_CLOSE,
+
+    /**
+     * Hafta içi gece saatleri.
+     */
+    CLOSED,
+
+    /**
+     * Cumartesi ve pazar.
+     */
+    WEEKEND
+}
@@ -0,0 +1,30 @@
+package com.infina.hissenet.event;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+public class StockPricesRefreshedEvent extends ApplicationEvent {
+    private final List<CombinedStockData> snapshot;
+    // Diskten geri yüklenen son bilinen veri; yeni bir fiyat gözlemi değildir
+    private final boolean restored;
+
+    public StockPricesRefreshedEvent(Object source, List<CombinedStockData> snapshot) {
+        this(source, snapshot, false);
+    }
+
+    public StockPricesRefreshedEvent(Object source, List<CombinedStockData> snapshot, boolean restored) {
+        super(source);
+        this.snapshot = snapshot;
+        this.restored = restored;
+    }
+
+    public List<CombinedStockData> getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+}
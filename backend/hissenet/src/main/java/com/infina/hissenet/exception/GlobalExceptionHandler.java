@@ -7,6 +7,9 @@ import com.infina.hissenet.exception.customer.CustomerNotFoundException;
 import com.infina.hissenet.exception.customer.EmailAlreadyExistsException;
 import com.infina.hissenet.exception.customer.TaxNumberAlreadyExistsException;
 import com.infina.hissenet.exception.customer.TcNumberAlreadyExistsException;
+import com.infina.hissenet.exception.jfr.InvalidRecordingSettingsException;
+import com.infina.hissenet.exception.jfr.RecordingAlreadyRunningException;
+import com.infina.hissenet.exception.jfr.RecordingNotRunningException;
 import com.infina.hissenet.exception.mail.MailException;
 import com.infina.hissenet.exception.mail.MailRateLimitException;
 import com.infina.hissenet.exception.mail.VerificationCodeException;
@@ -24,6 +27,7 @@ import com.infina.hissenet.exception.transaction.TransactionAlreadyCompletedExce
 import com.infina.hissenet.exception.transaction.UnauthorizedOperationException;
 import com.infina.hissenet.exception.wallet.*;
 import com.infina.hissenet.utils.MessageUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.validation.FieldError;
@@ -79,7 +83,7 @@ public class GlobalExceptionHandler {
     }
 
     // 409 - Conflict
-    @ExceptionHandler({RoleAlreadyExistsException.class, InsufficientBalanceException.class, TransactionAlreadyCancelledException.class, TransactionAlreadyCompletedException.class, WalletAlreadyExistsException.class, WalletNotActiveException.class, EmailAlreadyExistsException.class, TcNumberAlreadyExistsException.class, TaxNumberAlreadyExistsException.class})
+    @ExceptionHandler({RoleAlreadyExistsException.class, InsufficientBalanceException.class, TransactionAlreadyCancelledException.class, TransactionAlreadyCompletedException.class, WalletAlreadyExistsException.class, WalletNotActiveException.class, EmailAlreadyExistsException.class, TcNumberAlreadyExistsException.class, TaxNumberAlreadyExistsException.class, RecordingAlreadyRunningException.class, RecordingNotRunningException.class})
     public ProblemDetail handleConflict(RuntimeException ex) {
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
         problem.setTitle(MessageUtils.getMessage("error.title.conflict"));
@@ -88,6 +92,16 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    // 409 - Conflict: okuma ile kayıt arasında satır başka bir işlemce değişti (ör. cüzdan sürümü)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, MessageUtils.getMessage("common.concurrent.update"));
+        problem.setTitle(MessageUtils.getMessage("error.title.conflict"));
+        problem.setType(URI.create("https://www.hissenet.com/errors/conflict"));
+        problem.setProperty("timestamp", LocalDateTime.now());
+        return problem;
+    }
+
     // 500 - Internal Server Error
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleGeneric(Exception ex) {
@@ -164,7 +178,7 @@ public class GlobalExceptionHandler {
 
     // 400 Bad Request
     @ExceptionHandler({
-            InsufficientStockException.class, BadRequestStockException.class
+            InsufficientStockException.class, BadRequestStockException.class, InvalidRecordingSettingsException.class
     })
     public ProblemDetail badRequestException(RuntimeException ex) {
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
@@ -0,0 +1,9 @@
+package com.infina.hissenet.exception.jfr;
+
+import com.infina.hissenet.utils.MessageUtils;
+
+public class InvalidRecordingSettingsException extends RuntimeException {
+    public InvalidRecordingSettingsException(String settings) {
+        super(MessageUtils.getMessage("jfr.recording.invalid.settings", settings));
+    }
+}
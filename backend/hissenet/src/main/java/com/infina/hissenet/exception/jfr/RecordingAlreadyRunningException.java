@@ -0,0 +1,9 @@
+package com.infina.hissenet.exception.jfr;
+
+import com.infina.hissenet.utils.MessageUtils;
+
+public class RecordingAlreadyRunningException extends RuntimeException {
+    public RecordingAlreadyRunningException(long id) {
+        super(MessageUtils.getMessage("jfr.recording.already.running", id));
+    }
+}
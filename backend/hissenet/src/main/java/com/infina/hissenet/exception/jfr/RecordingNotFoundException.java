@@ -0,0 +1,10 @@
+package com.infina.hissenet.exception.jfr;
+
+import com.infina.hissenet.exception.common.NotFoundException;
+import com.infina.hissenet.utils.MessageUtils;
+
+public class RecordingNotFoundException extends NotFoundException {
+    public RecordingNotFoundException() {
+        super(MessageUtils.getMessage("jfr.recording.not.found"));
+    }
+}
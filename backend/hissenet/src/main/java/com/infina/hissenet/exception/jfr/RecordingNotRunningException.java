@@ -0,0 +1,9 @@
+package com.infina.hissenet.exception.jfr;
+
+import com.infina.hissenet.utils.MessageUtils;
+
+public class RecordingNotRunningException extends RuntimeException {
+    public RecordingNotRunningException() {
+        super(MessageUtils.getMessage("jfr.recording.not.running"));
+    }
+}
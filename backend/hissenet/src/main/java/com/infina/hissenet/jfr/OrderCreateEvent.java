@@ -0,0 +1,33 @@
+package com.infina.hissenet.jfr;
+
+import com.infina.hissenet.dto.request.OrderCreateRequest;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.infina.hissenet.OrderCreate")
+@Label("Order Create")
+@Category({"HisseNet", "Orders"})
+@Description("Order placement from request to response; outcome is the saved order status")
+public class OrderCreateEvent extends TimedEvent {
+
+    @Label("Customer Id")
+    long customerId;
+
+    @Label("Stock Code")
+    String stockCode;
+
+    @Label("Order Type")
+    String orderType;
+
+    @Label("Order Category")
+    String category;
+
+    public OrderCreateEvent(OrderCreateRequest request) {
+        this.customerId = request.customerId() != null ? request.customerId() : 0L;
+        this.stockCode = request.stockCode();
+        this.orderType = String.valueOf(request.type());
+        this.category = String.valueOf(request.category());
+    }
+}
@@ -0,0 +1,34 @@
+package com.infina.hissenet.jfr;
+
+import com.infina.hissenet.entity.Order;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.infina.hissenet.OrderFill")
+@Label("Order Fill")
+@Category({"HisseNet", "Orders"})
+@Description("Triggered limit order settled by the scheduler; outcome is FILLED or FAILED")
+public class OrderFillEvent extends TimedEvent {
+
+    @Label("Order Id")
+    long orderId;
+
+    @Label("Customer Id")
+    long customerId;
+
+    @Label("Stock Code")
+    String stockCode;
+
+    @Label("Order Type")
+    String orderType;
+
+    public OrderFillEvent(Order order) {
+        this.orderId = order.getId() != null ? order.getId() : 0L;
+        this.customerId = order.getCustomer() != null && order.getCustomer().getId() != null
+                ? order.getCustomer().getId() : 0L;
+        this.stockCode = order.getStockCode();
+        this.orderType = String.valueOf(order.getType());
+    }
+}
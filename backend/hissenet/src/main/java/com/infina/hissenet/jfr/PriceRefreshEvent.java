@@ -0,0 +1,21 @@
+package com.infina.hissenet.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.infina.hissenet.PriceRefresh")
+@Label("Price Refresh")
+@Category({"HisseNet", "Prices"})
+@Description("Combined price snapshot refresh; outcome is ok, empty, skipped or the error type")
+public class PriceRefreshEvent extends TimedEvent {
+
+    @Label("Symbols")
+    @Description("Entries in the new snapshot")
+    int symbols;
+
+    public void setSymbols(int symbols) {
+        this.symbols = symbols;
+    }
+}
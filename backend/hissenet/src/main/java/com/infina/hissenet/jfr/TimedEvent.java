@@ -0,0 +1,50 @@
+package com.infina.hissenet.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Base type for the application's JDK Flight Recorder events.
+ * <p>
+ * The event duration spans {@link #record}; {@code outcome} is derived from the result or
+ * set to the simple name of the thrown exception. When no recording has the event enabled,
+ * {@code begin}/{@code commit} are intrinsified to no-ops and the outcome is not computed.
+ * </p>
+ */
+@Category("HisseNet")
+@StackTrace(false)
+public abstract class TimedEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    @Description("Result status, or the exception type when the operation failed")
+    protected String outcome;
+
+    public <T> T record(Supplier<T> body, Function<? super T, String> outcomeOf) {
+        begin();
+        try {
+            T result = body.get();
+            if (isEnabled()) {
+                outcome = outcomeOf.apply(result);
+            }
+            return result;
+        } catch (RuntimeException | Error e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            commit();
+        }
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+}
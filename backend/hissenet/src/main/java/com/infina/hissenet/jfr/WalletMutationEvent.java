@@ -0,0 +1,32 @@
+package com.infina.hissenet.jfr;
+
+import com.infina.hissenet.entity.enums.TransactionType;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.infina.hissenet.WalletMutation")
+@Label("Wallet Mutation")
+@Category({"HisseNet", "Wallet"})
+@Description("Wallet balance credit or debit including validation and the wallet update")
+public class WalletMutationEvent extends TimedEvent {
+
+    public static final String CREDIT = "CREDIT";
+    public static final String DEBIT = "DEBIT";
+
+    @Label("Customer Id")
+    long customerId;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Transaction Type")
+    String transactionType;
+
+    public WalletMutationEvent(Long customerId, String direction, TransactionType transactionType) {
+        this.customerId = customerId != null ? customerId : 0L;
+        this.direction = direction;
+        this.transactionType = String.valueOf(transactionType);
+    }
+}
@@ -1,217 +1,193 @@
 package com.infina.hissenet.logging;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.infina.hissenet.common.ApiResponse;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.properties.TraceLogProperties;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
-import java.lang.reflect.Field;
-import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes ENTER/EXIT/EXCEPTION trace records for every controller and service call.
+ * <p>
+ * Each target class logs through its own child logger,
+ * {@code com.infina.hissenet.logging.LogAspect.<target class>}, so levels are set per
+ * package with the usual {@code logging.level.*} keys. When INFO is off for a target, or
+ * the call is not sampled ({@link TraceLogProperties}), the call proceeds without touching
+ * its arguments; exceptions are still logged at ERROR.
+ * </p>
+ * <p>
+ * {@link StockPricesRefreshedEvent} listeners are not traced: they run on every price
+ * refresh and their only argument is the full market snapshot.
+ * </p>
+ * <p>
+ * Logger, sampling rate and buffer size are resolved once per target class; records are
+ * written into a {@link TraceEvent} and handed to the async appenders in
+ * {@code logback-spring.xml}.
+ * </p>
+ */
 @Aspect
 @Component
 public class LogAspect {
 
-    private static final Logger logger = LoggerFactory.getLogger(LogAspect.class);
-    private static final String MASK = "****";
-    private static final String UNLOGGABLE = "[UNLOGGABLE]";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int INITIAL_EVENT_SIZE = 256;
+    private static final int MAX_EVENT_SIZE_HINT = 8192;
 
-    static {
-        objectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
-        objectMapper.disable(SerializationFeature.FAIL_ON_UNWRAPPED_TYPE_IDENTIFIERS);
-    }
+    private final TraceLogProperties properties;
+    private final Map<Class<?>, Target> targets = new ConcurrentHashMap<>();
 
-    private static final List<String> SENSITIVE_FIELD_NAMES = Arrays.asList(
-            "password", "newpassword", "confirmnewpassword", "passwordhash"
-    );
+    public LogAspect(TraceLogProperties properties) {
+        this.properties = properties;
+    }
 
-    @Around("execution(* com.infina.hissenet.controller..*(..)) || execution(* com.infina.hissenet.service..*(..))")
+    @Around("(execution(* com.infina.hissenet.controller..*(..)) || execution(* com.infina.hissenet.service..*(..)))"
+            + " && !execution(* *(com.infina.hissenet.event.StockPricesRefreshedEvent))")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getSignature().getDeclaringTypeName();
-        boolean isController = className.contains(".controller.");
-
-        Object[] args = joinPoint.getArgs();
-        Object[] maskedArgs = maskSensitiveData(args);
+        Target target = target(joinPoint);
+        if (!target.logger.isInfoEnabled() || !target.sampled()) {
+            return proceedLoggingErrors(joinPoint, target);
+        }
 
-        Map<String, Object> enterLog = new HashMap<>();
-        enterLog.put("event", "ENTER");
-        enterLog.put("timestamp", LocalDateTime.now().toString());
-        enterLog.put("className", className);
-        enterLog.put("methodName", methodName);
-        enterLog.put("args", maskedArgs);
-        enterLog.put("type", isController ? "CONTROLLER" : "SERVICE");
+        long startTime = System.nanoTime();
+        String methodName = joinPoint.getSignature().getName();
 
-        logger.info("{}", toJsonString(enterLog));
+        TraceEvent enter = target.event("ENTER", methodName);
+        StringBuilder args = enter.name("args").append('[');
+        Object[] values = joinPoint.getArgs();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                args.append(',');
+            }
+            TraceValues.appendArgument(args, values[i]);
+        }
+        args.append(']');
+        target.logger.info("{}", target.build(enter));
 
         Object result;
         try {
             result = joinPoint.proceed();
         } catch (Throwable ex) {
-            Map<String, Object> exceptionLog = new HashMap<>();
-            exceptionLog.put("event", "EXCEPTION");
-            exceptionLog.put("timestamp", LocalDateTime.now().toString());
-            exceptionLog.put("className", className);
-            exceptionLog.put("methodName", methodName);
-            exceptionLog.put("errorMessage", ex.getMessage());
-            exceptionLog.put("errorType", ex.getClass().getSimpleName());
-            exceptionLog.put("type", isController ? "CONTROLLER" : "SERVICE");
-
-            logger.error("{}", toJsonString(exceptionLog));
+            logException(target, methodName, ex);
             throw ex;
         }
 
-        long duration = System.currentTimeMillis() - startTime;
-
-        if (isController) {
-            logControllerResult(className, methodName, result, duration);
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        TraceEvent exit = target.event("EXIT", methodName).field("duration", duration);
+        if (target.controller) {
+            appendControllerResult(exit, result);
         } else {
-            logServiceResult(className, methodName, result, duration);
+            appendServiceResult(exit, result);
         }
+        target.logger.info("{}", target.build(exit));
 
         return result;
     }
 
-    private void logControllerResult(String className, String methodName, Object result, long duration) {
-        Map<String, Object> exitLog = new HashMap<>();
-        exitLog.put("event", "EXIT");
-        exitLog.put("timestamp", LocalDateTime.now().toString());
-        exitLog.put("className", className);
-        exitLog.put("methodName", methodName);
-        exitLog.put("duration", duration);
-        exitLog.put("type", "CONTROLLER");
-
-        if (result instanceof ApiResponse) {
-            ApiResponse<?> apiResponse = (ApiResponse<?>) result;
-            exitLog.put("responseType", "ApiResponse");
-            exitLog.put("status", apiResponse.getStatus());
-            exitLog.put("message", apiResponse.getMessage());
-            exitLog.put("data", safeSerializeObject(apiResponse.getData()));
-        } else {
-            exitLog.put("responseType", result != null ? result.getClass().getSimpleName() : "void");
-            exitLog.put("result", safeSerializeObject(result));
+    private Object proceedLoggingErrors(ProceedingJoinPoint joinPoint, Target target) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            logException(target, joinPoint.getSignature().getName(), ex);
+            throw ex;
         }
+    }
 
-        logger.info("{}", toJsonString(exitLog));
+    private void logException(Target target, String methodName, Throwable ex) {
+        if (target.logger.isErrorEnabled()) {
+            TraceEvent event = target.event("EXCEPTION", methodName)
+                    .field("errorMessage", ex.getMessage())
+                    .field("errorType", ex.getClass().getSimpleName());
+            target.logger.error("{}", target.build(event));
+        }
     }
 
-    private void logServiceResult(String className, String methodName, Object result, long duration) {
-        Map<String, Object> exitLog = new HashMap<>();
-        exitLog.put("event", "EXIT");
-        exitLog.put("timestamp", LocalDateTime.now().toString());
-        exitLog.put("className", className);
-        exitLog.put("methodName", methodName);
-        exitLog.put("duration", duration);
-        exitLog.put("type", "SERVICE");
+    private void appendControllerResult(TraceEvent exit, Object result) {
+        if (result instanceof ApiResponse<?> apiResponse) {
+            exit.field("responseType", "ApiResponse")
+                    .field("status", apiResponse.getStatus())
+                    .field("message", apiResponse.getMessage());
+            TraceValues.appendSummary(exit.name("data"), apiResponse.getData());
+        } else {
+            exit.field("responseType", result != null ? result.getClass().getSimpleName() : "void");
+            TraceValues.appendSummary(exit.name("result"), result);
+        }
+    }
 
+    private void appendServiceResult(TraceEvent exit, Object result) {
         if (result != null) {
-            exitLog.put("returnType", result.getClass().getSimpleName());
-            exitLog.put("returnValue", safeSerializeObject(result));
+            exit.field("returnType", result.getClass().getSimpleName());
+            TraceValues.appendSummary(exit.name("returnValue"), result);
         } else {
-            exitLog.put("returnType", "void");
+            exit.field("returnType", "void");
         }
-
-        logger.info("{}", toJsonString(exitLog));
     }
 
-    private Object safeSerializeObject(Object obj) {
-        if (obj == null) {
-            return null;
+    // Arayüz üzerinden çağrılsa da seviye ve oran gerçek sınıfın paketine göre belirlenir
+    private Target target(ProceedingJoinPoint joinPoint) {
+        Object instance = joinPoint.getTarget();
+        Class<?> type = instance != null ? ClassUtils.getUserClass(instance) : joinPoint.getSignature().getDeclaringType();
+        Target target = targets.get(type);
+        if (target == null) {
+            target = targets.computeIfAbsent(type, t -> new Target(t.getName(), sampleRate(t.getName())));
         }
+        return target;
+    }
 
-        if (isEntity(obj)) {
-            try {
-                Field idField = obj.getClass().getDeclaredField("id");
-                idField.setAccessible(true);
-                Object id = idField.get(obj);
-                return obj.getClass().getSimpleName() + "[id=" + id + "]";
-            } catch (Exception e) {
-                return obj.getClass().getSimpleName() + "[UNSERIALIZABLE]";
+    // En uzun eşleşen önek kazanır; eşleşme yoksa genel oran
+    private double sampleRate(String className) {
+        double rate = properties.getSampleRate();
+        int matched = -1;
+        for (Map.Entry<String, Double> entry : properties.getSampleRates().entrySet()) {
+            String prefix = entry.getKey();
+            if (className.startsWith(prefix) && prefix.length() > matched && entry.getValue() != null) {
+                rate = entry.getValue();
+                matched = prefix.length();
             }
         }
-
-        if (obj instanceof String || obj instanceof Number || obj instanceof Boolean) {
-            return obj;
-        }
-
-        if (obj instanceof java.util.Collection) {
-            java.util.Collection<?> collection = (java.util.Collection<?>) obj;
-            return obj.getClass().getSimpleName() + "[size=" + collection.size() + "]";
-        }
-
-        return obj.getClass().getSimpleName() + "[UNSERIALIZABLE]";
-    }
-
-    private boolean isEntity(Object obj) {
-        String className = obj.getClass().getName();
-        return className.startsWith("com.infina.hissenet.entity.");
+        return rate;
     }
 
-    private String toJsonString(Object obj) {
-        try {
-            return objectMapper.writeValueAsString(obj);
-        } catch (Exception e) {
-            return "{\"error\":\"Failed to serialize log object\",\"reason\":\"" + e.getMessage() + "\"}";
+    private static final class Target {
+        final String className;
+        final Logger logger;
+        final boolean controller;
+        final double sampleRate;
+        volatile int sizeHint = INITIAL_EVENT_SIZE;
+
+        Target(String className, double sampleRate) {
+            this.className = className;
+            this.logger = LoggerFactory.getLogger(LogAspect.class.getName() + "." + className);
+            this.controller = className.contains(".controller.");
+            this.sampleRate = sampleRate;
         }
-    }
 
-    private Object[] maskSensitiveData(Object[] args) {
-        Object[] masked = new Object[args.length];
-        for (int i = 0; i < args.length; i++) {
-            Object arg = args[i];
-
-            if (arg == null) {
-                masked[i] = null;
-            } else if (arg instanceof String str && isSensitiveField(str)) {
-                masked[i] = MASK;
-            } else if (isPojo(arg)) {
-                Object maskedPojo = safeMaskPojo(arg);
-                masked[i] = maskedPojo != null ? maskedPojo : UNLOGGABLE;
-            } else {
-                masked[i] = arg;
-            }
+        boolean sampled() {
+            return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
         }
-        return masked;
-    }
 
-    private boolean isPojo(Object obj) {
-        String pkg = obj.getClass().getPackageName();
-        return pkg.startsWith("com.infina.hissenet.dto.request");
-    }
+        TraceEvent event(String event, String methodName) {
+            return new TraceEvent(sizeHint)
+                    .field("event", event)
+                    .field("type", controller ? "CONTROLLER" : "SERVICE")
+                    .field("className", className)
+                    .field("methodName", methodName);
+        }
 
-    private Object safeMaskPojo(Object obj) {
-        try {
-            Class<?> clazz = obj.getClass();
-            Object clone = clazz.getDeclaredConstructor().newInstance();
-
-            for (Field field : clazz.getDeclaredFields()) {
-                field.setAccessible(true);
-                Object value = field.get(obj);
-
-                if (isSensitiveField(field.getName())) {
-                    field.set(clone, MASK);
-                } else {
-                    field.set(clone, value);
-                }
+        // Sonraki kayıtlar aynı hedefin en büyük kaydı kadar yer ayırarak başlar
+        String build(TraceEvent event) {
+            String json = event.build();
+            if (json.length() > sizeHint) {
+                sizeHint = Math.min(json.length(), MAX_EVENT_SIZE_HINT);
             }
-            return clone;
-        } catch (Exception e) {
-            logger.warn("Cannot mask POJO of type {}. Sensitive fields will be excluded from log.", obj.getClass().getName());
-            return null;
+            return json;
         }
     }
-
-    private boolean isSensitiveField(String fieldName) {
-        return SENSITIVE_FIELD_NAMES.contains(fieldName.toLowerCase());
-    }
 }
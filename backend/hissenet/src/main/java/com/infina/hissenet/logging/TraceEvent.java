@@ -0,0 +1,54 @@
+package com.infina.hissenet.logging;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * One structured trace record written straight into a buffer sized from earlier records
+ * of the same target, instead of a {@code HashMap} serialized by Jackson.
+ */
+final class TraceEvent {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    private final StringBuilder json;
+
+    TraceEvent(int sizeHint) {
+        json = new StringBuilder(sizeHint).append('{');
+    }
+
+    TraceEvent field(String name, String value) {
+        name(name);
+        quote(json, value);
+        return this;
+    }
+
+    TraceEvent field(String name, long value) {
+        name(name).append(value);
+        return this;
+    }
+
+    /**
+     * Opens a field whose value the caller appends as JSON.
+     */
+    StringBuilder name(String name) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        json.append('"').append(name).append("\":");
+        return json;
+    }
+
+    String build() {
+        return json.append('}').toString();
+    }
+
+    static void quote(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        ENCODER.quoteAsString(value, out);
+        out.append('"');
+    }
+}
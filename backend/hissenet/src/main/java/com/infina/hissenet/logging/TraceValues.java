@@ -0,0 +1,246 @@
+package com.infina.hissenet.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.infina.hissenet.entity.base.AuditableEntity;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders arguments and return values into trace events.
+ * <p>
+ * How a class is rendered, and for request DTOs which members are masked, is resolved once
+ * per class and cached; rendering a value is then a switch plus direct accessor calls.
+ * Request DTOs are written member by member with sensitive members replaced, so no copy of
+ * the argument is created. Collections, maps and arrays are written as their size.
+ * </p>
+ */
+final class TraceValues {
+
+    static final String MASK = "****";
+    static final String UNLOGGABLE = "[UNLOGGABLE]";
+    static final String LAMBDA = "[LAMBDA]";
+
+    private static final String REQUEST_PACKAGE = "com.infina.hissenet.dto.request";
+    private static final String ENTITY_PACKAGE = "com.infina.hissenet.entity";
+
+    private static final Set<String> SENSITIVE_NAMES = Set.of(
+            "password", "newpassword", "confirmnewpassword", "passwordhash"
+    );
+
+    private static final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(SerializationFeature.FAIL_ON_UNWRAPPED_TYPE_IDENTIFIERS)
+            .build();
+
+    private enum Kind { STRING, NUMBER, BOOLEAN, ENUM, ENTITY, REQUEST, COLLECTION, MAP, ARRAY, LAMBDA, OTHER }
+
+    private record Member(String name, boolean sensitive, Field field, Method accessor) {
+        Object get(Object target) throws ReflectiveOperationException {
+            return accessor != null ? accessor.invoke(target) : field.get(target);
+        }
+    }
+
+    private static final ClassValue<Kind> KINDS = new ClassValue<>() {
+        @Override
+        protected Kind computeValue(Class<?> type) {
+            return classify(type);
+        }
+    };
+
+    // null: üyeleri okunamayan sınıf, argüman yerine UNLOGGABLE yazılır
+    private static final ClassValue<Member[]> REQUEST_MEMBERS = new ClassValue<>() {
+        @Override
+        protected Member[] computeValue(Class<?> type) {
+            return requestMembers(type);
+        }
+    };
+
+    private TraceValues() {
+    }
+
+    static boolean isSensitive(String name) {
+        return SENSITIVE_NAMES.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes a method argument: request DTOs masked member by member, other objects as JSON.
+     */
+    static void appendArgument(StringBuilder out, Object arg) {
+        if (arg == null) {
+            out.append("null");
+            return;
+        }
+        switch (KINDS.get(arg.getClass())) {
+            case STRING -> TraceEvent.quote(out, isSensitive((String) arg) ? MASK : (String) arg);
+            case NUMBER -> appendNumber(out, (Number) arg);
+            case BOOLEAN -> out.append(arg);
+            case ENUM -> TraceEvent.quote(out, ((Enum<?>) arg).name());
+            case ENTITY -> TraceEvent.quote(out, entitySummary(arg));
+            case REQUEST -> appendRequest(out, arg);
+            case COLLECTION, MAP, ARRAY -> TraceEvent.quote(out, sizeSummary(arg));
+            case LAMBDA -> TraceEvent.quote(out, LAMBDA);
+            case OTHER -> appendJson(out, arg);
+        }
+    }
+
+    /**
+     * Writes a return value as a short summary; only scalars are written as they are.
+     */
+    static void appendSummary(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        switch (KINDS.get(value.getClass())) {
+            case STRING -> TraceEvent.quote(out, (String) value);
+            case NUMBER -> appendNumber(out, (Number) value);
+            case BOOLEAN -> out.append(value);
+            case ENUM -> TraceEvent.quote(out, ((Enum<?>) value).name());
+            case ENTITY -> TraceEvent.quote(out, entitySummary(value));
+            case COLLECTION, MAP, ARRAY -> TraceEvent.quote(out, sizeSummary(value));
+            case LAMBDA -> TraceEvent.quote(out, LAMBDA);
+            case REQUEST, OTHER -> TraceEvent.quote(out, value.getClass().getSimpleName() + "[UNSERIALIZABLE]");
+        }
+    }
+
+    private static Kind classify(Class<?> type) {
+        if (type == String.class) {
+            return Kind.STRING;
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return Kind.NUMBER;
+        }
+        if (type == Boolean.class) {
+            return Kind.BOOLEAN;
+        }
+        if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            return Kind.ENUM;
+        }
+        if (type.isArray()) {
+            return Kind.ARRAY;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return Kind.COLLECTION;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return Kind.MAP;
+        }
+        // Jackson lambda'ları boş nesne olarak yazar; serileştirmeye değmez
+        if (type.isHidden() || type.isSynthetic()) {
+            return Kind.LAMBDA;
+        }
+        String name = type.getName();
+        if (name.startsWith(ENTITY_PACKAGE + ".")) {
+            return Kind.ENTITY;
+        }
+        if (type.getPackageName().startsWith(REQUEST_PACKAGE)) {
+            return Kind.REQUEST;
+        }
+        return Kind.OTHER;
+    }
+
+    private static Member[] requestMembers(Class<?> type) {
+        try {
+            List<Member> members = new ArrayList<>();
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    Method accessor = component.getAccessor();
+                    accessor.setAccessible(true);
+                    members.add(new Member(component.getName(), isSensitive(component.getName()), null, accessor));
+                }
+            } else {
+                for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        members.add(new Member(field.getName(), isSensitive(field.getName()), field, null));
+                    }
+                }
+            }
+            return members.toArray(Member[]::new);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void appendRequest(StringBuilder out, Object request) {
+        Member[] members = REQUEST_MEMBERS.get(request.getClass());
+        if (members == null) {
+            TraceEvent.quote(out, UNLOGGABLE);
+            return;
+        }
+        int start = out.length();
+        try {
+            out.append('{');
+            for (int i = 0; i < members.length; i++) {
+                Member member = members[i];
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append('"').append(member.name()).append("\":");
+                Object value = member.get(request);
+                if (member.sensitive() && value != null) {
+                    TraceEvent.quote(out, MASK);
+                } else {
+                    appendArgument(out, value);
+                }
+            }
+            out.append('}');
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            out.setLength(start);
+            TraceEvent.quote(out, UNLOGGABLE);
+        }
+    }
+
+    private static void appendNumber(StringBuilder out, Number number) {
+        if ((number instanceof Double d && !Double.isFinite(d)) || (number instanceof Float f && !Float.isFinite(f))) {
+            TraceEvent.quote(out, number.toString());
+        } else {
+            out.append(number);
+        }
+    }
+
+    private static void appendJson(StringBuilder out, Object value) {
+        try {
+            out.append(objectMapper.writeValueAsString(value));
+        } catch (Exception e) {
+            TraceEvent.quote(out, UNLOGGABLE);
+        }
+    }
+
+    // Hibernate proxy'sinde getId() proxy'yi başlatmaz
+    private static String entitySummary(Object entity) {
+        String name = entity.getClass().getSimpleName();
+        if (entity instanceof AuditableEntity base) {
+            return name + "[id=" + base.getId() + "]";
+        }
+        return name + "[UNSERIALIZABLE]";
+    }
+
+    private static String sizeSummary(Object value) {
+        int size;
+        if (value instanceof Collection<?> collection) {
+            size = collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            size = map.size();
+        } else {
+            size = Array.getLength(value);
+        }
+        return value.getClass().getSimpleName() + "[size=" + size + "]";
+    }
+}
@@ -20,8 +20,6 @@ public interface OrderMapper {
 	Order toEntity(OrderUpdateRequest dto);
 
 	@Mapping(source = "customer.id", target = "customerId")
-    @Mapping(source = "createdBy.id", target = "createdById")
-    @Mapping(source = "updatedBy.id", target = "updatedById")
     OrderResponse toResponse(Order entity);
 	
 	RecentOrderResponse toRecentResponse(Order order);
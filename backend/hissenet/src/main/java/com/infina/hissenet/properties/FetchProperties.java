@@ -1,5 +1,8 @@
 package com.infina.hissenet.properties;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -15,12 +18,20 @@ public class FetchProperties {
     @NotNull
     private Duration requestTimeout;
 
+    // Uyarlanabilir eşzamanlılık sınırının başlangıç değeri
     @Min(1)
     private int concurrency = 16;
 
+    // Sembol başına yeniden deneme sayısı
     @Min(0)
     private int retry = 2;
 
+    @NotNull
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    @Valid
+    private final Limiter limiter = new Limiter();
+
     public Duration getRequestTimeout() {
         return requestTimeout;
     }
@@ -44,4 +55,64 @@ public class FetchProperties {
     public void setRetry(int retry) {
         this.retry = retry;
     }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    public static class Limiter {
+        @Min(1)
+        private int minLimit = 1;
+
+        @Min(1)
+        private int maxLimit = 64;
+
+        // Bu süreyi aşan yanıtlar aşırı yük sayılır
+        @NotNull
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+
+        @DecimalMin("0.1")
+        @DecimalMax("0.95")
+        private double backoffRatio = 0.5;
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+    }
 }
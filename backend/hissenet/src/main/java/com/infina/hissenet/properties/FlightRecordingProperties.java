@@ -0,0 +1,52 @@
+package com.infina.hissenet.properties;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "jfr")
+@Validated
+public class FlightRecordingProperties {
+
+    // Durdurulan kayıtların yazıldığı dizin; her durdurmada önceki dosya silinir
+    @NotBlank
+    private String dumpDir = System.getProperty("java.io.tmpdir") + "/hissenet-jfr";
+
+    // Unutulan kayıtlar bu süre sonunda kendiliğinden durur
+    @NotNull
+    private Duration maxDuration = Duration.ofMinutes(30);
+
+    // Diskteki kayıt tamponu üst sınırı; aşılınca en eski parçalar atılır
+    @NotNull
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    public String getDumpDir() {
+        return dumpDir;
+    }
+
+    public void setDumpDir(String dumpDir) {
+        this.dumpDir = dumpDir;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+}
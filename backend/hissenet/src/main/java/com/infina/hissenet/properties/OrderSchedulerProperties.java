@@ -0,0 +1,26 @@
+package com.infina.hissenet.properties;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Component
+@ConfigurationProperties(prefix = "order.scheduler")
+@Validated
+public class OrderSchedulerProperties {
+
+    // Aynı anda dolumu işlenen müşteri sayısı; her biri bir bağlantı tuttuğundan havuzun altında kalmalı
+    @Min(1)
+    @Max(64)
+    private int parallelism = 8;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
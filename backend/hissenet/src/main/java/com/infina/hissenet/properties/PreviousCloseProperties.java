@@ -0,0 +1,37 @@
+package com.infina.hissenet.properties;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "infina.previous-close")
+@Validated
+public class PreviousCloseProperties {
+
+    // Boş bırakılırsa önbellek yalnızca bellekte tutulur
+    private String file;
+
+    // Boş/başarısız dönen semboller bu süreden sonra yeniden sorulur
+    @NotNull
+    private Duration negativeTtl = Duration.ofMinutes(5);
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+}
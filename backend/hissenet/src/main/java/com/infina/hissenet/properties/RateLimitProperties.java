@@ -13,7 +13,15 @@ public class RateLimitProperties {
         return timeInMinutes;
     }
 
+    public void setTimeInMinutes(int timeInMinutes) {
+        this.timeInMinutes = timeInMinutes;
+    }
+
     public int getCapacity() {
         return capacity;
     }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
 }
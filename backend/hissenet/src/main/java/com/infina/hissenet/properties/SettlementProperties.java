@@ -0,0 +1,26 @@
+package com.infina.hissenet.properties;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Component
+@ConfigurationProperties(prefix = "settlement")
+@Validated
+public class SettlementProperties {
+
+    // SQL Server tek sorguda en fazla 2100 parametre kabul eder
+    @Min(1)
+    @Max(2000)
+    private int chunkSize = 500;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -1,11 +1,14 @@
 package com.infina.hissenet.properties;
 
+import com.infina.hissenet.entity.enums.CandleInterval;
+import com.infina.hissenet.entity.enums.MarketPhase;
 import jakarta.validation.constraints.Min;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
+import java.time.ZoneId;
 
 @Component
 @ConfigurationProperties(prefix = "stock")
@@ -14,6 +17,9 @@ public class StockProperties {
 
     private final Cache cache = new Cache();
     private final Scheduler scheduler = new Scheduler();
+    private final Snapshot snapshot = new Snapshot();
+    private final Candles candles = new Candles();
+    private final History history = new History();
 
     public Cache getCache() {
         return cache;
@@ -23,6 +29,148 @@ public class StockProperties {
         return scheduler;
     }
 
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Candles getCandles() {
+        return candles;
+    }
+
+    public History getHistory() {
+        return history;
+    }
+
+    public static class History {
+        // Segment dosyalarının dizini; boşsa geçmiş tutulmaz
+        private String dir;
+        // Gün sınırı bu bölgeye göre belirlenir
+        private ZoneId zone = ZoneId.of("Europe/Istanbul");
+        @Min(1)
+        private int maxPoints = 20000;
+        @Min(1)
+        private int maxOpenSegments = 64;
+
+        public String getDir() {
+            return dir;
+        }
+
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        public void setZone(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        public int getMaxPoints() {
+            return maxPoints;
+        }
+
+        public void setMaxPoints(int maxPoints) {
+            this.maxPoints = maxPoints;
+        }
+
+        public int getMaxOpenSegments() {
+            return maxOpenSegments;
+        }
+
+        public void setMaxOpenSegments(int maxOpenSegments) {
+            this.maxOpenSegments = maxOpenSegments;
+        }
+    }
+
+    /**
+     * Per-symbol ring buffer sizes for intraday ticks and candles. Memory per symbol is
+     * about {@code 24 * tickCapacity + 48 * (sum of candle capacities)} bytes.
+     */
+    public static class Candles {
+        @Min(1)
+        private int tickCapacity = 1024;
+        @Min(1)
+        private int oneMinuteCapacity = 480;
+        @Min(1)
+        private int fiveMinuteCapacity = 288;
+        @Min(1)
+        private int oneHourCapacity = 200;
+
+        public int capacityFor(CandleInterval interval) {
+            return switch (interval) {
+                case ONE_MINUTE -> oneMinuteCapacity;
+                case FIVE_MINUTES -> fiveMinuteCapacity;
+                case ONE_HOUR -> oneHourCapacity;
+            };
+        }
+
+        public int getTickCapacity() {
+            return tickCapacity;
+        }
+
+        public void setTickCapacity(int tickCapacity) {
+            this.tickCapacity = tickCapacity;
+        }
+
+        public int getOneMinuteCapacity() {
+            return oneMinuteCapacity;
+        }
+
+        public void setOneMinuteCapacity(int oneMinuteCapacity) {
+            this.oneMinuteCapacity = oneMinuteCapacity;
+        }
+
+        public int getFiveMinuteCapacity() {
+            return fiveMinuteCapacity;
+        }
+
+        public void setFiveMinuteCapacity(int fiveMinuteCapacity) {
+            this.fiveMinuteCapacity = fiveMinuteCapacity;
+        }
+
+        public int getOneHourCapacity() {
+            return oneHourCapacity;
+        }
+
+        public void setOneHourCapacity(int oneHourCapacity) {
+            this.oneHourCapacity = oneHourCapacity;
+        }
+    }
+
+    public static class Snapshot {
+        private boolean gzip = true;
+        @Min(0)
+        private int gzipMinBytes = 1024;
+        // Son bilinen snapshot dosyalarının dizini; boşsa diske yazılmaz
+        private String storeDir;
+
+        public boolean isGzip() {
+            return gzip;
+        }
+
+        public void setGzip(boolean gzip) {
+            this.gzip = gzip;
+        }
+
+        public int getGzipMinBytes() {
+            return gzipMinBytes;
+        }
+
+        public void setGzipMinBytes(int gzipMinBytes) {
+            this.gzipMinBytes = gzipMinBytes;
+        }
+
+        public String getStoreDir() {
+            return storeDir;
+        }
+
+        public void setStoreDir(String storeDir) {
+            this.storeDir = storeDir;
+        }
+    }
+
     public static class Cache {
         private final DefaultConfig defaultConfig = new DefaultConfig();
 
@@ -66,11 +214,16 @@ public class StockProperties {
         private final Publish refresh = new Publish();
         private final Publish publish = new Publish();
         private final Publish borsaIstanbulPublish = new Publish();
+        private final RefreshCadence refreshCadence = new RefreshCadence();
 
         public Publish getRefresh() {
             return refresh;
         }
 
+        public RefreshCadence getRefreshCadence() {
+            return refreshCadence;
+        }
+
         public Publish getPublish() {
             return publish;
         }
@@ -117,5 +270,67 @@ public class StockProperties {
                 this.errorTopic = errorTopic;
             }
         }
+
+        /**
+         * Minimum time between cache refreshes in each market phase. The refresh tick
+         * ({@code refresh.rate}) is the finest granularity; zero means once per phase.
+         */
+        public static class RefreshCadence {
+            private Duration preOpen = Duration.ofSeconds(30);
+            private Duration session = Duration.ofSeconds(3);
+            private Duration afterClose = Duration.ofMinutes(1);
+            private Duration closed = Duration.ZERO;
+            private Duration weekend = Duration.ZERO;
+
+            public Duration forPhase(MarketPhase phase) {
+                return switch (phase) {
+                    case PRE_OPEN -> preOpen;
+                    case SESSION -> session;
+                    case AFTER_CLOSE -> afterClose;
+                    case CLOSED -> closed;
+                    case WEEKEND -> weekend;
+                };
+            }
+
+            public Duration getPreOpen() {
+                return preOpen;
+            }
+
+            public void setPreOpen(Duration preOpen) {
+                this.preOpen = preOpen;
+            }
+
+            public Duration getSession() {
+                return session;
+            }
+
+            public void setSession(Duration session) {
+                this.session = session;
+            }
+
+            public Duration getAfterClose() {
+                return afterClose;
+            }
+
+            public void setAfterClose(Duration afterClose) {
+                this.afterClose = afterClose;
+            }
+
+            public Duration getClosed() {
+                return closed;
+            }
+
+            public void setClosed(Duration closed) {
+                this.closed = closed;
+            }
+
+            public Duration getWeekend() {
+                return weekend;
+            }
+
+            public void setWeekend(Duration weekend) {
+                this.weekend = weekend;
+            }
+        }
     }
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.infina.hissenet.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +17,8 @@ import org.springframework.stereotype.Repository;
 import com.infina.hissenet.entity.Order;
 import com.infina.hissenet.entity.enums.OrderStatus;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>{
 	List<Order> findByStatus(OrderStatus status);
@@ -26,6 +31,14 @@ public interface OrderRepository extends JpaRepository<Order, Long>{
 	@Query("select o from Order o join fetch o.customer where o.status = :status")
 	List<Order> findByStatusWithCustomer(@Param("status") OrderStatus status);
 
+	@Query("select o from Order o join fetch o.customer where o.id in :ids")
+	List<Order> findByIdInWithCustomer(@Param("ids") Collection<Long> ids);
+
+	// Dolum ve iptal aynı emrin durumunu eşzamanlı değiştirmesin diye satır kilitlenir
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select o from Order o where o.id = :id")
+	Optional<Order> findForUpdate(@Param("id") Long id);
+
 	@Query("SELECT o FROM Order o ORDER BY o.createdAt DESC")
 	List<Order> findAllByCreatedAtDesc();
 
@@ -74,16 +87,23 @@ public interface OrderRepository extends JpaRepository<Order, Long>{
 		""")
 		Long countTodayOrders(LocalDateTime start, LocalDateTime end);
 	
+	@Query("""
+      select o.id from Order o
+       where o.status = com.infina.hissenet.entity.enums.OrderStatus.OPEN
+         and o.isDeleted = false
+         and o.createdAt between :start and :end
+    """)
+    List<Long> findOpenOrderIdsInRange(@Param("start") LocalDateTime start,
+                                       @Param("end")   LocalDateTime end);
+
 	@Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
       update Order o
          set o.status = com.infina.hissenet.entity.enums.OrderStatus.CANCELED,
              o.updatedAt = CURRENT_TIMESTAMP
        where o.status = com.infina.hissenet.entity.enums.OrderStatus.OPEN
-         and o.isDeleted = false
-         and o.createdAt between :start and :end
+         and o.id in :ids
     """)
-    void cancelOpenOrdersInRange(@Param("start") LocalDateTime start,
-                                @Param("end")   LocalDateTime end);
+    int cancelOpenOrdersByIds(@Param("ids") Collection<Long> ids);
 	
 }
@@ -0,0 +1,35 @@
+package com.infina.hissenet.repository;
+
+import com.infina.hissenet.entity.StockPosition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StockPositionRepository extends JpaRepository<StockPosition, Long> {
+
+    Optional<StockPosition> findByCustomerIdAndStockCode(Long customerId, String stockCode);
+
+    // Yazma yolunda aynı pozisyona eşzamanlı güncellemeleri sıralamak için
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sp FROM StockPosition sp WHERE sp.customer.id = :customerId AND sp.stockCode = :stockCode")
+    Optional<StockPosition> findForUpdate(@Param("customerId") Long customerId, @Param("stockCode") String stockCode);
+
+    @Query("SELECT sp FROM StockPosition sp " +
+           "JOIN FETCH sp.portfolio p " +
+           "WHERE p.id = :portfolioId AND sp.settledQuantity > 0 " +
+           "ORDER BY sp.stockCode")
+    List<StockPosition> findOpenPositionsByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Modifying
+    @Query("UPDATE StockPosition sp SET sp.portfolio.id = :newPortfolioId " +
+           "WHERE sp.customer.id = :customerId AND sp.stockCode = :stockCode")
+    int updatePortfolioIdByCustomerIdAndStockCode(@Param("newPortfolioId") Long newPortfolioId,
+                                                  @Param("customerId") Long customerId,
+                                                  @Param("stockCode") String stockCode);
+}
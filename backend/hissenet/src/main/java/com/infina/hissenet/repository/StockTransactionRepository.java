@@ -3,12 +3,14 @@ package com.infina.hissenet.repository;
 import com.infina.hissenet.entity.StockTransaction;
 import com.infina.hissenet.entity.enums.StockTransactionType;
 import com.infina.hissenet.entity.enums.TransactionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -74,6 +76,33 @@ public interface StockTransactionRepository extends JpaRepository<StockTransacti
             @Param("sellType") StockTransactionType sellType
     );
 
+    // Toplu takas: vadesi gelen id'ler, id > afterId olacak şekilde parça parça
+    @Query("SELECT st.id FROM StockTransaction st WHERE st.settlementDate <= :currentTime AND st.transactionStatus = :status " +
+           "AND st.transactionType IN (:buyType, :sellType) AND st.id > :afterId ORDER BY st.id ASC")
+    List<Long> findIdsReadyForSettlement(
+            @Param("currentTime") LocalDateTime currentTime,
+            @Param("status") TransactionStatus status,
+            @Param("buyType") StockTransactionType buyType,
+            @Param("sellType") StockTransactionType sellType,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT st FROM StockTransaction st " +
+           "JOIN FETCH st.portfolio p " +
+           "JOIN FETCH p.customer c " +
+           "WHERE st.id IN :ids AND st.transactionStatus = :status")
+    List<StockTransaction> findByIdInAndStatusWithPortfolio(@Param("ids") Collection<Long> ids,
+                                                            @Param("status") TransactionStatus status);
+
+    @Modifying
+    @Query("UPDATE StockTransaction st SET st.transactionStatus = :settled, st.updatedAt = :now " +
+           "WHERE st.id IN :ids AND st.transactionStatus = :status")
+    int markSettled(@Param("ids") Collection<Long> ids,
+                    @Param("status") TransactionStatus status,
+                    @Param("settled") TransactionStatus settled,
+                    @Param("now") LocalDateTime now);
+
     // FIFO için: Müşterinin belirli bir hisse için BUY transaction'larını tarih sırasına göre getir
     @Query("SELECT st FROM StockTransaction st " +
            "JOIN st.portfolio p " +
@@ -104,8 +133,32 @@ public interface StockTransactionRepository extends JpaRepository<StockTransacti
             @Param("statuses") TransactionStatus statuses
     );
 
+    // Portföy alım listesi için: açık pozisyonların gerçekleşmiş BUY işlemleri, işlem sırasıyla
+    @Query("SELECT st FROM StockTransaction st " +
+           "JOIN FETCH st.portfolio p " +
+           "LEFT JOIN FETCH st.order o " +
+           "WHERE p.id = :portfolioId " +
+           "AND st.stockCode IN :stockCodes " +
+           "AND st.transactionType = :transactionType " +
+           "AND st.transactionStatus = :status " +
+           "ORDER BY st.id ASC")
+    List<StockTransaction> findByPortfolioIdAndStockCodeInAndTypeAndStatus(
+            @Param("portfolioId") Long portfolioId,
+            @Param("stockCodes") Collection<String> stockCodes,
+            @Param("transactionType") StockTransactionType transactionType,
+            @Param("status") TransactionStatus status
+    );
+
     List<StockTransaction> findByPortfolio_Customer_IdAndStockCode(Long portfolioCustomerİd, String stockCode);
 
+    // Pozisyon defterini sıfırdan kurmak için, işlem sırasıyla
+    @Query("SELECT st FROM StockTransaction st " +
+           "JOIN FETCH st.portfolio p " +
+           "JOIN FETCH p.customer c " +
+           "WHERE st.transactionStatus IN :statuses " +
+           "ORDER BY st.id ASC")
+    List<StockTransaction> findAllForPositionReplay(@Param("statuses") Collection<TransactionStatus> statuses);
+
     @Modifying
     @Query("UPDATE StockTransaction st SET st.portfolio.id = :newPortfolioId " +
             "WHERE st.portfolio.customer.id = :customerId AND st.stockCode = :stockCode")
@@ -2,10 +2,12 @@ package com.infina.hissenet.repository;
 
 import com.infina.hissenet.entity.Wallet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
@@ -15,4 +17,41 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
     @Query("SELECT w.blockedBalance FROM Wallet w WHERE w.customer.id = :customerId")
     Optional<BigDecimal> findBlockedBalanceByCustomerId(@Param("customerId") Long customerId);
 
+    // T+2 takası: alışlar bakiyeden düşülür, satışlar kullanılabilir bakiyeye geçer; bloke tutar yetmezse güncellenmez
+    @Modifying
+    @Query("UPDATE Wallet w SET w.blockedBalance = w.blockedBalance - :purchaseAmount - :saleAmount, " +
+           "w.balance = w.balance - :purchaseAmount, " +
+           "w.availableBalance = w.availableBalance + :saleAmount, " +
+           "w.lastTransactionDate = :now, w.updatedAt = :now, w.version = w.version + 1 " +
+           "WHERE w.id = :walletId AND w.blockedBalance >= :purchaseAmount + :saleAmount")
+    int applySettlement(@Param("walletId") Long walletId,
+                        @Param("purchaseAmount") BigDecimal purchaseAmount,
+                        @Param("saleAmount") BigDecimal saleAmount,
+                        @Param("now") LocalDateTime now);
+
+    // Tek cüzdan hareketi: bakiyeler ve günlük/aylık kullanım tek UPDATE ile değişir. Kilit, durum,
+    // limitler ve kullanılabilir bakiye aynı satır kilidi altında denetlenir; koşul tutmazsa 0 döner
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :balanceDelta, " +
+           "w.availableBalance = w.availableBalance + :availableDelta, " +
+           "w.blockedBalance = w.blockedBalance + :blockedDelta, " +
+           "w.dailyUsedAmount = COALESCE(w.dailyUsedAmount, 0) + :usedAmount, " +
+           "w.monthlyUsedAmount = COALESCE(w.monthlyUsedAmount, 0) + :usedAmount, " +
+           "w.dailyTransactionCount = COALESCE(w.dailyTransactionCount, 0) + :countDelta, " +
+           "w.lastTransactionDate = :now, w.updatedAt = :now, w.version = w.version + 1 " +
+           "WHERE w.id = :walletId AND w.availableBalance + :availableDelta >= 0 " +
+           "AND w.walletStatus = com.infina.hissenet.entity.enums.Status.ACTIVE " +
+           "AND (w.isLocked IS NULL OR w.isLocked = false) " +
+           "AND (:usedAmount = 0 OR w.dailyLimit IS NULL OR COALESCE(w.dailyUsedAmount, 0) + :usedAmount <= w.dailyLimit) " +
+           "AND (:usedAmount = 0 OR w.monthlyLimit IS NULL OR COALESCE(w.monthlyUsedAmount, 0) + :usedAmount <= w.monthlyLimit) " +
+           "AND (:countDelta = 0 OR w.maxDailyTransactionCount IS NULL " +
+           "OR COALESCE(w.dailyTransactionCount, 0) + :countDelta <= w.maxDailyTransactionCount)")
+    int applyMovement(@Param("walletId") Long walletId,
+                      @Param("balanceDelta") BigDecimal balanceDelta,
+                      @Param("availableDelta") BigDecimal availableDelta,
+                      @Param("blockedDelta") BigDecimal blockedDelta,
+                      @Param("usedAmount") BigDecimal usedAmount,
+                      @Param("countDelta") int countDelta,
+                      @Param("now") LocalDateTime now);
+
 }
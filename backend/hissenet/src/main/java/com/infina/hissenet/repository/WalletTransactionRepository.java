@@ -3,12 +3,16 @@ package com.infina.hissenet.repository;
 import com.infina.hissenet.entity.WalletTransaction;
 import com.infina.hissenet.entity.enums.TransactionStatus;
 import com.infina.hissenet.entity.enums.TransactionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,4 +27,36 @@ public interface WalletTransactionRepository extends JpaRepository<WalletTransac
             @Param("purchaseType") TransactionType purchaseType,
             @Param("saleType") TransactionType saleType
     );
+
+    // Toplu takas: vadesi gelen id'ler, id > afterId olacak şekilde parça parça
+    @Query("SELECT wt.id FROM WalletTransaction wt WHERE wt.settlementDate <= :currentTime AND wt.transactionStatus = :status " +
+           "AND wt.transactionType IN (:purchaseType, :saleType) AND wt.id > :afterId ORDER BY wt.id ASC")
+    List<Long> findIdsReadyForSettlement(
+            @Param("currentTime") LocalDateTime currentTime,
+            @Param("status") TransactionStatus status,
+            @Param("purchaseType") TransactionType purchaseType,
+            @Param("saleType") TransactionType saleType,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Query("SELECT wt.wallet.id AS walletId, wt.transactionType AS transactionType, SUM(wt.amount) AS amount, COUNT(wt) AS transactionCount " +
+           "FROM WalletTransaction wt WHERE wt.id IN :ids GROUP BY wt.wallet.id, wt.transactionType")
+    List<SettlementTotal> sumAmountsByWalletAndType(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE WalletTransaction wt SET wt.transactionStatus = :settled, wt.settlementDate = :now, wt.updatedAt = :now " +
+           "WHERE wt.id IN :ids AND wt.wallet.id IN :walletIds AND wt.transactionStatus = :status")
+    int markSettled(@Param("ids") Collection<Long> ids,
+                    @Param("walletIds") Collection<Long> walletIds,
+                    @Param("status") TransactionStatus status,
+                    @Param("settled") TransactionStatus settled,
+                    @Param("now") LocalDateTime now);
+
+    interface SettlementTotal {
+        Long getWalletId();
+        TransactionType getTransactionType();
+        BigDecimal getAmount();
+        Long getTransactionCount();
+    }
 }
@@ -1,14 +1,18 @@
 package com.infina.hissenet.scheduler;
 
+import com.infina.hissenet.entity.enums.MarketPhase;
 import com.infina.hissenet.properties.StockProperties;
 import com.infina.hissenet.service.BorsaIstanbulCacheService;
 import com.infina.hissenet.service.CombinedCacheService;
+import com.infina.hissenet.service.MarketHourService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 public class CacheRefreshScheduler {
 
@@ -18,24 +22,38 @@ public class CacheRefreshScheduler {
     private final BorsaIstanbulCacheService bist;
     private final SimpMessagingTemplate ws;
     private final StockProperties stockProps;
+    private final MarketHourService marketHourService;
+
+    // Yalnızca zamanlayıcı iş parçacığından erişilir
+    private MarketPhase lastPhase;
+    private long lastRefreshNanos;
 
-    public CacheRefreshScheduler(CombinedCacheService combined, BorsaIstanbulCacheService bist, SimpMessagingTemplate ws, StockProperties stockProps) {
+    public CacheRefreshScheduler(CombinedCacheService combined, BorsaIstanbulCacheService bist, SimpMessagingTemplate ws,
+                                 StockProperties stockProps, MarketHourService marketHourService) {
         this.combined = combined;
         this.bist = bist;
         this.ws = ws;
         this.stockProps = stockProps;
+        this.marketHourService = marketHourService;
     }
 
+    // Tik sıklığı sabit; gerçek yenileme aralığı piyasa evresine göre refresh-cadence'tan gelir
     @Scheduled(fixedRateString = "${stock.scheduler.refresh.rate}", initialDelayString = "${stock.scheduler.refresh.initial-delay}")
     public void refreshAll() {
-        combined.refreshAsync()
-                .doOnTerminate(() -> {
-                    var list = combined.getAll();
-                    if (!list.isEmpty()) {
-                        ws.convertAndSend(stockProps.getScheduler().getPublish().getTopic(), list);
-                    }
-                })
-                .subscribe();
+        MarketPhase phase = marketHourService.getMarketPhase();
+        long now = System.nanoTime();
+        if (!isDue(phase, now)) {
+            return;
+        }
+        if (phase != lastPhase) {
+            log.info("Market phase {} -> {}, refresh every {}", lastPhase, phase,
+                    stockProps.getScheduler().getRefreshCadence().forPhase(phase));
+        }
+        lastPhase = phase;
+        lastRefreshNanos = now;
+
+        // Combined fiyatlar cache'e yazıldığında PriceDeltaPublisher yalnızca değişenleri yayınlar
+        combined.refreshAsync().subscribe();
 
         bist.refreshAsync()
                 .doOnTerminate(() -> {
@@ -49,4 +67,22 @@ public class CacheRefreshScheduler {
                 })
                 .subscribe();
     }
+
+    /**
+     * A refresh is due on the first tick of a new phase, and afterwards once the phase's
+     * cadence has elapsed. A zero cadence means only that first tick. Half a tick of slack
+     * keeps a cadence equal to the tick rate from skipping every other tick.
+     */
+    boolean isDue(MarketPhase phase, long nowNanos) {
+        if (phase != lastPhase) {
+            return true;
+        }
+        Duration cadence = stockProps.getScheduler().getRefreshCadence().forPhase(phase);
+        if (cadence == null || cadence.isZero()) {
+            return false;
+        }
+        Duration tick = stockProps.getScheduler().getRefresh().getRate();
+        long slack = tick != null ? tick.toNanos() / 2 : 0;
+        return nowNanos - lastRefreshNanos + slack >= cadence.toNanos();
+    }
 }
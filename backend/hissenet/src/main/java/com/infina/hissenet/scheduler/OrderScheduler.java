@@ -1,42 +1,87 @@
 package com.infina.hissenet.scheduler;
 
+import com.infina.hissenet.common.Money;
 import com.infina.hissenet.entity.Customer;
 import com.infina.hissenet.entity.Order;
 import com.infina.hissenet.entity.enums.OrderStatus;
 import com.infina.hissenet.entity.enums.OrderType;
+import com.infina.hissenet.jfr.OrderFillEvent;
+import com.infina.hissenet.properties.OrderSchedulerProperties;
 import com.infina.hissenet.repository.OrderRepository;
 import com.infina.hissenet.service.MarketHourService;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
+import com.infina.hissenet.service.abstracts.IOrderBookService;
 import com.infina.hissenet.service.abstracts.IStockTransactionService;
 import com.infina.hissenet.service.abstracts.IWalletService;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.infina.hissenet.constants.OrderConstants.COMMISSION_RATE;
 
 @Component
 public class OrderScheduler {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderScheduler.class);
+
+    // SQL Server IN listesi parametre sınırının altında kalmak için
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final IWalletService walletService;
     private final ICacheManagerService stockCacheService;
     private final IStockTransactionService stockTransactionService;
     private final MarketHourService marketHourService;
+    private final IOrderBookService orderBook;
+    private final DistributionSummary triggeredPerTick;
+    private final DistributionSummary fillsPerTick;
+    private final OrderSchedulerProperties properties;
+    private final TransactionTemplate fillTransaction;
 
     public OrderScheduler(OrderRepository orderRepository,
                           IWalletService walletService,
                           ICacheManagerService stockCacheService,
                           IStockTransactionService stockTransactionService,
-                          MarketHourService marketHourService) { // CHANGED
+                          MarketHourService marketHourService,
+                          IOrderBookService orderBook,
+                          MeterRegistry meterRegistry,
+                          OrderSchedulerProperties properties,
+                          PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.walletService = walletService;
         this.stockCacheService = stockCacheService;
         this.stockTransactionService = stockTransactionService;
         this.marketHourService = marketHourService;
+        this.orderBook = orderBook;
+        this.properties = properties;
+        this.fillTransaction = new TransactionTemplate(transactionManager);
+        Gauge.builder(MetricsUtils.ORDER_BOOK_OPEN, orderBook, IOrderBookService::openOrderCount)
+                .description("OPEN limit orders tracked by the order book")
+                .register(meterRegistry);
+        this.triggeredPerTick = MetricsUtils.countSummary(MetricsUtils.ORDER_SCHEDULER_TRIGGERED, 100_000)
+                .description("Orders handed over by the order book in one tick")
+                .register(meterRegistry);
+        this.fillsPerTick = MetricsUtils.countSummary(MetricsUtils.ORDER_SCHEDULER_FILLS, 100_000)
+                .description("Orders filled in one tick")
+                .register(meterRegistry);
     }
 
     private BigDecimal resolveCommissionRate(Customer c) {
@@ -44,16 +89,64 @@ public class OrderScheduler {
         return rate != null ? rate : COMMISSION_RATE;
     }
 
-    @Transactional
+    /**
+     * Fills the orders the book reports as triggered. Orders are matched against the cached
+     * price outside any transaction, then grouped by customer: customers run in parallel on
+     * virtual threads (at most {@code order.scheduler.parallelism} at a time) and each
+     * customer's fills run one after another. Every fill commits in its own transaction, so
+     * a failing wallet update rolls back only that order.
+     */
     @Scheduled(fixedDelay = 2000)
     public void processPendingLimitOrders() {
         /* if (!marketHourService.isMarketOpen()){
              return;
         } */
 
-        List<Order> openOrders = orderRepository.findByStatusWithCustomer(OrderStatus.OPEN); 
+        // Önbellek diskten yüklenmiş eski fiyatları tutarken eşleşme yapılmaz; tetiklenenler kuyrukta bekler
+        if (stockCacheService.isStale()) {
+            return;
+        }
+
+        // Sadece fiyatı limitini kesen emirler order book tarafından tetiklenir
+        List<Long> triggeredIds = orderBook.drainTriggered();
+        // Boş tur da sayılır; dağılım tetiklenmeyen turların oranını da gösterir
+        triggeredPerTick.record(triggeredIds.size());
+        if (triggeredIds.isEmpty()) {
+            fillsPerTick.record(0);
+            return;
+        }
 
-        for (Order order : openOrders) {
+        Map<Long, List<PendingFill>> fillsByCustomer = new LinkedHashMap<>();
+        for (int from = 0; from < triggeredIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = triggeredIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, triggeredIds.size()));
+            collectFills(chunk, fillsByCustomer);
+        }
+        fillsPerTick.record(fillAll(fillsByCustomer));
+    }
+
+    // Alış piyasa fiyatı limite eşit veya altındayken, satış eşit veya üstündeyken gerçekleşir
+    static boolean shouldFill(OrderType type, Money marketPrice, Money limitPrice) {
+        int priceCheck = marketPrice.compareTo(limitPrice);
+        return (type == OrderType.BUY && priceCheck <= 0) || (type == OrderType.SELL && priceCheck >= 0);
+    }
+
+    private record PendingFill(Order order, Money totalAmount, Money commission) {
+    }
+
+    // Gerçekleşecek emirleri müşteriye göre gruplar; açık olmayan veya silinmiş emirler kitaptan çıkar
+    private void collectFills(List<Long> orderIds, Map<Long, List<PendingFill>> fillsByCustomer) {
+        Map<Long, Order> candidates = new HashMap<>();
+        for (Order order : orderRepository.findByIdInWithCustomer(orderIds)) {
+            candidates.put(order.getId(), order);
+        }
+
+        // Sorgu sırası değil, order book'un fiyat-zaman sırası izlenir
+        for (Long orderId : orderIds) {
+            Order order = candidates.get(orderId);
+            if (order == null || order.getStatus() != OrderStatus.OPEN) {
+                orderBook.untrack(orderId);
+                continue;
+            }
             try {
                 Customer customer = order.getCustomer();
 
@@ -63,38 +156,103 @@ public class OrderScheduler {
                     continue;
                 }
 
-                BigDecimal limitPrice = order.getPrice();
-                BigDecimal totalAmount = limitPrice.multiply(order.getQuantity());
+                Money limitPrice = Money.of(order.getPrice());
 
-                BigDecimal customerRate = resolveCommissionRate(customer); 
-                BigDecimal commission   = totalAmount.multiply(customerRate);
-
-                boolean shouldFill = false;
-                if (order.getType() == OrderType.BUY && marketPrice.compareTo(limitPrice) <= 0) {
-                    shouldFill = true;
-                } else if (order.getType() == OrderType.SELL && marketPrice.compareTo(limitPrice) >= 0) {
-                    shouldFill = true;
+                if (shouldFill(order.getType(), Money.of(marketPrice), limitPrice)) {
+                    // Tutar ve komisyon yalnızca gerçekleşecek emir için hesaplanır
+                    Money totalAmount = limitPrice.times(order.getQuantity());
+                    Money commission = totalAmount.commission(resolveCommissionRate(customer));
+                    fillsByCustomer.computeIfAbsent(customer.getId(), id -> new ArrayList<>())
+                            .add(new PendingFill(order, totalAmount, commission));
                 }
 
-                if (shouldFill) {
+            } catch (Exception e) {
+                log.warn("Triggered order {} skipped: {}", order.getId(), e.toString());
+            }
+        }
+
+    }
+
+    // Müşteriler paralel, bir müşterinin emirleri sırayla; FILLED durumuna geçen emir sayısını döner
+    private int fillAll(Map<Long, List<PendingFill>> fillsByCustomer) {
+        AtomicInteger fills = new AtomicInteger();
+        Semaphore permits = new Semaphore(properties.getParallelism());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<PendingFill> customerFills : fillsByCustomer.values()) {
+                executor.submit(() -> {
+                    permits.acquireUninterruptibly();
                     try {
-                        if (order.getType() == OrderType.BUY) {
-                            walletService.processStockPurchase(order.getCustomer().getId(), totalAmount, commission);
-                        } else {
-                            walletService.processStockSale(order.getCustomer().getId(), totalAmount, commission);
+                        for (PendingFill pending : customerFills) {
+                            OrderStatus status = new OrderFillEvent(pending.order())
+                                    .record(() -> fill(pending), String::valueOf);
+                            if (status == OrderStatus.FILLED) {
+                                fills.incrementAndGet();
+                            }
                         }
-                        order.setStatus(OrderStatus.FILLED);
-                    } catch (Exception e) {
-                        order.setStatus(OrderStatus.FAILED);
+                    } finally {
+                        permits.release();
                     }
+                });
+            }
+        }
+        return fills.get();
+    }
 
-                    orderRepository.save(order);
-                    stockTransactionService.createTransactionFromOrder(order);
+    // Cüzdan hareketi, emir kaydı ve işlem tek transaction'da; cüzdan reddederse o transaction geri
+    // alınır ve emir ayrı bir transaction'da FAILED olarak kaydedilir. JFR olayı bu aralığı kapsar.
+    // Eşleşmeden sonra iptal edilen emir iki transaction'da da kilitli satırdan görülür ve atlanır
+    private OrderStatus fill(PendingFill pending) {
+        Long orderId = pending.order().getId();
+        Long customerId = pending.order().getCustomer().getId();
+        try {
+            return fillTransaction.execute(status -> {
+                Order order = orderRepository.findForUpdate(orderId).orElse(null);
+                if (order == null || order.getStatus() != OrderStatus.OPEN) {
+                    return skipStale(orderId, order);
+                }
+                if (order.getType() == OrderType.BUY) {
+                    walletService.processStockPurchase(customerId,
+                            pending.totalAmount().toBigDecimal(), pending.commission().toBigDecimal());
+                } else {
+                    walletService.processStockSale(customerId,
+                            pending.totalAmount().toBigDecimal(), pending.commission().toBigDecimal());
                 }
+                order.setStatus(OrderStatus.FILLED);
+                complete(order);
+                return OrderStatus.FILLED;
+            });
+        } catch (Exception e) {
+            log.warn("Fill of order {} rolled back: {}", orderId, e.toString());
+        }
 
-            } catch (Exception e) {
-                //log
-            }
+        try {
+            return fillTransaction.execute(status -> {
+                Order order = orderRepository.findForUpdate(orderId).orElse(null);
+                if (order == null || order.getStatus() != OrderStatus.OPEN) {
+                    return skipStale(orderId, order);
+                }
+                order.setStatus(OrderStatus.FAILED);
+                complete(order);
+                return OrderStatus.FAILED;
+            });
+        } catch (Exception e) {
+            // Emir OPEN kalır ve kitapta izlenmeye devam eder; fiyat yeniden kesince tekrar denenir
+            log.error("Order {} could not be marked FAILED", orderId, e);
+            return OrderStatus.OPEN;
         }
     }
+
+    // Kilitli satır artık açık değil; emir kitaptan çıkar ve güncel durumu raporlanır
+    private OrderStatus skipStale(Long orderId, Order current) {
+        orderBook.untrack(orderId);
+        log.info("Order {} is no longer open, fill skipped", orderId);
+        return current != null ? current.getStatus() : OrderStatus.CANCELED;
+    }
+
+    // Kitaptan çıkarma commit sonrasına ertelenir; geri alınan transaction emri kitapta bırakır
+    private void complete(Order order) {
+        Order saved = orderRepository.save(order);
+        orderBook.untrack(saved.getId());
+        stockTransactionService.createTransactionFromOrder(saved);
+    }
 }
@@ -2,7 +2,7 @@ package com.infina.hissenet.scheduler;
 
 import com.infina.hissenet.properties.StockProperties;
 import com.infina.hissenet.service.BorsaIstanbulCacheService;
-import com.infina.hissenet.service.CombinedCacheService;
+import com.infina.hissenet.websocket.PriceDeltaPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -10,36 +10,29 @@ import org.springframework.stereotype.Component;
 @Component
 public class PublishSchedulers {
 
-    private final CombinedCacheService combinedCache;
+    private final PriceDeltaPublisher deltaPublisher;
     private final BorsaIstanbulCacheService bistCache;
     private final SimpMessagingTemplate ws;
 
-    private final String combinedTopic;
     private final String bistTopic;
 
-    public PublishSchedulers(CombinedCacheService combinedCache,
+    public PublishSchedulers(PriceDeltaPublisher deltaPublisher,
                              BorsaIstanbulCacheService bistCache,
                              SimpMessagingTemplate ws,
                              StockProperties stockProperties) {
-        this.combinedCache = combinedCache;
+        this.deltaPublisher = deltaPublisher;
         this.bistCache = bistCache;
         this.ws = ws;
 
-        this.combinedTopic = stockProperties.getScheduler().getPublish().getTopic();
         this.bistTopic     = stockProperties.getScheduler().getBorsaIstanbulPublish().getTopic();
     }
 
+    // Tam liste artık periyodik gönderilmez; değişiklikler delta olarak yayınlanır.
+    // Bu tik yalnızca güncel sıra numarasını taşır, fiyatlar durgunken kaçırılan deltayı fark ettirir.
     @Scheduled(fixedRateString = "${stock.scheduler.publish.rate}",
             initialDelayString = "${stock.scheduler.publish.initial-delay}")
     public void publishCombined() {
-        var snapshot = combinedCache.getAll();
-        if (snapshot.isEmpty()) {
-            System.out.println("[Publish] /topic/prices BOS → gönderim atlandı");
-            return;
-        }
-        snapshot.stream().limit(5).forEach(s ->
-                System.out.println("  * " + s.code() + " last=" + s.lastPrice() + " rate=" + s.rate()));
-        ws.convertAndSend(combinedTopic, snapshot);
+        deltaPublisher.publishHeartbeat();
     }
 
 
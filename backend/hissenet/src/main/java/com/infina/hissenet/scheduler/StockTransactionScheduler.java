@@ -1,5 +1,6 @@
 package com.infina.hissenet.scheduler;
 
+import com.infina.hissenet.dto.response.CombinedStockData;
 import com.infina.hissenet.entity.StockTransaction;
 import com.infina.hissenet.service.StockTransactionService;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
@@ -11,10 +12,11 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 @Component
 public class StockTransactionScheduler {
     private static final Logger logger = LoggerFactory.getLogger(StockTransactionScheduler.class);
@@ -35,17 +37,20 @@ public class StockTransactionScheduler {
         logger.info("Starting stock transaction price update scheduler");
 
         List<StockTransaction> stockTransactions = stockTransactionService.findAll();
-        Map<String, BigDecimal> stockCodeToPriceMap = new HashMap<>();
+        Set<String> stockCodes = new HashSet<>();
+        for (StockTransaction transaction : stockTransactions) {
+            stockCodes.add(transaction.getStockCode());
+        }
+        Map<String, CombinedStockData> prices = cacheManagerService.getCachedByCodes(stockCodes);
 
         for (StockTransaction transaction : stockTransactions) {
-            try {
-                String stockCode = transaction.getStockCode();
-                BigDecimal price = stockCodeToPriceMap.computeIfAbsent(stockCode,
-                        code -> cacheManagerService.getCachedByCode(code).lastPrice());
-                transaction.setCurrentPrice(price);
-            } catch (Exception e) {
-                logger.error("Failed to update price for transaction ID: {}", transaction.getId(), e);
+            String stockCode = transaction.getStockCode();
+            CombinedStockData data = stockCode != null ? prices.get(stockCode.trim().toUpperCase(Locale.ROOT)) : null;
+            if (data == null) {
+                logger.error("Failed to update price for transaction ID: {} (no cached price for {})", transaction.getId(), stockCode);
+                continue;
             }
+            transaction.setCurrentPrice(data.lastPrice());
         }
 
 
@@ -1,23 +1,57 @@
 package com.infina.hissenet.scheduler;
 
+import com.infina.hissenet.dto.response.SettlementRunStats;
 import com.infina.hissenet.service.StockTransactionService;
 import com.infina.hissenet.service.WalletService;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 @Component
 public class T2SettlementScheduler {
+    private static final Logger log = LoggerFactory.getLogger(T2SettlementScheduler.class);
+
     private final WalletService walletService;
     private final StockTransactionService stockTransactionService;
+    private final MeterRegistry meterRegistry;
 
-    public T2SettlementScheduler(WalletService walletService, StockTransactionService stockTransactionService) {
+    public T2SettlementScheduler(WalletService walletService, StockTransactionService stockTransactionService, MeterRegistry meterRegistry) {
         this.walletService = walletService;
         this.stockTransactionService = stockTransactionService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Scheduled(cron = "0 */1 * * * ?")// bu satır gercek hayattaki kullanım  @Scheduled(cron = "0 5 17 * * MON-FRI")
     public void processT2Settlements() {
-        stockTransactionService.processStockSettlements();
-        walletService.processT2Settlements();
+        record(stockTransactionService.processStockSettlements());
+        record(walletService.processT2Settlements());
+    }
+
+    // Her koşu için süre, takas edilen/atlanan satır sayısı metrik olarak yayınlanır
+    private void record(SettlementRunStats stats) {
+        MetricsUtils.latencyTimer(MetricsUtils.SETTLEMENT_RUN, Duration.ofMinutes(5))
+                .tag("ledger", stats.ledger())
+                .register(meterRegistry)
+                .record(stats.elapsedMillis(), TimeUnit.MILLISECONDS);
+        // Boş koşular da kaydedilir; dağılım takas yükünün koşulara nasıl yayıldığını gösterir
+        MetricsUtils.countSummary(MetricsUtils.SETTLEMENT_ROWS_PER_RUN, 100_000)
+                .description("Rows settled in one T+2 run")
+                .tag("ledger", stats.ledger())
+                .register(meterRegistry)
+                .record(stats.rows());
+        meterRegistry.counter(MetricsUtils.SETTLEMENT_ROWS, "ledger", stats.ledger()).increment(stats.rows());
+        meterRegistry.counter(MetricsUtils.SETTLEMENT_SKIPPED, "ledger", stats.ledger()).increment(stats.skipped());
+
+        if (stats.rows() > 0 || stats.skipped() > 0) {
+            log.info("T+2 {} settlement: {} rows over {} groups in {} chunks, {} skipped, {} ms ({} rows/s)",
+                    stats.ledger(), stats.rows(), stats.groups(), stats.chunks(), stats.skipped(),
+                    stats.elapsedMillis(), String.format("%.1f", stats.rowsPerSecond()));
+        }
     }
 }
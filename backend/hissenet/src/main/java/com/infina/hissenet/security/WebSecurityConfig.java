@@ -1,14 +1,21 @@
 package com.infina.hissenet.security;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.function.Supplier;
 
 
 
@@ -26,6 +33,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 @Configuration
 public class WebSecurityConfig {
+    private static final IpAddressMatcher LOOPBACK_V4 = new IpAddressMatcher("127.0.0.0/8");
+    private static final IpAddressMatcher LOOPBACK_V6 = new IpAddressMatcher("::1");
+
     private final TokenFilter tokenFilter;
     private final SessionExtensionFilter sessionExtensionFilter;
 
@@ -80,7 +90,11 @@ public class WebSecurityConfig {
                         .requestMatchers("/api/v1/mail/verify","/api/v1/mail/send-verification","/api/v1/mail/send-password-reset","/api/v1/mail/send-password-change-token","/api/v1/mail/verify-password-change-token","/api/v1/employees/changePassword").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/ws-stock/**","/ws/**", "/websocket/**", "/stomp/**").permitAll()
-                        .requestMatchers("/api/v1/employees/**").hasRole("ADMIN")
+                        // Actuator 127.0.0.1'e bağlı ayrı yönetim portunda sunulur (management.server.*);
+                        // Prometheus kazıyıcısı token taşımadığından yalnızca yerel istekler kabul edilir
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(WebSecurityConfig::fromLoopback)
+                        .requestMatchers("/api/v1/employees/**", "/api/v1/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(tokenFilter, UsernamePasswordAuthenticationFilter.class)
@@ -89,4 +103,9 @@ public class WebSecurityConfig {
 
         return http.build();
     }
+
+    private static AuthorizationDecision fromLoopback(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        return new AuthorizationDecision(LOOPBACK_V4.matches(request) || LOOPBACK_V6.matches(request));
+    }
 }
\ No newline at end of file
@@ -4,11 +4,13 @@ import com.infina.hissenet.dto.response.BorsaIstanbulResult;
 import com.infina.hissenet.service.abstracts.IBorsaIstanbulCacheService;
 import com.infina.hissenet.service.abstracts.ICacheFacade;
 import com.infina.hissenet.service.abstracts.ICacheRefreshService;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotStore;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class BorsaIstanbulCacheService implements IBorsaIstanbulCacheService {
@@ -16,10 +18,15 @@ public class BorsaIstanbulCacheService implements IBorsaIstanbulCacheService {
 
     private final ICacheFacade cache;
     private final ICacheRefreshService<BorsaIstanbulResult> refresher;
+    private final IPriceSnapshotStore snapshotStore;
 
-    public BorsaIstanbulCacheService(ICacheFacade cache, ICacheRefreshService<BorsaIstanbulResult> refresher) {
+    private final AtomicBoolean stale = new AtomicBoolean(false);
+
+    public BorsaIstanbulCacheService(ICacheFacade cache, ICacheRefreshService<BorsaIstanbulResult> refresher,
+                                     IPriceSnapshotStore snapshotStore) {
         this.cache = cache;
         this.refresher = refresher;
+        this.snapshotStore = snapshotStore;
     }
 
     @Override
@@ -29,13 +36,39 @@ public class BorsaIstanbulCacheService implements IBorsaIstanbulCacheService {
 
     @Override
     public Optional<BorsaIstanbulResult> getByCode(String code) {
-        return cache.findByCode(CACHE_NAME, code, r -> String.valueOf(r.current()));
+        return cache.findByCode(CACHE_NAME, code, BorsaIstanbulCacheService::codeOf);
     }
 
     @Override
     public Mono<Void> refreshAsync() {
         return refresher.buildSnapshot()
-                .doOnNext(list -> cache.putIfNonEmpty(CACHE_NAME, list))
+                .doOnNext(list -> {
+                    if (list != null && !list.isEmpty()) {
+                        cache.putIfNonEmpty(CACHE_NAME, list, BorsaIstanbulCacheService::codeOf);
+                        stale.set(false);
+                        snapshotStore.save(CACHE_NAME, list);
+                    }
+                })
                 .then();
     }
+
+    @Override
+    public boolean restoreLastKnown() {
+        List<BorsaIstanbulResult> list = snapshotStore.load(CACHE_NAME, BorsaIstanbulResult.class);
+        if (list.isEmpty()) {
+            return false;
+        }
+        cache.putIfNonEmpty(CACHE_NAME, list, BorsaIstanbulCacheService::codeOf);
+        stale.set(true);
+        return true;
+    }
+
+    @Override
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    private static String codeOf(BorsaIstanbulResult r) {
+        return String.valueOf(r.current());
+    }
 }
\ No newline at end of file
@@ -5,7 +5,13 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -22,28 +28,32 @@ public class CacheFacade implements ICacheFacade {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> List<T> getSnapshot(String cacheName) {
-        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName), "arama Cache not found: " + cacheName);
-        Object value = cache.get(ALL_KEY, Object.class);
-        if (value instanceof List<?>) {
-            return (List<T>) value;
-        }
-        return List.of();
+        IndexedSnapshot<T> snapshot = getIndexedSnapshot(cacheName);
+        return snapshot != null ? snapshot.items() : List.of();
     }
 
     @Override
     public <T> void putIfNonEmpty(String cacheName, List<T> newSnapshot) {
+        putIfNonEmpty(cacheName, newSnapshot, null);
+    }
+
+    @Override
+    public <T> void putIfNonEmpty(String cacheName, List<T> newSnapshot, Function<T, String> codeExtractor) {
         if (newSnapshot == null || newSnapshot.isEmpty()) return;
         Cache cache = getRequiredCache(cacheName);
-        cache.put(ALL_KEY, newSnapshot);
+        cache.put(ALL_KEY, IndexedSnapshot.of(newSnapshot, codeExtractor));
     }
 
     @Override
     public <T> Optional<T> findByCode(String cacheName, String code, Function<T, String> codeExtractor) {
         if (code == null || code.isBlank()) return Optional.empty();
-        List<T> snapshot = this.<T>getSnapshot(cacheName);
-        return snapshot.stream()
+        IndexedSnapshot<T> snapshot = getIndexedSnapshot(cacheName);
+        if (snapshot == null) return Optional.empty();
+        if (snapshot.byCode() != null) {
+            return Optional.ofNullable(snapshot.byCode().get(normalize(code)));
+        }
+        return snapshot.items().stream()
                 .filter(it -> {
                     if (it == null) return false;
                     String extracted = codeExtractor.apply(it);
@@ -52,10 +62,84 @@ public class CacheFacade implements ICacheFacade {
                 .findFirst();
     }
 
+    @Override
+    public <T> Map<String, T> findByCodes(String cacheName, Collection<String> codes, Function<T, String> codeExtractor) {
+        if (codes == null || codes.isEmpty()) return Map.of();
+        IndexedSnapshot<T> snapshot = getIndexedSnapshot(cacheName);
+        if (snapshot == null) return Map.of();
+        Map<String, T> index = snapshot.byCode() != null
+                ? snapshot.byCode()
+                : IndexedSnapshot.index(snapshot.items(), codeExtractor);
+
+        Map<String, T> result = new LinkedHashMap<>(Math.max(16, codes.size() * 2));
+        for (String code : codes) {
+            if (code == null || code.isBlank()) continue;
+            String key = normalize(code);
+            T value = index.get(key);
+            if (value != null) {
+                result.putIfAbsent(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int snapshotSize(String cacheName) {
+        IndexedSnapshot<Object> snapshot = getIndexedSnapshot(cacheName);
+        return snapshot != null ? snapshot.items().size() : 0;
+    }
+
+    @Override
+    public Optional<Instant> snapshotStoredAt(String cacheName) {
+        IndexedSnapshot<Object> snapshot = getIndexedSnapshot(cacheName);
+        return snapshot != null ? Optional.of(snapshot.storedAt()) : Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> IndexedSnapshot<T> getIndexedSnapshot(String cacheName) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName), "arama Cache not found: " + cacheName);
+        Object value = cache.get(ALL_KEY, Object.class);
+        if (value instanceof IndexedSnapshot<?> snapshot) {
+            return (IndexedSnapshot<T>) snapshot;
+        }
+        return null;
+    }
+
     private Cache getRequiredCache(String cacheName) {
         return Objects.requireNonNull(
                 cacheManager.getCache(cacheName),
                 () -> "Cache not found: " + cacheName
         );
     }
-}
\ No newline at end of file
+
+    static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable snapshot stored under {@link #ALL_KEY}: the list as delivered by the
+     * refresher plus a normalized code → entry index built once per refresh.
+     * {@code byCode} is {@code null} when the snapshot was stored without a code extractor.
+     * {@code storedAt} is the wall-clock time of the put, used for the snapshot age gauge.
+     */
+    record IndexedSnapshot<T>(List<T> items, Map<String, T> byCode, Instant storedAt) {
+
+        static <T> IndexedSnapshot<T> of(List<T> items, Function<T, String> codeExtractor) {
+            List<T> copy = items.stream().filter(Objects::nonNull).toList();
+            return new IndexedSnapshot<>(copy, codeExtractor != null ? index(copy, codeExtractor) : null, Instant.now());
+        }
+
+        static <T> Map<String, T> index(List<T> items, Function<T, String> codeExtractor) {
+            Map<String, T> index = new HashMap<>(Math.max(16, items.size() * 2));
+            for (T item : items) {
+                if (item == null) continue;
+                String code = codeExtractor.apply(item);
+                if (code != null && !code.isBlank()) {
+                    // İlk eşleşme kazanır, eski findFirst davranışıyla aynı
+                    index.putIfAbsent(normalize(code), item);
+                }
+            }
+            return Map.copyOf(index);
+        }
+    }
+}
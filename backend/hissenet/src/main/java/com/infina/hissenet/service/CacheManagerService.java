@@ -4,7 +4,9 @@ import com.infina.hissenet.dto.response.CombinedStockData;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -25,4 +27,12 @@ public class CacheManagerService implements ICacheManagerService {
         Optional<CombinedStockData> opt = combined.getByCode(code);
         return opt.orElse(null);
     }
+
+    public Map<String, CombinedStockData> getCachedByCodes(Collection<String> codes) {
+        return combined.getByCodes(codes);
+    }
+
+    public boolean isStale() {
+        return combined.isStale();
+    }
 }
@@ -1,13 +1,20 @@
 package com.infina.hissenet.service;
 
 import com.infina.hissenet.dto.response.*;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.jfr.PriceRefreshEvent;
 import com.infina.hissenet.service.abstracts.ICacheFacade;
 import com.infina.hissenet.service.abstracts.ICacheRefreshService;
 import com.infina.hissenet.service.abstracts.ICombinedCacheService;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -18,12 +25,18 @@ public class CombinedCacheService implements ICombinedCacheService {
 
     private final ICacheFacade cache;
     private final ICacheRefreshService<CombinedStockData> refresher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IPriceSnapshotStore snapshotStore;
 
     private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicBoolean stale = new AtomicBoolean(false);
 
-    public CombinedCacheService(ICacheFacade cache, ICacheRefreshService<CombinedStockData> refresher) {
+    public CombinedCacheService(ICacheFacade cache, ICacheRefreshService<CombinedStockData> refresher,
+                                ApplicationEventPublisher eventPublisher, IPriceSnapshotStore snapshotStore) {
         this.cache = cache;
         this.refresher = refresher;
+        this.eventPublisher = eventPublisher;
+        this.snapshotStore = snapshotStore;
     }
 
     @Override
@@ -36,19 +49,58 @@ public class CombinedCacheService implements ICombinedCacheService {
         return cache.findByCode(CACHE_NAME, code, CombinedStockData::code);
     }
 
+    @Override
+    public Map<String, CombinedStockData> getByCodes(Collection<String> codes) {
+        return cache.findByCodes(CACHE_NAME, codes, CombinedStockData::code);
+    }
+
     @Override
     public Mono<Void> refreshAsync() {
+        PriceRefreshEvent event = new PriceRefreshEvent();
+        event.begin();
         if (!refreshing.compareAndSet(false, true)) {
+            event.setOutcome("skipped");
+            event.commit();
             return Mono.empty();
         }
         return refresher.buildSnapshot()
                 .doOnNext(list -> {
+                    event.setSymbols(list.size());
+                    event.setOutcome(list.isEmpty() ? "empty" : "ok");
                     if (!list.isEmpty()) {
-                        cache.putIfNonEmpty(CACHE_NAME, list);                    } else {
+                        cache.putIfNonEmpty(CACHE_NAME, list, CombinedStockData::code);
+                        stale.set(false);
+                        eventPublisher.publishEvent(new StockPricesRefreshedEvent(this, list));
+                        snapshotStore.save(CACHE_NAME, list);
                     }
                 })
-                .doFinally(sig -> refreshing.set(false))
+                .doOnError(e -> event.setOutcome(e.getClass().getSimpleName()))
+                .doFinally(sig -> {
+                    refreshing.set(false);
+                    if (sig == SignalType.CANCEL) {
+                        event.setOutcome("cancelled");
+                    }
+                    // Olay cache yazımı ve yayın dahil tüm yenileme süresini kapsar
+                    event.commit();
+                })
                 .then();
     }
 
+    @Override
+    public boolean restoreLastKnown() {
+        List<CombinedStockData> list = snapshotStore.load(CACHE_NAME, CombinedStockData.class);
+        if (list.isEmpty()) {
+            return false;
+        }
+        cache.putIfNonEmpty(CACHE_NAME, list, CombinedStockData::code);
+        stale.set(true);
+        eventPublisher.publishEvent(new StockPricesRefreshedEvent(this, list, true));
+        return true;
+    }
+
+    @Override
+    public boolean isStale() {
+        return stale.get();
+    }
+
 }
@@ -6,19 +6,30 @@ import com.infina.hissenet.dto.response.CombinedStockData;
 import com.infina.hissenet.dto.response.HisseApiResponse;
 import com.infina.hissenet.dto.response.HisseFiyatEntry;
 import com.infina.hissenet.dto.response.StockData;
+import com.infina.hissenet.exception.stock.CollectApiRateLimitException;
+import com.infina.hissenet.exception.stock.InfinaApiRateLimitException;
+import com.infina.hissenet.exception.stock.InfinaApiUpstreamException;
 import com.infina.hissenet.properties.FetchProperties;
 import com.infina.hissenet.service.abstracts.ICacheRefreshService;
+import com.infina.hissenet.service.abstracts.IPreviousCloseCache;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class CombinedRefreshService implements ICacheRefreshService<CombinedStockData> {
@@ -26,44 +37,67 @@ public class CombinedRefreshService implements ICacheRefreshService<CombinedStoc
     private final CollectApiClient collect;
     private final InfinaApiClient infina;
     private final FetchProperties fetchProps;
+    private final IPreviousCloseCache previousCloses;
+    private final MeterRegistry meterRegistry;
     private static final BigDecimal HUNDRED = new BigDecimal("100");
 
-    public CombinedRefreshService(CollectApiClient collect, InfinaApiClient infina, FetchProperties fetchProps) {
+    public CombinedRefreshService(CollectApiClient collect, InfinaApiClient infina, FetchProperties fetchProps,
+                                  IPreviousCloseCache previousCloses, MeterRegistry meterRegistry) {
         this.collect = collect;
         this.infina = infina;
         this.fetchProps = fetchProps;
+        this.previousCloses = previousCloses;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public Mono<List<CombinedStockData>> buildSnapshot() {
         LocalDate today = LocalDate.now();
         String todayStr = today.format(DateTimeFormatter.ISO_DATE);
-        String yesterdayStr = today.minusDays(1).format(DateTimeFormatter.ISO_DATE);
+        LocalDate yesterday = today.minusDays(1);
 
-        return collect.fetchStocks()
-                .map(resp -> resp != null && resp.result() != null ? resp.result() : Collections.<StockData>emptyList())
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(s -> buildCombinedSafe(s, todayStr, yesterdayStr), fetchProps.getConcurrency())
+        // Süre abone olunduğu anda başlar; Mono yeniden denenirse her deneme ayrı ölçülür
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return buildSnapshot(todayStr, yesterday)
+                    .doOnNext(list -> sample.stop(refreshTimer(list.isEmpty() ? "empty" : "ok")));
+        });
+    }
+
+    private Mono<List<CombinedStockData>> buildSnapshot(String todayStr, LocalDate yesterday) {
+        // Kayıtlar gövde okunurken gelir; Infina çağrıları ilk hisseyle başlar
+        return collect.streamStocks()
+                // Gerçek eşzamanlılığı InfinaApiClient'taki uyarlanabilir sınır belirler; burası yalnızca üst sınır
+                .flatMap(s -> buildCombinedSafe(s, todayStr, yesterday), fetchProps.getLimiter().getMaxLimit())
                 .collectList()
-                .retry(fetchProps.getRetry())
+                // Collect hatası (bağlantı, 5xx, yarıda kesilen gövde) tüm anlık görüntüyü yeniden dener;
+                // 429'da bekleme süresi başladığından denenmez
+                .retryWhen(Retry.backoff(fetchProps.getRetry(), fetchProps.getRetryBackoff())
+                        .filter(e -> !(e instanceof CollectApiRateLimitException)))
+                // Yeni önceki kapanışlar dosyaya yazılır; dosya IO event loop dışında yapılır
+                .flatMap(list -> Mono.fromRunnable(previousCloses::flush)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> Mono.empty())
+                        .thenReturn(list))
                 .onErrorReturn(Collections.emptyList());
     }
 
-    private Mono<CombinedStockData> buildCombinedSafe(StockData s, String todayStr, String yesterdayStr) {
+    private Timer refreshTimer(String outcome) {
+        return MetricsUtils.latencyTimer(MetricsUtils.STOCK_REFRESH, Duration.ofMinutes(2))
+                .description("Full combined snapshot build, Collect stream plus Infina lookups")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Mono<CombinedStockData> buildCombinedSafe(StockData s, String todayStr, LocalDate yesterday) {
         String code = s.code().toUpperCase();
         String assetCode = code + ".E";
 
-        Mono<Optional<HisseFiyatEntry>> todayOpt = infina.fetchPriceByCodeAndDate(assetCode, todayStr)
-                .timeout(fetchProps.getRequestTimeout())
-                .map(this::firstEntry)
-                .map(Optional::ofNullable)
-                .onErrorResume(e -> Mono.just(Optional.empty()));
+        Mono<Optional<HisseFiyatEntry>> todayOpt = fetchEntry(assetCode, todayStr);
 
-        Mono<Optional<HisseFiyatEntry>> yesterdayOpt = infina.fetchPriceByCodeAndDate(assetCode, yesterdayStr)
-                .timeout(fetchProps.getRequestTimeout())
-                .map(this::firstEntry)
-                .map(Optional::ofNullable)
-                .onErrorResume(e -> Mono.just(Optional.empty()));
+        // Dünün kapanışı değişmez; gün başına bir kez çekilir
+        Mono<Optional<HisseFiyatEntry>> yesterdayOpt = previousCloses.getOrLoad(assetCode, yesterday,
+                () -> fetchEntry(assetCode, yesterday.format(DateTimeFormatter.ISO_DATE)));
 
         return Mono.zipDelayError(todayOpt, yesterdayOpt)
                 .map(tuple -> {
@@ -74,13 +108,45 @@ public class CombinedRefreshService implements ICacheRefreshService<CombinedStoc
                 .onErrorResume(e -> Mono.just(toCombined(code, s, null, null)));
     }
 
+    // Zaman aşımı ve 5xx yalnızca bu sembol için yeniden denenir; 429'da sınır zaten geri çekilir.
+    // Zaman aşımı istemcide, izin alındıktan sonra uygulanır
+    private Mono<Optional<HisseFiyatEntry>> fetchEntry(String assetCode, String date) {
+        return infina.fetchPriceByCodeAndDate(assetCode, date)
+                .retryWhen(Retry.backoff(fetchProps.getRetry(), fetchProps.getRetryBackoff())
+                        .filter(CombinedRefreshService::isRetryable))
+                .map(this::firstEntry)
+                .map(Optional::ofNullable)
+                .onErrorResume(e -> {
+                    recordUpstreamError(assetCode, e);
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    // Tekrar denemeler tükendikten sonra sembol başına bir kez sayılır
+    private void recordUpstreamError(String assetCode, Throwable e) {
+        meterRegistry.counter(MetricsUtils.STOCK_REFRESH_UPSTREAM_ERRORS,
+                "symbol", assetCode, "reason", errorReason(Exceptions.unwrap(e))).increment();
+    }
+
+    private static String errorReason(Throwable e) {
+        if (e instanceof TimeoutException) return "timeout";
+        if (e instanceof InfinaApiRateLimitException) return "rate_limited";
+        if (e instanceof InfinaApiUpstreamException) return "upstream";
+        if (Exceptions.isRetryExhausted(e) && e.getCause() != null) return errorReason(e.getCause());
+        return "other";
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        return e instanceof TimeoutException || e instanceof InfinaApiUpstreamException;
+    }
+
     private HisseFiyatEntry firstEntry(HisseApiResponse resp) {
         if (resp == null || resp.result() == null || resp.result().data() == null) return null;
         var list = resp.result().data().HisseFiyat();
         return (list == null || list.isEmpty()) ? null : list.get(0);
     }
 
-    private CombinedStockData toCombined(String code, StockData s, HisseFiyatEntry today, HisseFiyatEntry yesterday) {
+    static CombinedStockData toCombined(String code, StockData s, HisseFiyatEntry today, HisseFiyatEntry yesterday) {
         BigDecimal closePrice = today != null ? today.closePrice() : null;
         BigDecimal openPrice =
                 (today != null && today.openPrice() != null) ? today.openPrice()
@@ -108,7 +174,7 @@ public class CombinedRefreshService implements ICacheRefreshService<CombinedStoc
         );
     }
 
-    private BigDecimal computeChange(BigDecimal last, BigDecimal open, BigDecimal ratePct) {
+    static BigDecimal computeChange(BigDecimal last, BigDecimal open, BigDecimal ratePct) {
         try {
             if (last != null && open != null) {
                 return last.subtract(open).setScale(2, RoundingMode.HALF_UP);
@@ -1,7 +1,9 @@
 package com.infina.hissenet.service;
 
+import com.infina.hissenet.common.Money;
 import com.infina.hissenet.dto.response.StockTransactionResponse;
 import com.infina.hissenet.entity.Customer;
+import com.infina.hissenet.entity.StockPosition;
 import com.infina.hissenet.entity.StockTransaction;
 import com.infina.hissenet.entity.enums.StockTransactionType;
 import com.infina.hissenet.entity.enums.TransactionStatus;
@@ -10,12 +12,15 @@ import com.infina.hissenet.exception.customer.CustomerNotFoundException;
 import com.infina.hissenet.mapper.StockTransactionMapper;
 import com.infina.hissenet.repository.StockTransactionRepository;
 import com.infina.hissenet.service.abstracts.ICommonFinancialService;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
 import com.infina.hissenet.utils.MessageUtils;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -27,8 +32,9 @@ import java.util.stream.Collectors;
  * - Compute customer-position quantities across portfolios
  *
  * <p>Notes:</p>
- * - Stream-based aggregations are used for readability and maintainability
- * - Monetary fields are handled with BigDecimal using safe rounding modes
+ * - Holdings are read from the position ledger; the full transaction scan in
+ *   {@link #getQuantityForStockTransactionWithStream} is kept for reconciliation
+ * - Sums and averages are accumulated as {@link Money}; BigDecimal only at the DTO boundary
  *
  * @author Furkan Can
  */
@@ -37,59 +43,82 @@ public class CommonFinancialService implements ICommonFinancialService {
     private final StockTransactionRepository stockTransactionRepository;
     private final StockTransactionMapper stockTransactionMapper;
     private final CustomerService customerService;
+    private final IPositionLedgerService positionLedger;
 
-    public CommonFinancialService(StockTransactionRepository stockTransactionRepository, StockTransactionMapper stockTransactionMapper, CustomerService customerService) {
+    public CommonFinancialService(StockTransactionRepository stockTransactionRepository, StockTransactionMapper stockTransactionMapper, CustomerService customerService,
+                                  IPositionLedgerService positionLedger) {
         this.stockTransactionRepository = stockTransactionRepository;
         this.stockTransactionMapper = stockTransactionMapper;
         this.customerService = customerService;
+        this.positionLedger = positionLedger;
     }
 
     @Override
     public List<StockTransactionResponse> getAllBuyTransactions(Long portfolioId) {
-        return stockTransactionRepository.findByPortfolioId(portfolioId).stream()
-                .filter(tx -> tx.getTransactionType() == StockTransactionType.BUY
-                        && (tx.getTransactionStatus() == TransactionStatus.SETTLED
-                          ))
-                .collect(Collectors.groupingBy(StockTransaction::getStockCode))
-                .values().stream()
-                .map(this::mergeTransactions)
-                .filter(response -> response.quantity() > 0)
-                .toList();
+        // Açık hisseler ve net adetleri defterden; cevap alanları eskisi gibi BUY işlemlerinden birleştirilir
+        Map<String, Integer> openQuantities = new LinkedHashMap<>();
+        for (StockPosition position : positionLedger.getOpenPositions(portfolioId)) {
+            openQuantities.put(position.getStockCode(), position.getSettledQuantity());
+        }
+        if (openQuantities.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<StockTransaction>> buysByCode = stockTransactionRepository
+                .findByPortfolioIdAndStockCodeInAndTypeAndStatus(portfolioId, openQuantities.keySet(),
+                        StockTransactionType.BUY, TransactionStatus.SETTLED)
+                .stream()
+                .collect(Collectors.groupingBy(StockTransaction::getStockCode));
+
+        List<StockTransactionResponse> responses = new ArrayList<>(openQuantities.size());
+        openQuantities.forEach((stockCode, quantity) -> {
+            List<StockTransaction> buys = buysByCode.get(stockCode);
+            if (buys != null) {
+                responses.add(merge(buys, quantity));
+            }
+        });
+        return responses;
     }
+
     @Override
     public StockTransactionResponse mergeTransactions(List<StockTransaction> transactions) {
         if (transactions == null || transactions.isEmpty()) {
             throw new IllegalArgumentException(MessageUtils.getMessage("transaction.list.empty"));
         }
 
+        StockTransaction baseTx = transactions.get(0);
+        int totalQuantity = 0;
+        // Net adet müşteri+hisse için tek seferde defterden okunur
+        if (baseTx.getPortfolio() != null && baseTx.getPortfolio().getCustomer() != null) {
+            totalQuantity = positionLedger.getSettledQuantity(baseTx.getPortfolio().getCustomer().getId(), baseTx.getStockCode());
+        }
+        return merge(transactions, totalQuantity);
+    }
+
+    private StockTransactionResponse merge(List<StockTransaction> transactions, int totalQuantity) {
         StockTransaction baseTx = transactions.get(0);
         StockTransactionResponse baseResponse = stockTransactionMapper.toResponse(baseTx);
 
-        int totalQuantity = 0;
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        BigDecimal totalCommission = BigDecimal.ZERO;
-        BigDecimal totalTax = BigDecimal.ZERO;
-        BigDecimal totalOtherFees = BigDecimal.ZERO;
-        BigDecimal totalPriceAmount = BigDecimal.ZERO;
-        BigDecimal averagePrice = BigDecimal.ZERO;
+        Money totalAmount = Money.ZERO;
+        Money totalCommission = Money.ZERO;
+        Money totalTax = Money.ZERO;
+        Money totalOtherFees = Money.ZERO;
+        Money totalPriceAmount = Money.ZERO;
 
         for (StockTransaction tx : transactions) {
             int quantity = tx.getQuantity();
 
-            totalQuantity=getQuantityForStockTransactionWithStream(tx.getPortfolio().getCustomer().getId(),tx.getStockCode());
-            totalAmount = totalAmount.add(tx.getTotalAmount());
-            totalCommission = totalCommission.add(tx.getCommission());
-            totalTax = totalTax.add(tx.getTax());
-            totalOtherFees = totalOtherFees.add(tx.getOtherFees());
+            totalAmount = totalAmount.plus(Money.of(tx.getTotalAmount()));
+            totalCommission = totalCommission.plus(Money.of(tx.getCommission()));
+            totalTax = totalTax.plus(Money.of(tx.getTax()));
+            totalOtherFees = totalOtherFees.plus(Money.of(tx.getOtherFees()));
 
             BigDecimal price = tx.getPrice();
             if (price != null) {
-                totalPriceAmount = totalPriceAmount.add(price.multiply(BigDecimal.valueOf(quantity)));
+                totalPriceAmount = totalPriceAmount.plus(Money.of(price).times(quantity));
             }
-             averagePrice = totalQuantity > 0
-                    ? totalPriceAmount.divide(BigDecimal.valueOf(totalQuantity), 4, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO;
         }
+        Money averagePrice = totalQuantity > 0 ? totalPriceAmount.dividedBy(totalQuantity) : Money.ZERO;
 
 
         return new StockTransactionResponse(
@@ -101,11 +130,11 @@ public class CommonFinancialService implements ICommonFinancialService {
                 baseResponse.transactionType(),
                 baseResponse.transactionStatus(),
                 totalQuantity,
-                averagePrice,
-                totalAmount,
-                totalCommission,
-                totalTax,
-                totalOtherFees,
+                averagePrice.toBigDecimal(),
+                totalAmount.toBigDecimal(),
+                totalCommission.toBigDecimal(),
+                totalTax.toBigDecimal(),
+                totalOtherFees.toBigDecimal(),
                 baseResponse.marketOrderType(),
                 baseResponse.limitPrice(),
                 baseResponse.executionPrice(),
@@ -0,0 +1,177 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.FlightRecordingResponse;
+import com.infina.hissenet.exception.jfr.InvalidRecordingSettingsException;
+import com.infina.hissenet.exception.jfr.RecordingAlreadyRunningException;
+import com.infina.hissenet.exception.jfr.RecordingNotFoundException;
+import com.infina.hissenet.exception.jfr.RecordingNotRunningException;
+import com.infina.hissenet.jfr.OrderCreateEvent;
+import com.infina.hissenet.jfr.OrderFillEvent;
+import com.infina.hissenet.jfr.PriceRefreshEvent;
+import com.infina.hissenet.jfr.WalletMutationEvent;
+import com.infina.hissenet.properties.FlightRecordingProperties;
+import com.infina.hissenet.service.abstracts.IFlightRecordingService;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class FlightRecordingService implements IFlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final List<Class<? extends Event>> APPLICATION_EVENTS = List.of(
+            OrderCreateEvent.class, OrderFillEvent.class, WalletMutationEvent.class, PriceRefreshEvent.class);
+
+    private final FlightRecordingProperties properties;
+
+    // Tek kayıt tutulur; tüm erişimler bu nesne üzerinde senkronize
+    private Recording recording;
+    private String settings;
+
+    public FlightRecordingService(FlightRecordingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized FlightRecordingResponse start(String settings, Duration duration) {
+        if (settings == null || !SETTINGS.contains(settings)) {
+            throw new InvalidRecordingSettingsException(settings);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RecordingAlreadyRunningException(recording.getId());
+        }
+        discard();
+
+        Recording next = new Recording(configuration(settings));
+        next.setName("hissenet-" + next.getId());
+        next.setToDisk(true);
+        next.setMaxSize(properties.getMaxSize().toBytes());
+        Duration max = properties.getMaxDuration();
+        next.setDuration(duration == null || duration.isNegative() || duration.isZero() || duration.compareTo(max) > 0
+                ? max : duration);
+        for (Class<? extends Event> type : APPLICATION_EVENTS) {
+            next.enable(type).withoutThreshold();
+        }
+        try {
+            // Süre dolunca JVM kaydı durdurup bu dosyaya kendisi yazar
+            Path dir = Files.createDirectories(Path.of(properties.getDumpDir()));
+            next.setDestination(dir.resolve(next.getName() + ".jfr"));
+        } catch (IOException e) {
+            next.close();
+            throw new UncheckedIOException(e);
+        }
+        next.start();
+
+        this.recording = next;
+        this.settings = settings;
+        log.info("JFR recording {} started with '{}' settings for at most {}", next.getId(), settings, next.getDuration());
+        return toResponse(next);
+    }
+
+    @Override
+    public synchronized FlightRecordingResponse stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new RecordingNotRunningException();
+        }
+        recording.stop();
+        log.info("JFR recording {} stopped, written to {}", recording.getId(), recording.getDestination());
+        return toResponse(recording);
+    }
+
+    @Override
+    public synchronized FlightRecordingResponse status() {
+        if (recording == null) {
+            throw new RecordingNotFoundException();
+        }
+        return toResponse(recording);
+    }
+
+    @Override
+    public synchronized Path dump() {
+        if (recording == null) {
+            throw new RecordingNotFoundException();
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                // Kayıt sürerken o ana kadarki veri ayrı dosyaya kopyalanır; kayıt devam eder
+                Path snapshot = snapshotPath(recording);
+                recording.dump(snapshot);
+                return snapshot;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Path destination = recording.getDestination();
+        if (destination == null || !Files.exists(destination)) {
+            throw new RecordingNotFoundException();
+        }
+        return destination;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private void discard() {
+        if (recording == null) {
+            return;
+        }
+        Path destination = recording.getDestination();
+        Path snapshot = snapshotPath(recording);
+        recording.close();
+        recording = null;
+        try {
+            if (destination != null) {
+                Files.deleteIfExists(destination);
+            }
+            Files.deleteIfExists(snapshot);
+        } catch (IOException e) {
+            log.warn("Could not delete previous JFR files: {}", e.getMessage());
+        }
+    }
+
+    private Path snapshotPath(Recording r) {
+        return Path.of(properties.getDumpDir()).resolve(r.getName() + "-snapshot.jfr");
+    }
+
+    private static Configuration configuration(String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new InvalidRecordingSettingsException(name);
+        }
+    }
+
+    private FlightRecordingResponse toResponse(Recording r) {
+        long size = r.getSize();
+        Path destination = r.getDestination();
+        if (r.getState() != RecordingState.RUNNING && destination != null) {
+            try {
+                size = Files.exists(destination) ? Files.size(destination) : size;
+            } catch (IOException ignored) {
+                // Boyut bilgi amaçlı; okunamazsa kayıt boyutu kullanılır
+            }
+        }
+        return new FlightRecordingResponse(r.getId(), r.getName(), r.getState().name(), settings,
+                r.getStartTime(), r.getStopTime(), r.getDuration(), size);
+    }
+}
@@ -0,0 +1,228 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CandleResponse;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.entity.enums.CandleInterval;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.service.abstracts.IIntradayTickStore;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class IntradayTickStore implements IIntradayTickStore {
+
+    // Fiyatlar 4, hacim 2 ondalık basamakla long olarak tutulur
+    static final int PRICE_SCALE = 4;
+    static final int VOLUME_SCALE = 2;
+
+    private final StockProperties props;
+    private final Map<String, TickSeries> series = new ConcurrentHashMap<>();
+
+    public IntradayTickStore(StockProperties props) {
+        this.props = props;
+    }
+
+    @EventListener
+    public void onPricesRefreshed(StockPricesRefreshedEvent event) {
+        // Diskten geri yüklenen snapshot yeni bir gözlem değildir
+        if (event.isRestored()) {
+            return;
+        }
+        ingest(event.getSnapshot(), System.currentTimeMillis());
+    }
+
+    @Override
+    public void ingest(List<CombinedStockData> snapshot, long timestampMillis) {
+        if (snapshot == null) {
+            return;
+        }
+        for (CombinedStockData data : snapshot) {
+            if (data == null || data.code() == null || data.lastPrice() == null) {
+                continue;
+            }
+            long price = toFixed(data.lastPrice(), PRICE_SCALE);
+            long cumulativeVolume = data.hacim() != null ? toFixed(data.hacim(), VOLUME_SCALE) : 0L;
+            if (price <= 0) {
+                continue;
+            }
+            series.computeIfAbsent(normalize(data.code()), code -> new TickSeries(props.getCandles()))
+                    .add(timestampMillis, price, cumulativeVolume);
+        }
+    }
+
+    @Override
+    public List<CandleResponse> getCandles(String code, CandleInterval interval, int limit) {
+        TickSeries s = code != null ? series.get(normalize(code)) : null;
+        return s != null ? s.candles(interval, limit) : List.of();
+    }
+
+    @Override
+    public List<CandleResponse> getTicks(String code, int limit) {
+        TickSeries s = code != null ? series.get(normalize(code)) : null;
+        return s != null ? s.ticks(limit) : List.of();
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static long toFixed(BigDecimal value, int scale) {
+        return value.movePointRight(scale).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    static BigDecimal fromFixed(long value, int scale) {
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * Ticks and candles of one symbol. Every column is a primitive array used as a ring;
+     * {@code head} is the next write slot and {@code size} the number of valid entries.
+     * All access is under the instance lock: one writer (the refresh) and a few readers.
+     */
+    static final class TickSeries {
+
+        private final long[] tickTime;
+        private final long[] tickPrice;
+        private final long[] tickVolume;
+        private int tickHead;
+        private int tickSize;
+
+        private long lastPrice = -1;
+        private long lastCumulativeVolume = -1;
+
+        private final Map<CandleInterval, CandleRing> candles = new EnumMap<>(CandleInterval.class);
+
+        TickSeries(StockProperties.Candles config) {
+            int capacity = config.getTickCapacity();
+            this.tickTime = new long[capacity];
+            this.tickPrice = new long[capacity];
+            this.tickVolume = new long[capacity];
+            for (CandleInterval interval : CandleInterval.values()) {
+                candles.put(interval, new CandleRing(interval.getMillis(), config.capacityFor(interval)));
+            }
+        }
+
+        synchronized void add(long time, long price, long cumulativeVolume) {
+            if (price == lastPrice && cumulativeVolume == lastCumulativeVolume) {
+                return;
+            }
+            // Hacim günlük kümülatif gelir; azalırsa yeni gün başlamıştır
+            long volume;
+            if (lastCumulativeVolume < 0) {
+                volume = 0;
+            } else if (cumulativeVolume >= lastCumulativeVolume) {
+                volume = cumulativeVolume - lastCumulativeVolume;
+            } else {
+                volume = cumulativeVolume;
+            }
+            lastPrice = price;
+            lastCumulativeVolume = cumulativeVolume;
+
+            tickTime[tickHead] = time;
+            tickPrice[tickHead] = price;
+            tickVolume[tickHead] = volume;
+            tickHead = (tickHead + 1) % tickTime.length;
+            if (tickSize < tickTime.length) {
+                tickSize++;
+            }
+
+            for (CandleRing ring : candles.values()) {
+                ring.add(time, price, volume);
+            }
+        }
+
+        synchronized List<CandleResponse> ticks(int limit) {
+            int n = Math.min(Math.max(limit, 0), tickSize);
+            List<CandleResponse> result = new ArrayList<>(n);
+            int capacity = tickTime.length;
+            for (int i = n; i > 0; i--) {
+                int idx = Math.floorMod(tickHead - i, capacity);
+                BigDecimal price = fromFixed(tickPrice[idx], PRICE_SCALE);
+                result.add(new CandleResponse(tickTime[idx], price, price, price, price,
+                        fromFixed(tickVolume[idx], VOLUME_SCALE)));
+            }
+            return result;
+        }
+
+        synchronized List<CandleResponse> candles(CandleInterval interval, int limit) {
+            return candles.get(interval).read(limit);
+        }
+    }
+
+    /**
+     * OHLCV candles of one width in parallel primitive columns.
+     */
+    static final class CandleRing {
+
+        private final long width;
+        private final long[] start;
+        private final long[] open;
+        private final long[] high;
+        private final long[] low;
+        private final long[] close;
+        private final long[] volume;
+        private int head;
+        private int size;
+
+        CandleRing(long width, int capacity) {
+            this.width = width;
+            this.start = new long[capacity];
+            this.open = new long[capacity];
+            this.high = new long[capacity];
+            this.low = new long[capacity];
+            this.close = new long[capacity];
+            this.volume = new long[capacity];
+        }
+
+        void add(long time, long price, long tickVolume) {
+            long bucket = time - Math.floorMod(time, width);
+            int last = Math.floorMod(head - 1, start.length);
+            if (size > 0 && start[last] == bucket) {
+                if (price > high[last]) high[last] = price;
+                if (price < low[last]) low[last] = price;
+                close[last] = price;
+                volume[last] += tickVolume;
+                return;
+            }
+            if (size > 0 && bucket < start[last]) {
+                // Saat geri gittiyse geçmiş mum değiştirilmez
+                return;
+            }
+            start[head] = bucket;
+            open[head] = price;
+            high[head] = price;
+            low[head] = price;
+            close[head] = price;
+            volume[head] = tickVolume;
+            head = (head + 1) % start.length;
+            if (size < start.length) {
+                size++;
+            }
+        }
+
+        List<CandleResponse> read(int limit) {
+            int n = Math.min(Math.max(limit, 0), size);
+            List<CandleResponse> result = new ArrayList<>(n);
+            for (int i = n; i > 0; i--) {
+                int idx = Math.floorMod(head - i, start.length);
+                result.add(new CandleResponse(start[idx],
+                        fromFixed(open[idx], PRICE_SCALE),
+                        fromFixed(high[idx], PRICE_SCALE),
+                        fromFixed(low[idx], PRICE_SCALE),
+                        fromFixed(close[idx], PRICE_SCALE),
+                        fromFixed(volume[idx], VOLUME_SCALE)));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.entity.Order;
+import com.infina.hissenet.entity.enums.OrderCategory;
+import com.infina.hissenet.entity.enums.OrderStatus;
+import com.infina.hissenet.entity.enums.OrderType;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.repository.OrderRepository;
+import com.infina.hissenet.service.abstracts.IOrderBookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-stock-code limit order book.
+ *
+ * <p>Each book holds order ids grouped by limit price. A BUY limit fills when the
+ * market price is at or below it, so bids are sorted descending and the crossed
+ * set is the head of the map down to the market price. SELL limits mirror this
+ * with an ascending map. Within a price level ids keep insertion order.</p>
+ *
+ * <p>Price updates arrive as {@link StockPricesRefreshedEvent}s; crossed ids are
+ * collected into a triggered queue that {@code OrderScheduler} drains in price-time
+ * order.</p>
+ */
+@Service
+public class OrderBookService implements IOrderBookService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBookService.class);
+
+    private final OrderRepository orderRepository;
+
+    private final Map<String, Book> books = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> index = new ConcurrentHashMap<>();
+    // Fiyat-zaman önceliği için ekleme sırası korunur; erişim kümenin kendi kilidiyle
+    private final Set<Long> triggered = new LinkedHashSet<>();
+
+    public OrderBookService(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Order> openOrders = orderRepository.findByStatus(OrderStatus.OPEN);
+        books.clear();
+        index.clear();
+        synchronized (triggered) {
+            triggered.clear();
+        }
+        openOrders.forEach(this::add);
+        log.info("Order book rebuilt with {} open limit orders", index.size());
+    }
+
+    @Override
+    public void track(Order order) {
+        if (!isBookable(order)) {
+            return;
+        }
+        Entry entry = new Entry(order.getId(), normalize(order.getStockCode()), order.getType(), order.getPrice());
+        afterCommit(() -> add(entry));
+    }
+
+    @Override
+    public void untrack(Long orderId) {
+        if (orderId == null) {
+            return;
+        }
+        afterCommit(() -> remove(orderId));
+    }
+
+    @Override
+    public List<Long> drainTriggered() {
+        synchronized (triggered) {
+            List<Long> drained = new ArrayList<>(triggered);
+            triggered.clear();
+            return drained;
+        }
+    }
+
+    @Override
+    public int openOrderCount() {
+        return index.size();
+    }
+
+    @EventListener
+    public void onPricesRefreshed(StockPricesRefreshedEvent event) {
+        // Diskten yüklenen eski fiyatlar emir tetiklemez
+        if (event.isRestored()) {
+            return;
+        }
+        for (CombinedStockData data : event.getSnapshot()) {
+            if (data == null || data.code() == null || data.lastPrice() == null) {
+                continue;
+            }
+            Book book = books.get(normalize(data.code()));
+            if (book != null) {
+                List<Long> crossed = book.collectCrossed(data.lastPrice());
+                synchronized (triggered) {
+                    triggered.addAll(crossed);
+                }
+            }
+        }
+    }
+
+    private void add(Order order) {
+        if (isBookable(order)) {
+            add(new Entry(order.getId(), normalize(order.getStockCode()), order.getType(), order.getPrice()));
+        }
+    }
+
+    private void add(Entry entry) {
+        Entry previous = index.put(entry.orderId(), entry);
+        if (previous != null) {
+            bookFor(previous.stockCode()).remove(previous);
+        }
+        bookFor(entry.stockCode()).add(entry);
+    }
+
+    private void remove(Long orderId) {
+        synchronized (triggered) {
+            triggered.remove(orderId);
+        }
+        Entry entry = index.remove(orderId);
+        if (entry != null) {
+            bookFor(entry.stockCode()).remove(entry);
+        }
+    }
+
+    private Book bookFor(String stockCode) {
+        return books.computeIfAbsent(stockCode, code -> new Book());
+    }
+
+    private static boolean isBookable(Order order) {
+        return order != null
+                && order.getId() != null
+                && order.getStatus() == OrderStatus.OPEN
+                && order.getCategory() == OrderCategory.LIMIT
+                && order.getType() != null
+                && order.getPrice() != null
+                && order.getStockCode() != null;
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Entry(Long orderId, String stockCode, OrderType type, BigDecimal price) {
+    }
+
+    private static final class Book {
+        private final NavigableMap<BigDecimal, Set<Long>> bids = new TreeMap<>(Comparator.reverseOrder());
+        private final NavigableMap<BigDecimal, Set<Long>> asks = new TreeMap<>();
+
+        synchronized void add(Entry entry) {
+            side(entry.type()).computeIfAbsent(entry.price(), p -> new LinkedHashSet<>()).add(entry.orderId());
+        }
+
+        synchronized void remove(Entry entry) {
+            NavigableMap<BigDecimal, Set<Long>> side = side(entry.type());
+            Set<Long> level = side.get(entry.price());
+            if (level != null && level.remove(entry.orderId()) && level.isEmpty()) {
+                side.remove(entry.price());
+            }
+        }
+
+        // En iyi fiyattan başlayarak, aynı seviyede geliş sırasıyla
+        synchronized List<Long> collectCrossed(BigDecimal marketPrice) {
+            List<Long> crossed = new ArrayList<>();
+            bids.headMap(marketPrice, true).values().forEach(crossed::addAll);
+            asks.headMap(marketPrice, true).values().forEach(crossed::addAll);
+            return crossed;
+        }
+
+        private NavigableMap<BigDecimal, Set<Long>> side(OrderType type) {
+            return type == OrderType.BUY ? bids : asks;
+        }
+    }
+}
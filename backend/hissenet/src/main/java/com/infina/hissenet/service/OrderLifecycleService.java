@@ -2,20 +2,26 @@ package com.infina.hissenet.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.infina.hissenet.repository.OrderRepository;
+import com.infina.hissenet.service.abstracts.IOrderBookService;
 import com.infina.hissenet.service.abstracts.IOrderLifecycleService;
 
 @Service
 public class OrderLifecycleService implements IOrderLifecycleService {
 
+	private static final int CANCEL_CHUNK_SIZE = 500;
+
 	private final OrderRepository orderRepository;
+	private final IOrderBookService orderBook;
 
-	public OrderLifecycleService(OrderRepository orderRepository) {
+	public OrderLifecycleService(OrderRepository orderRepository, IOrderBookService orderBook) {
 		this.orderRepository = orderRepository;
+		this.orderBook = orderBook;
 	}
 
 	@Override
@@ -23,7 +29,12 @@ public class OrderLifecycleService implements IOrderLifecycleService {
 	public void cancelOpenOrdersFor(LocalDate tradingDay) {
 		LocalDateTime start = tradingDay.atStartOfDay();
 		LocalDateTime end = tradingDay.atTime(23, 59, 59, 999_999_999);
-		orderRepository.cancelOpenOrdersInRange(start, end);
+		List<Long> ids = orderRepository.findOpenOrderIdsInRange(start, end);
+		for (int from = 0; from < ids.size(); from += CANCEL_CHUNK_SIZE) {
+			orderRepository.cancelOpenOrdersByIds(ids.subList(from, Math.min(from + CANCEL_CHUNK_SIZE, ids.size())));
+		}
+		// Defter yalnızca commit sonrası ve yalnızca iptal edilen emirler için güncellenir
+		ids.forEach(orderBook::untrack);
 	}
 
 }
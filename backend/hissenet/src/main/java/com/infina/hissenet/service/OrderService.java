@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.infina.hissenet.common.Money;
 import com.infina.hissenet.dto.response.*;
 
 import com.infina.hissenet.entity.StockTransaction;
@@ -17,6 +18,8 @@ import com.infina.hissenet.exception.common.NotFoundException;
 import com.infina.hissenet.exception.transaction.InsufficientStockException;
 import com.infina.hissenet.repository.WalletRepository;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
+import com.infina.hissenet.service.abstracts.IOrderBookService;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
 import com.infina.hissenet.service.abstracts.IStockTransactionService;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import org.springframework.data.domain.PageRequest;
@@ -33,12 +36,16 @@ import com.infina.hissenet.entity.enums.OrderStatus;
 import com.infina.hissenet.entity.enums.OrderType;
 import com.infina.hissenet.exception.customer.CustomerNotFoundException;
 import com.infina.hissenet.exception.order.OrderNotFoundException;
+import com.infina.hissenet.jfr.OrderCreateEvent;
 import com.infina.hissenet.mapper.OrderMapper;
 import com.infina.hissenet.repository.OrderRepository;
 import com.infina.hissenet.service.abstracts.IOrderService;
 import com.infina.hissenet.service.abstracts.IWalletService;
 import com.infina.hissenet.utils.GenericServiceImpl;
 import com.infina.hissenet.utils.MessageUtils;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import static com.infina.hissenet.constants.OrderConstants.COMMISSION_RATE;
 /**
@@ -57,10 +64,18 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 	private final IStockTransactionService stockTransactionService;
 	private final MarketHourService marketHourService;
 	private final TransactionDefinition transactionDefinition;
+	private final IOrderBookService orderBook;
+	private final IPositionLedgerService positionLedger;
+	private final MeterRegistry meterRegistry;
+	private final Timer customerLookupTimer;
+	private final Timer sellValidationTimer;
+	private final Timer walletTimer;
+	private final Timer transactionTimer;
 
 	public OrderService(OrderRepository orderRepository, CustomerService customerService,
 						OrderMapper orderMapper, IWalletService walletService, ICacheManagerService stockCacheService,
-						WalletRepository walletRepository, IStockTransactionService stockTransactionService, MarketHourService marketHourService, TransactionDefinition transactionDefinition) {
+						WalletRepository walletRepository, IStockTransactionService stockTransactionService, MarketHourService marketHourService, TransactionDefinition transactionDefinition,
+						IOrderBookService orderBook, IPositionLedgerService positionLedger, MeterRegistry meterRegistry) {
 		super(orderRepository);
 		this.orderRepository = orderRepository;
 		this.customerService = customerService;
@@ -71,15 +86,28 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 		this.stockTransactionService = stockTransactionService;
 		this.marketHourService = marketHourService;
 		this.transactionDefinition = transactionDefinition;
+		this.orderBook = orderBook;
+		this.positionLedger = positionLedger;
+		this.meterRegistry = meterRegistry;
+		// Aşama zamanlayıcıları bir kez kaydedilir; istek yolunda yalnızca ölçüm yapılır
+		this.customerLookupTimer = MetricsUtils.orderStageTimer(meterRegistry, "customer_lookup");
+		this.sellValidationTimer = MetricsUtils.orderStageTimer(meterRegistry, "sell_validation");
+		this.walletTimer = MetricsUtils.orderStageTimer(meterRegistry, "wallet");
+		this.transactionTimer = MetricsUtils.orderStageTimer(meterRegistry, "transaction");
 	}
 
 	@Transactional
 	public OrderResponse createOrder(OrderCreateRequest request) {
+		return new OrderCreateEvent(request).record(() -> placeOrder(request), r -> String.valueOf(r.status()));
+	}
+
+	private OrderResponse placeOrder(OrderCreateRequest request) {
 		/*if (!marketHourService.canPlaceOrder()){
 			throw new IllegalStateException();
 		}*/
-		Customer customer = customerService.findById(request.customerId())
-				.orElseThrow(() -> new CustomerNotFoundException(request.customerId()));
+		long started = System.nanoTime();
+		Customer customer = customerLookupTimer.record(() -> customerService.findById(request.customerId())
+				.orElseThrow(() -> new CustomerNotFoundException(request.customerId())));
 
 		if (request.price() == null || request.quantity() == null) {
 			throw new IllegalArgumentException(MessageUtils.getMessage("order.price.quantity.required"));
@@ -87,14 +115,14 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 
 		// t+2 sürede satış sınırı için
 		if (request.type() == OrderType.SELL) {
-			validateSellOrder(request.customerId(), request.stockCode(), request.quantity());
+			sellValidationTimer.record(() -> validateSellOrder(request.customerId(), request.stockCode(), request.quantity()));
 		}
 
 		Order order = orderMapper.toEntity(request);
 		order.setCustomer(customer);
 
-		BigDecimal totalAmount = request.price().multiply(request.quantity());
-		order.setTotalAmount(totalAmount);
+		Money totalAmount = Money.of(request.price()).times(request.quantity());
+		order.setTotalAmount(totalAmount.toBigDecimal());
 
 		try {
 			if (request.category() == OrderCategory.MARKET) {
@@ -110,15 +138,24 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 
 		Order saved = save(order);
 
-		stockTransactionService.createTransactionFromOrder(saved);
+		// Portföy yeniden değerlemesi bu aşamanın içinde ayrıca ölçülür
+		transactionTimer.record(() -> stockTransactionService.createTransactionFromOrder(saved));
+		// OPEN kalan limit emirleri fiyat tetiklemesi için order book'a eklenir
+		orderBook.track(saved);
 
+		MetricsUtils.recordOrderCreated(meterRegistry, saved, System.nanoTime() - started);
 		return orderMapper.toResponse(saved);
 	}
-	private void processMarketOrder(OrderCreateRequest request, Order order, BigDecimal totalAmount) {
+	private void processMarketOrder(OrderCreateRequest request, Order order, Money totalAmount) {
 		/*if (!marketHourService.isMarketOpen()){
 			order.setStatus(OrderStatus.REJECTED);
 			return;
 		}*/
+		// Açılışta diskten yüklenen fiyatlar doğrulanmadan piyasa emri gerçekleşmez
+		if (stockCacheService.isStale()) {
+			order.setStatus(OrderStatus.REJECTED);
+			return;
+		}
 		if (request.type() != null) {
 			handleWalletTransaction(request, order, totalAmount);
 			order.setStatus(OrderStatus.FILLED);
@@ -127,12 +164,18 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 		}
 	}
 
-	private void processLimitOrder(OrderCreateRequest request, Order order, BigDecimal totalAmount) {
+	private void processLimitOrder(OrderCreateRequest request, Order order, Money totalAmount) {
 		if (request.price() == null || request.type() == null || request.quantity() == null) {
 			order.setStatus(OrderStatus.REJECTED);
 			return;
 		}
 
+		// Fiyatlar henüz diskten yüklenmiş haldeyse emir bekler; ilk güncel fiyatta order book tetikler
+		if (stockCacheService.isStale()) {
+			order.setStatus(OrderStatus.OPEN);
+			return;
+		}
+
 		BigDecimal marketPrice = stockCacheService.getCachedByCode(request.stockCode()).lastPrice();
 		boolean isValid = switch (request.type()) {
 			case BUY -> marketPrice.compareTo(request.price()) <= 0;
@@ -150,19 +193,21 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 			order.setStatus(OrderStatus.OPEN);
 		}
 	}
-	private void handleWalletTransaction(OrderCreateRequest request, Order order, BigDecimal totalAmount) {
+	private void handleWalletTransaction(OrderCreateRequest request, Order order, Money totalAmount) {
 		Customer customer = order.getCustomer();
 		BigDecimal customerRate = customer != null && customer.getCommissionRate() != null
 				? customer.getCommissionRate()
 				: COMMISSION_RATE;
 
-		BigDecimal commission = totalAmount.multiply(customerRate);
+		Money commission = totalAmount.commission(customerRate);
 
-		if (request.type() == OrderType.BUY) {
-			walletService.processStockPurchase(request.customerId(), totalAmount, commission);
-		} else if (request.type() == OrderType.SELL) {
-			walletService.processStockSale(request.customerId(), totalAmount, commission);
-		}
+		walletTimer.record(() -> {
+			if (request.type() == OrderType.BUY) {
+				walletService.processStockPurchase(request.customerId(), totalAmount.toBigDecimal(), commission.toBigDecimal());
+			} else if (request.type() == OrderType.SELL) {
+				walletService.processStockSale(request.customerId(), totalAmount.toBigDecimal(), commission.toBigDecimal());
+			}
+		});
 	}
 
 	/**
@@ -191,12 +236,18 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 
 	@Transactional
 	public OrderResponse updateOrder(Long id, OrderUpdateRequest request) {
-		Order existing = findById(id).orElseThrow(() -> new OrderNotFoundException(id));
+		// Kilit, zamanlayıcının aynı emri eşzamanlı FILLED yapmasıyla iptali sıralar
+		Order existing = orderRepository.findForUpdate(id).orElseThrow(() -> new OrderNotFoundException(id));
 		StockTransaction transaction=stockTransactionService.findByOrderId(id);
 		if (request.status() == OrderStatus.CANCELED) {
 			if (existing.getStatus() == OrderStatus.OPEN) {
 				existing.setStatus(OrderStatus.CANCELED);
-				transaction.setTransactionStatus(TransactionStatus.CANCELLED);
+				if (transaction != null) {
+					// Defter, işlemin iptal öncesi durumuna göre güncellenir
+					positionLedger.recordCancellation(transaction);
+					transaction.setTransactionStatus(TransactionStatus.CANCELLED);
+				}
+				orderBook.untrack(existing.getId());
 			}
 		}
 
@@ -240,8 +291,8 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 					order.getTotalAmount(),
 					order.getCreatedAt(),
 					order.getUpdatedAt(),
-					order.getCreatedBy() != null ? order.getCreatedBy().getId() : null,
-					order.getUpdatedBy() != null ? order.getUpdatedBy().getId() : null,
+					order.getCreatedById(),
+					order.getUpdatedById(),
 					blockedBalance
 			);
 		}).toList();
@@ -295,40 +346,20 @@ public class OrderService extends GenericServiceImpl<Order, Long> implements IOr
 
 	/**
 	 * T+2 settlement kurallarına uygun olarak satılabilir hisse miktarını hesaplar
-	 * Bloke edilen (T+2 bekleyen) hisseleri çıkarır
+	 * Bloke edilen (T+2 bekleyen) hisseleri çıkarır - pozisyon defterinden tek satır okunur
 	 */
 	@Transactional(readOnly = true)
 	public BigDecimal getAvailableStockQuantityForSale(Long customerId, String stockCode) {
-		BigDecimal totalOwned = BigDecimal.valueOf(stockTransactionService.getQuantityForStockTransactionWithStream(customerId,stockCode));
-		BigDecimal blockedQuantity = getBlockedStockQuantity(customerId, stockCode);
-
-		BigDecimal availableForSale = totalOwned.subtract(blockedQuantity);
-		return availableForSale.max(BigDecimal.ZERO); // Negatif olamaz
+		return BigDecimal.valueOf(positionLedger.getAvailableQuantity(customerId, stockCode)); // Negatif olamaz
 	}
 
 	/**
 	 * T+2 settlement nedeniyle bloke edilen hisse miktarını hesaplar
-	 * Test modunda: 1 dakika, Production'da: 2 iş günü
+	 * Takası henüz işlenmemiş (COMPLETED) satışların toplamı, defterde bekleyen satış olarak tutulur
 	 */
 	@Transactional(readOnly = true)
 	public BigDecimal getBlockedStockQuantity(Long customerId, String stockCode) {
-		// STOCK TRANSACTİONDAN DENE
-		List<StockTransaction> sellOrders = stockTransactionService.transactionsListByCustomerIdAndStockCode(customerId,stockCode);
-
-
-		System.out.println(sellOrders);
-
-		BigDecimal blockedQuantity = BigDecimal.ZERO;
-		LocalDateTime now = LocalDateTime.now();
-
-		for (StockTransaction transaction : sellOrders) {
-			LocalDateTime settlementTime = transaction.getSettlementDate();
-			if (now.isBefore(settlementTime)) {
-				blockedQuantity = blockedQuantity.add(BigDecimal.valueOf(transaction.getQuantity()));
-			}
-		}
-		
-		return blockedQuantity;
+		return BigDecimal.valueOf(positionLedger.getPendingSellQuantity(customerId, stockCode));
 	}
 
 	/**
@@ -0,0 +1,255 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.entity.Customer;
+import com.infina.hissenet.entity.Portfolio;
+import com.infina.hissenet.entity.StockPosition;
+import com.infina.hissenet.entity.StockTransaction;
+import com.infina.hissenet.entity.enums.StockTransactionType;
+import com.infina.hissenet.entity.enums.TransactionStatus;
+import com.infina.hissenet.repository.StockPositionRepository;
+import com.infina.hissenet.repository.StockTransactionRepository;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps {@link StockPosition} rows in step with stock transaction writes.
+ *
+ * <p>Write hooks are called by {@code StockTransactionService} and {@code OrderService}
+ * inside their own transactions; the position row is locked for the update so
+ * concurrent fills and settlements for the same customer and stock serialize on it.
+ * A missing row is inserted empty in a separate transaction first, so two first
+ * transactions for the same position both end up locking the same row.</p>
+ *
+ * <p>When the ledger table is empty at startup it is rebuilt by replaying the
+ * existing transactions in id order.</p>
+ */
+@Service
+public class PositionLedgerService implements IPositionLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionLedgerService.class);
+
+    private static final EnumSet<TransactionStatus> REPLAYED_STATUSES =
+            EnumSet.of(TransactionStatus.COMPLETED, TransactionStatus.SETTLED, TransactionStatus.PARTIALLY_SOLD);
+
+    private final StockPositionRepository positionRepository;
+    private final StockTransactionRepository stockTransactionRepository;
+    private final TransactionTemplate insertTransaction;
+
+    public PositionLedgerService(StockPositionRepository positionRepository, StockTransactionRepository stockTransactionRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.positionRepository = positionRepository;
+        this.stockTransactionRepository = stockTransactionRepository;
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+        this.insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public void recordTransaction(StockTransaction transaction) {
+        if (!isRecordable(transaction) || transaction.getTransactionStatus() != TransactionStatus.COMPLETED) {
+            return;
+        }
+        StockPosition position = lockOrCreate(transaction);
+        applyPending(position, transaction);
+        touch(position, transaction);
+        positionRepository.save(position);
+    }
+
+    @Override
+    @Transactional
+    public void recordSettlement(StockTransaction transaction) {
+        if (!isRecordable(transaction)) {
+            return;
+        }
+        StockPosition position = lockOrCreate(transaction);
+        applySettlement(position, transaction);
+        touch(position, transaction);
+        positionRepository.save(position);
+    }
+
+    @Override
+    @Transactional
+    public void recordSettlements(Collection<StockTransaction> transactions) {
+        Map<String, StockPosition> positions = new LinkedHashMap<>();
+        for (StockTransaction transaction : transactions) {
+            if (!isRecordable(transaction)) {
+                continue;
+            }
+            StockPosition position = positions.computeIfAbsent(keyOf(transaction), key -> lockOrCreate(transaction));
+            applySettlement(position, transaction);
+            touch(position, transaction);
+        }
+        positionRepository.saveAll(positions.values());
+    }
+
+    @Override
+    @Transactional
+    public void recordCancellation(StockTransaction transaction) {
+        if (!isRecordable(transaction)) {
+            return;
+        }
+        TransactionStatus status = transaction.getTransactionStatus();
+        if (status != TransactionStatus.COMPLETED && status != TransactionStatus.SETTLED) {
+            return;
+        }
+        StockPosition position = lockOrCreate(transaction);
+        int quantity = transaction.getQuantity();
+        boolean buy = transaction.getTransactionType() == StockTransactionType.BUY;
+        if (status == TransactionStatus.COMPLETED) {
+            if (buy) position.cancelPendingBuy(quantity);
+            else position.cancelPendingSell(quantity);
+        } else {
+            // Takası tamamlanmış işlem iptal edilirse etkisi geri alınır
+            if (buy) position.reverseSettledBuy(quantity);
+            else position.reverseSettledSell(quantity);
+        }
+        positionRepository.save(position);
+    }
+
+    @Override
+    @Transactional
+    public void movePosition(Long customerId, String stockCode, Long newPortfolioId) {
+        positionRepository.updatePortfolioIdByCustomerIdAndStockCode(newPortfolioId, customerId, stockCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getSettledQuantity(Long customerId, String stockCode) {
+        return positionRepository.findByCustomerIdAndStockCode(customerId, stockCode)
+                .map(StockPosition::getSettledQuantity)
+                .orElse(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getPendingSellQuantity(Long customerId, String stockCode) {
+        return positionRepository.findByCustomerIdAndStockCode(customerId, stockCode)
+                .map(StockPosition::getPendingSellQuantity)
+                .orElse(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getAvailableQuantity(Long customerId, String stockCode) {
+        return positionRepository.findByCustomerIdAndStockCode(customerId, stockCode)
+                .map(StockPosition::getAvailableQuantity)
+                .orElse(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockPosition> getOpenPositions(Long portfolioId) {
+        return positionRepository.findOpenPositionsByPortfolioId(portfolioId);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        List<StockTransaction> transactions = stockTransactionRepository.findAllForPositionReplay(REPLAYED_STATUSES);
+
+        Map<String, StockPosition> positions = new LinkedHashMap<>();
+        for (StockTransaction transaction : transactions) {
+            if (!isRecordable(transaction)) {
+                continue;
+            }
+            Customer customer = transaction.getPortfolio().getCustomer();
+            StockPosition position = positions.computeIfAbsent(keyOf(transaction),
+                    key -> new StockPosition(customer, transaction.getPortfolio(), transaction.getStockCode()));
+            applyPending(position, transaction);
+            if (transaction.getTransactionStatus() != TransactionStatus.COMPLETED) {
+                applySettlement(position, transaction);
+            }
+            touch(position, transaction);
+        }
+
+        positionRepository.deleteAllInBatch();
+        positionRepository.saveAll(positions.values());
+        log.info("Position ledger rebuilt from {} transactions into {} positions", transactions.size(), positions.size());
+        return positions.size();
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (positionRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    private static String keyOf(StockTransaction transaction) {
+        return transaction.getPortfolio().getCustomer().getId() + "|" + transaction.getStockCode();
+    }
+
+    private StockPosition lockOrCreate(StockTransaction transaction) {
+        Portfolio portfolio = transaction.getPortfolio();
+        Customer customer = portfolio.getCustomer();
+        String stockCode = transaction.getStockCode();
+        Optional<StockPosition> locked = positionRepository.findForUpdate(customer.getId(), stockCode);
+        if (locked.isPresent()) {
+            return locked.get();
+        }
+        // İlk işlem: boş satır ayrı transaction'da eklenir; eşzamanlı ekleme benzersizlik kısıtına
+        // takılırsa diğerinin satırı kullanılır. Her iki durumda da satır kilitlenerek yeniden okunur
+        try {
+            insertTransaction.executeWithoutResult(status ->
+                    positionRepository.saveAndFlush(new StockPosition(customer, portfolio, stockCode)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Position {}|{} was created concurrently, locking the existing row", customer.getId(), stockCode);
+        }
+        return positionRepository.findForUpdate(customer.getId(), stockCode)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Position row missing after insert: " + customer.getId() + "|" + stockCode));
+    }
+
+    private static void applyPending(StockPosition position, StockTransaction transaction) {
+        if (transaction.getTransactionType() == StockTransactionType.BUY) {
+            position.addPendingBuy(transaction.getQuantity());
+        } else {
+            position.addPendingSell(transaction.getQuantity());
+        }
+    }
+
+    private static void applySettlement(StockPosition position, StockTransaction transaction) {
+        if (transaction.getTransactionType() == StockTransactionType.BUY) {
+            position.settleBuy(transaction.getQuantity(), transaction.getPrice(),
+                    transaction.getCommission(), transaction.getTax(), transaction.getOtherFees());
+        } else {
+            position.settleSell(transaction.getQuantity());
+        }
+    }
+
+    private static void touch(StockPosition position, StockTransaction transaction) {
+        position.setPortfolio(transaction.getPortfolio());
+        if (transaction.getId() != null) {
+            position.setLastTransactionId(transaction.getId());
+        }
+        if (transaction.getCurrentPrice() != null) {
+            position.setLastPrice(transaction.getCurrentPrice());
+        }
+    }
+
+    private static boolean isRecordable(StockTransaction transaction) {
+        return transaction != null
+                && transaction.getPortfolio() != null
+                && transaction.getPortfolio().getCustomer() != null
+                && transaction.getStockCode() != null
+                && transaction.getTransactionType() != null
+                && transaction.getQuantity() != null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.infina.hissenet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infina.hissenet.dto.response.HisseFiyatEntry;
+import com.infina.hissenet.properties.PreviousCloseProperties;
+import com.infina.hissenet.service.abstracts.IPreviousCloseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Service
+public class PreviousCloseCache implements IPreviousCloseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviousCloseCache.class);
+
+    private final PreviousCloseProperties props;
+    private final ObjectMapper objectMapper;
+
+    private volatile Day current = new Day(null);
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    // entry == null: upstream boş döndü, loadedAt'e göre yeniden denenir
+    private record Cached(HisseFiyatEntry entry, Instant loadedAt) {}
+
+    private record Day(LocalDate date, Map<String, Cached> entries) {
+        Day(LocalDate date) {
+            this(date, new ConcurrentHashMap<>());
+        }
+    }
+
+    // Dosya biçimi: {"date":"2025-08-14","entries":{"THYAO.E":{...}}}
+    record PersistedDay(String date, Map<String, HisseFiyatEntry> entries) {}
+
+    public PreviousCloseCache(PreviousCloseProperties props, ObjectMapper objectMapper) {
+        this.props = props;
+        this.objectMapper = objectMapper;
+        load();
+    }
+
+    @Override
+    public Mono<Optional<HisseFiyatEntry>> getOrLoad(String assetCode, LocalDate date,
+                                                     Supplier<Mono<Optional<HisseFiyatEntry>>> loader) {
+        Day day = dayFor(date);
+        Cached cached = day.entries().get(assetCode);
+        if (cached != null && (cached.entry() != null || !negativeExpired(cached))) {
+            return Mono.just(Optional.ofNullable(cached.entry()));
+        }
+        return loader.get()
+                .doOnNext(result -> store(day, assetCode, result.orElse(null)));
+    }
+
+    @Override
+    public void flush() {
+        Path file = file();
+        if (file == null || !dirty.compareAndSet(true, false)) {
+            return;
+        }
+        Day day = current;
+        Map<String, HisseFiyatEntry> entries = new LinkedHashMap<>();
+        day.entries().forEach((code, cached) -> {
+            if (cached.entry() != null) {
+                entries.put(code, cached.entry());
+            }
+        });
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new PersistedDay(day.date().toString(), entries));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Previous close cache could not be written to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Day dayFor(LocalDate date) {
+        Day day = current;
+        if (date.equals(day.date())) {
+            return day;
+        }
+        synchronized (this) {
+            if (!date.equals(current.date())) {
+                current = new Day(date);
+            }
+            return current;
+        }
+    }
+
+    private void store(Day day, String assetCode, HisseFiyatEntry entry) {
+        day.entries().put(assetCode, new Cached(entry, Instant.now()));
+        if (entry != null) {
+            dirty.set(true);
+        }
+    }
+
+    private boolean negativeExpired(Cached cached) {
+        return !cached.loadedAt().plus(props.getNegativeTtl()).isAfter(Instant.now());
+    }
+
+    private void load() {
+        Path file = file();
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            PersistedDay persisted = objectMapper.readValue(file.toFile(), PersistedDay.class);
+            if (persisted.date() == null || persisted.entries() == null) {
+                return;
+            }
+            Day day = new Day(LocalDate.parse(persisted.date()));
+            Instant now = Instant.now();
+            persisted.entries().forEach((code, entry) -> day.entries().put(code, new Cached(entry, now)));
+            current = day;
+            log.info("Previous close cache loaded {} entries for {} from {}", day.entries().size(), day.date(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Previous close cache file {} ignored: {}", file, e.getMessage());
+        }
+    }
+
+    private Path file() {
+        return StringUtils.hasText(props.getFile()) ? Path.of(props.getFile()) : null;
+    }
+}
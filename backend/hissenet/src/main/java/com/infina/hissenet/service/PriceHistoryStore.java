@@ -0,0 +1,756 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CandleResponse;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.PricePointResponse;
+import com.infina.hissenet.entity.enums.MarketPhase;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.service.abstracts.IPriceHistoryStore;
+import com.infina.hissenet.utils.MarketHourUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.infina.hissenet.service.IntradayTickStore.PRICE_SCALE;
+import static com.infina.hissenet.service.IntradayTickStore.VOLUME_SCALE;
+import static com.infina.hissenet.service.IntradayTickStore.fromFixed;
+import static com.infina.hissenet.service.IntradayTickStore.toFixed;
+
+/**
+ * Segment layout (big-endian): magic, version, epoch day, symbol count, row count; then per
+ * symbol, sorted by code: UTF-8 code, first row, row count and daily open/high/low/close/
+ * volume; zero padding to 8 bytes; then the time, price and volume columns as longs. A
+ * symbol's rows are contiguous and ordered by time.
+ * <p>
+ * The day log is a sequence of symbol definitions (the n-th gets id n) and ticks holding
+ * the id, time, price and cumulative volume, so replay rebuilds the same in-memory day.
+ * </p>
+ */
+@Service
+public class PriceHistoryStore implements IPriceHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceHistoryStore.class);
+
+    static final int MAGIC = 0x48534547; // "HSEG"
+    static final int VERSION = 1;
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String LOG_SUFFIX = ".log";
+
+    private static final byte RECORD_SYMBOL = 1;
+    private static final byte RECORD_TICK = 2;
+
+    private final StockProperties props;
+    private final Path dir;
+    private final ZoneId zone;
+
+    private final ConcurrentSkipListSet<LocalDate> sealedDays = new ConcurrentSkipListSet<>();
+    // Eşlenmiş segmentler; en uzun süredir kullanılmayan düşer, eşleme GC ile bırakılır
+    private final Map<LocalDate, Segment> mapped;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "price-history-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Yalnızca append/seal (this kilidi altında) değiştirir; okuyucular günün kendi kilidini alır
+    private volatile OpenDay openDay;
+
+    public PriceHistoryStore(StockProperties props) {
+        this.props = props;
+        StockProperties.History config = props.getHistory();
+        this.dir = StringUtils.hasText(config.getDir()) ? Path.of(config.getDir()).toAbsolutePath() : null;
+        this.zone = config.getZone();
+        int maxOpenSegments = config.getMaxOpenSegments();
+        this.mapped = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, Segment> eldest) {
+                return size() > maxOpenSegments;
+            }
+        });
+        recover();
+    }
+
+    @EventListener
+    public void onPricesRefreshed(StockPricesRefreshedEvent event) {
+        // Diskten geri yüklenen snapshot yeni bir gözlem değildir
+        if (dir == null || event.isRestored()) {
+            return;
+        }
+        List<CombinedStockData> snapshot = event.getSnapshot();
+        long now = System.currentTimeMillis();
+        try {
+            writer.execute(() -> append(snapshot, now));
+        } catch (RejectedExecutionException e) {
+            log.debug("Price history is shut down, snapshot dropped");
+        }
+    }
+
+    @Override
+    public synchronized void append(List<CombinedStockData> snapshot, long timestampMillis) {
+        if (dir == null || snapshot == null || snapshot.isEmpty() || !isTrading(timestampMillis)) {
+            return;
+        }
+        LocalDate day = dayOf(timestampMillis);
+        try {
+            OpenDay open = openFor(day);
+            if (open == null) {
+                return;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(snapshot.size() * 32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            synchronized (open) {
+                for (CombinedStockData data : snapshot) {
+                    if (data == null || data.code() == null || data.lastPrice() == null) {
+                        continue;
+                    }
+                    long price = toFixed(data.lastPrice(), PRICE_SCALE);
+                    if (price <= 0) {
+                        continue;
+                    }
+                    long cumulativeVolume = data.hacim() != null ? toFixed(data.hacim(), VOLUME_SCALE) : 0L;
+                    String code = normalize(data.code());
+                    Column column = open.columns.get(code);
+                    if (column == null) {
+                        column = open.define(code);
+                        writeSymbol(out, code);
+                    }
+                    if (column.add(timestampMillis, price, cumulativeVolume)) {
+                        writeTick(out, column.id, timestampMillis, price, cumulativeVolume);
+                    }
+                }
+            }
+            if (bytes.size() > 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    open.log.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Price history append for {} failed: {}", day, e.getMessage());
+        }
+    }
+
+    @Override
+    public List<PricePointResponse> getRange(String code, Instant from, Instant to, int limit) {
+        if (dir == null || code == null || from == null || to == null || from.isAfter(to)) {
+            return List.of();
+        }
+        String key = normalize(code);
+        int max = Math.min(Math.max(limit, 0), props.getHistory().getMaxPoints());
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        LocalDate first = dayOf(fromMillis);
+        LocalDate last = dayOf(toMillis);
+
+        List<PricePointResponse> result = new ArrayList<>();
+        for (LocalDate day : sealedDays.subSet(first, true, last, true)) {
+            if (result.size() >= max) {
+                return result;
+            }
+            Segment segment = segment(day);
+            if (segment != null) {
+                segment.collect(key, fromMillis, toMillis, max, result);
+            }
+        }
+        OpenDay open = openDay;
+        if (open != null && result.size() < max && inRange(open.day, first, last)) {
+            synchronized (open) {
+                Column column = open.columns.get(key);
+                if (column != null) {
+                    column.collect(fromMillis, toMillis, max, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<CandleResponse> getDailyBars(String code, LocalDate from, LocalDate to) {
+        if (dir == null || code == null || from == null || to == null || from.isAfter(to)) {
+            return List.of();
+        }
+        String key = normalize(code);
+        List<CandleResponse> result = new ArrayList<>();
+        for (LocalDate day : sealedDays.subSet(from, true, to, true)) {
+            Segment segment = segment(day);
+            Summary summary = segment != null ? segment.directory.get(key) : null;
+            if (summary != null) {
+                result.add(summary.toCandle(startOf(day)));
+            }
+        }
+        OpenDay open = openDay;
+        if (open != null && inRange(open.day, from, to)) {
+            synchronized (open) {
+                Column column = open.columns.get(key);
+                if (column != null && column.size > 0) {
+                    result.add(column.summary(0).toCandle(startOf(open.day)));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            // Tek iş parçacıklı kuyruk: bu görev bittiğinde öncekiler de eklenmiştir
+            writer.submit(this::forceLog).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            log.warn("Price history flush did not complete: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        writer.shutdown();
+        // Açık gün mühürlenmez; yeniden başlatmada günlükten devam edilir
+        synchronized (this) {
+            OpenDay open = openDay;
+            if (open != null) {
+                closeQuietly(open.log);
+            }
+        }
+    }
+
+    private synchronized void forceLog() {
+        OpenDay open = openDay;
+        if (open != null && open.log.isOpen()) {
+            try {
+                open.log.force(false);
+            } catch (IOException e) {
+                log.warn("Price history log {} could not be synced: {}", open.day, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the open day for {@code day}, sealing the previous one when the day has
+     * rolled over, or {@code null} if {@code day} is already behind the open day.
+     */
+    private OpenDay openFor(LocalDate day) throws IOException {
+        OpenDay open = openDay;
+        if (open != null && open.day.equals(day)) {
+            return open;
+        }
+        if (open != null && day.isBefore(open.day)) {
+            return null;
+        }
+        if (sealedDays.contains(day) || (!sealedDays.isEmpty() && day.isBefore(sealedDays.last()))) {
+            return null;
+        }
+        if (open != null) {
+            seal(open);
+        }
+        Path file = logFile(day);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        openDay = new OpenDay(day, channel);
+        return openDay;
+    }
+
+    private void seal(OpenDay open) throws IOException {
+        synchronized (open) {
+            writeSegment(open);
+        }
+        sealedDays.add(open.day);
+        openDay = null;
+        closeQuietly(open.log);
+        Files.deleteIfExists(logFile(open.day));
+        log.info("Price history sealed {} ({} symbols)", open.day, open.columns.size());
+    }
+
+    private void writeSegment(OpenDay open) throws IOException {
+        Path file = segmentFile(open.day);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        List<String> codes = new ArrayList<>();
+        for (Map.Entry<String, Column> entry : open.columns.entrySet()) {
+            // Günlük tanımdan sonra kesildiyse noktası olmayan sembol kalabilir
+            if (entry.getValue().size > 0) {
+                codes.add(entry.getKey());
+            }
+        }
+        Collections.sort(codes);
+        int rows = 0;
+        for (String code : codes) {
+            rows += open.columns.get(code).size;
+        }
+
+        try (FileOutputStream fileOut = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(open.day.toEpochDay());
+            out.writeInt(codes.size());
+            out.writeInt(rows);
+            int offset = 0;
+            for (String code : codes) {
+                Column column = open.columns.get(code);
+                byte[] name = code.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                column.summary(offset).write(out);
+                offset += column.size;
+            }
+            while (out.size() % Long.BYTES != 0) {
+                out.writeByte(0);
+            }
+            for (String code : codes) {
+                writeColumn(out, open.columns.get(code).time, open.columns.get(code).size);
+            }
+            for (String code : codes) {
+                writeColumn(out, open.columns.get(code).price, open.columns.get(code).size);
+            }
+            for (String code : codes) {
+                writeColumn(out, open.columns.get(code).volume, open.columns.get(code).size);
+            }
+            out.flush();
+            fileOut.getChannel().force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeColumn(DataOutputStream out, long[] values, int size) throws IOException {
+        for (int i = 0; i < size; i++) {
+            out.writeLong(values[i]);
+        }
+    }
+
+    private Segment segment(LocalDate day) {
+        Segment segment = mapped.get(day);
+        if (segment != null) {
+            return segment;
+        }
+        try {
+            segment = Segment.map(segmentFile(day));
+            mapped.put(day, segment);
+            return segment;
+        } catch (IOException e) {
+            log.warn("Price history segment {} unreadable: {}", day, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Indexes sealed segments and reopens the day log. Only the newest log stays open;
+     * older ones are left over from a crash and are sealed now.
+     */
+    private void recover() {
+        if (dir == null) {
+            return;
+        }
+        List<LocalDate> logs = new ArrayList<>();
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    LocalDate day = parseDay(name, SEGMENT_SUFFIX);
+                    if (day != null) {
+                        sealedDays.add(day);
+                    } else if ((day = parseDay(name, LOG_SUFFIX)) != null) {
+                        logs.add(day);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Price history directory {} unusable: {}", dir, e.getMessage());
+            return;
+        }
+
+        Collections.sort(logs);
+        for (int i = 0; i < logs.size(); i++) {
+            LocalDate day = logs.get(i);
+            try {
+                if (sealedDays.contains(day)) {
+                    // Mühürleme tamamlanmış, yalnızca günlük silinememiş
+                    Files.deleteIfExists(logFile(day));
+                    continue;
+                }
+                OpenDay open = replay(day);
+                if (i < logs.size() - 1) {
+                    seal(open);
+                } else {
+                    openDay = open;
+                }
+            } catch (IOException e) {
+                log.warn("Price history log {} could not be recovered: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    private OpenDay replay(LocalDate day) throws IOException {
+        Path file = logFile(day);
+        OpenDay open = new OpenDay(day, null);
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            while (true) {
+                int type = in.read();
+                if (type == RECORD_SYMBOL) {
+                    int length = in.readUnsignedShort();
+                    byte[] name = new byte[length];
+                    in.readFully(name);
+                    open.define(new String(name, StandardCharsets.UTF_8));
+                    valid += 1 + 2 + length;
+                } else if (type == RECORD_TICK) {
+                    int id = in.readInt();
+                    long time = in.readLong();
+                    long price = in.readLong();
+                    long cumulativeVolume = in.readLong();
+                    if (id < 0 || id >= open.symbols.size()) {
+                        break;
+                    }
+                    open.columns.get(open.symbols.get(id)).add(time, price, cumulativeVolume);
+                    valid += 1 + 4 + 8 + 8 + 8;
+                } else {
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            // Çökme anında yarım kalan son kayıt atılır
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        if (channel.size() > valid) {
+            log.warn("Price history log {} truncated from {} to {} bytes", day, channel.size(), valid);
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        return open.withLog(channel);
+    }
+
+    private static void writeSymbol(DataOutputStream out, String code) throws IOException {
+        byte[] name = code.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(RECORD_SYMBOL);
+        out.writeShort(name.length);
+        out.write(name);
+    }
+
+    private static void writeTick(DataOutputStream out, int id, long time, long price, long cumulativeVolume)
+            throws IOException {
+        out.writeByte(RECORD_TICK);
+        out.writeInt(id);
+        out.writeLong(time);
+        out.writeLong(price);
+        out.writeLong(cumulativeVolume);
+    }
+
+    // Hafta sonu ve seans dışı yenilemeler yeni gün açmaz; ilk nokta önceki günün hacmini taşırdı
+    private boolean isTrading(long epochMillis) {
+        MarketPhase phase = MarketHourUtils.phaseAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone));
+        return phase == MarketPhase.SESSION || phase == MarketPhase.AFTER_CLOSE;
+    }
+
+    private LocalDate dayOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+    }
+
+    private long startOf(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static boolean inRange(LocalDate day, LocalDate from, LocalDate to) {
+        return !day.isBefore(from) && !day.isAfter(to);
+    }
+
+    private Path segmentFile(LocalDate day) {
+        return dir.resolve(day + SEGMENT_SUFFIX);
+    }
+
+    private Path logFile(LocalDate day) {
+        return dir.resolve(day + LOG_SUFFIX);
+    }
+
+    private static LocalDate parseDay(String name, String suffix) {
+        if (!name.endsWith(suffix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(0, name.length() - suffix.length()));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static PricePointResponse point(long time, long price, long volume) {
+        return new PricePointResponse(time, fromFixed(price, PRICE_SCALE), fromFixed(volume, VOLUME_SCALE));
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Price history log close failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The day still being recorded. Columns are mutated and read under this object's lock.
+     */
+    static final class OpenDay {
+
+        final LocalDate day;
+        final FileChannel log;
+        final List<String> symbols;
+        final Map<String, Column> columns;
+
+        OpenDay(LocalDate day, FileChannel log) {
+            this(day, log, new ArrayList<>(), new HashMap<>());
+        }
+
+        private OpenDay(LocalDate day, FileChannel log, List<String> symbols, Map<String, Column> columns) {
+            this.day = day;
+            this.log = log;
+            this.symbols = symbols;
+            this.columns = columns;
+        }
+
+        OpenDay withLog(FileChannel channel) {
+            return new OpenDay(day, channel, symbols, columns);
+        }
+
+        Column define(String code) {
+            Column column = new Column(symbols.size());
+            symbols.add(code);
+            columns.put(code, column);
+            return column;
+        }
+    }
+
+    /**
+     * One symbol's points for the open day in growable primitive arrays.
+     */
+    static final class Column {
+
+        final int id;
+        long[] time = new long[64];
+        long[] price = new long[64];
+        long[] volume = new long[64];
+        int size;
+
+        private long lastPrice = -1;
+        private long lastCumulativeVolume = -1;
+
+        Column(int id) {
+            this.id = id;
+        }
+
+        boolean add(long t, long p, long cumulativeVolume) {
+            if (p == lastPrice && cumulativeVolume == lastCumulativeVolume) {
+                return false;
+            }
+            // İlk nokta o ana kadarki günlük hacmi taşır; böylece günün toplamı kümülatife eşit olur
+            long v = lastCumulativeVolume < 0 || cumulativeVolume < lastCumulativeVolume
+                    ? cumulativeVolume
+                    : cumulativeVolume - lastCumulativeVolume;
+            lastPrice = p;
+            lastCumulativeVolume = cumulativeVolume;
+            if (size == time.length) {
+                int capacity = size * 2;
+                time = Arrays.copyOf(time, capacity);
+                price = Arrays.copyOf(price, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            // İkili arama için zaman azalmaz; saat geri giderse son zamana sabitlenir
+            time[size] = size > 0 ? Math.max(t, time[size - 1]) : t;
+            price[size] = p;
+            volume[size] = v;
+            size++;
+            return true;
+        }
+
+        void collect(long fromMillis, long toMillis, int max, List<PricePointResponse> out) {
+            int i = lowerBound(time, 0, size, fromMillis);
+            for (; i < size && time[i] <= toMillis && out.size() < max; i++) {
+                out.add(point(time[i], price[i], volume[i]));
+            }
+        }
+
+        Summary summary(int offset) {
+            long high = Long.MIN_VALUE;
+            long low = Long.MAX_VALUE;
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                high = Math.max(high, price[i]);
+                low = Math.min(low, price[i]);
+                total += volume[i];
+            }
+            return new Summary(offset, size, price[0], high, low, price[size - 1], total);
+        }
+
+        private static int lowerBound(long[] values, int from, int to, long key) {
+            int lo = from;
+            int hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Directory entry of a sealed segment: where a symbol's rows start and its daily OHLCV.
+     */
+    record Summary(int offset, int count, long open, long high, long low, long close, long volume) {
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(offset);
+            out.writeInt(count);
+            out.writeLong(open);
+            out.writeLong(high);
+            out.writeLong(low);
+            out.writeLong(close);
+            out.writeLong(volume);
+        }
+
+        static Summary read(ByteBuffer in) {
+            return new Summary(in.getInt(), in.getInt(), in.getLong(), in.getLong(), in.getLong(),
+                    in.getLong(), in.getLong());
+        }
+
+        CandleResponse toCandle(long time) {
+            return new CandleResponse(time,
+                    fromFixed(open, PRICE_SCALE),
+                    fromFixed(high, PRICE_SCALE),
+                    fromFixed(low, PRICE_SCALE),
+                    fromFixed(close, PRICE_SCALE),
+                    fromFixed(volume, VOLUME_SCALE));
+        }
+    }
+
+    /**
+     * A sealed day mapped read-only. Absolute reads on the mapping are safe from any thread.
+     * A single segment is limited to 2 GB, far above a trading day of ticks.
+     */
+    static final class Segment {
+
+        final Map<String, Summary> directory;
+        private final ByteBuffer data;
+        private final int rows;
+        private final int timeBase;
+
+        private Segment(Map<String, Summary> directory, ByteBuffer data, int rows, int timeBase) {
+            this.directory = directory;
+            this.data = data;
+            this.rows = rows;
+            this.timeBase = timeBase;
+        }
+
+        static Segment map(Path file) throws IOException {
+            ByteBuffer data;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            ByteBuffer header = data.duplicate();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("not a price history segment");
+            }
+            header.getLong();
+            int symbols = header.getInt();
+            int rows = header.getInt();
+            Map<String, Summary> directory = new HashMap<>(Math.max(16, symbols * 2));
+            for (int i = 0; i < symbols; i++) {
+                byte[] name = new byte[Short.toUnsignedInt(header.getShort())];
+                header.get(name);
+                directory.put(new String(name, StandardCharsets.UTF_8), Summary.read(header));
+            }
+            int timeBase = (header.position() + Long.BYTES - 1) & -Long.BYTES;
+            if ((long) timeBase + 3L * rows * Long.BYTES != data.capacity()) {
+                throw new IOException("segment size does not match its header");
+            }
+            return new Segment(directory, data, rows, timeBase);
+        }
+
+        void collect(String code, long fromMillis, long toMillis, int max, List<PricePointResponse> out) {
+            Summary summary = directory.get(code);
+            if (summary == null) {
+                return;
+            }
+            int end = summary.offset() + summary.count();
+            int i = lowerBound(summary.offset(), end, fromMillis);
+            for (; i < end && time(i) <= toMillis && out.size() < max; i++) {
+                out.add(point(time(i), price(i), volume(i)));
+            }
+        }
+
+        private int lowerBound(int from, int to, long key) {
+            int lo = from;
+            int hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (time(mid) < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private long time(int row) {
+            return data.getLong(timeBase + row * Long.BYTES);
+        }
+
+        private long price(int row) {
+            return data.getLong(timeBase + (rows + row) * Long.BYTES);
+        }
+
+        private long volume(int row) {
+            return data.getLong(timeBase + (2 * rows + row) * Long.BYTES);
+        }
+    }
+}
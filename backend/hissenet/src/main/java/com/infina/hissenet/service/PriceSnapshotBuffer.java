@@ -0,0 +1,81 @@
+package com.infina.hissenet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.EncodedSnapshot;
+import com.infina.hissenet.dto.response.PriceStreamMessage;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotBuffer;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class PriceSnapshotBuffer implements IPriceSnapshotBuffer {
+
+    private final ObjectMapper objectMapper;
+    private final StockProperties props;
+    // Sürüm sırası her açılışta sıfırdan başlar; ETag'ler bu örneğe özgü önekle ayrışır
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+
+    // Liste ve STOMP çerçevesi aynı sürümden birlikte değişir
+    private volatile Encoded encoded;
+
+    private record Encoded(EncodedSnapshot list, EncodedSnapshot frame) {}
+
+    public PriceSnapshotBuffer(ObjectMapper objectMapper, StockProperties props) {
+        this.objectMapper = objectMapper;
+        this.props = props;
+        this.encoded = encode(0L, List.of());
+    }
+
+    @Override
+    public void update(long version, List<CombinedStockData> items) {
+        encoded = encode(version, items);
+    }
+
+    @Override
+    public EncodedSnapshot current() {
+        return encoded.list();
+    }
+
+    @Override
+    public EncodedSnapshot currentFrame() {
+        return encoded.frame();
+    }
+
+    private Encoded encode(long version, List<CombinedStockData> items) {
+        byte[] list = toJson(items);
+        byte[] frame = toJson(PriceStreamMessage.snapshot(version, items));
+        return new Encoded(new EncodedSnapshot(epoch, version, list, gzipIfWorthIt(list)),
+                new EncodedSnapshot(epoch, version, frame, null));
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Price snapshot could not be encoded", e);
+        }
+    }
+
+    private byte[] gzipIfWorthIt(byte[] json) {
+        StockProperties.Snapshot config = props.getSnapshot();
+        if (!config.isGzip() || json.length < config.getGzipMinBytes()) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,127 @@
+package com.infina.hissenet.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class PriceSnapshotStore implements IPriceSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceSnapshotStore.class);
+
+    private final ObjectMapper objectMapper;
+    private final StockProperties props;
+
+    // İsim başına yazılmayı bekleyen en son liste; aradaki ara sürümler atlanır
+    private final Map<String, List<?>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "price-snapshot-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PriceSnapshotStore(ObjectMapper objectMapper, StockProperties props) {
+        this.objectMapper = objectMapper;
+        this.props = props;
+    }
+
+    @Override
+    public void save(String name, List<?> items) {
+        if (dir() == null || items == null || items.isEmpty()) {
+            return;
+        }
+        if (pending.put(name, items) == null) {
+            try {
+                writer.execute(() -> write(name));
+            } catch (RejectedExecutionException e) {
+                pending.remove(name);
+            }
+        }
+    }
+
+    @Override
+    public <T> List<T> load(String name, Class<T> type) {
+        Path file = fileFor(name);
+        if (file == null || !Files.isRegularFile(file)) {
+            return List.of();
+        }
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, type);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 64 * 1024)) {
+            List<T> items = objectMapper.readValue(in, listType);
+            return items != null ? items : List.of();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Price snapshot {} ignored: {}", file, e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            // Tek iş parçacıklı kuyruk: bu görev bittiğinde öncekiler de yazılmıştır
+            writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            log.warn("Price snapshot flush did not complete: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        writer.shutdown();
+    }
+
+    private void write(String name) {
+        List<?> items = pending.remove(name);
+        Path file = fileFor(name);
+        if (items == null || file == null) {
+            return;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+                objectMapper.writeValue(out, items);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Price snapshot {} could not be written: {}", file, e.getMessage());
+        }
+    }
+
+    private Path fileFor(String name) {
+        Path dir = dir();
+        return dir != null ? dir.resolve(name + ".json.gz") : null;
+    }
+
+    private Path dir() {
+        String storeDir = props.getSnapshot().getStoreDir();
+        return StringUtils.hasText(storeDir) ? Path.of(storeDir).toAbsolutePath() : null;
+    }
+}
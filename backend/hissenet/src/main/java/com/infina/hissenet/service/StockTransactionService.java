@@ -1,5 +1,7 @@
 package com.infina.hissenet.service;
 
+import com.infina.hissenet.common.Money;
+import com.infina.hissenet.dto.response.SettlementRunStats;
 import com.infina.hissenet.dto.response.StockTransactionResponse;
 import com.infina.hissenet.entity.Customer;
 import com.infina.hissenet.entity.Order;
@@ -12,18 +14,30 @@ import com.infina.hissenet.exception.common.NotFoundException;
 import com.infina.hissenet.exception.transaction.InsufficientStockException;
 import com.infina.hissenet.exception.transaction.UnauthorizedOperationException;
 import com.infina.hissenet.mapper.StockTransactionMapper;
+import com.infina.hissenet.properties.SettlementProperties;
 import com.infina.hissenet.repository.StockTransactionRepository;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
 import com.infina.hissenet.service.abstracts.IStockTransactionService;
 import com.infina.hissenet.utils.GenericServiceImpl;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Manages stock transaction lifecycle and portfolio consistency.
@@ -35,6 +49,7 @@ import java.util.Optional;
  *
  * <p>Integration:</p>
  * - Relies on cache for current prices and financial service for aggregations
+ * - Mirrors every transaction write into the position ledger in the same transaction
  *
  * @author Furkan Can
  */
@@ -47,9 +62,15 @@ public class StockTransactionService extends GenericServiceImpl<StockTransaction
     private final StockTransactionMapper mapper;
     private final CustomerService customerService;
     private final CommonFinancialService commonFinancialService;
+    private final IPositionLedgerService positionLedger;
+    private final SettlementProperties settlementProperties;
+    private final TransactionTemplate chunkTransaction;
+    private final Timer revaluationTimer;
 
 
-    public StockTransactionService(JpaRepository<StockTransaction, Long> repository, StockTransactionRepository stockTransactionRepository, PortfolioService portfolioService, ICacheManagerService cacheManagerService, StockTransactionMapper mapper, CustomerService customerService, CommonFinancialService commonFinancialService) {
+    public StockTransactionService(JpaRepository<StockTransaction, Long> repository, StockTransactionRepository stockTransactionRepository, PortfolioService portfolioService, ICacheManagerService cacheManagerService, StockTransactionMapper mapper, CustomerService customerService, CommonFinancialService commonFinancialService,
+                                   IPositionLedgerService positionLedger, SettlementProperties settlementProperties, PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
         super(repository);
         this.stockTransactionRepository = stockTransactionRepository;
         this.portfolioService = portfolioService;
@@ -57,7 +78,10 @@ public class StockTransactionService extends GenericServiceImpl<StockTransaction
         this.mapper = mapper;
         this.customerService = customerService;
         this.commonFinancialService = commonFinancialService;
-
+        this.positionLedger = positionLedger;
+        this.settlementProperties = settlementProperties;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.revaluationTimer = MetricsUtils.orderStageTimer(meterRegistry, "portfolio_revaluation");
     }
 
     // Order oluştuğunda otomatik StockTransaction oluştur
@@ -94,8 +118,8 @@ public class StockTransactionService extends GenericServiceImpl<StockTransaction
         if (commissionRate == null) {
             commissionRate = BigDecimal.valueOf(0.001);
         }
-        BigDecimal commission = order.getTotalAmount().multiply(commissionRate);
-        transaction.setCommission(commission);
+        // Cüzdandan düşülen komisyonla aynı yuvarlama kuralı
+        transaction.setCommission(Money.of(order.getTotalAmount()).commission(commissionRate).toBigDecimal());
 
         if(order.getType()== OrderType.SELL){
             try{
@@ -110,7 +134,8 @@ public class StockTransactionService extends GenericServiceImpl<StockTransaction
         }
 
         save(transaction);
-        portfolioService.updatePortfolioValues(transaction.getPortfolio().getId());
+        positionLedger.recordTransaction(transaction);
+        revaluationTimer.record(() -> portfolioService.updatePortfolioValues(transaction.getPortfolio().getId()));
     }
 
    @Override
@@ -125,31 +150,57 @@ public class StockTransactionService extends GenericServiceImpl<StockTransaction
         return list;
     }
 
-    @Transactional
-    public void processStockSettlements() {
-        List<StockTransaction> transactionsReadyForSettlement = stockTransactionRepository
-                .findStockTransactionsReadyForSettlement(
-                        LocalDateTime.now(),
-                        TransactionStatus.COMPLETED,
-                        StockTransactionType.BUY,
-                        StockTransactionType.SELL
-                );
-
-        LocalDateTime now = LocalDateTime.now();
-
-        for (StockTransaction transaction : transactionsReadyForSettlement) {
-          processStockSettlement(transaction);
+    // Vadesi gelen işlemler id sırasıyla parça parça, her parça ayrı transaction'da takas edilir
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SettlementRunStats processStockSettlements() {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now();
+        PageRequest chunk = PageRequest.ofSize(settlementProperties.getChunkSize());
+
+        int rows = 0, chunks = 0;
+        Set<Long> portfolios = new HashSet<>();
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = stockTransactionRepository.findIdsReadyForSettlement(cutoff, TransactionStatus.COMPLETED,
+                    StockTransactionType.BUY, StockTransactionType.SELL, afterId, chunk);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            Set<Long> revalued = chunkTransaction.execute(status -> settleStockChunk(ids));
+            if (revalued != null) {
+                portfolios.addAll(revalued);
+            }
+            rows += ids.size();
+            chunks++;
+            if (ids.size() < chunk.getPageSize()) {
+                break;
+            }
         }
-    }
-
-    private void processStockSettlement(StockTransaction transaction) {
 
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new SettlementRunStats("stock", rows, portfolios.size(), chunks, 0, elapsedMillis);
+    }
 
-        transaction.setTransactionStatus(TransactionStatus.SETTLED);
+    // Parça: tek sorguda yükle, defteri pozisyon başına bir kez güncelle, tek UPDATE ile SETTLED yap,
+    // etkilenen her portföyü bir kez yeniden değerle
+    private Set<Long> settleStockChunk(List<Long> ids) {
+        List<StockTransaction> transactions = stockTransactionRepository
+                .findByIdInAndStatusWithPortfolio(ids, TransactionStatus.COMPLETED);
+        if (transactions.isEmpty()) {
+            return Set.of();
+        }
 
-        save(transaction);
+        positionLedger.recordSettlements(transactions);
+        stockTransactionRepository.markSettled(transactions.stream().map(StockTransaction::getId).toList(),
+                TransactionStatus.COMPLETED, TransactionStatus.SETTLED, LocalDateTime.now());
 
-        portfolioService.updatePortfolioValues(transaction.getPortfolio().getId());
+        Set<Long> portfolioIds = new LinkedHashSet<>();
+        for (StockTransaction transaction : transactions) {
+            portfolioIds.add(transaction.getPortfolio().getId());
+        }
+        portfolioIds.forEach(portfolioService::updatePortfolioValues);
+        return portfolioIds;
     }
 
 
@@ -174,13 +225,14 @@ public class StockTransactionService extends GenericServiceImpl<StockTransaction
         int updatedCount = stockTransactionRepository.updatePortfolioIdByCustomerIdAndStockCode(
                 portfolioId, customerId, stockCode
         );
+        positionLedger.movePosition(customerId, stockCode, portfolioId);
         // Portföy değerlerini güncelle
         portfolioService.updatePortfolioValues(portfolioId);
         portfolioService.updatePortfolioValues(oldPortfolio.getId());
     }
-    // aktif hisse adedini döndüren methot
+    // aktif hisse adedini döndüren methot - pozisyon defterinden tek satır okuma
     public Integer getQuantityForStockTransactionWithStream(Long customerId, String stockCode) {
-        return commonFinancialService.getQuantityForStockTransactionWithStream(customerId, stockCode);
+        return positionLedger.getSettledQuantity(customerId, stockCode);
     }
     public Integer getTotalStock(Long customerId) {
         Customer customer=customerService.findById(customerId).orElseThrow(()->new NotFoundException("Cursomer"));
@@ -1,7 +1,9 @@
 package com.infina.hissenet.service;
 
+import com.infina.hissenet.common.Money;
 import com.infina.hissenet.dto.request.CreateWalletRequest;
 import com.infina.hissenet.dto.request.UpdateWalletRequest;
+import com.infina.hissenet.dto.response.SettlementRunStats;
 import com.infina.hissenet.dto.response.WalletResponse;
 import com.infina.hissenet.entity.Customer;
 import com.infina.hissenet.entity.Wallet;
@@ -10,21 +12,35 @@ import com.infina.hissenet.entity.enums.TransactionStatus;
 import com.infina.hissenet.entity.enums.TransactionType;
 import com.infina.hissenet.exception.customer.CustomerNotFoundException;
 import com.infina.hissenet.exception.wallet.*;
+import com.infina.hissenet.jfr.WalletMutationEvent;
 import com.infina.hissenet.mapper.WalletMapper;
+import com.infina.hissenet.properties.SettlementProperties;
 import com.infina.hissenet.repository.CustomerRepository;
 import com.infina.hissenet.repository.WalletRepository;
 import com.infina.hissenet.repository.WalletTransactionRepository;
+import com.infina.hissenet.repository.WalletTransactionRepository.SettlementTotal;
 import com.infina.hissenet.service.abstracts.IWalletService;
 import com.infina.hissenet.utils.DateUtils;
 import com.infina.hissenet.utils.GenericServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 
@@ -32,17 +48,27 @@ import java.util.Optional;
 @Transactional
 public class WalletService extends GenericServiceImpl<Wallet, Long> implements IWalletService {
 
+    private static final Logger log = LoggerFactory.getLogger(WalletService.class);
+
     private final WalletRepository walletRepository;
     private final WalletMapper walletMapper;
     private final CustomerRepository customerRepository;
     private final WalletTransactionRepository walletTransactionRepository;
+    private final SettlementProperties settlementProperties;
+    private final TransactionTemplate chunkTransaction;
+    private final EntityManager entityManager;
 
-    public WalletService(WalletRepository walletRepository, WalletMapper walletMapper, CustomerRepository customerRepository, WalletTransactionRepository walletTransactionRepository){
+    public WalletService(WalletRepository walletRepository, WalletMapper walletMapper, CustomerRepository customerRepository, WalletTransactionRepository walletTransactionRepository,
+                         SettlementProperties settlementProperties, PlatformTransactionManager transactionManager,
+                         EntityManager entityManager){
         super(walletRepository);
         this.walletRepository=walletRepository;
         this.walletMapper=walletMapper;
         this.walletTransactionRepository = walletTransactionRepository;
         this.customerRepository=customerRepository;
+        this.settlementProperties = settlementProperties;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
     }
 
 
@@ -69,114 +95,164 @@ public class WalletService extends GenericServiceImpl<Wallet, Long> implements I
         return walletMapper.toResponse(wallet);
     }
     public WalletResponse addBalance(Long customerId, BigDecimal amount, TransactionType transactionType){
+        return new WalletMutationEvent(customerId, WalletMutationEvent.CREDIT, transactionType)
+                .record(() -> credit(customerId, amount, transactionType), r -> "OK");
+    }
+    private WalletResponse credit(Long customerId, BigDecimal amount, TransactionType transactionType){
         Wallet wallet = getWalletByCustomerIdOrThrow(customerId);
         validateWalletForTransaction(wallet);
 
+        WalletTransaction transaction = newLedgerEntry(wallet, amount, transactionType, "EXTERNAL", "WALLET");
         if (transactionType == TransactionType.STOCK_SALE) {
-            wallet.addBalance(amount);
-            wallet.blockBalance(amount);
-
-            WalletTransaction transaction = new WalletTransaction();
-            transaction.setWallet(wallet);
-            transaction.setAmount(amount);
-            transaction.setTransactionType(TransactionType.STOCK_SALE);
-            transaction.setTransactionStatus(TransactionStatus.COMPLETED);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setSource("EXTERNAL");
-            transaction.setDestination("WALLET");
+            // Satış tutarı bakiyeye eklenir ve takasa kadar bloke kalır
+            applyMovement(wallet, amount, BigDecimal.ZERO, amount, false);
             transaction.setSettlementDate(LocalDateTime.now().plusMinutes(1)); // T+2 gün
-
-            wallet.addTransaction(transaction);
         } else {
             // Normal işlem
-            wallet.addBalance(amount);
-            WalletTransaction transaction = new WalletTransaction();
-            transaction.setWallet(wallet);
-            transaction.setAmount(amount);
-            transaction.setTransactionType(transactionType);
-            transaction.setTransactionStatus(TransactionStatus.COMPLETED);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setSource("EXTERNAL");
-            transaction.setDestination("WALLET");
-
-            wallet.addTransaction(transaction);
+            applyMovement(wallet, amount, amount, BigDecimal.ZERO, false);
         }
-
-        updateTransactionTracking(wallet, amount, true);
-        Wallet updateWallet = update(wallet);
-        return walletMapper.toResponse(updateWallet);
+        walletTransactionRepository.save(transaction);
+        return walletMapper.toResponse(reload(wallet));
     }
     public WalletResponse subtractBalance(Long customerId, BigDecimal amount, TransactionType transactionType){
+        return new WalletMutationEvent(customerId, WalletMutationEvent.DEBIT, transactionType)
+                .record(() -> debit(customerId, amount, transactionType), r -> "OK");
+    }
+    private WalletResponse debit(Long customerId, BigDecimal amount, TransactionType transactionType){
         Wallet wallet = getWalletByCustomerIdOrThrow(customerId);
         validateWalletForTransaction(wallet);
         validateSufficientBalance(wallet, amount);
         validateTransactionLimits(wallet, amount);
+
+        WalletTransaction transaction = newLedgerEntry(wallet, amount, transactionType, "WALLET", "EXTERNAL");
         if (transactionType == TransactionType.STOCK_PURCHASE) {
-            wallet.blockBalance(amount);
-
-            WalletTransaction transaction = new WalletTransaction();
-            transaction.setWallet(wallet);
-            transaction.setAmount(amount);
-            transaction.setTransactionType(TransactionType.STOCK_PURCHASE);
-            transaction.setTransactionStatus(TransactionStatus.COMPLETED);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setSource("WALLET");
-            transaction.setDestination("EXTERNAL");
+            // Alış tutarı takasa kadar bloke edilir, bakiye takasta düşer
+            applyMovement(wallet, BigDecimal.ZERO, amount.negate(), amount, true);
             transaction.setSettlementDate(LocalDateTime.now().plusMinutes(1)); // T+2 gün
-
-            wallet.addTransaction(transaction);
         } else {
             // Normal işlem
-            wallet.subtractBalance(amount);
-            WalletTransaction transaction = new WalletTransaction();
-            transaction.setWallet(wallet);
-            transaction.setAmount(amount);
-            transaction.setTransactionType(transactionType);
-            transaction.setTransactionStatus(TransactionStatus.COMPLETED);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setSource("WALLET");
-            transaction.setDestination("EXTERNAL");
-
-            wallet.addTransaction(transaction);
+            applyMovement(wallet, amount.negate(), amount.negate(), BigDecimal.ZERO, true);
         }
-        updateTransactionTracking(wallet, amount, false);
-        Wallet updatedWallet = update(wallet);
-        return walletMapper.toResponse(updatedWallet);
+        walletTransactionRepository.save(transaction);
+        return walletMapper.toResponse(reload(wallet));
+    }
+
+    // Hareket kaydı yalnızca eklenir; cüzdanın işlem koleksiyonuna dokunulmaz
+    private WalletTransaction newLedgerEntry(Wallet wallet, BigDecimal amount, TransactionType transactionType,
+                                             String source, String destination) {
+        WalletTransaction transaction = new WalletTransaction();
+        transaction.setWallet(wallet);
+        transaction.setAmount(amount);
+        transaction.setTransactionType(transactionType);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transaction.setSource(source);
+        transaction.setDestination(destination);
+        return transaction;
+    }
+
+    // Çıkışlar günlük/aylık kullanım ve işlem sayısına eklenir. Ön denetimler okunan kopyaya göre
+    // yapılır; arada eşzamanlı bir hareket ya da kilitleme olduysa UPDATE satır bulmaz ve neden
+    // güncel satırdan çıkarılır
+    private void applyMovement(Wallet wallet, BigDecimal balanceDelta, BigDecimal availableDelta,
+                               BigDecimal blockedDelta, boolean outflow) {
+        BigDecimal used = outflow ? availableDelta.negate() : BigDecimal.ZERO;
+        int updated = walletRepository.applyMovement(wallet.getId(), balanceDelta, availableDelta, blockedDelta,
+                used, outflow ? 1 : 0, LocalDateTime.now());
+        if (updated == 0) {
+            entityManager.refresh(wallet);
+            validateWalletForTransaction(wallet);
+            if (outflow) {
+                validateTransactionLimits(wallet, used);
+            }
+            throw new InsufficientBalanceException(availableDelta.negate(), wallet.getAvailableBalance());
+        }
+    }
+
+    // Toplu UPDATE bağlamdaki nesneyi güncellemez; yanıt için satır yeniden okunur
+    private Wallet reload(Wallet wallet) {
+        entityManager.refresh(wallet);
+        return wallet;
     }
 
     public WalletResponse processStockPurchase(Long customerId, BigDecimal totalAmount, BigDecimal commission){
-        BigDecimal totalCost = totalAmount.add(commission);
-        return subtractBalance(customerId, totalCost, TransactionType.STOCK_PURCHASE);
+        Money totalCost = Money.of(totalAmount).plus(Money.of(commission));
+        return subtractBalance(customerId, totalCost.toBigDecimal(), TransactionType.STOCK_PURCHASE);
     }
     public WalletResponse processStockSale(Long customerId, BigDecimal totalAmount, BigDecimal commission){
-        BigDecimal netAmount = totalAmount.subtract(commission);
-        return addBalance(customerId, netAmount, TransactionType.STOCK_SALE);
+        Money netAmount = Money.of(totalAmount).minus(Money.of(commission));
+        return addBalance(customerId, netAmount.toBigDecimal(), TransactionType.STOCK_SALE);
     }
-    @Transactional
-    public void processT2Settlements() {
-        List<WalletTransaction> transactionsReadyForSettlement = walletTransactionRepository.findTransactionsReadyForSettlement(
-                LocalDateTime.now(), TransactionStatus.COMPLETED,
-                TransactionType.STOCK_PURCHASE, TransactionType.STOCK_SALE
-        );
-
-        for (WalletTransaction transaction : transactionsReadyForSettlement) {
-            processSettlement(transaction);
+    /**
+     * Vadesi gelen alış/satış işlemleri parça parça takas edilir. Her parça kendi
+     * transaction'ında: tutarlar cüzdan bazında toplanır, her cüzdan tek UPDATE ile
+     * güncellenir ve işlemler tek UPDATE ile SETTLED yapılır.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SettlementRunStats processT2Settlements() {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now();
+        PageRequest chunk = PageRequest.ofSize(settlementProperties.getChunkSize());
+
+        int rows = 0, chunks = 0, skipped = 0;
+        Set<Long> wallets = new HashSet<>();
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = walletTransactionRepository.findIdsReadyForSettlement(cutoff, TransactionStatus.COMPLETED,
+                    TransactionType.STOCK_PURCHASE, TransactionType.STOCK_SALE, afterId, chunk);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            ChunkResult result = chunkTransaction.execute(status -> settleWalletChunk(ids));
+            if (result != null) {
+                rows += result.settled();
+                skipped += result.skipped();
+                wallets.addAll(result.walletIds());
+            }
+            chunks++;
+            if (ids.size() < chunk.getPageSize()) {
+                break;
+            }
         }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new SettlementRunStats("wallet", rows, wallets.size(), chunks, skipped, elapsedMillis);
     }
 
-    private void processSettlement(WalletTransaction transaction) {
-        Wallet wallet = transaction.getWallet();
-        if (transaction.getTransactionType() == TransactionType.STOCK_PURCHASE) {
-            wallet.transferBlockedToBalance(transaction.getAmount());
-        } else if (transaction.getTransactionType() == TransactionType.STOCK_SALE) {
-            wallet.unblockBalance(transaction.getAmount());
+    private ChunkResult settleWalletChunk(List<Long> ids) {
+        Map<Long, BigDecimal[]> amountsByWallet = new HashMap<>();
+        Map<Long, Long> countByWallet = new HashMap<>();
+        for (SettlementTotal total : walletTransactionRepository.sumAmountsByWalletAndType(ids)) {
+            BigDecimal[] amounts = amountsByWallet.computeIfAbsent(total.getWalletId(),
+                    id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            int slot = total.getTransactionType() == TransactionType.STOCK_PURCHASE ? 0 : 1;
+            amounts[slot] = amounts[slot].add(total.getAmount());
+            countByWallet.merge(total.getWalletId(), total.getTransactionCount(), Long::sum);
         }
 
-        transaction.setTransactionStatus(TransactionStatus.SETTLED);
-        transaction.setSettlementDate(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> applied = new HashSet<>();
+        int skipped = 0;
+        for (Map.Entry<Long, BigDecimal[]> entry : amountsByWallet.entrySet()) {
+            BigDecimal[] amounts = entry.getValue();
+            if (walletRepository.applySettlement(entry.getKey(), amounts[0], amounts[1], now) == 1) {
+                applied.add(entry.getKey());
+            } else {
+                // Bloke bakiye yetersiz: cüzdanın işlemleri COMPLETED kalır, diğer cüzdanlar etkilenmez
+                skipped += countByWallet.get(entry.getKey()).intValue();
+                log.warn("T+2 settlement skipped for wallet {}: blocked balance below purchase {} + sale {}",
+                        entry.getKey(), amounts[0], amounts[1]);
+            }
+        }
 
-        walletTransactionRepository.save(transaction);
-        update(wallet);
+        int settled = applied.isEmpty() ? 0 : walletTransactionRepository.markSettled(ids, applied,
+                TransactionStatus.COMPLETED, TransactionStatus.SETTLED, now);
+        return new ChunkResult(settled, skipped, applied);
+    }
+
+    private record ChunkResult(int settled, int skipped, Set<Long> walletIds) {
     }
     public BigDecimal getAvailableBalance(Long customerId) {
         Wallet wallet = getWalletByCustomerIdOrThrow(customerId);
@@ -294,13 +370,6 @@ public class WalletService extends GenericServiceImpl<Wallet, Long> implements I
         }
     }
 
-    private void updateTransactionTracking(Wallet wallet, BigDecimal amount, boolean isAddition){
-        if (!isAddition){
-            wallet.incrementTransactionCount();
-            wallet.addToDailyUsedAmount(amount);
-            wallet.addToMonthlyUsedAmount(amount);
-        }
-    }
 
 
 }
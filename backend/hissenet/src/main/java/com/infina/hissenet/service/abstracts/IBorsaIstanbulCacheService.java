@@ -47,4 +47,18 @@ public interface IBorsaIstanbulCacheService {
      * @return a {@link Mono} that completes when the refresh process finishes
      */
     Mono<Void> refreshAsync();
+
+    /**
+     * Loads the last-known snapshot from local disk into the cache, marked stale until
+     * the next successful refresh.
+     *
+     * @return {@code true} if a non-empty snapshot was restored
+     */
+    boolean restoreLastKnown();
+
+    /**
+     * @return {@code true} while the cache holds data restored from disk that has not yet
+     * been revalidated against upstream
+     */
+    boolean isStale();
 }
@@ -1,6 +1,9 @@
 package com.infina.hissenet.service.abstracts;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -42,6 +45,22 @@ public interface ICacheFacade {
      */
     <T> void putIfNonEmpty(String cacheName, List<T> data);
 
+    /**
+     * Puts the given list into the specified cache if the list is non-empty, together with
+     * an immutable code index built once from {@code codeExtractor}.
+     * <p>
+     * Codes are trimmed and upper-cased before indexing; when two entries share a code the
+     * first one wins. Snapshots stored this way are looked up in constant time by
+     * {@link #findByCode} and {@link #findByCodes}.
+     * </p>
+     *
+     * @param cacheName     the name of the cache
+     * @param data          the list of data to cache
+     * @param codeExtractor a function to extract the identifying code from each entry
+     * @param <T>           the type of objects stored in the cache
+     */
+    <T> void putIfNonEmpty(String cacheName, List<T> data, Function<T, String> codeExtractor);
+
     /**
      * Searches for a cached item by its identifying code.
      * <p>
@@ -56,4 +75,31 @@ public interface ICacheFacade {
      * @return an {@link Optional} containing the found object, or empty if not found
      */
     <T> Optional<T> findByCode(String cacheName, String code, Function<T, String> codeExtractor);
+
+    /**
+     * Looks up several cached items by code in one pass over the snapshot index.
+     *
+     * @param cacheName     the name of the cache
+     * @param codes         the codes to search for (case-insensitive)
+     * @param codeExtractor a function to extract the identifying code from the cached object
+     * @param <T>           the type of objects stored in the cache
+     * @return found entries keyed by upper-cased code; codes that are not cached are omitted
+     */
+    <T> Map<String, T> findByCodes(String cacheName, Collection<String> codes, Function<T, String> codeExtractor);
+
+    /**
+     * Returns the number of entries in the current snapshot of the given cache.
+     *
+     * @param cacheName the name of the cache
+     * @return the snapshot size, or {@code 0} when nothing has been stored yet
+     */
+    int snapshotSize(String cacheName);
+
+    /**
+     * Returns when the current snapshot of the given cache was stored.
+     *
+     * @param cacheName the name of the cache
+     * @return the store time, or empty when nothing has been stored yet
+     */
+    Optional<Instant> snapshotStoredAt(String cacheName);
 }
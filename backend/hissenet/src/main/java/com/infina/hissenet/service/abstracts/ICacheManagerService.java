@@ -2,7 +2,9 @@ package com.infina.hissenet.service.abstracts;
 
 import com.infina.hissenet.dto.response.CombinedStockData;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing combined stock data cache operations.
@@ -35,4 +37,18 @@ public interface ICacheManagerService {
      * @return the matching {@link CombinedStockData}, or {@code null} if not found in cache
      */
     CombinedStockData getCachedByCode(String code);
+
+    /**
+     * Retrieves cached {@link CombinedStockData} entries for several stock codes in one lookup.
+     *
+     * @param codes the stock codes (case-insensitive)
+     * @return matching entries keyed by upper-cased stock code; codes not in cache are omitted
+     */
+    Map<String, CombinedStockData> getCachedByCodes(Collection<String> codes);
+
+    /**
+     * @return {@code true} while cached prices come from the on-disk snapshot restored at
+     * startup and have not been revalidated yet
+     */
+    boolean isStale();
 }
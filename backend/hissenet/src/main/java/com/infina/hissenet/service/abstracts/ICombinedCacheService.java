@@ -3,7 +3,9 @@ package com.infina.hissenet.service.abstracts;
 import com.infina.hissenet.dto.response.CombinedStockData;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -37,6 +39,14 @@ public interface ICombinedCacheService {
      */
     Optional<CombinedStockData> getByCode(String code);
 
+    /**
+     * Retrieves cached {@link CombinedStockData} entries for several stock codes at once.
+     *
+     * @param codes the stock codes (case-insensitive)
+     * @return matching entries keyed by upper-cased stock code; missing codes are omitted
+     */
+    Map<String, CombinedStockData> getByCodes(Collection<String> codes);
+
     /**
      * Refreshes the combined stock data cache asynchronously by fetching fresh data
      * from upstream sources and replacing the current snapshot.
@@ -44,4 +54,18 @@ public interface ICombinedCacheService {
      * @return a {@link Mono} that completes when the refresh process finishes
      */
     Mono<Void> refreshAsync();
+
+    /**
+     * Loads the last-known snapshot from local disk into the cache, marked stale until
+     * the next successful refresh.
+     *
+     * @return {@code true} if a non-empty snapshot was restored
+     */
+    boolean restoreLastKnown();
+
+    /**
+     * @return {@code true} while the cache holds data restored from disk that has not yet
+     * been revalidated against upstream
+     */
+    boolean isStale();
 }
@@ -14,8 +14,8 @@ import java.util.List;
 public interface ICommonFinancialService {
 
     /**
-     * Returns merged BUY transactions for a given portfolio.
-     * The result merges transactions by stock code and contains only active quantities.
+     * Returns the open positions of a given portfolio, one entry per stock code,
+     * served from the position ledger. Price is the weighted average cost.
      *
      * @param portfolioId portfolio identifier
      * @return list of merged stock transactions
@@ -34,6 +34,8 @@ public interface ICommonFinancialService {
     /**
      * Calculates the net quantity for a given customer and stock code across all portfolios.
      * SELL transactions are subtracted from BUY transactions.
+     * This scans the full transaction history; regular reads go through the position ledger
+     * and this method is kept to reconcile the ledger against the transaction table.
      *
      * @param customerId customer identifier
      * @param stockCode  stock code (e.g., THYAO)
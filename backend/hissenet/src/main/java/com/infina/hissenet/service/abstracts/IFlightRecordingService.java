@@ -0,0 +1,53 @@
+package com.infina.hissenet.service.abstracts;
+
+import com.infina.hissenet.dto.response.FlightRecordingResponse;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Controls a single on-demand JDK Flight Recorder recording of this JVM.
+ * <p>
+ * Recordings use one of the JDK's predefined configurations with the application's
+ * own events (order placement and fills, wallet mutations, price refreshes) enabled
+ * without threshold. At most one recording runs at a time; starting a new one discards
+ * the previous recording and its file.
+ * </p>
+ */
+public interface IFlightRecordingService {
+
+    /**
+     * Starts a recording.
+     *
+     * @param settings {@code default} (low overhead) or {@code profile} (more detail)
+     * @param duration automatic stop after this long; {@code null} or longer than the
+     *                 configured maximum means the maximum
+     * @return the running recording
+     * @throws com.infina.hissenet.exception.jfr.RecordingAlreadyRunningException if one is running
+     * @throws com.infina.hissenet.exception.jfr.InvalidRecordingSettingsException for unknown settings
+     */
+    FlightRecordingResponse start(String settings, Duration duration);
+
+    /**
+     * Stops the running recording and writes it to the dump directory.
+     *
+     * @return the stopped recording
+     * @throws com.infina.hissenet.exception.jfr.RecordingNotRunningException if nothing is running
+     */
+    FlightRecordingResponse stop();
+
+    /**
+     * @return the current or last recording
+     * @throws com.infina.hissenet.exception.jfr.RecordingNotFoundException if none was started
+     */
+    FlightRecordingResponse status();
+
+    /**
+     * Returns a {@code .jfr} file for download: a snapshot of the data so far while the
+     * recording runs, otherwise the file written when it stopped.
+     *
+     * @return path of the recording file
+     * @throws com.infina.hissenet.exception.jfr.RecordingNotFoundException if none was started
+     */
+    Path dump();
+}
@@ -0,0 +1,44 @@
+package com.infina.hissenet.service.abstracts;
+
+import com.infina.hissenet.dto.response.CandleResponse;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.entity.enums.CandleInterval;
+
+import java.util.List;
+
+/**
+ * In-memory intraday history built from successive combined price snapshots.
+ * <p>
+ * Each symbol keeps a ring buffer of recent ticks and rolling 1m/5m/1h OHLCV candles
+ * in fixed-point primitive arrays. Nothing is read from or written to the database.
+ * </p>
+ */
+public interface IIntradayTickStore {
+
+    /**
+     * Records one snapshot as a tick per symbol. A symbol whose price and cumulative
+     * volume are unchanged since its previous tick is skipped.
+     *
+     * @param snapshot      latest combined snapshot
+     * @param timestampMillis when the snapshot was taken
+     */
+    void ingest(List<CombinedStockData> snapshot, long timestampMillis);
+
+    /**
+     * Returns the most recent candles for a symbol, oldest first. The last candle may
+     * still be forming.
+     *
+     * @param code     stock code (case-insensitive)
+     * @param interval candle width
+     * @param limit    maximum number of candles to return
+     * @return candles, or an empty list if the symbol has no ticks
+     */
+    List<CandleResponse> getCandles(String code, CandleInterval interval, int limit);
+
+    /**
+     * Returns the most recent raw ticks for a symbol, oldest first. Each tick is shaped as
+     * a {@link CandleResponse} whose open, high, low and close are the tick price and whose
+     * volume is the amount traded since the previous tick.
+     */
+    List<CandleResponse> getTicks(String code, int limit);
+}
@@ -1,5 +1,6 @@
 package com.infina.hissenet.service.abstracts;
 
+import com.infina.hissenet.entity.enums.MarketPhase;
 
 /**
  * Service interface for market hour operations.
@@ -34,5 +35,19 @@ public interface IMarketHourService {
      */
     boolean canPlaceOrder();
 
+    /**
+     * Returns the current market phase.
+     *
+     * Phases on weekdays:
+     * - PRE_OPEN: 9:30 AM to 10:00 AM
+     * - SESSION: 10:00 AM to 6:00 PM
+     * - AFTER_CLOSE: 6:00 PM to 7:00 PM
+     * - CLOSED: the rest of the day
+     * Saturday and Sunday are WEEKEND.
+     *
+     * @return the phase for the current time
+     */
+    MarketPhase getMarketPhase();
+
 
 }
@@ -0,0 +1,51 @@
+package com.infina.hissenet.service.abstracts;
+
+import com.infina.hissenet.entity.Order;
+
+import java.util.List;
+
+/**
+ * In-memory limit order book keyed by stock code.
+ * <p>
+ * BUY limits are kept sorted by price descending and SELL limits ascending, so a
+ * new market price only touches the orders whose limit it actually crosses.
+ * Crossed order ids are queued as triggered and drained by the order scheduler.
+ * </p>
+ * <p>
+ * The book is rebuilt from the database at startup; changes made inside a
+ * transaction are applied to the book only after that transaction commits.
+ * </p>
+ */
+public interface IOrderBookService {
+
+    /**
+     * Reloads the book from every OPEN order in the database, discarding the current state.
+     */
+    void rebuild();
+
+    /**
+     * Adds an OPEN limit order to the book. Orders that are not OPEN LIMIT orders are ignored.
+     *
+     * @param order persisted order with id, stock code, type and price set
+     */
+    void track(Order order);
+
+    /**
+     * Removes an order from the book and from the triggered queue.
+     *
+     * @param orderId order identifier
+     */
+    void untrack(Long orderId);
+
+    /**
+     * Returns and clears the ids of orders whose limit was crossed by a price update.
+     *
+     * @return triggered order ids; empty if nothing was crossed since the last call
+     */
+    List<Long> drainTriggered();
+
+    /**
+     * @return number of OPEN limit orders currently held in the book
+     */
+    int openOrderCount();
+}
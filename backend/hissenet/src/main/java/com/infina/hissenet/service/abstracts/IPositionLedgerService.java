@@ -0,0 +1,90 @@
+package com.infina.hissenet.service.abstracts;
+
+import com.infina.hissenet.entity.StockPosition;
+import com.infina.hissenet.entity.StockTransaction;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-customer, per-stock position ledger.
+ * <p>
+ * Every stock transaction write is mirrored into a single {@link StockPosition} row
+ * inside the same database transaction, so quantity and cost reads are a single
+ * row lookup instead of a scan over the customer's transaction history.
+ * </p>
+ * <p>
+ * COMPLETED transactions are pending; SETTLED transactions move into the settled
+ * quantity. Pending sells are what T+2 settlement keeps blocked.
+ * </p>
+ */
+public interface IPositionLedgerService {
+
+    /**
+     * Records a newly created COMPLETED transaction as pending quantity.
+     *
+     * @param transaction persisted transaction with portfolio and customer set
+     */
+    void recordTransaction(StockTransaction transaction);
+
+    /**
+     * Moves a transaction that has just been marked SETTLED from pending to settled quantity.
+     *
+     * @param transaction settled transaction with portfolio and customer set
+     */
+    void recordSettlement(StockTransaction transaction);
+
+    /**
+     * Bulk variant of {@link #recordSettlement(StockTransaction)}: transactions are grouped by
+     * customer and stock so each position is locked and written once.
+     *
+     * @param transactions settled transactions with portfolio and customer set
+     */
+    void recordSettlements(Collection<StockTransaction> transactions);
+
+    /**
+     * Releases the pending quantity of a COMPLETED transaction that has been cancelled.
+     *
+     * @param transaction cancelled transaction with portfolio and customer set
+     */
+    void recordCancellation(StockTransaction transaction);
+
+    /**
+     * Points a customer's position in a stock to another portfolio.
+     *
+     * @param customerId     customer identifier
+     * @param stockCode      stock code
+     * @param newPortfolioId target portfolio identifier
+     */
+    void movePosition(Long customerId, String stockCode, Long newPortfolioId);
+
+    /**
+     * @return settled quantity held by the customer; 0 if there is no position
+     */
+    int getSettledQuantity(Long customerId, String stockCode);
+
+    /**
+     * @return quantity sold but not yet settled; 0 if there is no position
+     */
+    int getPendingSellQuantity(Long customerId, String stockCode);
+
+    /**
+     * @return settled quantity minus pending sells, never negative
+     */
+    int getAvailableQuantity(Long customerId, String stockCode);
+
+    /**
+     * Returns positions with a positive settled quantity whose portfolio is the given one.
+     *
+     * @param portfolioId portfolio identifier
+     * @return open positions ordered by stock code
+     */
+    List<StockPosition> getOpenPositions(Long portfolioId);
+
+    /**
+     * Rebuilds the ledger from the transaction table, replacing every existing position.
+     *
+     * @return number of positions written
+     */
+    int rebuild();
+}
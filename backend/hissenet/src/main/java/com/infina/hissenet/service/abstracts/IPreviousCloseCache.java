@@ -0,0 +1,37 @@
+package com.infina.hissenet.service.abstracts;
+
+import com.infina.hissenet.dto.response.HisseFiyatEntry;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Day-keyed cache of previous-close price entries.
+ * <p>
+ * A past day's close never changes, so each symbol is fetched once per date. Empty
+ * results are retried after a short negative TTL. When a file is configured, entries
+ * for the current date are persisted there and reloaded on startup.
+ * </p>
+ */
+public interface IPreviousCloseCache {
+
+    /**
+     * Returns the cached entry for {@code assetCode} on {@code date}, or subscribes to
+     * {@code loader} and caches its result.
+     *
+     * @param assetCode Infina asset code, e.g. {@code THYAO.E}
+     * @param date      the past trading date being looked up
+     * @param loader    upstream fetch, used only on a miss
+     * @return the entry, or empty if upstream has none
+     */
+    Mono<Optional<HisseFiyatEntry>> getOrLoad(String assetCode, LocalDate date,
+                                              Supplier<Mono<Optional<HisseFiyatEntry>>> loader);
+
+    /**
+     * Writes the current date's entries to the configured file if anything changed
+     * since the last write. Does nothing when persistence is disabled.
+     */
+    void flush();
+}
@@ -0,0 +1,51 @@
+package com.infina.hissenet.service.abstracts;
+
+import com.infina.hissenet.dto.response.CandleResponse;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.PricePointResponse;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Long-term price history on local disk, one segment file per trading day.
+ * <p>
+ * The current day is kept in memory and mirrored to an append-only log. When the first
+ * snapshot of a new day arrives, the previous day is sealed into a columnar segment:
+ * fixed-point time, price and volume columns grouped by symbol, plus a per-symbol daily
+ * OHLCV summary. Sealed segments are memory-mapped for reads and never change.
+ * </p>
+ */
+public interface IPriceHistoryStore {
+
+    /**
+     * Records one snapshot. A symbol whose price and cumulative volume are unchanged
+     * since its previous point is skipped. Snapshots older than the open day, or taken
+     * outside the session and after-close phases, are ignored.
+     *
+     * @param snapshot        latest combined snapshot
+     * @param timestampMillis when the snapshot was taken
+     */
+    void append(List<CombinedStockData> snapshot, long timestampMillis);
+
+    /**
+     * Returns recorded points of one symbol in {@code [from, to]}, oldest first.
+     *
+     * @param code  stock code (case-insensitive)
+     * @param limit maximum number of points; also capped by {@code stock.history.max-points}
+     * @return points, or an empty list if nothing was recorded in the range
+     */
+    List<PricePointResponse> getRange(String code, Instant from, Instant to, int limit);
+
+    /**
+     * Returns one OHLCV candle per recorded day in {@code [from, to]}, oldest first.
+     * Sealed days are answered from the segment summaries without reading the columns.
+     */
+    List<CandleResponse> getDailyBars(String code, LocalDate from, LocalDate to);
+
+    /**
+     * Blocks until every queued snapshot is appended and the day log has reached disk.
+     */
+    void flush();
+}
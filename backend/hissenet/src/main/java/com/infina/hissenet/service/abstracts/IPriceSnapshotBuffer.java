@@ -0,0 +1,34 @@
+package com.infina.hissenet.service.abstracts;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.EncodedSnapshot;
+
+import java.util.List;
+
+/**
+ * Holds the latest combined price snapshot pre-encoded for REST and WebSocket readers.
+ * <p>
+ * Each published version is serialized exactly once; requests and STOMP frames write the
+ * shared bytes as they are.
+ * </p>
+ */
+public interface IPriceSnapshotBuffer {
+
+    /**
+     * Encodes {@code items} as the new current snapshot.
+     *
+     * @param version monotonically increasing version, used as the ETag
+     * @param items   every symbol in this version
+     */
+    void update(long version, List<CombinedStockData> items);
+
+    /**
+     * @return the item list as a JSON array, with an optional gzip copy
+     */
+    EncodedSnapshot current();
+
+    /**
+     * @return the same version as a {@code SNAPSHOT} {@link com.infina.hissenet.dto.response.PriceStreamMessage} frame
+     */
+    EncodedSnapshot currentFrame();
+}
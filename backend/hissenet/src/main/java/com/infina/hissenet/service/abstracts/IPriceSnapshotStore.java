@@ -0,0 +1,32 @@
+package com.infina.hissenet.service.abstracts;
+
+import java.util.List;
+
+/**
+ * Last-known copy of each price cache on local disk, so a restart can serve prices
+ * before the first upstream refresh completes.
+ * <p>
+ * Writes are coalesced and done on a background thread; only the newest snapshot per
+ * name is written. Files are gzip-compressed JSON replaced atomically.
+ * </p>
+ */
+public interface IPriceSnapshotStore {
+
+    /**
+     * Queues {@code items} to be written as the last-known snapshot for {@code name}.
+     * Empty lists are ignored so a failed refresh never overwrites good data.
+     */
+    void save(String name, List<?> items);
+
+    /**
+     * Reads the last-known snapshot for {@code name}.
+     *
+     * @return the stored items, or an empty list if there is no readable file
+     */
+    <T> List<T> load(String name, Class<T> type);
+
+    /**
+     * Blocks until every queued write has reached disk.
+     */
+    void flush();
+}
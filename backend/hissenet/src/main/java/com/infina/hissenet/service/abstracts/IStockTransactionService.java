@@ -3,6 +3,7 @@ package com.infina.hissenet.service.abstracts;
 
 import com.infina.hissenet.entity.Order;
 import com.infina.hissenet.entity.StockTransaction;
+import com.infina.hissenet.dto.response.SettlementRunStats;
 import com.infina.hissenet.dto.response.StockTransactionResponse;
 
 import java.util.List;
@@ -21,9 +22,13 @@ public interface IStockTransactionService {
     
     /**
      * Hisse takas işlemlerini işler
-     * Beklemedeki işlemleri takas edilmiş duruma günceller
+     * Beklemedeki işlemleri takas edilmiş duruma günceller.
+     * İşlemler parça parça, her parça kendi transaction'ında toplu UPDATE ile takas edilir;
+     * etkilenen her portföy parça başına bir kez yeniden değerlenir.
+     *
+     * @return takas edilen satır, portföy sayısı ve süre bilgisi
      */
-    void processStockSettlements();
+    SettlementRunStats processStockSettlements();
     
     /**
      * Hisse işlemini başka bir portföye taşır
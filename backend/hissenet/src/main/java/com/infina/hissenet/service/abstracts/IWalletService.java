@@ -2,6 +2,7 @@ package com.infina.hissenet.service.abstracts;
 
 import com.infina.hissenet.dto.request.CreateWalletRequest;
 import com.infina.hissenet.dto.request.UpdateWalletRequest;
+import com.infina.hissenet.dto.response.SettlementRunStats;
 import com.infina.hissenet.dto.response.WalletResponse;
 import com.infina.hissenet.entity.enums.TransactionType;
 
@@ -151,8 +152,13 @@ public interface IWalletService {
      * Processes T+2 settlement for all ready transactions.
      * This method is called by the scheduler to automatically process transactions
      * that have reached their settlement date (T+2 days after creation).
+     * Due transactions are settled in chunks, each chunk in its own database transaction,
+     * with one balance update per wallet and one status update per chunk. Wallets whose
+     * blocked balance does not cover their due amounts are skipped and retried next run.
+     *
+     * @return rows settled, wallets touched and timing for this run
      */
-    void processT2Settlements();
+    SettlementRunStats processT2Settlements();
 
     /**
      * Gets the available balance (usable amount) for a customer.
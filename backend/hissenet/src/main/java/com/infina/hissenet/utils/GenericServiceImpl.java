@@ -1,6 +1,6 @@
 package com.infina.hissenet.utils;
 
-import com.infina.hissenet.entity.base.BaseEntity;
+import com.infina.hissenet.entity.base.AuditableEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,7 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
-public class GenericServiceImpl<T extends BaseEntity, ID> implements IGenericService<T, ID> {
+public class GenericServiceImpl<T extends AuditableEntity, ID> implements IGenericService<T, ID> {
 
     private final JpaRepository<T, ID> repository;
 
@@ -11,7 +11,7 @@ import java.util.Optional;
  * This interface defines standard database operations that can be used across
  * different entity types in the application.
  *
- * @param <T> the entity type that extends BaseEntity
+ * @param <T> the entity type that extends AuditableEntity
  * @param <ID> the type of the entity's primary key
  *
  * @author Umut Sefkan SAK
@@ -0,0 +1,64 @@
+package com.infina.hissenet.utils;
+
+import com.infina.hissenet.entity.enums.MarketPhase;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Borsa İstanbul session hours as pure functions of a local time.
+ * <p>
+ * {@code MarketHourService} answers for "now"; code on the price refresh path calls these
+ * directly so a per-refresh check does not go through the service proxy.
+ * </p>
+ */
+public class MarketHourUtils {
+
+    private static final LocalTime MARKET_OPEN = LocalTime.of(10, 0);
+    private static final LocalTime MARKET_CLOSE = LocalTime.of(18, 0);
+    private static final LocalTime ORDER_COLLECTION_START = LocalTime.of(9, 30);
+    private static final LocalTime ORDER_COLLECTION_END = LocalTime.of(17, 30);
+    private static final LocalTime AFTER_CLOSE_END = LocalTime.of(19, 0);
+
+    public static boolean isMarketOpen(LocalDateTime time) {
+        if (isWeekend(time)) {
+            return false;
+        }
+        LocalTime currentTime = time.toLocalTime();
+        return currentTime.isAfter(MARKET_OPEN) && currentTime.isBefore(MARKET_CLOSE);
+    }
+
+    public static boolean canPlaceOrder(LocalDateTime time) {
+        if (isWeekend(time)) {
+            return false;
+        }
+        LocalTime currentTime = time.toLocalTime();
+        return currentTime.isBefore(ORDER_COLLECTION_END) && currentTime.isAfter(ORDER_COLLECTION_START);
+    }
+
+    public static MarketPhase phaseAt(LocalDateTime time) {
+        if (isWeekend(time)) {
+            return MarketPhase.WEEKEND;
+        }
+        LocalTime currentTime = time.toLocalTime();
+        if (currentTime.isBefore(ORDER_COLLECTION_START)) {
+            return MarketPhase.CLOSED;
+        }
+        if (currentTime.isBefore(MARKET_OPEN)) {
+            return MarketPhase.PRE_OPEN;
+        }
+        if (currentTime.isBefore(MARKET_CLOSE)) {
+            return MarketPhase.SESSION;
+        }
+        if (currentTime.isBefore(AFTER_CLOSE_END)) {
+            return MarketPhase.AFTER_CLOSE;
+        }
+        return MarketPhase.CLOSED;
+    }
+
+    private static boolean isWeekend(LocalDateTime time) {
+        DayOfWeek dayOfWeek = time.getDayOfWeek();
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    }
+}
@@ -0,0 +1,33 @@
+package com.infina.hissenet.websocket;
+
+import com.infina.hissenet.dto.response.EncodedSnapshot;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Writes an {@link EncodedSnapshot}'s JSON bytes as the STOMP frame body without
+ * re-serializing them. Registered ahead of the default converters in {@code WebSocketConfig}.
+ */
+public class EncodedSnapshotMessageConverter extends AbstractMessageConverter {
+
+    public EncodedSnapshotMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedSnapshot.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        return false;
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return ((EncodedSnapshot) payload).getJson();
+    }
+}
@@ -0,0 +1,152 @@
+package com.infina.hissenet.websocket;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.PriceStreamMessage;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotBuffer;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Publishes combined price changes as sequenced deltas.
+ * <p>
+ * Every {@link StockPricesRefreshedEvent} is diffed against the previous snapshot by
+ * stock code; only new, changed and removed symbols are sent on the combined price topic
+ * as a {@link PriceStreamMessage.Type#DELTA} with the next sequence number. Refreshes
+ * that change nothing send nothing.
+ * </p>
+ * <p>
+ * Each new sequence is also handed to {@link IPriceSnapshotBuffer}, which encodes the full
+ * {@link PriceStreamMessage.Type#SNAPSHOT} once. Clients take it when they join or detect a
+ * sequence gap, then apply deltas after the snapshot's sequence.
+ * </p>
+ * <p>
+ * Each changed symbol is also sent on its own {@code <topic>/<code>} destination as the
+ * plain {@link CombinedStockData}; the code is trimmed and upper-cased like the REST lookups. Nothing is serialized for a destination that has no
+ * subscribers in {@link PriceSubscriptionRegistry}.
+ * </p>
+ */
+@Component
+public class PriceDeltaPublisher {
+
+    private final SimpMessagingTemplate template;
+    private final StockProperties props;
+    private final PriceSubscriptionRegistry subscriptions;
+    private final IPriceSnapshotBuffer snapshotBuffer;
+
+    // Son yayınlanan durum; publish ve snapshot aynı kilit altında okunur/yazılır
+    private Map<String, CombinedStockData> lastByCode = Map.of();
+    private List<CombinedStockData> lastSnapshot = List.of();
+    private long seq;
+
+    public PriceDeltaPublisher(SimpMessagingTemplate template, StockProperties props,
+                               PriceSubscriptionRegistry subscriptions, IPriceSnapshotBuffer snapshotBuffer) {
+        this.template = template;
+        this.props = props;
+        this.subscriptions = subscriptions;
+        this.snapshotBuffer = snapshotBuffer;
+    }
+
+    @EventListener
+    public void onPricesRefreshed(StockPricesRefreshedEvent event) {
+        publish(event.getSnapshot());
+    }
+
+    /**
+     * Diffs {@code snapshot} against the last published one and sends the changes.
+     *
+     * @param snapshot latest full snapshot; {@code null} or empty snapshots are ignored
+     * @return the delta that was sent, or {@code null} if nothing changed
+     */
+    public synchronized PriceStreamMessage publish(List<CombinedStockData> snapshot) {
+        if (snapshot == null || snapshot.isEmpty()) {
+            return null;
+        }
+
+        Map<String, CombinedStockData> byCode = new LinkedHashMap<>(Math.max(16, snapshot.size() * 2));
+        for (CombinedStockData data : snapshot) {
+            if (data != null && data.code() != null) {
+                byCode.putIfAbsent(normalize(data.code()), data);
+            }
+        }
+
+        List<CombinedStockData> changed = new ArrayList<>();
+        for (Map.Entry<String, CombinedStockData> entry : byCode.entrySet()) {
+            if (!Objects.equals(lastByCode.get(entry.getKey()), entry.getValue())) {
+                changed.add(entry.getValue());
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String code : lastByCode.keySet()) {
+            if (!byCode.containsKey(code)) {
+                removed.add(code);
+            }
+        }
+
+        lastByCode = byCode;
+        lastSnapshot = List.copyOf(byCode.values());
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return null;
+        }
+
+        PriceStreamMessage delta = PriceStreamMessage.delta(++seq, changed, removed);
+        // Yeni sürüm bir kez kodlanır; REST ve snapshot abonelikleri aynı baytları yazar
+        snapshotBuffer.update(seq, lastSnapshot);
+        // Sıra numarası dinleyen olmasa da ilerler; sonradan katılan snapshot ile yakalar
+        if (subscriptions.hasSubscribers(topic())) {
+            template.convertAndSend(topic(), delta);
+        }
+        for (CombinedStockData data : changed) {
+            String destination = symbolTopic(data.code());
+            if (subscriptions.hasSubscribers(destination)) {
+                template.convertAndSend(destination, data);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Sends the current sequence number with no payload so clients that missed a delta
+     * while prices were idle can still notice the gap.
+     */
+    public synchronized void publishHeartbeat() {
+        if (seq > 0 && subscriptions.hasSubscribers(topic())) {
+            template.convertAndSend(topic(), PriceStreamMessage.heartbeat(seq));
+        }
+    }
+
+    /**
+     * @return every symbol as of the latest published sequence
+     */
+    public synchronized PriceStreamMessage currentSnapshot() {
+        return PriceStreamMessage.snapshot(seq, lastSnapshot);
+    }
+
+    /**
+     * @return the latest published state of {@code code}, or {@code null} if it is unknown
+     */
+    public synchronized CombinedStockData current(String code) {
+        return code != null ? lastByCode.get(normalize(code)) : null;
+    }
+
+    public String symbolTopic(String code) {
+        return topic() + "/" + normalize(code);
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private String topic() {
+        return props.getScheduler().getPublish().getTopic();
+    }
+}
@@ -0,0 +1,44 @@
+package com.infina.hissenet.websocket;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.EncodedSnapshot;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotBuffer;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP entry point for the combined price stream.
+ * <p>
+ * Subscribing to {@code /app/prices/snapshot} returns the current full snapshot to that
+ * session only. Clients do this on join and again whenever they see a sequence gap on the
+ * delta topic.
+ * </p>
+ * <p>
+ * Screens that watch a handful of symbols subscribe to {@code /topic/prices/{code}} instead
+ * and take the current value from {@code /app/prices/snapshot/{code}}.
+ * </p>
+ */
+@Controller
+public class PriceStreamController {
+
+    private final PriceDeltaPublisher deltaPublisher;
+    private final IPriceSnapshotBuffer snapshotBuffer;
+
+    public PriceStreamController(PriceDeltaPublisher deltaPublisher, IPriceSnapshotBuffer snapshotBuffer) {
+        this.deltaPublisher = deltaPublisher;
+        this.snapshotBuffer = snapshotBuffer;
+    }
+
+    // Son sürümün önceden kodlanmış SNAPSHOT çerçevesi olduğu gibi yazılır
+    @SubscribeMapping("/prices/snapshot")
+    public EncodedSnapshot snapshot() {
+        return snapshotBuffer.currentFrame();
+    }
+
+    // Bilinmeyen sembol için null döner, istemciye mesaj gitmez
+    @SubscribeMapping("/prices/snapshot/{code}")
+    public CombinedStockData symbolSnapshot(@DestinationVariable String code) {
+        return deltaPublisher.current(code);
+    }
+}
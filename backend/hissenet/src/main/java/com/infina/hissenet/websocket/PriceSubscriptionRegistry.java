@@ -0,0 +1,130 @@
+package com.infina.hissenet.websocket;
+
+import com.infina.hissenet.properties.StockProperties;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts live STOMP subscriptions per destination.
+ * <p>
+ * Registered on the client inbound channel by {@code WebSocketConfig}; it watches
+ * SUBSCRIBE, UNSUBSCRIBE and DISCONNECT frames (the broker also emits a DISCONNECT
+ * when a socket drops without one). Publishers ask {@link #hasSubscribers(String)}
+ * before serializing a message so nobody pays for symbols no one is watching.
+ * </p>
+ * <p>
+ * Per-symbol destinations ({@code <topic>/<code>}) are normalised to the upper-case code
+ * the publisher sends on, and a SUBSCRIBE frame is rewritten to that destination so the
+ * broker delivers {@code /topic/prices/thyao} subscribers the {@code THYAO} updates.
+ * </p>
+ */
+@Component
+public class PriceSubscriptionRegistry implements ChannelInterceptor {
+
+    private final StockProperties props;
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    public PriceSubscriptionRegistry(StockProperties props) {
+        this.props = props;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null || accessor.getSessionId() == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.SUBSCRIBE) {
+            String destination = normalize(accessor.getDestination());
+            subscribe(accessor.getSessionId(), accessor.getSubscriptionId(), destination);
+            if (destination != null && !destination.equals(accessor.getDestination())) {
+                // Broker aboneliği de yayıncının kullandığı hedefe kaydedilir
+                StompHeaderAccessor rewritten = StompHeaderAccessor.wrap(message);
+                rewritten.setDestination(destination);
+                return MessageBuilder.createMessage(message.getPayload(), rewritten.getMessageHeaders());
+            }
+        } else if (command == StompCommand.UNSUBSCRIBE) {
+            unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+        } else if (command == StompCommand.DISCONNECT) {
+            disconnect(accessor.getSessionId());
+        }
+        return message;
+    }
+
+    public void subscribe(String sessionId, String subscriptionId, String destination) {
+        if (subscriptionId == null || destination == null) {
+            return;
+        }
+        String normalized = normalize(destination);
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, normalized);
+        if (previous != null) {
+            decrement(previous);
+        }
+        counts.merge(normalized, 1, Integer::sum);
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        if (subscriptions == null || subscriptionId == null) {
+            return;
+        }
+        String destination = subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    public void disconnect(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return destination != null && counts.containsKey(normalize(destination));
+    }
+
+    public int getSubscriberCount(String destination) {
+        return destination != null ? counts.getOrDefault(normalize(destination), 0) : 0;
+    }
+
+    /**
+     * @return {@code destination} with the symbol of a {@code <topic>/<code>} destination
+     *         trimmed and upper-cased; any other destination unchanged
+     */
+    public String normalize(String destination) {
+        String prefix = props.getScheduler().getPublish().getTopic() + "/";
+        if (destination == null || !destination.startsWith(prefix)) {
+            return destination;
+        }
+        return prefix + destination.substring(prefix.length()).trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return a point-in-time copy of destination to subscriber count
+     */
+    public Map<String, Integer> snapshot() {
+        return new HashMap<>(counts);
+    }
+
+    // Sayaç sıfıra inince anahtar silinir; hasSubscribers tek bir lookup kalır
+    private void decrement(String destination) {
+        counts.computeIfPresent(destination, (key, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,143 @@
+package com.infina.hissenet.client;
+
+import com.infina.hissenet.exception.stock.InfinaApiRateLimitException;
+import com.infina.hissenet.properties.FetchProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private FetchProperties.Limiter config;
+
+    @BeforeEach
+    void init() {
+        config = new FetchProperties.Limiter();
+        config.setMinLimit(1);
+        config.setMaxLimit(8);
+        config.setLatencyThreshold(Duration.ofSeconds(5));
+        config.setBackoffRatio(0.5);
+    }
+
+    @Test
+    void whenCallsHealthy_thenLimitGrowsAdditivelyUpToMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, config);
+
+        // 2 -> 2.5 -> 2.9 -> 3.24
+        limiter.run(Mono.just(1)).block();
+        limiter.run(Mono.just(1)).block();
+        assertEquals(2, limiter.getLimit());
+        limiter.run(Mono.just(1)).block();
+        assertEquals(3, limiter.getLimit());
+
+        for (int i = 0; i < 200; i++) {
+            limiter.run(Mono.just(1)).block();
+        }
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void whenRateLimitedOrTimedOut_thenLimitBacksOffOncePerInterval() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, config);
+
+        assertThrows(InfinaApiRateLimitException.class, () ->
+                limiter.run(Mono.error(new InfinaApiRateLimitException("429"))).block());
+        assertEquals(4, limiter.getLimit());
+
+        // Aynı aralıktaki ikinci hata tekrar düşürmez
+        assertThrows(RuntimeException.class, () -> limiter.run(Mono.error(new TimeoutException())).block());
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void whenBackoffIntervalElapsed_thenLimitNeverDropsBelowMin() {
+        config.setLatencyThreshold(Duration.ZERO);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, config);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RuntimeException.class, () -> limiter.run(Mono.error(new TimeoutException())).block());
+        }
+
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void whenStreamCompletes_thenPermitReleasedAndLimitGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, config);
+
+        assertEquals(3, limiter.runMany(Flux.just(1, 2, 3)).count().block());
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(2, limiter.getLimit());
+        assertThrows(RuntimeException.class, () ->
+                limiter.runMany(Flux.concat(Flux.just(1), Flux.error(new TimeoutException()))).blockLast());
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void whenNonOverloadErrors_thenLimitUnchanged() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, config);
+
+        assertThrows(IllegalStateException.class, () -> limiter.run(Mono.error(new IllegalStateException())).block());
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void whenMoreCallsThanLimit_thenInFlightNeverExceedsLimit() {
+        config.setMaxLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, config);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        Flux.range(0, 10)
+                .flatMap(i -> limiter.run(Mono.fromCallable(() -> peak.accumulateAndGet(running.incrementAndGet(), Math::max))
+                        .delayElement(Duration.ofMillis(20))
+                        .doFinally(s -> running.decrementAndGet())), 10)
+                .blockLast(Duration.ofSeconds(5));
+
+        assertEquals(2, peak.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void whenWaitingForPermit_thenWaitDoesNotCountAgainstTimeout() {
+        config.setMaxLimit(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, config);
+        Duration timeout = Duration.ofMillis(200);
+
+        // Sınır 1: son çağrı izni ~300 ms bekler, kendisi ise en fazla 150 ms sürer
+        List<Integer> results = Flux.merge(
+                        limiter.run(Mono.just(1).delayElement(Duration.ofMillis(150)), timeout),
+                        limiter.run(Mono.just(2).delayElement(Duration.ofMillis(150)), timeout),
+                        limiter.run(Mono.just(3).delayElement(Duration.ofMillis(50)), timeout))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(3, results.size());
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void whenCallExceedsTimeout_thenTimeoutBacksOffAndReleasesPermit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, config);
+
+        assertThrows(RuntimeException.class, () ->
+                limiter.run(Mono.never(), Duration.ofMillis(50)).block(Duration.ofSeconds(5)));
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,99 @@
+package com.infina.hissenet.client;
+
+import com.infina.hissenet.dto.response.StockData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectStockStreamDecoderTest {
+
+    private static final String BODY = """
+            {"result":[
+              {"rate":-1.25,"lastprice":285.50,"lastpricestr":"285,50","hacim":"1234567.89","hacimstr":"₺1.234.567,89",
+               "min":280,"minstr":"280,00","max":290.1,"maxstr":"290,10","time":"17:59","text":"TÜRK HAVA YOLLARI",
+               "code":"THYAO","extra":{"nested":[1,{"deep":true}]}},
+              {"code":"SISE","lastprice":null,"tags":["a","b"],"rate":0},
+              7
+            ],"meta":{"count":2},"success":true}
+            """;
+
+    private static List<StockData> decodeInChunks(String body, int chunkSize) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        CollectStockStreamDecoder decoder = new CollectStockStreamDecoder();
+        List<StockData> out = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            out.addAll(decoder.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i))));
+        }
+        out.addAll(decoder.endOfInput());
+        return out;
+    }
+
+    @Test
+    void whenBodyArrivesByteByByte_thenRecordsDecodedAndUnusedFieldsSkipped() throws IOException {
+        List<StockData> records = decodeInChunks(BODY, 1);
+
+        assertEquals(2, records.size());
+        StockData thyao = records.get(0);
+        assertEquals("THYAO", thyao.code());
+        assertEquals(new BigDecimal("285.50"), thyao.lastprice());
+        assertEquals(new BigDecimal("-1.25"), thyao.rate());
+        assertEquals(new BigDecimal("1234567.89"), thyao.hacim());
+        assertEquals(new BigDecimal("280"), thyao.min());
+        assertEquals(new BigDecimal("290.1"), thyao.max());
+        assertEquals("₺1.234.567,89", thyao.hacimstr());
+        assertEquals("TÜRK HAVA YOLLARI", thyao.text());
+        assertNull(thyao.lastpricestr());
+        assertNull(thyao.minstr());
+        assertNull(thyao.maxstr());
+
+        StockData sise = records.get(1);
+        assertEquals("SISE", sise.code());
+        assertNull(sise.lastprice());
+        assertEquals(BigDecimal.ZERO, sise.rate());
+    }
+
+    @Test
+    void whenChunkClosesRecord_thenRecordReturnedBeforeBodyEnds() throws IOException {
+        byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+        int firstRecordEnd = BODY.indexOf("},\n  {\"code\":\"SISE\"") + 1;
+        CollectStockStreamDecoder decoder = new CollectStockStreamDecoder();
+
+        List<StockData> first = decoder.feed(ByteBuffer.wrap(bytes, 0,
+                BODY.substring(0, firstRecordEnd).getBytes(StandardCharsets.UTF_8).length));
+
+        assertEquals(1, first.size());
+        assertEquals("THYAO", first.get(0).code());
+    }
+
+    @Test
+    void whenBodyTruncated_thenEndOfInputFails() throws IOException {
+        CollectStockStreamDecoder decoder = new CollectStockStreamDecoder();
+        decoder.feed(ByteBuffer.wrap("{\"result\":[{\"code\":\"THYAO\"}".getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(IOException.class, decoder::endOfInput);
+    }
+
+    @Test
+    void whenParsingDecimals_thenScaleKeptAndFallbacksUsed() {
+        assertEquals(new BigDecimal("285.50"), parse("285.50"));
+        assertEquals(2, parse("285.50").scale());
+        assertEquals(new BigDecimal("-0.5"), parse("-0.5"));
+        assertEquals(new BigDecimal("12"), parse("12"));
+        assertEquals(new BigDecimal("1.5E+3"), parse("1.5e3"));
+        assertEquals(new BigDecimal("12345678901234567890.12"), parse("12345678901234567890.12"));
+        assertNull(parse("285,50"));
+        assertNull(parse(""));
+        assertNull(parse("-"));
+    }
+
+    private static BigDecimal parse(String s) {
+        return CollectStockStreamDecoder.parseDecimal(s.toCharArray(), 0, s.length());
+    }
+}
@@ -0,0 +1,79 @@
+package com.infina.hissenet.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private static Money m(String value) {
+        return Money.of(new BigDecimal(value));
+    }
+
+    @Test
+    void whenConverted_thenRoundedHalfUpToFourDecimalsAndCanonicalOnTheWayOut() {
+        assertEquals(123_4500L, m("123.45").units());
+        assertEquals(1L, m("0.00005").units());
+        assertEquals(-1L, m("-0.00005").units());
+        assertEquals(0L, m("0.00004").units());
+        assertEquals(1_000_000L, m("1E+2").units());
+        assertNull(Money.of(null));
+
+        assertEquals(BigDecimal.valueOf(100), m("100.0000").toBigDecimal());
+        assertEquals(new BigDecimal("12.3"), m("12.3000").toBigDecimal());
+        assertEquals(new BigDecimal("-0.0001"), Money.ofUnits(-1).toBigDecimal());
+    }
+
+    @Test
+    void whenMultiplied_thenExactProductRoundedOnce() {
+        assertEquals(m("60"), m("30").times(new BigDecimal("2")));
+        // 12.3457 * 0.15 = 1.851855
+        assertEquals(m("1.8519"), m("12.3457").times(new BigDecimal("0.15")));
+        assertEquals(m("0.0002"), m("0.0003").times(new BigDecimal("0.5")));
+        assertEquals(m("0.0001"), m("0.0003").times(new BigDecimal("0.4")));
+        assertEquals(m("-0.0002"), m("-0.0003").times(new BigDecimal("0.5")));
+        assertEquals(m("601.5"), m("200.5").times(3));
+    }
+
+    @Test
+    void whenCommission_thenRoundedHalfUpToKurus() {
+        // 1234.5678 * 0.002 = 2.4691356
+        assertEquals(m("2.47"), m("1234.5678").commission(new BigDecimal("0.002")));
+        // 2.5 * 0.001 = 0.0025 -> 0.00
+        assertEquals(Money.ZERO, m("2.5").commission(new BigDecimal("0.001")));
+        // 5 * 0.001 = 0.005 -> 0.01
+        assertEquals(m("0.01"), m("5").commission(new BigDecimal("0.001")));
+        assertEquals(m("0.25"), m("100").commission(new BigDecimal("0.0025")));
+    }
+
+    @Test
+    void whenRandomInputs_thenMatchesBigDecimalReference() {
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextLong(1, 100_000_000L), 4);
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(1, 100_000));
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(0, 100), 4);
+
+            BigDecimal amount = price.multiply(quantity).setScale(4, RoundingMode.HALF_UP);
+            BigDecimal commission = amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+
+            Money total = Money.of(price).times(quantity);
+            assertEquals(0, amount.compareTo(total.toBigDecimal()));
+            assertEquals(0, commission.compareTo(total.commission(rate).toBigDecimal()));
+        }
+    }
+
+    @Test
+    void whenProductExceedsLong_thenBigDecimalFallbackOrArithmeticException() {
+        Money large = Money.ofUnits(Long.MAX_VALUE / 2);
+        assertThrows(ArithmeticException.class, () -> large.times(new BigDecimal("3")));
+        assertThrows(ArithmeticException.class, () -> large.plus(large).plus(large));
+        // Ara çarpım taşar ama sonuç sığar
+        assertEquals(Money.ofUnits(Long.MAX_VALUE / 20), Money.ofUnits(Long.MAX_VALUE / 2).times(new BigDecimal("0.1")));
+        assertEquals(m("333.3333"), m("1000").dividedBy(3));
+        assertThrows(ArithmeticException.class, () -> m("1").dividedBy(0));
+    }
+}
@@ -0,0 +1,176 @@
+package com.infina.hissenet.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.infina.hissenet.dto.request.LoginRequest;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.entity.Portfolio;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.properties.TraceLogProperties;
+import com.infina.hissenet.service.CacheFacade;
+import com.infina.hissenet.service.IntradayTickStore;
+import com.infina.hissenet.service.abstracts.ICacheFacade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogAspectTest {
+
+    private static final String CACHE = "combinedStock";
+    private static final String TRACE_LOGGER = LogAspect.class.getName() + "." + CacheFacade.class.getName();
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger traceLogger;
+    private TraceLogProperties properties;
+
+    // Jackson getter'ı okursa argüman işlenmiş demektir
+    static class CountingExtractor implements Function<CombinedStockData, String> {
+        int reads;
+
+        public String getName() {
+            reads++;
+            return "counting";
+        }
+
+        @Override
+        public String apply(CombinedStockData data) {
+            return data.code();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        traceLogger = (Logger) LoggerFactory.getLogger(TRACE_LOGGER);
+        traceLogger.setLevel(Level.INFO);
+        traceLogger.addAppender(appender);
+        appender.start();
+        properties = new TraceLogProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        traceLogger.detachAppender(appender);
+        traceLogger.setLevel(null);
+    }
+
+    private ICacheFacade advised() {
+        CacheFacade facade = new CacheFacade(new ConcurrentMapCacheManager(CACHE));
+        AspectJProxyFactory factory = new AspectJProxyFactory(facade);
+        factory.addAspect(new LogAspect(properties));
+        return factory.getProxy();
+    }
+
+    private static CombinedStockData stock(String code) {
+        return new CombinedStockData(code, null, null, null, null, null, BigDecimal.TEN,
+                null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void whenInfoEnabled_thenEnterAndExitWrittenToTargetLogger() {
+        CountingExtractor extractor = new CountingExtractor();
+
+        advised().findByCode(CACHE, "THYAO", extractor);
+
+        assertEquals(2, appender.list.size());
+        String enter = appender.list.get(0).getFormattedMessage();
+        String exit = appender.list.get(1).getFormattedMessage();
+        assertTrue(enter.startsWith("{\"event\":\"ENTER\",\"type\":\"SERVICE\",\"className\":\"" + CacheFacade.class.getName()));
+        assertTrue(enter.contains("\"args\":[\"combinedStock\",\"THYAO\",{\"name\":\"counting\"}]"), enter);
+        assertTrue(exit.contains("\"event\":\"EXIT\""), exit);
+        assertTrue(exit.contains("\"returnType\":\"Optional\""), exit);
+        assertEquals(1, extractor.reads);
+    }
+
+    @Test
+    void whenInfoDisabledForPackage_thenArgumentsNeverRendered() {
+        ((Logger) LoggerFactory.getLogger(LogAspect.class.getName() + ".com.infina.hissenet.service")).setLevel(Level.WARN);
+        traceLogger.setLevel(null);
+        CountingExtractor extractor = new CountingExtractor();
+        try {
+            advised().findByCode(CACHE, "THYAO", extractor);
+        } finally {
+            ((Logger) LoggerFactory.getLogger(LogAspect.class.getName() + ".com.infina.hissenet.service")).setLevel(null);
+        }
+
+        assertTrue(appender.list.isEmpty());
+        assertEquals(0, extractor.reads);
+    }
+
+    @Test
+    void whenNotSampled_thenOnlyExceptionsLogged() {
+        properties.setSampleRate(1.0);
+        properties.setSampleRates(Map.of("com.infina.hissenet.service", 0.5, "com.infina.hissenet.service.Cache", 0.0));
+        ICacheFacade facade = advised();
+        CountingExtractor extractor = new CountingExtractor();
+
+        facade.findByCode(CACHE, "THYAO", extractor);
+        assertThrows(RuntimeException.class, () -> facade.putIfNonEmpty("missing", List.of(stock("THYAO"))));
+
+        assertEquals(0, extractor.reads);
+        assertEquals(1, appender.list.size());
+        ILoggingEvent error = appender.list.get(0);
+        assertEquals(Level.ERROR, error.getLevel());
+        assertTrue(error.getFormattedMessage().contains("\"event\":\"EXCEPTION\""));
+        assertTrue(error.getFormattedMessage().contains("\"methodName\":\"putIfNonEmpty\""));
+    }
+
+    @Test
+    void whenPriceRefreshListenerCalled_thenSnapshotNotTraced() {
+        Logger storeLogger = (Logger) LoggerFactory.getLogger(LogAspect.class.getName() + "." + IntradayTickStore.class.getName());
+        ListAppender<ILoggingEvent> storeAppender = new ListAppender<>();
+        storeLogger.setLevel(Level.INFO);
+        storeLogger.addAppender(storeAppender);
+        storeAppender.start();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new IntradayTickStore(new StockProperties()));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LogAspect(properties));
+        IntradayTickStore store = factory.getProxy();
+        try {
+            store.onPricesRefreshed(new StockPricesRefreshedEvent(this, List.of(stock("THYAO"))));
+            assertTrue(storeAppender.list.isEmpty());
+
+            store.ingest(List.of(stock("THYAO")), 0L);
+            assertEquals(2, storeAppender.list.size());
+        } finally {
+            storeLogger.detachAppender(storeAppender);
+            storeLogger.setLevel(null);
+        }
+    }
+
+    @Test
+    void whenRequestRecordRendered_thenSensitiveComponentsMaskedWithoutCopy() {
+        StringBuilder out = new StringBuilder();
+
+        TraceValues.appendArgument(out, new LoginRequest("a@b.com", "secret \"quoted\""));
+
+        assertEquals("{\"email\":\"a@b.com\",\"password\":\"****\"}", out.toString());
+    }
+
+    @Test
+    void whenSummarized_thenEntitiesShowInheritedIdAndCollectionsTheirSize() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(7L);
+        StringBuilder out = new StringBuilder();
+
+        TraceValues.appendSummary(out, portfolio);
+        out.append('|');
+        TraceValues.appendSummary(out, List.of(1, 2, 3));
+        out.append('|');
+        TraceValues.appendArgument(out, Double.NaN);
+
+        assertEquals("\"Portfolio[id=7]\"|\"ListN[size=3]\"|\"NaN\"", out.toString());
+    }
+}
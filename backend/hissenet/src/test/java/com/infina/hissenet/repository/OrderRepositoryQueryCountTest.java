@@ -0,0 +1,117 @@
+package com.infina.hissenet.repository;
+
+import com.infina.hissenet.dto.response.OrderResponse;
+import com.infina.hissenet.entity.Employee;
+import com.infina.hissenet.entity.IndividualCustomer;
+import com.infina.hissenet.entity.Order;
+import com.infina.hissenet.entity.enums.OrderCategory;
+import com.infina.hissenet.entity.enums.OrderStatus;
+import com.infina.hissenet.entity.enums.OrderType;
+import com.infina.hissenet.mapper.OrderMapper;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class OrderRepositoryQueryCountTest {
+
+    private static final int ORDERS = 5;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private OrderRepository orderRepository;
+
+    private Employee employee;
+    private IndividualCustomer customer;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        employee = new Employee();
+        employee.setFirstName("Jane");
+        employee.setLastName("Doe");
+        employee.setEmail("jane.doe@hissenet.local");
+        employee.setPassword("secret");
+        employee.setHireDate(LocalDate.of(2024, 1, 1));
+        entityManager.persist(employee);
+
+        customer = new IndividualCustomer();
+        customer.setCustomerNumber("CUST0001");
+        customer.setEmail("customer@hissenet.local");
+        customer.setFirstName("Ali");
+        customer.setLastName("Veli");
+        customer.setTcNumber("10000000001");
+        customer.setCreatedBy(employee);
+        customer.setUpdatedBy(employee);
+        entityManager.persist(customer);
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setCategory(OrderCategory.LIMIT);
+            order.setType(OrderType.BUY);
+            order.setStatus(OrderStatus.OPEN);
+            order.setStockCode("THYAO");
+            order.setQuantity(new BigDecimal("10"));
+            order.setPrice(new BigDecimal("300.25"));
+            order.setTotalAmount(new BigDecimal("3002.50"));
+            order.setCreatedBy(employee);
+            order.setUpdatedBy(employee);
+            orderIds.add(entityManager.persist(order).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByIdInWithCustomer_doesNotLoadAuditEmployees() {
+        List<Order> orders = orderRepository.findByIdInWithCustomer(orderIds);
+
+        assertEquals(ORDERS, orders.size());
+        for (Order order : orders) {
+            assertFalse(Hibernate.isInitialized(order.getCreatedBy()));
+            assertFalse(Hibernate.isInitialized(order.getUpdatedBy()));
+            assertFalse(Hibernate.isInitialized(order.getCustomer().getCreatedBy()));
+            assertEquals(employee.getId(), order.getCreatedById());
+            assertEquals(employee.getId(), order.getUpdatedById());
+        }
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void listMapping_exposesAuditIdsWithoutExtraQueries() {
+        List<OrderResponse> responses = orderRepository.findByCustomerIdOrderByCreatedAtDesc(customer.getId()).stream()
+                .map(OrderMapper.INSTANCE::toResponse)
+                .toList();
+
+        assertEquals(ORDERS, responses.size());
+        for (OrderResponse response : responses) {
+            assertEquals(customer.getId(), response.customerId());
+            assertEquals(employee.getId(), response.createdById());
+            assertEquals(employee.getId(), response.updatedById());
+        }
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityStatistics(Employee.class.getName()).getLoadCount());
+    }
+}
@@ -0,0 +1,83 @@
+package com.infina.hissenet.scheduler;
+
+import com.infina.hissenet.entity.enums.MarketPhase;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.service.BorsaIstanbulCacheService;
+import com.infina.hissenet.service.CombinedCacheService;
+import com.infina.hissenet.service.MarketHourService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheRefreshSchedulerTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Mock private CombinedCacheService combined;
+    @Mock private BorsaIstanbulCacheService bist;
+    @Mock private SimpMessagingTemplate ws;
+    @Mock private MarketHourService marketHourService;
+
+    private CacheRefreshScheduler scheduler;
+
+    @BeforeEach
+    void init() {
+        StockProperties props = new StockProperties();
+        props.getScheduler().getRefresh().setRate(Duration.ofSeconds(3));
+        scheduler = new CacheRefreshScheduler(combined, bist, ws, props, marketHourService);
+    }
+
+    private void refreshedAt(MarketPhase phase, long nanos) {
+        assertTrue(scheduler.isDue(phase, nanos));
+        // refreshAll ile aynı durumu kurmak için evre ve zaman kaydedilir
+        when(marketHourService.getMarketPhase()).thenReturn(phase);
+        when(combined.refreshAsync()).thenReturn(Mono.empty());
+        when(bist.refreshAsync()).thenReturn(Mono.empty());
+        scheduler.refreshAll();
+    }
+
+    @Test
+    void whenInSession_thenDueOnEveryTick() {
+        refreshedAt(MarketPhase.SESSION, System.nanoTime());
+
+        long last = System.nanoTime();
+        assertFalse(scheduler.isDue(MarketPhase.SESSION, last + SECOND));
+        assertTrue(scheduler.isDue(MarketPhase.SESSION, last + 3 * SECOND - 5_000_000));
+    }
+
+    @Test
+    void whenPreOpen_thenOnlyAfterPhaseCadence() {
+        refreshedAt(MarketPhase.PRE_OPEN, System.nanoTime());
+
+        long last = System.nanoTime();
+        assertFalse(scheduler.isDue(MarketPhase.PRE_OPEN, last + 6 * SECOND));
+        assertTrue(scheduler.isDue(MarketPhase.PRE_OPEN, last + 31 * SECOND));
+    }
+
+    @Test
+    void whenWeekend_thenSingleRefreshUntilPhaseChanges() {
+        when(marketHourService.getMarketPhase()).thenReturn(MarketPhase.WEEKEND);
+        when(combined.refreshAsync()).thenReturn(Mono.empty());
+        when(bist.refreshAsync()).thenReturn(Mono.empty());
+        when(bist.getAll()).thenReturn(List.of());
+
+        scheduler.refreshAll();
+        scheduler.refreshAll();
+        scheduler.refreshAll();
+
+        verify(combined, times(1)).refreshAsync();
+        assertFalse(scheduler.isDue(MarketPhase.WEEKEND, System.nanoTime() + 3600 * SECOND));
+        assertTrue(scheduler.isDue(MarketPhase.CLOSED, System.nanoTime()));
+    }
+}
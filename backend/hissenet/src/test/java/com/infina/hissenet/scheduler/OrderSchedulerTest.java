@@ -4,20 +4,32 @@ import com.infina.hissenet.entity.Customer;
 import com.infina.hissenet.entity.Order;
 import com.infina.hissenet.entity.enums.OrderStatus;
 import com.infina.hissenet.entity.enums.OrderType;
+import com.infina.hissenet.properties.OrderSchedulerProperties;
 import com.infina.hissenet.repository.OrderRepository;
 import com.infina.hissenet.service.MarketHourService;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
+import com.infina.hissenet.service.abstracts.IOrderBookService;
 import com.infina.hissenet.service.abstracts.IStockTransactionService;
 import com.infina.hissenet.service.abstracts.IWalletService;
+import com.infina.hissenet.utils.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +41,10 @@ class OrderSchedulerTest {
     @Mock(answer = Answers.RETURNS_DEEP_STUBS) private ICacheManagerService stockCacheService;
     @Mock private IStockTransactionService stockTransactionService;
     @Mock private MarketHourService marketHourService;
+    @Mock private IOrderBookService orderBook;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private OrderSchedulerProperties properties = new OrderSchedulerProperties();
+    @Mock private PlatformTransactionManager transactionManager;
 
     @InjectMocks private OrderScheduler scheduler;
 
@@ -38,6 +54,7 @@ class OrderSchedulerTest {
         Customer c = new Customer();
         c.setId(customerId);
         Order o = new Order();
+        o.setId(customerId * 100);
         o.setCustomer(c);
         o.setStockCode(stock);
         o.setType(type);
@@ -47,10 +64,21 @@ class OrderSchedulerTest {
         return o;
     }
 
+    // Dolum transaction'ında kilitle okunan satır; testlerde eşleşen emrin kendisi döner
+    private void lockable(Order... orders) {
+        Map<Long, Order> byId = new ConcurrentHashMap<>();
+        for (Order o : orders) {
+            byId.put(o.getId(), o);
+        }
+        when(orderRepository.findForUpdate(anyLong())).thenAnswer(inv -> Optional.ofNullable(byId.get(inv.<Long>getArgument(0))));
+    }
+
     @Test
     void whenMarketPriceLeqLimit_andBuyOrderOpen_thenWalletPurchaseAndFilled() {
         Order buy = newOpenOrder(10L, "ARCLK", OrderType.BUY, new BigDecimal("30"), new BigDecimal("2"));
-        when(orderRepository.findByStatus(OrderStatus.OPEN)).thenReturn(List.of(buy));
+        when(orderBook.drainTriggered()).thenReturn(List.of(buy.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(buy));
+        lockable(buy);
         when(stockCacheService.getCachedByCode("ARCLK").lastPrice()).thenReturn(new BigDecimal("25"));
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -67,7 +95,9 @@ class OrderSchedulerTest {
     @Test
     void whenMarketPriceGeqLimit_andSellOrderOpen_thenWalletSaleAndFilled() {
         Order sell = newOpenOrder(20L, "VESBE", OrderType.SELL, new BigDecimal("20"), new BigDecimal("3"));
-        when(orderRepository.findByStatus(OrderStatus.OPEN)).thenReturn(List.of(sell));
+        when(orderBook.drainTriggered()).thenReturn(List.of(sell.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(sell));
+        lockable(sell);
         when(stockCacheService.getCachedByCode("VESBE").lastPrice()).thenReturn(new BigDecimal("25"));
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -84,7 +114,8 @@ class OrderSchedulerTest {
     @Test
     void whenPriceNotMet_thenKeepOpen_andNoWalletOrTransaction() {
         Order buy = newOpenOrder(30L, "THYAO", OrderType.BUY, new BigDecimal("20"), new BigDecimal("5"));
-        when(orderRepository.findByStatus(OrderStatus.OPEN)).thenReturn(List.of(buy));
+        when(orderBook.drainTriggered()).thenReturn(List.of(buy.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(buy));
         when(stockCacheService.getCachedByCode("THYAO").lastPrice()).thenReturn(new BigDecimal("25"));
 
         scheduler.processPendingLimitOrders();
@@ -92,13 +123,15 @@ class OrderSchedulerTest {
         verifyNoInteractions(walletService);
         verify(orderRepository, never()).save(any());
         verify(stockTransactionService, never()).createTransactionFromOrder(any());
+        verify(orderBook, never()).untrack(any());
         assertEquals(OrderStatus.OPEN, buy.getStatus());
     }
 
     @Test
     void whenMarketPriceIsNull_thenSkipNoChanges() {
         Order buy = newOpenOrder(40L, "ASELS", OrderType.BUY, new BigDecimal("50"), new BigDecimal("1"));
-        when(orderRepository.findByStatus(OrderStatus.OPEN)).thenReturn(List.of(buy));
+        when(orderBook.drainTriggered()).thenReturn(List.of(buy.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(buy));
         when(stockCacheService.getCachedByCode("ASELS").lastPrice()).thenReturn(null);
 
         scheduler.processPendingLimitOrders();
@@ -112,7 +145,9 @@ class OrderSchedulerTest {
     @Test
     void whenWalletThrows_thenStatusFailed_andSaved_andTransactionCreated() {
         Order buy = newOpenOrder(50L, "KRDMD", OrderType.BUY, new BigDecimal("10"), new BigDecimal("2"));
-        when(orderRepository.findByStatus(OrderStatus.OPEN)).thenReturn(List.of(buy));
+        when(orderBook.drainTriggered()).thenReturn(List.of(buy.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(buy));
+        lockable(buy);
         when(stockCacheService.getCachedByCode("KRDMD").lastPrice()).thenReturn(new BigDecimal("10"));
 
         doThrow(new RuntimeException("wallet err"))
@@ -135,7 +170,9 @@ class OrderSchedulerTest {
         Order sellFill  = newOpenOrder(90L, "BIMAS", OrderType.SELL, new BigDecimal("30"), new BigDecimal("4"));
         Order priceNull = newOpenOrder(91L, "XNULL", OrderType.BUY,  new BigDecimal("10"), new BigDecimal("1"));
 
-        when(orderRepository.findByStatus(OrderStatus.OPEN)).thenReturn(List.of(buyFill, sellKeep, sellFill, priceNull));
+        when(orderBook.drainTriggered()).thenReturn(List.of(buyFill.getId(), sellKeep.getId(), sellFill.getId(), priceNull.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(buyFill, sellKeep, sellFill, priceNull));
+        lockable(buyFill, sellFill);
 
         when(stockCacheService.getCachedByCode("TUPRS").lastPrice()).thenReturn(new BigDecimal("20"));
         when(stockCacheService.getCachedByCode("SISE").lastPrice()).thenReturn(new BigDecimal("35"));
@@ -157,5 +194,153 @@ class OrderSchedulerTest {
 
         assertEquals(OrderStatus.OPEN, sellKeep.getStatus());
         assertEquals(OrderStatus.OPEN, priceNull.getStatus());
+
+        assertEquals(4.0, meterRegistry.get(MetricsUtils.ORDER_SCHEDULER_TRIGGERED).summary().totalAmount());
+        assertEquals(2.0, meterRegistry.get(MetricsUtils.ORDER_SCHEDULER_FILLS).summary().totalAmount());
+    }
+
+    @Test
+    void whenNothingTriggered_thenNoDatabaseAccess() {
+        when(orderBook.drainTriggered()).thenReturn(List.of());
+
+        scheduler.processPendingLimitOrders();
+
+        verifyNoInteractions(orderRepository, walletService, stockTransactionService);
+    }
+
+    @Test
+    void whenPricesRestoredFromDisk_thenTriggeredOrdersWait() {
+        when(stockCacheService.isStale()).thenReturn(true);
+
+        scheduler.processPendingLimitOrders();
+
+        verify(orderBook, never()).drainTriggered();
+        verifyNoInteractions(orderRepository, walletService, stockTransactionService);
+    }
+
+    @Test
+    void whenFilled_thenOrderRemovedFromBook() {
+        Order buy = newOpenOrder(60L, "EREGL", OrderType.BUY, new BigDecimal("30"), new BigDecimal("1"));
+        when(orderBook.drainTriggered()).thenReturn(List.of(buy.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(buy));
+        lockable(buy);
+        when(stockCacheService.getCachedByCode("EREGL").lastPrice()).thenReturn(new BigDecimal("29"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        scheduler.processPendingLimitOrders();
+
+        verify(orderBook).untrack(buy.getId());
+    }
+
+    @Test
+    void whenTriggeredOrderNoLongerOpenOrMissing_thenUntrackedWithoutFill() {
+        Order canceled = newOpenOrder(61L, "SASA", OrderType.SELL, new BigDecimal("10"), new BigDecimal("1"));
+        canceled.setStatus(OrderStatus.CANCELED);
+        when(orderBook.drainTriggered()).thenReturn(List.of(canceled.getId(), 999L));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(canceled));
+
+        scheduler.processPendingLimitOrders();
+
+        verify(orderBook).untrack(canceled.getId());
+        verify(orderBook).untrack(999L);
+        verifyNoInteractions(walletService, stockTransactionService);
+    }
+
+    @Test
+    void whenOrderCanceledBetweenMatchAndFill_thenNotChargedOrOverwritten() {
+        Order matched = newOpenOrder(62L, "PETKM", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        Order locked = newOpenOrder(62L, "PETKM", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        locked.setStatus(OrderStatus.CANCELED);
+        when(orderBook.drainTriggered()).thenReturn(List.of(matched.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(matched));
+        lockable(locked);
+        when(stockCacheService.getCachedByCode("PETKM").lastPrice()).thenReturn(new BigDecimal("9"));
+
+        scheduler.processPendingLimitOrders();
+
+        verifyNoInteractions(walletService, stockTransactionService);
+        verify(orderRepository, never()).save(any());
+        verify(orderBook).untrack(matched.getId());
+        assertEquals(OrderStatus.CANCELED, locked.getStatus());
+        assertEquals(0.0, meterRegistry.get(MetricsUtils.ORDER_SCHEDULER_FILLS).summary().totalAmount());
+    }
+
+    @Test
+    void whenRepositoryReturnsOtherOrder_thenCustomerFillsFollowDrainOrder() {
+        Order best = newOpenOrder(300L, "KCHOL", OrderType.BUY, new BigDecimal("12"), new BigDecimal("1"));
+        Order next = newOpenOrder(300L, "KCHOL", OrderType.BUY, new BigDecimal("11"), new BigDecimal("1"));
+        next.setId(best.getId() + 1);
+        when(orderBook.drainTriggered()).thenReturn(List.of(best.getId(), next.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(next, best));
+        lockable(best, next);
+        when(stockCacheService.getCachedByCode("KCHOL").lastPrice()).thenReturn(new BigDecimal("10"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        scheduler.processPendingLimitOrders();
+
+        InOrder inOrder = inOrder(walletService);
+        inOrder.verify(walletService).processStockPurchase(eq(300L), argThat(bd -> bd.compareTo(new BigDecimal("12")) == 0), any());
+        inOrder.verify(walletService).processStockPurchase(eq(300L), argThat(bd -> bd.compareTo(new BigDecimal("11")) == 0), any());
+    }
+
+    @Test
+    void whenOneCustomersFillFails_thenOnlyThatOrderRollsBack() {
+        Order failing = newOpenOrder(100L, "GARAN", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        Order healthy = newOpenOrder(101L, "GARAN", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        when(orderBook.drainTriggered()).thenReturn(List.of(failing.getId(), healthy.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(failing, healthy));
+        lockable(failing, healthy);
+        when(stockCacheService.getCachedByCode("GARAN").lastPrice()).thenReturn(new BigDecimal("9"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        // Müşteriler paralel çalışır; tek cevap iki çağrıyı da karşılar, çağrı sırası önemsizleşir
+        when(walletService.processStockPurchase(anyLong(), any(), any())).thenAnswer(inv -> {
+            if (inv.<Long>getArgument(0) == 100L) {
+                throw new RuntimeException("wallet err");
+            }
+            return null;
+        });
+
+        scheduler.processPendingLimitOrders();
+
+        assertEquals(OrderStatus.FAILED, failing.getStatus());
+        assertEquals(OrderStatus.FILLED, healthy.getStatus());
+        // Başarısız dolum geri alınır, FAILED kaydı ve sağlıklı dolum ayrı ayrı commit edilir
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(1.0, meterRegistry.get(MetricsUtils.ORDER_SCHEDULER_FILLS).summary().totalAmount());
+    }
+
+    @Test
+    void fillsRunOnVirtualThreads_serialPerCustomer() {
+        Order a1 = newOpenOrder(200L, "AKBNK", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        Order a2 = newOpenOrder(200L, "AKBNK", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        a2.setId(a1.getId() + 1);
+        Order b1 = newOpenOrder(201L, "AKBNK", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        Order b2 = newOpenOrder(201L, "AKBNK", OrderType.BUY, new BigDecimal("10"), new BigDecimal("1"));
+        b2.setId(b1.getId() + 1);
+        when(orderBook.drainTriggered()).thenReturn(List.of(a1.getId(), b1.getId(), a2.getId(), b2.getId()));
+        when(orderRepository.findByIdInWithCustomer(anyList())).thenReturn(List.of(a1, b1, a2, b2));
+        lockable(a1, b1, a2, b2);
+        when(stockCacheService.getCachedByCode("AKBNK").lastPrice()).thenReturn(new BigDecimal("9"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Map<Long, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        AtomicInteger maxPerCustomer = new AtomicInteger();
+        AtomicBoolean allVirtual = new AtomicBoolean(true);
+        when(walletService.processStockPurchase(anyLong(), any(), any())).thenAnswer(inv -> {
+            AtomicInteger counter = inFlight.computeIfAbsent(inv.getArgument(0), id -> new AtomicInteger());
+            maxPerCustomer.accumulateAndGet(counter.incrementAndGet(), Math::max);
+            allVirtual.compareAndSet(true, Thread.currentThread().isVirtual());
+            Thread.sleep(20);
+            counter.decrementAndGet();
+            return null;
+        });
+
+        scheduler.processPendingLimitOrders();
+
+        verify(walletService, times(4)).processStockPurchase(anyLong(), any(), any());
+        assertEquals(1, maxPerCustomer.get());
+        assertTrue(allVirtual.get());
+        assertEquals(4.0, meterRegistry.get(MetricsUtils.ORDER_SCHEDULER_FILLS).summary().totalAmount());
     }
-}
\ No newline at end of file
+}
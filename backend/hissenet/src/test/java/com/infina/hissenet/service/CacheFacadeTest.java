@@ -0,0 +1,98 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheFacadeTest {
+
+    private static final String CACHE = "combinedStock";
+
+    private CacheFacade facade;
+
+    @BeforeEach
+    void setUp() {
+        facade = new CacheFacade(new ConcurrentMapCacheManager(CACHE));
+    }
+
+    private static CombinedStockData stock(String code, String last) {
+        return new CombinedStockData(code, null, null, null, null, null, new BigDecimal(last),
+                null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void whenIndexedSnapshotStored_thenFindByCodeIsCaseAndWhitespaceInsensitive() {
+        facade.putIfNonEmpty(CACHE, List.of(stock("THYAO", "300"), stock(" asels ", "50")), CombinedStockData::code);
+
+        Optional<CombinedStockData> thy = facade.findByCode(CACHE, " thyao", CombinedStockData::code);
+        Optional<CombinedStockData> asl = facade.findByCode(CACHE, "ASELS", CombinedStockData::code);
+
+        assertEquals(new BigDecimal("300"), thy.orElseThrow().lastPrice());
+        assertEquals(new BigDecimal("50"), asl.orElseThrow().lastPrice());
+        assertTrue(facade.findByCode(CACHE, "SISE", CombinedStockData::code).isEmpty());
+    }
+
+    @Test
+    void whenDuplicateCodes_thenFirstEntryWins() {
+        facade.putIfNonEmpty(CACHE, List.of(stock("SISE", "40"), stock("sise", "41")), CombinedStockData::code);
+
+        assertEquals(new BigDecimal("40"),
+                facade.<CombinedStockData>findByCode(CACHE, "SISE", CombinedStockData::code).orElseThrow().lastPrice());
+    }
+
+    @Test
+    void whenSnapshotStoredWithoutExtractor_thenFindByCodeFallsBackToScan() {
+        facade.putIfNonEmpty(CACHE, List.of(stock("KRDMD", "20")));
+
+        assertTrue(facade.findByCode(CACHE, "krdmd", CombinedStockData::code).isPresent());
+    }
+
+    @Test
+    void whenSnapshotStored_thenSizeAndStoreTimeReported() {
+        assertEquals(0, facade.snapshotSize(CACHE));
+        assertTrue(facade.snapshotStoredAt(CACHE).isEmpty());
+
+        Instant before = Instant.now();
+        facade.putIfNonEmpty(CACHE, Arrays.asList(stock("THYAO", "300"), null, stock("SISE", "40")), CombinedStockData::code);
+
+        assertEquals(2, facade.snapshotSize(CACHE));
+        assertFalse(facade.snapshotStoredAt(CACHE).orElseThrow().isBefore(before));
+    }
+
+    @Test
+    void whenFindByCodes_thenOnlyCachedCodesReturnedKeyedByNormalizedCode() {
+        facade.putIfNonEmpty(CACHE, List.of(stock("THYAO", "300"), stock("ASELS", "50")), CombinedStockData::code);
+
+        Map<String, CombinedStockData> found = facade.findByCodes(CACHE,
+                Arrays.asList("thyao", "ASELS", "XXXX", null, " "), CombinedStockData::code);
+
+        assertEquals(2, found.size());
+        assertEquals(new BigDecimal("300"), found.get("THYAO").lastPrice());
+        assertEquals(new BigDecimal("50"), found.get("ASELS").lastPrice());
+    }
+
+    @Test
+    void whenEmptyListPut_thenPreviousSnapshotKept() {
+        facade.putIfNonEmpty(CACHE, List.of(stock("THYAO", "300")), CombinedStockData::code);
+        facade.putIfNonEmpty(CACHE, List.of(), CombinedStockData::code);
+
+        assertEquals(1, facade.getSnapshot(CACHE).size());
+    }
+
+    @Test
+    void whenCacheEmpty_thenLookupsReturnEmpty() {
+        assertTrue(facade.getSnapshot(CACHE).isEmpty());
+        assertTrue(facade.findByCode(CACHE, "THYAO", CombinedStockData::code).isEmpty());
+        assertTrue(facade.findByCodes(CACHE, List.of("THYAO"), CombinedStockData::code).isEmpty());
+    }
+}
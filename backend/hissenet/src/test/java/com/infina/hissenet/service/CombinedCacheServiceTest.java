@@ -0,0 +1,65 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.service.abstracts.ICacheFacade;
+import com.infina.hissenet.service.abstracts.ICacheRefreshService;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CombinedCacheServiceTest {
+
+    @Mock private ICacheFacade cache;
+    @Mock private ICacheRefreshService<CombinedStockData> refresher;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private IPriceSnapshotStore snapshotStore;
+
+    @InjectMocks private CombinedCacheService service;
+
+    private CombinedStockData stock(String code, String last) {
+        return new CombinedStockData(code, null, null, null, null, null, new BigDecimal(last),
+                null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void whenSnapshotOnDisk_thenRestoredAsStaleUntilRefreshSucceeds() {
+        List<CombinedStockData> onDisk = List.of(stock("THYAO", "300"));
+        List<CombinedStockData> fresh = List.of(stock("THYAO", "305"));
+        when(snapshotStore.load(CombinedCacheService.CACHE_NAME, CombinedStockData.class)).thenReturn(onDisk);
+        when(refresher.buildSnapshot()).thenReturn(Mono.just(fresh));
+
+        assertTrue(service.restoreLastKnown());
+        assertTrue(service.isStale());
+        verify(cache).putIfNonEmpty(eq(CombinedCacheService.CACHE_NAME), eq(onDisk), any());
+        verify(eventPublisher).publishEvent(any(StockPricesRefreshedEvent.class));
+
+        service.refreshAsync().block();
+
+        assertFalse(service.isStale());
+        verify(snapshotStore).save(CombinedCacheService.CACHE_NAME, fresh);
+    }
+
+    @Test
+    void whenNoSnapshotOnDisk_thenNothingRestored() {
+        when(snapshotStore.load(CombinedCacheService.CACHE_NAME, CombinedStockData.class)).thenReturn(List.of());
+
+        assertFalse(service.restoreLastKnown());
+        assertFalse(service.isStale());
+        verifyNoInteractions(cache, eventPublisher);
+    }
+}
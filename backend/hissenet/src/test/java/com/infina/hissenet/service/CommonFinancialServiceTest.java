@@ -3,6 +3,7 @@ package com.infina.hissenet.service;
 import com.infina.hissenet.dto.response.StockTransactionResponse;
 import com.infina.hissenet.entity.Customer;
 import com.infina.hissenet.entity.Portfolio;
+import com.infina.hissenet.entity.StockPosition;
 import com.infina.hissenet.entity.StockTransaction;
 import com.infina.hissenet.entity.enums.MarketOrderType;
 import com.infina.hissenet.entity.enums.StockTransactionType;
@@ -10,6 +11,7 @@ import com.infina.hissenet.entity.enums.TransactionStatus;
 import com.infina.hissenet.exception.customer.CustomerNotFoundException;
 import com.infina.hissenet.mapper.StockTransactionMapper;
 import com.infina.hissenet.repository.StockTransactionRepository;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,10 +26,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +47,9 @@ class CommonFinancialServiceTest {
     @Mock
     private CustomerService customerService;
 
+    @Mock
+    private IPositionLedgerService positionLedger;
+
     @InjectMocks
     private CommonFinancialService commonFinancialService;
 
@@ -85,13 +92,12 @@ class CommonFinancialServiceTest {
 
 
     @Test
-    @DisplayName("getAllBuyTransactions - Should return empty list when no BUY transactions")
+    @DisplayName("getAllBuyTransactions - Should return empty list when no open positions")
     void getAllBuyTransactions_ShouldReturnEmptyList_WhenNoBuyTransactions() {
         // Arrange
         Long portfolioId = 1L;
-        List<StockTransaction> transactions = Arrays.asList(sellTransaction);
-        
-        when(stockTransactionRepository.findByPortfolioId(portfolioId)).thenReturn(transactions);
+
+        when(positionLedger.getOpenPositions(portfolioId)).thenReturn(Collections.emptyList());
 
         // Act
         List<StockTransactionResponse> result = commonFinancialService.getAllBuyTransactions(portfolioId);
@@ -99,12 +105,42 @@ class CommonFinancialServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(stockTransactionRepository).findByPortfolioId(portfolioId);
-        verify(stockTransactionMapper, never()).toResponse(any(StockTransaction.class));
+        verify(positionLedger).getOpenPositions(portfolioId);
+        verifyNoInteractions(stockTransactionRepository);
     }
 
+    @Test
+    @DisplayName("getAllBuyTransactions - Should merge settled BUY transactions of open positions with ledger quantity")
+    void getAllBuyTransactions_ShouldMergeBuysOfOpenPositions() {
+        // Arrange
+        StockPosition position = new StockPosition(testCustomer, testPortfolio, "THYAO");
+        position.addPendingBuy(150);
+        position.settleBuy(150, new BigDecimal("51.67"), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        position.addPendingSell(30);
+        position.settleSell(30);
+
+        when(positionLedger.getOpenPositions(1L)).thenReturn(List.of(position));
+        when(stockTransactionRepository.findByPortfolioIdAndStockCodeInAndTypeAndStatus(
+                eq(1L), eq(Set.of("THYAO")), eq(StockTransactionType.BUY), eq(TransactionStatus.SETTLED)))
+                .thenReturn(List.of(buyTransaction1, buyTransaction2));
+        when(stockTransactionMapper.toResponse(buyTransaction1)).thenReturn(mockResponse);
 
-
+        // Act
+        List<StockTransactionResponse> result = commonFinancialService.getAllBuyTransactions(1L);
+
+        // Assert - kimlik, emir ve tarih alanları ilk BUY işleminden, adet defterden gelir
+        assertEquals(1, result.size());
+        StockTransactionResponse response = result.get(0);
+        assertEquals(mockResponse.id(), response.id());
+        assertEquals(mockResponse.orderId(), response.orderId());
+        assertEquals(mockResponse.marketOrderType(), response.marketOrderType());
+        assertEquals(mockResponse.transactionDate(), response.transactionDate());
+        assertEquals(mockResponse.notes(), response.notes());
+        assertEquals(120, response.quantity());
+        assertEquals(0, new BigDecimal("7750.00").compareTo(response.totalAmount()));
+        verify(positionLedger, never()).getSettledQuantity(anyLong(), any());
+        verifyNoInteractions(customerService);
+    }
 
     @Test
     @DisplayName("mergeTransactions - Should throw exception when transactions list is null")
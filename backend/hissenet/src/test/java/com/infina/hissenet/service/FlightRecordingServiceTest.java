@@ -0,0 +1,100 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.FlightRecordingResponse;
+import com.infina.hissenet.exception.jfr.InvalidRecordingSettingsException;
+import com.infina.hissenet.exception.jfr.RecordingAlreadyRunningException;
+import com.infina.hissenet.exception.jfr.RecordingNotFoundException;
+import com.infina.hissenet.exception.jfr.RecordingNotRunningException;
+import com.infina.hissenet.jfr.PriceRefreshEvent;
+import com.infina.hissenet.properties.FlightRecordingProperties;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingServiceTest {
+
+    @TempDir
+    Path dumpDir;
+
+    private FlightRecordingService service;
+
+    @BeforeEach
+    void setUp() {
+        FlightRecordingProperties props = new FlightRecordingProperties();
+        props.setDumpDir(dumpDir.toString());
+        props.setMaxDuration(Duration.ofMinutes(5));
+        service = new FlightRecordingService(props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void whenNothingStarted_thenStatusAndDownloadNotFound_andStopRejected() {
+        assertThrows(RecordingNotFoundException.class, service::status);
+        assertThrows(RecordingNotFoundException.class, service::dump);
+        assertThrows(RecordingNotRunningException.class, service::stop);
+    }
+
+    @Test
+    void whenUnknownSettings_thenRejected() {
+        assertThrows(InvalidRecordingSettingsException.class, () -> service.start("everything", null));
+    }
+
+    @Test
+    void whenDurationMissingOrTooLong_thenCappedAtConfiguredMaximum() {
+        FlightRecordingResponse started = service.start("default", Duration.ofHours(2));
+
+        assertEquals("RUNNING", started.state());
+        assertEquals(Duration.ofMinutes(5), started.duration());
+        assertThrows(RecordingAlreadyRunningException.class, () -> service.start("default", null));
+    }
+
+    @Test
+    void whenStopped_thenApplicationEventsAreInDownloadedFile() throws Exception {
+        service.start("default", Duration.ofMinutes(1));
+        PriceRefreshEvent event = new PriceRefreshEvent();
+        event.begin();
+        event.setSymbols(42);
+        event.setOutcome("ok");
+        event.commit();
+
+        FlightRecordingResponse stopped = service.stop();
+        Path file = service.dump();
+
+        assertNotEquals("RUNNING", stopped.state());
+        assertTrue(Files.size(file) > 0);
+        List<RecordedEvent> refreshes = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.infina.hissenet.PriceRefresh"))
+                .toList();
+        assertEquals(1, refreshes.size());
+        assertEquals(42, refreshes.get(0).getInt("symbols"));
+        assertEquals("ok", refreshes.get(0).getString("outcome"));
+    }
+
+    @Test
+    void whenRestarted_thenPreviousFileDiscarded() throws Exception {
+        service.start("default", null);
+        service.stop();
+        Path first = service.dump();
+
+        service.start("default", null);
+
+        assertFalse(Files.exists(first));
+        Path snapshot = service.dump();
+        assertTrue(Files.size(snapshot) > 0);
+        assertEquals("RUNNING", service.status().state());
+    }
+}
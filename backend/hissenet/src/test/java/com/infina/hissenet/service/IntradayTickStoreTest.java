@@ -0,0 +1,125 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CandleResponse;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.entity.enums.CandleInterval;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.properties.StockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntradayTickStoreTest {
+
+    private static final long T0 = 1_755_165_600_000L; // 2025-08-14 10:00:00Z, dakika başı
+    private static final long SECOND = 1000L;
+    private static final long MINUTE = 60 * SECOND;
+
+    private StockProperties props;
+    private IntradayTickStore store;
+
+    @BeforeEach
+    void init() {
+        props = new StockProperties();
+        store = new IntradayTickStore(props);
+    }
+
+    private void tick(long time, String price, String cumulativeVolume) {
+        store.ingest(List.of(new CombinedStockData("thyao", null, null, null, null, null, new BigDecimal(price),
+                new BigDecimal(cumulativeVolume), null, null, null, null, null, null)), time);
+    }
+
+    private static void assertPrice(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> expected + " != " + actual);
+    }
+
+    @Test
+    void whenTicksWithinOneMinute_thenSingleOhlcvCandle() {
+        tick(T0, "300.00", "1000");
+        tick(T0 + 3 * SECOND, "302.50", "1500");
+        tick(T0 + 6 * SECOND, "299.25", "1600");
+        tick(T0 + 9 * SECOND, "301.00", "2000");
+
+        List<CandleResponse> candles = store.getCandles("THYAO", CandleInterval.ONE_MINUTE, 10);
+
+        assertEquals(1, candles.size());
+        CandleResponse c = candles.get(0);
+        assertEquals(T0, c.time());
+        assertPrice("300.00", c.open());
+        assertPrice("302.50", c.high());
+        assertPrice("299.25", c.low());
+        assertPrice("301.00", c.close());
+        assertPrice("1000", c.volume());
+    }
+
+    @Test
+    void whenTicksSpanMinutes_thenCandlesRollUpPerInterval() {
+        for (int m = 0; m < 7; m++) {
+            tick(T0 + m * MINUTE, String.valueOf(300 + m), String.valueOf(1000 + 100 * m));
+        }
+
+        List<CandleResponse> minutes = store.getCandles("THYAO", CandleInterval.ONE_MINUTE, 100);
+        List<CandleResponse> fives = store.getCandles("THYAO", CandleInterval.FIVE_MINUTES, 100);
+        List<CandleResponse> hours = store.getCandles("THYAO", CandleInterval.ONE_HOUR, 100);
+
+        assertEquals(7, minutes.size());
+        assertEquals(2, fives.size());
+        assertPrice("300", fives.get(0).open());
+        assertPrice("304", fives.get(0).close());
+        assertPrice("305", fives.get(1).open());
+        assertPrice("400", fives.get(0).volume());
+        assertEquals(1, hours.size());
+        assertPrice("306", hours.get(0).high());
+    }
+
+    @Test
+    void whenRingFull_thenOldestDroppedAndOrderKept() {
+        props.getCandles().setTickCapacity(3);
+        props.getCandles().setOneMinuteCapacity(2);
+        store = new IntradayTickStore(props);
+        for (int m = 0; m < 5; m++) {
+            tick(T0 + m * MINUTE, String.valueOf(300 + m), "1000");
+        }
+
+        List<CandleResponse> ticks = store.getTicks("THYAO", 10);
+        List<CandleResponse> minutes = store.getCandles("THYAO", CandleInterval.ONE_MINUTE, 10);
+
+        assertEquals(List.of(T0 + 2 * MINUTE, T0 + 3 * MINUTE, T0 + 4 * MINUTE),
+                ticks.stream().map(CandleResponse::time).toList());
+        assertEquals(2, minutes.size());
+        assertPrice("304", minutes.get(1).close());
+    }
+
+    @Test
+    void whenUnchangedSnapshotOrNewDayVolume_thenHandled() {
+        tick(T0, "300", "5000");
+        tick(T0 + 3 * SECOND, "300", "5000");
+        assertEquals(1, store.getTicks("THYAO", 10).size());
+
+        // Kümülatif hacim sıfırlandı: yeni günün ilk hacmi olduğu gibi alınır
+        tick(T0 + 3 * SECOND, "301", "200");
+        assertPrice("200", store.getTicks("THYAO", 10).get(1).volume());
+    }
+
+    @Test
+    void whenUnknownSymbol_thenEmpty() {
+        assertTrue(store.getCandles("SISE", CandleInterval.ONE_MINUTE, 10).isEmpty());
+        assertTrue(store.getTicks(null, 10).isEmpty());
+    }
+
+    @Test
+    void whenRestoredSnapshotPublished_thenNoTickStored() {
+        List<CombinedStockData> snapshot = List.of(new CombinedStockData("THYAO", null, null, null, null, null,
+                new BigDecimal("300"), new BigDecimal("1000"), null, null, null, null, null, null));
+
+        store.onPricesRefreshed(new StockPricesRefreshedEvent(this, snapshot, true));
+        assertTrue(store.getCandles("THYAO", CandleInterval.ONE_MINUTE, 10).isEmpty());
+
+        store.onPricesRefreshed(new StockPricesRefreshedEvent(this, snapshot));
+        assertEquals(1, store.getCandles("THYAO", CandleInterval.ONE_MINUTE, 10).size());
+    }
+}
@@ -0,0 +1,160 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.entity.Order;
+import com.infina.hissenet.entity.enums.OrderCategory;
+import com.infina.hissenet.entity.enums.OrderStatus;
+import com.infina.hissenet.entity.enums.OrderType;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBookServiceTest {
+
+    @Mock private OrderRepository orderRepository;
+
+    @InjectMocks private OrderBookService orderBook;
+
+    private static Order limitOrder(Long id, String stock, OrderType type, String price) {
+        Order o = new Order();
+        o.setId(id);
+        o.setStockCode(stock);
+        o.setType(type);
+        o.setCategory(OrderCategory.LIMIT);
+        o.setStatus(OrderStatus.OPEN);
+        o.setPrice(new BigDecimal(price));
+        o.setQuantity(BigDecimal.ONE);
+        return o;
+    }
+
+    private static StockPricesRefreshedEvent prices(String code, String lastPrice) {
+        CombinedStockData data = new CombinedStockData(code, null, null, null, null, null,
+                lastPrice != null ? new BigDecimal(lastPrice) : null,
+                null, null, null, null, null, null, null);
+        return new StockPricesRefreshedEvent(new Object(), List.of(data));
+    }
+
+    @Test
+    void whenPriceCrossesBuyLimits_thenOnlyLimitsAtOrAbovePriceTriggered() {
+        orderBook.track(limitOrder(1L, "THYAO", OrderType.BUY, "100"));
+        orderBook.track(limitOrder(2L, "THYAO", OrderType.BUY, "95"));
+        orderBook.track(limitOrder(3L, "THYAO", OrderType.BUY, "90"));
+
+        orderBook.onPricesRefreshed(prices("THYAO", "95.00"));
+
+        assertEquals(List.of(1L, 2L), orderBook.drainTriggered().stream().sorted().toList());
+    }
+
+    @Test
+    void whenPriceCrossesSellLimits_thenOnlyLimitsAtOrBelowPriceTriggered() {
+        orderBook.track(limitOrder(1L, "ASELS", OrderType.SELL, "50"));
+        orderBook.track(limitOrder(2L, "ASELS", OrderType.SELL, "55"));
+        orderBook.track(limitOrder(3L, "ASELS", OrderType.SELL, "60"));
+
+        orderBook.onPricesRefreshed(prices("ASELS", "55"));
+
+        assertEquals(List.of(1L, 2L), orderBook.drainTriggered().stream().sorted().toList());
+    }
+
+    @Test
+    void whenSeveralOrdersCross_thenDrainedInPriceTimeOrder() {
+        orderBook.track(limitOrder(900L, "THYAO", OrderType.BUY, "95"));
+        orderBook.track(limitOrder(17L, "THYAO", OrderType.BUY, "100"));
+        orderBook.track(limitOrder(5L, "THYAO", OrderType.BUY, "95"));
+        orderBook.track(limitOrder(64L, "THYAO", OrderType.BUY, "98"));
+
+        orderBook.onPricesRefreshed(prices("THYAO", "95"));
+
+        // Yüksek alış limiti önce; aynı seviyede önce gelen emir önce
+        assertEquals(List.of(17L, 64L, 900L, 5L), orderBook.drainTriggered());
+    }
+
+    @Test
+    void whenStockCodeDiffersInCase_thenStillMatched() {
+        orderBook.track(limitOrder(1L, " sise ", OrderType.BUY, "40"));
+
+        orderBook.onPricesRefreshed(prices("SISE", "39"));
+
+        assertEquals(List.of(1L), orderBook.drainTriggered());
+    }
+
+    @Test
+    void whenRestoredSnapshotPublished_thenNothingTriggered() {
+        orderBook.track(limitOrder(1L, "THYAO", OrderType.BUY, "100"));
+        CombinedStockData restored = new CombinedStockData("THYAO", null, null, null, null, null,
+                new BigDecimal("90"), null, null, null, null, null, null, null);
+
+        orderBook.onPricesRefreshed(new StockPricesRefreshedEvent(new Object(), List.of(restored), true));
+
+        assertTrue(orderBook.drainTriggered().isEmpty());
+    }
+
+    @Test
+    void whenDrained_thenQueueEmptyUntilNextPrice() {
+        orderBook.track(limitOrder(1L, "SISE", OrderType.BUY, "40"));
+        orderBook.onPricesRefreshed(prices("SISE", "39"));
+
+        assertEquals(1, orderBook.drainTriggered().size());
+        assertTrue(orderBook.drainTriggered().isEmpty());
+        assertEquals(1, orderBook.openOrderCount());
+    }
+
+    @Test
+    void whenUntracked_thenNotTriggeredAndRemovedFromQueue() {
+        orderBook.track(limitOrder(1L, "SISE", OrderType.BUY, "40"));
+        orderBook.onPricesRefreshed(prices("SISE", "39"));
+
+        orderBook.untrack(1L);
+        orderBook.onPricesRefreshed(prices("SISE", "38"));
+
+        assertTrue(orderBook.drainTriggered().isEmpty());
+        assertEquals(0, orderBook.openOrderCount());
+    }
+
+    @Test
+    void whenOrderNotOpenLimit_thenIgnored() {
+        Order market = limitOrder(1L, "SISE", OrderType.BUY, "40");
+        market.setCategory(OrderCategory.MARKET);
+        Order filled = limitOrder(2L, "SISE", OrderType.BUY, "40");
+        filled.setStatus(OrderStatus.FILLED);
+
+        orderBook.track(market);
+        orderBook.track(filled);
+
+        assertEquals(0, orderBook.openOrderCount());
+    }
+
+    @Test
+    void whenNullPrice_thenNothingTriggered() {
+        orderBook.track(limitOrder(1L, "SISE", OrderType.BUY, "40"));
+
+        orderBook.onPricesRefreshed(prices("SISE", null));
+
+        assertTrue(orderBook.drainTriggered().isEmpty());
+    }
+
+    @Test
+    void whenRebuilt_thenBookReplacedWithOpenOrdersFromRepository() {
+        orderBook.track(limitOrder(9L, "SISE", OrderType.BUY, "40"));
+        when(orderRepository.findByStatus(OrderStatus.OPEN)).thenReturn(List.of(
+                limitOrder(1L, "KRDMD", OrderType.SELL, "20"),
+                limitOrder(2L, "KRDMD", OrderType.BUY, "18")));
+
+        orderBook.rebuild();
+        orderBook.onPricesRefreshed(prices("KRDMD", "21"));
+
+        assertEquals(2, orderBook.openOrderCount());
+        assertEquals(List.of(1L), orderBook.drainTriggered());
+    }
+}
@@ -0,0 +1,50 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.repository.OrderRepository;
+import com.infina.hissenet.service.abstracts.IOrderBookService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderLifecycleServiceTest {
+
+    @Mock private OrderRepository orderRepository;
+    @Mock private IOrderBookService orderBook;
+
+    @InjectMocks private OrderLifecycleService lifecycleService;
+
+    @Test
+    void cancelOpenOrdersFor_untracksOnlyCancelledIds_withoutRebuild() {
+        LocalDate day = LocalDate.of(2025, 8, 1);
+        when(orderRepository.findOpenOrderIdsInRange(day.atStartOfDay(), day.atTime(23, 59, 59, 999_999_999)))
+                .thenReturn(List.of(3L, 7L));
+        when(orderRepository.cancelOpenOrdersByIds(List.of(3L, 7L))).thenReturn(2);
+
+        lifecycleService.cancelOpenOrdersFor(day);
+
+        verify(orderBook).untrack(3L);
+        verify(orderBook).untrack(7L);
+        verify(orderBook, never()).rebuild();
+    }
+
+    @Test
+    void cancelOpenOrdersFor_whenNothingOpen_thenNoUpdate() {
+        when(orderRepository.findOpenOrderIdsInRange(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        lifecycleService.cancelOpenOrdersFor(LocalDate.of(2025, 8, 1));
+
+        verify(orderRepository, never()).cancelOpenOrdersByIds(any());
+        verifyNoInteractions(orderBook);
+    }
+}
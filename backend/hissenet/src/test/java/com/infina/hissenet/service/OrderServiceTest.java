@@ -17,8 +17,12 @@ import com.infina.hissenet.mapper.OrderMapper;
 import com.infina.hissenet.repository.OrderRepository;
 import com.infina.hissenet.repository.WalletRepository;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
+import com.infina.hissenet.service.abstracts.IOrderBookService;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
 import com.infina.hissenet.service.abstracts.IStockTransactionService;
 import com.infina.hissenet.service.abstracts.IWalletService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -46,6 +50,9 @@ class OrderServiceTest {
     @Mock private WalletRepository walletRepository;
     @Mock private IStockTransactionService stockTransactionService;
     @Mock private MarketHourService marketHourService;
+    @Mock private IOrderBookService orderBook;
+    @Mock private IPositionLedgerService positionLedger;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private OrderService orderService;
@@ -124,6 +131,7 @@ class OrderServiceTest {
         Order mapped = new Order(); mapped.setCustomer(customer); mapped.setCategory(OrderCategory.MARKET); mapped.setType(OrderType.SELL);
 
         when(customerService.findById(2L)).thenReturn(Optional.of(customer));
+        when(positionLedger.getAvailableQuantity(2L, "VESBE")).thenReturn(10);
         when(orderMapper.toEntity(req)).thenReturn(mapped);
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> { Order o = i.getArgument(0); o.setStatus(OrderStatus.FILLED); return o; });
         when(orderMapper.toResponse(any(Order.class))).thenReturn(
@@ -209,6 +217,7 @@ class OrderServiceTest {
         Order mapped = new Order(); mapped.setCustomer(c); mapped.setCategory(OrderCategory.LIMIT); mapped.setType(OrderType.SELL);
 
         when(customerService.findById(1L)).thenReturn(Optional.of(c));
+        when(positionLedger.getAvailableQuantity(1L, "ARCLK")).thenReturn(10);
         when(orderMapper.toEntity(req)).thenReturn(mapped);
         when(stockCacheService.getCachedByCode(eq("ARCLK")).lastPrice()).thenReturn(BigDecimal.valueOf(25));
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> { Order o = i.getArgument(0); o.setStatus(OrderStatus.FILLED); return o; });
@@ -223,6 +232,41 @@ class OrderServiceTest {
         verify(walletService).processStockSale(eq(1L), eq(BigDecimal.valueOf(60)), any());
     }
 
+    @Test
+    void whenCreateOrder_limitCrossing_butPricesRestoredFromDisk_thenOpenAndNoWalletCall() {
+        OrderCreateRequest req = buildCreateReq(1L, OrderCategory.LIMIT, OrderType.BUY, "ARCLK", BigDecimal.valueOf(2), BigDecimal.valueOf(30));
+        Customer c = new Customer(); c.setId(1L);
+        Order mapped = new Order(); mapped.setCustomer(c); mapped.setCategory(OrderCategory.LIMIT); mapped.setType(OrderType.BUY);
+
+        when(customerService.findById(1L)).thenReturn(Optional.of(c));
+        when(orderMapper.toEntity(req)).thenReturn(mapped);
+        when(stockCacheService.isStale()).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+
+        orderService.createOrder(req);
+
+        assertEquals(OrderStatus.OPEN, mapped.getStatus());
+        verify(walletService, never()).processStockPurchase(anyLong(), any(), any());
+        verify(orderBook).track(mapped);
+    }
+
+    @Test
+    void whenCreateOrder_market_butPricesRestoredFromDisk_thenRejectedAndNoWalletCall() {
+        OrderCreateRequest req = buildCreateReq(1L, OrderCategory.MARKET, OrderType.BUY, "ARCLK", BigDecimal.ONE, BigDecimal.TEN);
+        Customer c = new Customer(); c.setId(1L);
+        Order mapped = new Order(); mapped.setCustomer(c); mapped.setCategory(OrderCategory.MARKET); mapped.setType(OrderType.BUY);
+
+        when(customerService.findById(1L)).thenReturn(Optional.of(c));
+        when(orderMapper.toEntity(req)).thenReturn(mapped);
+        when(stockCacheService.isStale()).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+
+        orderService.createOrder(req);
+
+        assertEquals(OrderStatus.REJECTED, mapped.getStatus());
+        verify(walletService, never()).processStockPurchase(anyLong(), any(), any());
+    }
+
     @Test
     void whenCreateOrder_limitBuy_withMarketPriceGtLimit_thenOpenAndNoWalletCall() {
         OrderCreateRequest req = buildCreateReq(1L, OrderCategory.LIMIT, OrderType.BUY, "ARCLK", BigDecimal.ONE, BigDecimal.valueOf(20));
@@ -251,6 +295,7 @@ class OrderServiceTest {
         Order mapped = new Order(); mapped.setCustomer(c); mapped.setCategory(OrderCategory.LIMIT); mapped.setType(OrderType.SELL);
 
         when(customerService.findById(1L)).thenReturn(Optional.of(c));
+        when(positionLedger.getAvailableQuantity(1L, "ARCLK")).thenReturn(10);
         when(orderMapper.toEntity(req)).thenReturn(mapped);
         when(stockCacheService.getCachedByCode(eq("ARCLK")).lastPrice()).thenReturn(BigDecimal.valueOf(25));
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
@@ -285,7 +330,7 @@ class OrderServiceTest {
     void whenUpdateOrder_cancelOpen_thenCanceled() {
         Order existing = newOrder(1L, 10L, OrderStatus.OPEN, OrderType.BUY, OrderCategory.LIMIT, "ARCLK", BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN);
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(existing));
         when(orderRepository.save(existing)).thenReturn(existing);
         when(orderMapper.toResponse(existing)).thenReturn(
                 new OrderResponse(1L, 10L, OrderCategory.LIMIT, OrderType.BUY, OrderStatus.CANCELED, "ARCLK",
@@ -301,7 +346,7 @@ class OrderServiceTest {
     void whenUpdateOrder_cancelNonOpen_thenUnchanged() {
         Order existing = newOrder(2L, 10L, OrderStatus.FILLED, OrderType.BUY, OrderCategory.MARKET, "ARCLK", BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN);
 
-        when(orderRepository.findById(2L)).thenReturn(Optional.of(existing));
+        when(orderRepository.findForUpdate(2L)).thenReturn(Optional.of(existing));
         when(orderRepository.save(existing)).thenReturn(existing);
         when(orderMapper.toResponse(existing)).thenReturn(
                 new OrderResponse(2L, 10L, OrderCategory.MARKET, OrderType.BUY, OrderStatus.FILLED, "ARCLK",
@@ -315,7 +360,7 @@ class OrderServiceTest {
 
     @Test
     void whenUpdateOrder_nonExisting_thenThrowOrderNotFound() {
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+        when(orderRepository.findForUpdate(999L)).thenReturn(Optional.empty());
         assertThrows(OrderNotFoundException.class, () -> orderService.updateOrder(999L, buildUpdateReq(OrderStatus.CANCELED)));
     }
 
@@ -14,7 +14,6 @@ import com.infina.hissenet.repository.PortfolioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -41,7 +40,6 @@ class PortfolioServiceTest {
     @Mock
     private CommonFinancialService commonFinancialService;
 
-    @InjectMocks
     private PortfolioService service;
 
     private Customer customer;
@@ -49,6 +47,9 @@ class PortfolioServiceTest {
 
     @BeforeEach
     void setUp() {
+        // İki depo mock'u da JpaRepository'ye atanabildiği için servis elle kurulur
+        service = new PortfolioService(jpaRepository, portfolioRepository, customerService, portfolioMapper, commonFinancialService);
+
         customer = new Customer();
         customer.setId(1L);
 
@@ -0,0 +1,115 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.entity.IndividualCustomer;
+import com.infina.hissenet.entity.Portfolio;
+import com.infina.hissenet.entity.StockPosition;
+import com.infina.hissenet.entity.StockTransaction;
+import com.infina.hissenet.entity.enums.StockTransactionType;
+import com.infina.hissenet.entity.enums.TransactionStatus;
+import com.infina.hissenet.repository.StockPositionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Races the first transactions of many new (customer, stock) positions and checks that
+ * each ends up as a single row carrying every quantity, with no unique-key failures.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(PositionLedgerService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PositionLedgerConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int STOCKS = 10;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private PositionLedgerService ledger;
+    @Autowired private StockPositionRepository positionRepository;
+
+    private Portfolio portfolio() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            IndividualCustomer customer = new IndividualCustomer();
+            customer.setCustomerNumber("LEDGER0001");
+            customer.setEmail("ledger@hissenet.local");
+            customer.setFirstName("Ali");
+            customer.setLastName("Veli");
+            customer.setTcNumber("30000000001");
+            entityManager.persist(customer);
+
+            Portfolio portfolio = new Portfolio();
+            portfolio.setCustomer(customer);
+            portfolio.setPortfolioName("Ana Portföy");
+            entityManager.persist(portfolio);
+            return portfolio;
+        });
+    }
+
+    private static StockTransaction buy(Portfolio portfolio, String stockCode) {
+        StockTransaction transaction = new StockTransaction();
+        transaction.setPortfolio(portfolio);
+        transaction.setStockCode(stockCode);
+        transaction.setTransactionType(StockTransactionType.BUY);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setQuantity(10);
+        transaction.setPrice(BigDecimal.TEN);
+        transaction.setTransactionDate(LocalDateTime.now());
+        return transaction;
+    }
+
+    @Test
+    void concurrentFirstTransactionsShareOnePositionRow() throws Exception {
+        Portfolio portfolio = portfolio();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int s = 0; s < STOCKS; s++) {
+                String stockCode = "STK" + s;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        ledger.recordTransaction(buy(portfolio, stockCode));
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<StockPosition> positions = positionRepository.findAll();
+        assertEquals(STOCKS, positions.size());
+        for (StockPosition position : positions) {
+            assertEquals(THREADS * 10, position.getPendingBuyQuantity());
+        }
+    }
+}
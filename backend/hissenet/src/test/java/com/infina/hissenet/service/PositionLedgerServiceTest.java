@@ -0,0 +1,197 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.entity.Customer;
+import com.infina.hissenet.entity.Portfolio;
+import com.infina.hissenet.entity.StockPosition;
+import com.infina.hissenet.entity.StockTransaction;
+import com.infina.hissenet.entity.enums.StockTransactionType;
+import com.infina.hissenet.entity.enums.TransactionStatus;
+import com.infina.hissenet.repository.StockPositionRepository;
+import com.infina.hissenet.repository.StockTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PositionLedgerServiceTest {
+
+    @Mock private StockPositionRepository positionRepository;
+    @Mock private StockTransactionRepository stockTransactionRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private PositionLedgerService ledger;
+
+    @Captor private ArgumentCaptor<StockPosition> positionCaptor;
+
+    private Customer customer;
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void init() {
+        customer = new Customer();
+        customer.setId(1L);
+        portfolio = new Portfolio();
+        portfolio.setId(10L);
+        portfolio.setCustomer(customer);
+    }
+
+    private StockTransaction tx(Long id, StockTransactionType type, TransactionStatus status, int quantity, String price) {
+        StockTransaction tx = new StockTransaction();
+        tx.setId(id);
+        tx.setPortfolio(portfolio);
+        tx.setStockCode("THYAO");
+        tx.setTransactionType(type);
+        tx.setTransactionStatus(status);
+        tx.setQuantity(quantity);
+        tx.setPrice(new BigDecimal(price));
+        tx.setCommission(new BigDecimal("1.00"));
+        return tx;
+    }
+
+    private StockPosition settledPosition(int quantity, String averageCost) {
+        StockPosition position = new StockPosition(customer, portfolio, "THYAO");
+        position.addPendingBuy(quantity);
+        position.settleBuy(quantity, new BigDecimal(averageCost), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        return position;
+    }
+
+    @Test
+    void whenCompletedBuyRecorded_thenNewPositionWithPendingBuy() {
+        List<StockPosition> inserted = new ArrayList<>();
+        when(positionRepository.saveAndFlush(any(StockPosition.class))).thenAnswer(inv -> {
+            inserted.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(positionRepository.findForUpdate(1L, "THYAO"))
+                .thenReturn(Optional.empty())
+                .thenAnswer(inv -> Optional.of(inserted.get(0)));
+
+        ledger.recordTransaction(tx(5L, StockTransactionType.BUY, TransactionStatus.COMPLETED, 100, "50"));
+
+        verify(positionRepository).save(positionCaptor.capture());
+        StockPosition saved = positionCaptor.getValue();
+        assertSame(inserted.get(0), saved);
+        assertEquals(100, saved.getPendingBuyQuantity());
+        assertEquals(0, saved.getSettledQuantity());
+        assertEquals(5L, saved.getLastTransactionId());
+    }
+
+    @Test
+    void whenFirstInsertLosesRace_thenExistingRowIsLockedAndUpdated() {
+        StockPosition concurrent = new StockPosition(customer, portfolio, "THYAO");
+        concurrent.addPendingBuy(30);
+        when(positionRepository.saveAndFlush(any(StockPosition.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_stock_positions_customer_stock"));
+        when(positionRepository.findForUpdate(1L, "THYAO"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(concurrent));
+
+        ledger.recordTransaction(tx(6L, StockTransactionType.BUY, TransactionStatus.COMPLETED, 100, "50"));
+
+        verify(positionRepository).save(concurrent);
+        assertEquals(130, concurrent.getPendingBuyQuantity());
+    }
+
+    @Test
+    void whenBuySettled_thenWeightedAverageCostUpdated() {
+        StockPosition position = settledPosition(100, "50");
+        position.addPendingBuy(50);
+        when(positionRepository.findForUpdate(1L, "THYAO")).thenReturn(Optional.of(position));
+
+        ledger.recordSettlement(tx(6L, StockTransactionType.BUY, TransactionStatus.SETTLED, 50, "56"));
+
+        assertEquals(150, position.getSettledQuantity());
+        assertEquals(0, position.getPendingBuyQuantity());
+        assertEquals(0, new BigDecimal("52").compareTo(position.getAverageCost()));
+        assertEquals(0, new BigDecimal("1.00").compareTo(position.getTotalCommission()));
+    }
+
+    @Test
+    void whenSellPendingThenSettled_thenAvailableFollowsLifecycle() {
+        StockPosition position = settledPosition(100, "50");
+        when(positionRepository.findForUpdate(1L, "THYAO")).thenReturn(Optional.of(position));
+
+        ledger.recordTransaction(tx(7L, StockTransactionType.SELL, TransactionStatus.COMPLETED, 30, "60"));
+        assertEquals(30, position.getPendingSellQuantity());
+        assertEquals(70, position.getAvailableQuantity());
+
+        ledger.recordSettlement(tx(7L, StockTransactionType.SELL, TransactionStatus.SETTLED, 30, "60"));
+        assertEquals(70, position.getSettledQuantity());
+        assertEquals(0, position.getPendingSellQuantity());
+        assertEquals(0, new BigDecimal("50").compareTo(position.getAverageCost()));
+    }
+
+    @Test
+    void whenCompletedSellCancelled_thenPendingReleased() {
+        StockPosition position = settledPosition(100, "50");
+        position.addPendingSell(30);
+        when(positionRepository.findForUpdate(1L, "THYAO")).thenReturn(Optional.of(position));
+
+        ledger.recordCancellation(tx(8L, StockTransactionType.SELL, TransactionStatus.COMPLETED, 30, "60"));
+
+        assertEquals(0, position.getPendingSellQuantity());
+        assertEquals(100, position.getAvailableQuantity());
+    }
+
+    @Test
+    void whenSettledBuyCancelled_thenQuantityReversed() {
+        StockPosition position = settledPosition(100, "50");
+        when(positionRepository.findForUpdate(1L, "THYAO")).thenReturn(Optional.of(position));
+
+        ledger.recordCancellation(tx(9L, StockTransactionType.BUY, TransactionStatus.SETTLED, 40, "50"));
+
+        assertEquals(60, position.getSettledQuantity());
+    }
+
+    @Test
+    void whenNoPosition_thenReadsReturnZero() {
+        when(positionRepository.findByCustomerIdAndStockCode(1L, "SISE")).thenReturn(Optional.empty());
+
+        assertEquals(0, ledger.getSettledQuantity(1L, "SISE"));
+        assertEquals(0, ledger.getPendingSellQuantity(1L, "SISE"));
+        assertEquals(0, ledger.getAvailableQuantity(1L, "SISE"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenRebuilt_thenTransactionsReplayedIntoSinglePosition() {
+        when(stockTransactionRepository.findAllForPositionReplay(anyCollection())).thenReturn(List.of(
+                tx(1L, StockTransactionType.BUY, TransactionStatus.SETTLED, 100, "50"),
+                tx(2L, StockTransactionType.BUY, TransactionStatus.SETTLED, 100, "60"),
+                tx(3L, StockTransactionType.SELL, TransactionStatus.SETTLED, 50, "70"),
+                tx(4L, StockTransactionType.SELL, TransactionStatus.COMPLETED, 20, "70")));
+        List<StockPosition> saved = new ArrayList<>();
+        when(positionRepository.saveAll(any(Iterable.class))).thenAnswer(inv -> {
+            ((Iterable<StockPosition>) inv.getArgument(0)).forEach(saved::add);
+            return saved;
+        });
+
+        int written = ledger.rebuild();
+
+        assertEquals(1, written);
+        verify(positionRepository).deleteAllInBatch();
+        StockPosition position = saved.get(0);
+        assertEquals(150, position.getSettledQuantity());
+        assertEquals(20, position.getPendingSellQuantity());
+        assertEquals(130, position.getAvailableQuantity());
+        assertEquals(0, new BigDecimal("55").compareTo(position.getAverageCost()));
+        assertEquals(4L, position.getLastTransactionId());
+    }
+}
@@ -0,0 +1,115 @@
+package com.infina.hissenet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infina.hissenet.dto.response.HisseFiyatEntry;
+import com.infina.hissenet.properties.PreviousCloseProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreviousCloseCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 8, 14);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PreviousCloseProperties props;
+    private AtomicInteger upstreamCalls;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void init() {
+        props = new PreviousCloseProperties();
+        upstreamCalls = new AtomicInteger();
+    }
+
+    private HisseFiyatEntry entry(String close) {
+        return new HisseFiyatEntry("1", "THYAO.E", DAY.toString(), DAY.toString(),
+                new BigDecimal(close), null, null, null);
+    }
+
+    private Supplier<Mono<Optional<HisseFiyatEntry>>> upstream(HisseFiyatEntry result) {
+        return () -> Mono.fromSupplier(() -> {
+            upstreamCalls.incrementAndGet();
+            return Optional.ofNullable(result);
+        });
+    }
+
+    @Test
+    void whenSameDayRequestedAgain_thenUpstreamCalledOnce() {
+        PreviousCloseCache cache = new PreviousCloseCache(props, objectMapper);
+
+        Optional<HisseFiyatEntry> first = cache.getOrLoad("THYAO.E", DAY, upstream(entry("300"))).block();
+        Optional<HisseFiyatEntry> second = cache.getOrLoad("THYAO.E", DAY, upstream(entry("999"))).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(first, second);
+        assertEquals(0, new BigDecimal("300").compareTo(second.orElseThrow().closePrice()));
+    }
+
+    @Test
+    void whenDayChanges_thenPreviousDayDropped() {
+        PreviousCloseCache cache = new PreviousCloseCache(props, objectMapper);
+        cache.getOrLoad("THYAO.E", DAY, upstream(entry("300"))).block();
+
+        cache.getOrLoad("THYAO.E", DAY.plusDays(1), upstream(entry("310"))).block();
+        cache.getOrLoad("THYAO.E", DAY, upstream(entry("300"))).block();
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void whenUpstreamEmpty_thenRetriedAfterNegativeTtl() {
+        props.setNegativeTtl(Duration.ofHours(1));
+        PreviousCloseCache cache = new PreviousCloseCache(props, objectMapper);
+        cache.getOrLoad("THYAO.E", DAY, upstream(null)).block();
+        cache.getOrLoad("THYAO.E", DAY, upstream(null)).block();
+        assertEquals(1, upstreamCalls.get());
+
+        props.setNegativeTtl(Duration.ZERO);
+        Optional<HisseFiyatEntry> loaded = cache.getOrLoad("THYAO.E", DAY, upstream(entry("300"))).block();
+        assertEquals(2, upstreamCalls.get());
+        assertTrue(loaded.isPresent());
+    }
+
+    @Test
+    void whenFlushedAndReloaded_thenEntriesSurviveRestart() throws Exception {
+        Path file = tempDir.resolve("prev-close.json");
+        props.setFile(file.toString());
+        PreviousCloseCache cache = new PreviousCloseCache(props, objectMapper);
+        cache.getOrLoad("THYAO.E", DAY, upstream(entry("300"))).block();
+        cache.flush();
+        assertTrue(Files.exists(file));
+
+        PreviousCloseCache restarted = new PreviousCloseCache(props, objectMapper);
+        Optional<HisseFiyatEntry> loaded = restarted.getOrLoad("THYAO.E", DAY, upstream(entry("999"))).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0, new BigDecimal("300").compareTo(loaded.orElseThrow().closePrice()));
+    }
+
+    @Test
+    void whenFileCorrupt_thenIgnoredAndLoadedFromUpstream() throws Exception {
+        Path file = tempDir.resolve("prev-close.json");
+        Files.writeString(file, "{not json");
+        props.setFile(file.toString());
+
+        PreviousCloseCache cache = new PreviousCloseCache(props, objectMapper);
+        cache.getOrLoad("THYAO.E", DAY, upstream(entry("300"))).block();
+
+        assertEquals(1, upstreamCalls.get());
+    }
+}
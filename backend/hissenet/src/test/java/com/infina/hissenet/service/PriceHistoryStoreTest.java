@@ -0,0 +1,189 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.dto.response.CandleResponse;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.PricePointResponse;
+import com.infina.hissenet.event.StockPricesRefreshedEvent;
+import com.infina.hissenet.properties.StockProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceHistoryStoreTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+    private static final LocalDate DAY1 = LocalDate.of(2025, 8, 14);
+    private static final LocalDate DAY2 = LocalDate.of(2025, 8, 15);
+
+    @TempDir
+    Path dir;
+
+    private StockProperties props;
+    private PriceHistoryStore store;
+
+    @BeforeEach
+    void init() {
+        props = new StockProperties();
+        props.getHistory().setDir(dir.toString());
+        store = new PriceHistoryStore(props);
+    }
+
+    @AfterEach
+    void close() {
+        store.shutdown();
+    }
+
+    private static long at(LocalDate day, int hour, int minute) {
+        return day.atTime(hour, minute).atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static CombinedStockData data(String code, String price, String cumulativeVolume) {
+        return new CombinedStockData(code, null, null, null, null, null, new BigDecimal(price),
+                new BigDecimal(cumulativeVolume), null, null, null, null, null, null);
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> expected + " != " + actual);
+    }
+
+    private void recordDay(LocalDate day) {
+        store.append(List.of(data("THYAO", "300", "1000"), data("SISE", "40", "50")), at(day, 10, 0));
+        store.append(List.of(data("THYAO", "305", "1500"), data("SISE", "40", "50")), at(day, 10, 1));
+        store.append(List.of(data("THYAO", "298", "1800"), data("SISE", "41", "80")), at(day, 10, 2));
+    }
+
+    @Test
+    void whenDayRollsOver_thenPreviousDaySealedAndRangeSpansBoth() {
+        recordDay(DAY1);
+        recordDay(DAY2);
+
+        assertTrue(Files.isRegularFile(dir.resolve(DAY1 + PriceHistoryStore.SEGMENT_SUFFIX)));
+        assertFalse(Files.exists(dir.resolve(DAY1 + PriceHistoryStore.LOG_SUFFIX)));
+
+        List<PricePointResponse> points = store.getRange("thyao",
+                Instant.ofEpochMilli(at(DAY1, 0, 0)), Instant.ofEpochMilli(at(DAY2, 23, 0)), 100);
+
+        assertEquals(6, points.size());
+        assertEquals(at(DAY1, 10, 0), points.get(0).time());
+        assertEquals(at(DAY2, 10, 2), points.get(5).time());
+        assertPrice(points, "300", "305", "298", "300", "305", "298");
+        // İlk nokta o ana kadarki günlük hacmi taşır
+        assertAmount("1000", points.get(0).volume());
+        assertAmount("500", points.get(1).volume());
+    }
+
+    @Test
+    void whenRangeInsideSealedDay_thenOnlyMatchingPointsAndUnchangedSkipped() {
+        recordDay(DAY1);
+        recordDay(DAY2);
+
+        List<PricePointResponse> sise = store.getRange("SISE",
+                Instant.ofEpochMilli(at(DAY1, 10, 1)), Instant.ofEpochMilli(at(DAY1, 10, 2)), 100);
+        List<PricePointResponse> limited = store.getRange("THYAO",
+                Instant.ofEpochMilli(at(DAY1, 10, 1)), Instant.ofEpochMilli(at(DAY2, 23, 0)), 2);
+
+        // SISE 10:01'de değişmedi
+        assertEquals(List.of(at(DAY1, 10, 2)), sise.stream().map(PricePointResponse::time).toList());
+        assertEquals(List.of(at(DAY1, 10, 1), at(DAY1, 10, 2)), limited.stream().map(PricePointResponse::time).toList());
+        assertTrue(store.getRange("ASELS", Instant.ofEpochMilli(at(DAY1, 0, 0)),
+                Instant.ofEpochMilli(at(DAY2, 23, 0)), 100).isEmpty());
+    }
+
+    @Test
+    void whenDailyBarsRequested_thenSealedAndOpenDaysSummarised() {
+        recordDay(DAY1);
+        recordDay(DAY2);
+
+        List<CandleResponse> bars = store.getDailyBars("THYAO", DAY1, DAY2);
+
+        assertEquals(2, bars.size());
+        for (CandleResponse bar : bars) {
+            assertAmount("300", bar.open());
+            assertAmount("305", bar.high());
+            assertAmount("298", bar.low());
+            assertAmount("298", bar.close());
+            assertAmount("1800", bar.volume());
+        }
+        assertEquals(DAY1.atStartOfDay(ZONE).toInstant().toEpochMilli(), bars.get(0).time());
+    }
+
+    @Test
+    void whenRestarted_thenOpenDayReplayedAndTornTailDropped() throws IOException {
+        recordDay(DAY1);
+        store.shutdown();
+        Path log = dir.resolve(DAY1 + PriceHistoryStore.LOG_SUFFIX);
+        long size = Files.size(log);
+        // Çökme anında yarım yazılmış kayıt
+        Files.write(log, new byte[]{2, 0, 0}, StandardOpenOption.APPEND);
+
+        store = new PriceHistoryStore(props);
+        assertEquals(size, Files.size(log));
+        store.append(List.of(data("THYAO", "310", "2000")), at(DAY1, 10, 3));
+
+        List<PricePointResponse> points = store.getRange("THYAO",
+                Instant.ofEpochMilli(at(DAY1, 0, 0)), Instant.ofEpochMilli(at(DAY1, 23, 0)), 100);
+        assertPrice(points, "300", "305", "298", "310");
+        assertAmount("200", points.get(3).volume());
+    }
+
+    @Test
+    void whenStaleLogLeftFromEarlierDay_thenSealedOnStartup() throws IOException {
+        recordDay(DAY1);
+        store.shutdown();
+        // Mühürlenmeden kalmış iki günlük: eskisi açılışta mühürlenir, yenisi açık kalır
+        Files.copy(dir.resolve(DAY1 + PriceHistoryStore.LOG_SUFFIX), dir.resolve(DAY2 + PriceHistoryStore.LOG_SUFFIX));
+
+        store = new PriceHistoryStore(props);
+
+        assertTrue(Files.isRegularFile(dir.resolve(DAY1 + PriceHistoryStore.SEGMENT_SUFFIX)));
+        assertFalse(Files.exists(dir.resolve(DAY1 + PriceHistoryStore.LOG_SUFFIX)));
+        assertTrue(Files.exists(dir.resolve(DAY2 + PriceHistoryStore.LOG_SUFFIX)));
+        assertEquals(2, store.getDailyBars("SISE", DAY1, DAY2).size());
+    }
+
+    @Test
+    void whenRestoredEventOrOlderDay_thenIgnored() {
+        store.onPricesRefreshed(new StockPricesRefreshedEvent(this, List.of(data("THYAO", "300", "1")), true));
+        store.flush();
+        recordDay(DAY2);
+        store.append(List.of(data("THYAO", "1", "1")), at(DAY1, 10, 0));
+
+        assertTrue(store.getDailyBars("THYAO", DAY1, DAY1).isEmpty());
+        assertEquals(1, store.getDailyBars("THYAO", DAY1, DAY2).size());
+    }
+
+    @Test
+    void whenRefreshedOutsideTradingHours_thenNoSegmentOrBarForThatDay() {
+        LocalDate saturday = DAY2.plusDays(1);
+        recordDay(DAY2);
+        // Hafta sonu ve seans öncesi yenilemeler Cuma'nın kümülatif hacmini tekrar getirir
+        store.append(List.of(data("THYAO", "298", "1800")), at(saturday, 12, 0));
+        store.append(List.of(data("THYAO", "298", "1800")), at(DAY2.plusDays(3), 9, 45));
+        store.append(List.of(data("THYAO", "299", "1900")), at(DAY2, 18, 30));
+
+        assertFalse(Files.exists(dir.resolve(saturday + PriceHistoryStore.LOG_SUFFIX)));
+        List<CandleResponse> bars = store.getDailyBars("THYAO", DAY2, DAY2.plusDays(3));
+        assertEquals(1, bars.size());
+        assertAmount("1900", bars.get(0).volume());
+    }
+
+    private static void assertPrice(List<PricePointResponse> points, String... expected) {
+        assertEquals(expected.length, points.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertAmount(expected[i], points.get(i).price());
+        }
+    }
+}
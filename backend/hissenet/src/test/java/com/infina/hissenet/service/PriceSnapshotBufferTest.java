@@ -0,0 +1,92 @@
+package com.infina.hissenet.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.EncodedSnapshot;
+import com.infina.hissenet.properties.StockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSnapshotBufferTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StockProperties props;
+    private PriceSnapshotBuffer buffer;
+
+    @BeforeEach
+    void init() {
+        props = new StockProperties();
+        props.getSnapshot().setGzipMinBytes(0);
+        buffer = new PriceSnapshotBuffer(objectMapper, props);
+    }
+
+    private CombinedStockData stock(String code, String last) {
+        return new CombinedStockData(code, null, null, null, null, null, new BigDecimal(last),
+                null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void whenNothingPublished_thenEmptyListAtVersionZero() throws Exception {
+        EncodedSnapshot snapshot = buffer.current();
+
+        assertEquals(0L, snapshot.getVersion());
+        assertTrue(snapshot.getETag().matches("W/\"[0-9a-z]+-0\""), snapshot.getETag());
+        assertEquals(0, objectMapper.readTree(snapshot.getJson()).size());
+    }
+
+    @Test
+    void whenUpdated_thenListAndFrameEncodedForSameVersion() throws Exception {
+        buffer.update(7L, List.of(stock("THYAO", "300"), stock("SISE", "40")));
+
+        JsonNode list = objectMapper.readTree(buffer.current().getJson());
+        assertEquals(2, list.size());
+        assertEquals("THYAO", list.get(0).get("code").asText());
+
+        JsonNode frame = objectMapper.readTree(buffer.currentFrame().getJson());
+        assertEquals("SNAPSHOT", frame.get("type").asText());
+        assertEquals(7L, frame.get("seq").asLong());
+        assertEquals(list, frame.get("items"));
+        assertTrue(buffer.current().getETag().endsWith("-7\""), buffer.current().getETag());
+    }
+
+    @Test
+    void whenSameVersionFromEarlierBuffer_thenETagDoesNotMatch() {
+        // Yeniden başlatma: yeni süreç aynı sıra numarasına farklı içerikle ulaşır
+        PriceSnapshotBuffer restarted = new PriceSnapshotBuffer(objectMapper, props);
+        buffer.update(42L, List.of(stock("THYAO", "300")));
+        restarted.update(42L, List.of(stock("THYAO", "310")));
+
+        assertNotEquals(buffer.current().getETag(), restarted.current().getETag());
+    }
+
+    @Test
+    void whenGzipEnabled_thenCopyDecompressesToSameJson() throws Exception {
+        buffer.update(1L, List.of(stock("THYAO", "300")));
+
+        EncodedSnapshot snapshot = buffer.current();
+        assertTrue(snapshot.hasGzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+            assertArrayEquals(snapshot.getJson(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void whenBodyBelowThresholdOrGzipDisabled_thenNoCompressedCopy() {
+        props.getSnapshot().setGzipMinBytes(1 << 20);
+        buffer.update(1L, List.of(stock("THYAO", "300")));
+        assertFalse(buffer.current().hasGzip());
+
+        props.getSnapshot().setGzipMinBytes(0);
+        props.getSnapshot().setGzip(false);
+        buffer.update(2L, List.of(stock("THYAO", "301")));
+        assertFalse(buffer.current().hasGzip());
+    }
+}
@@ -0,0 +1,85 @@
+package com.infina.hissenet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.properties.StockProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private StockProperties props;
+    private PriceSnapshotStore store;
+
+    @BeforeEach
+    void init() {
+        props = new StockProperties();
+        props.getSnapshot().setStoreDir(tempDir.toString());
+        store = new PriceSnapshotStore(new ObjectMapper(), props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    private CombinedStockData stock(String code, String last) {
+        return new CombinedStockData(code, null, null, null, null, null, new BigDecimal(last),
+                null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void whenSavedAndFlushed_thenLoadReturnsLatestSnapshot() {
+        store.save("combinedStock", List.of(stock("THYAO", "300")));
+        store.save("combinedStock", List.of(stock("THYAO", "301"), stock("SISE", "40")));
+        store.flush();
+
+        List<CombinedStockData> loaded = store.load("combinedStock", CombinedStockData.class);
+
+        assertEquals(List.of(stock("THYAO", "301"), stock("SISE", "40")), loaded);
+        assertTrue(Files.exists(tempDir.resolve("combinedStock.json.gz")));
+    }
+
+    @Test
+    void whenEmptyListSaved_thenPreviousSnapshotKept() {
+        store.save("combinedStock", List.of(stock("THYAO", "300")));
+        store.flush();
+
+        store.save("combinedStock", List.of());
+        store.flush();
+
+        assertEquals(1, store.load("combinedStock", CombinedStockData.class).size());
+    }
+
+    @Test
+    void whenFileMissingOrCorrupt_thenEmptyList() throws Exception {
+        assertTrue(store.load("bist100", CombinedStockData.class).isEmpty());
+
+        Files.writeString(tempDir.resolve("bist100.json.gz"), "not gzip");
+        assertTrue(store.load("bist100", CombinedStockData.class).isEmpty());
+    }
+
+    @Test
+    void whenStoreDirNotConfigured_thenNothingWritten() throws Exception {
+        props.getSnapshot().setStoreDir(null);
+
+        store.save("combinedStock", List.of(stock("THYAO", "300")));
+        store.flush();
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
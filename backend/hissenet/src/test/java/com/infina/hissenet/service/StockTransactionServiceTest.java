@@ -1,6 +1,7 @@
 package com.infina.hissenet.service;
 
 import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.SettlementRunStats;
 import com.infina.hissenet.dto.response.StockTransactionResponse;
 import com.infina.hissenet.entity.Customer;
 import com.infina.hissenet.entity.Order;
@@ -12,14 +13,20 @@ import com.infina.hissenet.entity.enums.OrderType;
 import com.infina.hissenet.entity.enums.TransactionStatus;
 import com.infina.hissenet.exception.transaction.UnauthorizedOperationException;
 import com.infina.hissenet.exception.transaction.InsufficientStockException;
+import com.infina.hissenet.properties.SettlementProperties;
 import com.infina.hissenet.repository.StockTransactionRepository;
 import com.infina.hissenet.service.abstracts.ICacheManagerService;
+import com.infina.hissenet.service.abstracts.IPositionLedgerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -40,8 +47,12 @@ class StockTransactionServiceTest {
     @Mock private ICacheManagerService cacheManagerService;
     @Mock private CustomerService customerService;
     @Mock private CommonFinancialService commonFinancialService;
+    @Mock private IPositionLedgerService positionLedger;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Spy private SettlementProperties settlementProperties = new SettlementProperties();
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
-    @InjectMocks private StockTransactionService service;
+    private StockTransactionService service;
 
     private Customer customer;
     private Portfolio portfolio;
@@ -50,6 +61,11 @@ class StockTransactionServiceTest {
 
     @BeforeEach
     void init() {
+        // İki depo mock'u da JpaRepository'ye atanabildiği için servis elle kurulur
+        service = new StockTransactionService(jpaRepository, stockTransactionRepository, portfolioService, cacheManagerService,
+                null, customerService, commonFinancialService, positionLedger, settlementProperties, transactionManager,
+                meterRegistry);
+
         customer = new Customer();
         customer.setId(1L);
         customer.setCommissionRate(new BigDecimal("0.0025"));
@@ -115,7 +131,7 @@ class StockTransactionServiceTest {
         when(cacheManagerService.getCachedByCode("THYAO")).thenReturn(new CombinedStockData(
                 "THYAO", null, null, null,null, null, new BigDecimal("21.00"), null, null, null, null, null, null, null
         ));
-        when(commonFinancialService.getQuantityForStockTransactionWithStream(1L, "THYAO")).thenReturn(50);
+        when(positionLedger.getSettledQuantity(1L, "THYAO")).thenReturn(50);
 
         // Act + Assert
         assertThrows(InsufficientStockException.class, () -> service.createTransactionFromOrder(order));
@@ -196,24 +212,32 @@ class StockTransactionServiceTest {
     @Test
     void processStockSettlements_marksAsSettled_andPersists_andRecalculates() {
         // Arrange
-        StockTransaction t1 = new StockTransaction();
+        StockTransaction t1 = new StockTransaction(); t1.setId(1L);
         Portfolio p1 = new Portfolio(); p1.setId(11L); t1.setPortfolio(p1);
-        StockTransaction t2 = new StockTransaction();
+        StockTransaction t2 = new StockTransaction(); t2.setId(2L);
         Portfolio p2 = new Portfolio(); p2.setId(12L); t2.setPortfolio(p2);
+        StockTransaction t3 = new StockTransaction(); t3.setId(3L); t3.setPortfolio(p1);
+        List<Long> ids = List.of(1L, 2L, 3L);
 
-        when(stockTransactionRepository.findStockTransactionsReadyForSettlement(any(LocalDateTime.class), any(), any(), any()))
-                .thenReturn(List.of(t1, t2));
-        when(jpaRepository.save(any(StockTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(stockTransactionRepository.findIdsReadyForSettlement(any(LocalDateTime.class), eq(TransactionStatus.COMPLETED),
+                any(), any(), eq(0L), any(Pageable.class))).thenReturn(ids);
+        when(stockTransactionRepository.findByIdInAndStatusWithPortfolio(ids, TransactionStatus.COMPLETED))
+                .thenReturn(List.of(t1, t2, t3));
 
         // Act
-        service.processStockSettlements();
+        SettlementRunStats stats = service.processStockSettlements();
 
         // Assert
-        verify(jpaRepository, times(2)).save(any(StockTransaction.class));
-        verify(portfolioService).updatePortfolioValues(11L);
-        verify(portfolioService).updatePortfolioValues(12L);
-        assertEquals(TransactionStatus.SETTLED, t1.getTransactionStatus());
-        assertEquals(TransactionStatus.SETTLED, t2.getTransactionStatus());
+        verify(positionLedger).recordSettlements(List.of(t1, t2, t3));
+        verify(stockTransactionRepository).markSettled(eq(ids), eq(TransactionStatus.COMPLETED),
+                eq(TransactionStatus.SETTLED), any(LocalDateTime.class));
+        verify(jpaRepository, never()).save(any(StockTransaction.class));
+        // Her portföy parça başına bir kez değerlenir
+        verify(portfolioService, times(1)).updatePortfolioValues(11L);
+        verify(portfolioService, times(1)).updatePortfolioValues(12L);
+        assertEquals(3, stats.rows());
+        assertEquals(2, stats.groups());
+        assertEquals(1, stats.chunks());
     }
 }
 
@@ -0,0 +1,146 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.entity.IndividualCustomer;
+import com.infina.hissenet.entity.Wallet;
+import com.infina.hissenet.exception.wallet.InsufficientBalanceException;
+import com.infina.hissenet.mapper.WalletMapperImpl;
+import com.infina.hissenet.properties.SettlementProperties;
+import com.infina.hissenet.repository.WalletRepository;
+import com.infina.hissenet.repository.WalletTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a single wallet from many threads, each call in its own transaction, and checks
+ * that no balance movement is lost and the available balance never goes negative.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({WalletService.class, WalletMapperImpl.class, SettlementProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletConcurrencyStressTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private WalletService walletService;
+    @Autowired private WalletRepository walletRepository;
+    @Autowired private WalletTransactionRepository walletTransactionRepository;
+
+    private Long customerWithBalance(String suffix, BigDecimal balance) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            IndividualCustomer customer = new IndividualCustomer();
+            customer.setCustomerNumber("STRESS" + suffix);
+            customer.setEmail("stress" + suffix + "@hissenet.local");
+            customer.setFirstName("Ali");
+            customer.setLastName("Veli");
+            customer.setTcNumber("2000000" + suffix);
+            entityManager.persist(customer);
+
+            Wallet wallet = new Wallet();
+            wallet.setCustomer(customer);
+            wallet.setBalance(balance);
+            wallet.setAvailableBalance(balance);
+            entityManager.persist(wallet);
+            return customer.getId();
+        });
+    }
+
+    private interface Operation {
+        void run(int thread, int iteration);
+    }
+
+    // Tüm iş parçacıkları aynı anda başlar; beklenmeyen ilk hata testi düşürür
+    private void hammer(int iterations, Operation operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        operation.run(thread, i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentDepositsAndWithdrawalsLoseNoUpdates() throws Exception {
+        Long customerId = customerWithBalance("0001", new BigDecimal("10000"));
+        int iterations = 40;
+
+        hammer(iterations, (thread, i) -> {
+            if (i % 2 == 0) {
+                walletService.processDeposit(customerId, BigDecimal.TEN);
+            } else {
+                walletService.processWithdrawal(customerId, new BigDecimal("7"));
+            }
+        });
+
+        int perKind = THREADS * iterations / 2;
+        BigDecimal expected = new BigDecimal("10000").add(BigDecimal.valueOf(3L * perKind));
+        Wallet wallet = walletRepository.findByCustomerId(customerId).orElseThrow();
+        assertEquals(0, expected.compareTo(wallet.getBalance()));
+        assertEquals(0, expected.compareTo(wallet.getAvailableBalance()));
+        assertEquals(perKind, wallet.getDailyTransactionCount());
+        assertEquals(THREADS * iterations,
+                walletTransactionRepository.findByWalletIdOrderByTransactionDateDesc(wallet.getId()).size());
+    }
+
+    @Test
+    void concurrentPurchasesNeverOverdrawAvailableBalance() throws Exception {
+        Long customerId = customerWithBalance("0002", new BigDecimal("1000"));
+        AtomicInteger rejected = new AtomicInteger();
+        int iterations = 20;
+
+        // Toplam talep (3200) bakiyenin üç katından fazla; tam 100 alış gerçekleşebilir
+        hammer(iterations, (thread, i) -> {
+            try {
+                walletService.processStockPurchase(customerId, BigDecimal.TEN, BigDecimal.ZERO);
+            } catch (InsufficientBalanceException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        Wallet wallet = walletRepository.findByCustomerId(customerId).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(wallet.getAvailableBalance()));
+        assertEquals(0, new BigDecimal("1000").compareTo(wallet.getBlockedBalance()));
+        assertEquals(0, new BigDecimal("1000").compareTo(wallet.getBalance()));
+        assertEquals(THREADS * iterations - 100, rejected.get());
+        assertEquals(100, walletTransactionRepository.findByWalletIdOrderByTransactionDateDesc(wallet.getId()).size());
+    }
+}
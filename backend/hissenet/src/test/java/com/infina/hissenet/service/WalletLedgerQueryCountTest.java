@@ -0,0 +1,112 @@
+package com.infina.hissenet.service;
+
+import com.infina.hissenet.entity.IndividualCustomer;
+import com.infina.hissenet.entity.Wallet;
+import com.infina.hissenet.entity.WalletTransaction;
+import com.infina.hissenet.entity.enums.TransactionStatus;
+import com.infina.hissenet.entity.enums.TransactionType;
+import com.infina.hissenet.mapper.WalletMapperImpl;
+import com.infina.hissenet.properties.SettlementProperties;
+import com.infina.hissenet.repository.WalletTransactionRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({WalletService.class, WalletMapperImpl.class, SettlementProperties.class})
+class WalletLedgerQueryCountTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private WalletService walletService;
+    @Autowired private WalletTransactionRepository walletTransactionRepository;
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Long customerWithHistory(String suffix, int historySize) {
+        IndividualCustomer customer = new IndividualCustomer();
+        customer.setCustomerNumber("CUST" + suffix);
+        customer.setEmail("customer" + suffix + "@hissenet.local");
+        customer.setFirstName("Ali");
+        customer.setLastName("Veli");
+        customer.setTcNumber("1000000" + suffix);
+        entityManager.persist(customer);
+
+        Wallet wallet = new Wallet();
+        wallet.setCustomer(customer);
+        wallet.setBalance(new BigDecimal("100000"));
+        wallet.setAvailableBalance(new BigDecimal("100000"));
+        entityManager.persist(wallet);
+
+        for (int i = 0; i < historySize; i++) {
+            WalletTransaction transaction = new WalletTransaction();
+            transaction.setWallet(wallet);
+            transaction.setAmount(BigDecimal.TEN);
+            transaction.setTransactionType(TransactionType.DEPOSIT);
+            transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+            transaction.setTransactionDate(LocalDateTime.now());
+            entityManager.persist(transaction);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return customer.getId();
+    }
+
+    // Alış + satış hareketinin yaptığı sorgu, yükleme ve ekleme sayıları; sıra değeri çekimleri
+    // geçmiş boyutuna göre kaydığından ham SQL sayısı yerine bunlar karşılaştırılır
+    private List<Long> tradeWork(Long customerId) {
+        statistics().clear();
+        walletService.processStockPurchase(customerId, new BigDecimal("1000"), new BigDecimal("2"));
+        walletService.processStockSale(customerId, new BigDecimal("500"), new BigDecimal("1"));
+        entityManager.flush();
+
+        Statistics stats = statistics();
+        assertEquals(0, stats.getEntityStatistics(WalletTransaction.class.getName()).getLoadCount());
+        assertEquals(0, stats.getCollectionFetchCount());
+        return List.of(stats.getQueryExecutionCount(), stats.getEntityLoadCount(), stats.getEntityInsertCount());
+    }
+
+    @Test
+    void tradeCostDoesNotGrowWithLedgerHistory() {
+        Long fresh = customerWithHistory("0001", 0);
+        Long busy = customerWithHistory("0002", 500);
+
+        assertEquals(tradeWork(fresh), tradeWork(busy));
+    }
+
+    @Test
+    void movementsAppendLedgerRowsAndApplyBalances() {
+        Long customerId = customerWithHistory("0003", 3);
+
+        walletService.processStockPurchase(customerId, new BigDecimal("1000"), new BigDecimal("2"));
+        walletService.processWithdrawal(customerId, new BigDecimal("500"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Wallet wallet = entityManager.getEntityManager()
+                .createQuery("select w from Wallet w where w.customer.id = :id", Wallet.class)
+                .setParameter("id", customerId)
+                .getSingleResult();
+        assertEquals(0, new BigDecimal("99500").compareTo(wallet.getBalance()));
+        assertEquals(0, new BigDecimal("98498").compareTo(wallet.getAvailableBalance()));
+        assertEquals(0, new BigDecimal("1002").compareTo(wallet.getBlockedBalance()));
+        assertEquals(2, wallet.getDailyTransactionCount());
+        assertEquals(5, walletTransactionRepository.findByWalletIdOrderByTransactionDateDesc(wallet.getId()).size());
+    }
+}
@@ -2,6 +2,7 @@ package com.infina.hissenet.service;
 
 import com.infina.hissenet.dto.request.CreateWalletRequest;
 import com.infina.hissenet.dto.request.UpdateWalletRequest;
+import com.infina.hissenet.dto.response.SettlementRunStats;
 import com.infina.hissenet.dto.response.WalletResponse;
 import com.infina.hissenet.entity.Customer;
 import com.infina.hissenet.entity.Wallet;
@@ -10,24 +11,33 @@ import com.infina.hissenet.entity.enums.Status;
 import com.infina.hissenet.entity.enums.TransactionStatus;
 import com.infina.hissenet.entity.enums.TransactionType;
 import com.infina.hissenet.exception.wallet.InsufficientBalanceException;
+import com.infina.hissenet.exception.wallet.WalletLockedException;
 import com.infina.hissenet.mapper.WalletMapper;
+import com.infina.hissenet.properties.SettlementProperties;
 import com.infina.hissenet.repository.CustomerRepository;
 import com.infina.hissenet.repository.WalletRepository;
 import com.infina.hissenet.repository.WalletTransactionRepository;
+import com.infina.hissenet.repository.WalletTransactionRepository.SettlementTotal;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,6 +55,12 @@ class WalletServiceTest {
     private CustomerRepository customerRepository;
     @Mock
     private WalletTransactionRepository walletTransactionRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private SettlementProperties settlementProperties = new SettlementProperties();
     @InjectMocks
     private WalletService service;
     private Customer customer;
@@ -54,6 +70,7 @@ class WalletServiceTest {
         customer = new Customer();
         customer.setId(1L);
         when(walletRepository.save(any(Wallet.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(walletRepository.applyMovement(any(), any(), any(), any(), any(), anyInt(), any())).thenReturn(1);
         when(walletMapper.toResponse(any(Wallet.class))).thenAnswer(inv -> {
             Wallet w = inv.getArgument(0);
             if (w == null) return null;
@@ -110,34 +127,43 @@ class WalletServiceTest {
         assertNotNull(newWallet.getLastResetDate());
         verify(walletRepository).save(any(Wallet.class));
     }
+    private WalletTransaction savedLedgerEntry() {
+        ArgumentCaptor<WalletTransaction> captor = ArgumentCaptor.forClass(WalletTransaction.class);
+        verify(walletTransactionRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
     @Test
     void addBalanceDepositSuccessWalletAndSaves() {
         Wallet wallet = walletWith(new BigDecimal("100"), new BigDecimal("100"), BigDecimal.ZERO);
+        wallet.setId(7L);
         when(walletRepository.findByCustomerId(1L)).thenReturn(Optional.of(wallet));
 
         WalletResponse response = service.addBalance(1L, new BigDecimal("50"), TransactionType.DEPOSIT);
         assertNotNull(response);
-        assertEquals(new BigDecimal("150"), wallet.getBalance());
-        assertEquals(new BigDecimal("150"), wallet.getAvailableBalance());
-        assertEquals(BigDecimal.ZERO, wallet.getBlockedBalance());
-        assertEquals(new BigDecimal("150"), response.balance());
-        verify(walletRepository).save(wallet);
+        verify(walletRepository).applyMovement(eq(7L), eq(new BigDecimal("50")), eq(new BigDecimal("50")),
+                eq(BigDecimal.ZERO), eq(BigDecimal.ZERO), eq(0), any(LocalDateTime.class));
+        verify(entityManager).refresh(wallet);
+        verify(walletRepository, never()).save(any());
+
+        WalletTransaction entry = savedLedgerEntry();
+        assertSame(wallet, entry.getWallet());
+        assertEquals(TransactionType.DEPOSIT, entry.getTransactionType());
+        assertEquals(new BigDecimal("50"), entry.getAmount());
+        assertNull(entry.getSettlementDate());
     }
 
     @Test
     void subtractBalanceWithdrawalSuccess() {
         Wallet wallet = walletWith(new BigDecimal("190"), new BigDecimal("110"), BigDecimal.ZERO);
+        wallet.setId(7L);
         when(walletRepository.findByCustomerId(1L)).thenReturn(Optional.of(wallet));
 
         WalletResponse response = service.subtractBalance(1L, new BigDecimal("90"), TransactionType.WITHDRAWAL);
         assertNotNull(response);
-        assertEquals(new BigDecimal("100"), wallet.getBalance());
-        assertEquals(new BigDecimal("20"), wallet.getAvailableBalance());
-        assertEquals(1, wallet.getDailyTransactionCount());
-        assertEquals(new BigDecimal("90"), wallet.getDailyUsedAmount());
-        assertEquals(new BigDecimal("90"), wallet.getMonthlyUsedAmount());
-        assertEquals(new BigDecimal("100"), response.balance());
-        verify(walletRepository).save(wallet);
+        verify(walletRepository).applyMovement(eq(7L), eq(new BigDecimal("-90")), eq(new BigDecimal("-90")),
+                eq(BigDecimal.ZERO), eq(new BigDecimal("90")), eq(1), any(LocalDateTime.class));
+        assertEquals(TransactionType.WITHDRAWAL, savedLedgerEntry().getTransactionType());
     }
 
     @Test
@@ -146,62 +172,135 @@ class WalletServiceTest {
         when(walletRepository.findByCustomerId(1L)).thenReturn(Optional.of(wallet));
         assertThrows(InsufficientBalanceException.class,
                 () -> service.subtractBalance(1L, new BigDecimal("90"), TransactionType.WITHDRAWAL));
-        verify(walletRepository, never()).save(any());
+        verify(walletRepository, never()).applyMovement(any(), any(), any(), any(), any(), anyInt(), any());
+        verify(walletTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void subtractBalanceConditionalUpdateMissesThrowsWithoutLedgerEntry() {
+        Wallet wallet = walletWith(new BigDecimal("1000"), new BigDecimal("1000"), BigDecimal.ZERO);
+        when(walletRepository.findByCustomerId(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.applyMovement(any(), any(), any(), any(), any(), anyInt(), any())).thenReturn(0);
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> service.subtractBalance(1L, new BigDecimal("90"), TransactionType.WITHDRAWAL));
+        verify(walletTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void subtractBalanceRejectedAfterConcurrentLockReportsLock() {
+        Wallet wallet = walletWith(new BigDecimal("1000"), new BigDecimal("1000"), BigDecimal.ZERO);
+        when(walletRepository.findByCustomerId(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.applyMovement(any(), any(), any(), any(), any(), anyInt(), any())).thenReturn(0);
+        doAnswer(inv -> {
+            wallet.lockWallet();
+            return null;
+        }).when(entityManager).refresh(wallet);
+
+        assertThrows(WalletLockedException.class,
+                () -> service.subtractBalance(1L, new BigDecimal("90"), TransactionType.WITHDRAWAL));
+        verify(walletTransactionRepository, never()).save(any());
     }
 
     @Test
     void processStockPurchaseBlocksUntilSettlement() {
         Wallet wallet = walletWith(new BigDecimal("1000"), new BigDecimal("1000"), BigDecimal.ZERO);
+        wallet.setId(7L);
         when(walletRepository.findByCustomerId(1L)).thenReturn(Optional.of(wallet));
         service.processStockPurchase(1L, new BigDecimal("500"), new BigDecimal("120"));
-        assertEquals(new BigDecimal("1000"), wallet.getBalance());
-        assertEquals(new BigDecimal("380"), wallet.getAvailableBalance());
-        assertEquals(new BigDecimal("620"), wallet.getBlockedBalance());
-        verify(walletRepository).save(wallet);
+        verify(walletRepository).applyMovement(eq(7L), eq(BigDecimal.ZERO), eq(new BigDecimal("-620")),
+                eq(new BigDecimal("620")), eq(new BigDecimal("620")), eq(1), any(LocalDateTime.class));
+
+        WalletTransaction entry = savedLedgerEntry();
+        assertEquals(TransactionType.STOCK_PURCHASE, entry.getTransactionType());
+        assertNotNull(entry.getSettlementDate());
     }
 
     @Test
     void processStockSaleIncreasesBalanceAndBlocksUntilSettlement() {
         Wallet wallet = walletWith(new BigDecimal("1000"), new BigDecimal("1000"), BigDecimal.ZERO);
+        wallet.setId(7L);
         when(walletRepository.findByCustomerId(1L)).thenReturn(Optional.of(wallet));
         service.processStockSale(1L, new BigDecimal("600"), new BigDecimal("10"));
-        assertEquals(new BigDecimal("1590"), wallet.getBalance());
-        assertEquals(new BigDecimal("1000"), wallet.getAvailableBalance());
-        assertEquals(new BigDecimal("590"), wallet.getBlockedBalance());
-        verify(walletRepository).save(wallet);
+        verify(walletRepository).applyMovement(eq(7L), eq(new BigDecimal("590")), eq(BigDecimal.ZERO),
+                eq(new BigDecimal("590")), eq(BigDecimal.ZERO), eq(0), any(LocalDateTime.class));
+
+        WalletTransaction entry = savedLedgerEntry();
+        assertEquals(TransactionType.STOCK_SALE, entry.getTransactionType());
+        assertNotNull(entry.getSettlementDate());
+    }
+
+    private static SettlementTotal total(Long walletId, TransactionType type, String amount, long count) {
+        return new SettlementTotal() {
+            public Long getWalletId() { return walletId; }
+            public TransactionType getTransactionType() { return type; }
+            public BigDecimal getAmount() { return new BigDecimal(amount); }
+            public Long getTransactionCount() { return count; }
+        };
     }
 
     @Test
     void processT2SettlementsProcessesTypes() {
-        Wallet wallet = walletWith(new BigDecimal("1590"), new BigDecimal("490"), new BigDecimal("1100"));
-
-        WalletTransaction buyTx = new WalletTransaction();
-        buyTx.setWallet(wallet);
-        buyTx.setAmount(new BigDecimal("510"));
-        buyTx.setTransactionType(TransactionType.STOCK_PURCHASE);
-        buyTx.setTransactionStatus(TransactionStatus.COMPLETED);
-        buyTx.setSettlementDate(LocalDateTime.now().minusMinutes(1));
-
-        WalletTransaction sellTx = new WalletTransaction();
-        sellTx.setWallet(wallet);
-        sellTx.setAmount(new BigDecimal("590"));
-        sellTx.setTransactionType(TransactionType.STOCK_SALE);
-        sellTx.setTransactionStatus(TransactionStatus.COMPLETED);
-        sellTx.setSettlementDate(LocalDateTime.now().minusMinutes(1));
-        when(walletTransactionRepository.findTransactionsReadyForSettlement(
+        List<Long> ids = List.of(1L, 2L);
+        when(walletTransactionRepository.findIdsReadyForSettlement(
                 any(LocalDateTime.class),
                 eq(TransactionStatus.COMPLETED),
                 eq(TransactionType.STOCK_PURCHASE),
-                eq(TransactionType.STOCK_SALE)
-        )).thenReturn(List.of(buyTx, sellTx));
-        service.processT2Settlements();
-        assertEquals(new BigDecimal("0"), wallet.getBlockedBalance());
-        assertEquals(new BigDecimal("1080"), wallet.getBalance());
-        assertEquals(new BigDecimal("1080"), wallet.getAvailableBalance());
-        assertEquals(TransactionStatus.SETTLED, buyTx.getTransactionStatus());
-        assertEquals(TransactionStatus.SETTLED, sellTx.getTransactionStatus());
-        verify(walletTransactionRepository, times(2)).save(any(WalletTransaction.class));
-        verify(walletRepository, atLeast(2)).save(any(Wallet.class));
+                eq(TransactionType.STOCK_SALE),
+                eq(0L),
+                any(Pageable.class)
+        )).thenReturn(ids);
+        when(walletTransactionRepository.sumAmountsByWalletAndType(ids)).thenReturn(List.of(
+                total(5L, TransactionType.STOCK_PURCHASE, "510", 1),
+                total(5L, TransactionType.STOCK_SALE, "590", 1)));
+        when(walletRepository.applySettlement(eq(5L), eq(new BigDecimal("510")), eq(new BigDecimal("590")), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(walletTransactionRepository.markSettled(eq(ids), eq(Set.of(5L)), eq(TransactionStatus.COMPLETED),
+                eq(TransactionStatus.SETTLED), any(LocalDateTime.class))).thenReturn(2);
+
+        SettlementRunStats stats = service.processT2Settlements();
+
+        assertEquals(2, stats.rows());
+        assertEquals(1, stats.groups());
+        assertEquals(1, stats.chunks());
+        assertEquals(0, stats.skipped());
+        verify(walletRepository).applySettlement(eq(5L), any(), any(), any());
+        verify(walletTransactionRepository, never()).save(any(WalletTransaction.class));
+        verify(walletRepository, never()).save(any(Wallet.class));
+    }
+
+    @Test
+    void processT2SettlementsSkipsWalletWhenBlockedBalanceInsufficient() {
+        List<Long> ids = List.of(3L, 4L);
+        when(walletTransactionRepository.findIdsReadyForSettlement(any(), any(), any(), any(), eq(0L), any(Pageable.class)))
+                .thenReturn(ids);
+        when(walletTransactionRepository.sumAmountsByWalletAndType(ids)).thenReturn(List.of(
+                total(6L, TransactionType.STOCK_PURCHASE, "100", 1),
+                total(7L, TransactionType.STOCK_SALE, "50", 1)));
+        when(walletRepository.applySettlement(eq(6L), any(), any(), any())).thenReturn(0);
+        when(walletRepository.applySettlement(eq(7L), any(), any(), any())).thenReturn(1);
+        when(walletTransactionRepository.markSettled(eq(ids), eq(Set.of(7L)), any(), any(), any())).thenReturn(1);
+
+        SettlementRunStats stats = service.processT2Settlements();
+
+        assertEquals(1, stats.rows());
+        assertEquals(1, stats.skipped());
+        verify(walletTransactionRepository).markSettled(eq(ids), eq(Set.of(7L)), any(), any(), any());
+    }
+
+    @Test
+    void processT2SettlementsWalksChunksByIdUntilExhausted() {
+        settlementProperties.setChunkSize(2);
+        when(walletTransactionRepository.findIdsReadyForSettlement(any(), any(), any(), any(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(walletTransactionRepository.findIdsReadyForSettlement(any(), any(), any(), any(), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(3L));
+        when(walletTransactionRepository.sumAmountsByWalletAndType(anyList())).thenReturn(List.of());
+
+        SettlementRunStats stats = service.processT2Settlements();
+
+        assertEquals(2, stats.chunks());
+        verify(walletTransactionRepository, times(2)).sumAmountsByWalletAndType(anyList());
     }
 
     @Test
@@ -0,0 +1,38 @@
+package com.infina.hissenet.utils;
+
+import com.infina.hissenet.entity.enums.MarketPhase;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketHourUtilsTest {
+
+    // 2025-08-14 perşembe, 2025-08-16 cumartesi
+    @Test
+    void whenWeekdayTimesGiven_thenPhasesFollowSessionHours() {
+        assertEquals(MarketPhase.CLOSED, MarketHourUtils.phaseAt(LocalDateTime.of(2025, 8, 14, 3, 0)));
+        assertEquals(MarketPhase.PRE_OPEN, MarketHourUtils.phaseAt(LocalDateTime.of(2025, 8, 14, 9, 45)));
+        assertEquals(MarketPhase.SESSION, MarketHourUtils.phaseAt(LocalDateTime.of(2025, 8, 14, 10, 0)));
+        assertEquals(MarketPhase.SESSION, MarketHourUtils.phaseAt(LocalDateTime.of(2025, 8, 14, 17, 59)));
+        assertEquals(MarketPhase.AFTER_CLOSE, MarketHourUtils.phaseAt(LocalDateTime.of(2025, 8, 14, 18, 30)));
+        assertEquals(MarketPhase.CLOSED, MarketHourUtils.phaseAt(LocalDateTime.of(2025, 8, 14, 22, 0)));
+    }
+
+    @Test
+    void whenSaturday_thenWeekend() {
+        assertEquals(MarketPhase.WEEKEND, MarketHourUtils.phaseAt(LocalDateTime.of(2025, 8, 16, 11, 0)));
+    }
+
+    @Test
+    void whenOrderCollectionAndSessionWindowsChecked_thenBoundariesExclusive() {
+        assertTrue(MarketHourUtils.canPlaceOrder(LocalDateTime.of(2025, 8, 14, 9, 45)));
+        assertFalse(MarketHourUtils.canPlaceOrder(LocalDateTime.of(2025, 8, 14, 17, 30)));
+        assertTrue(MarketHourUtils.isMarketOpen(LocalDateTime.of(2025, 8, 14, 12, 0)));
+        assertFalse(MarketHourUtils.isMarketOpen(LocalDateTime.of(2025, 8, 14, 10, 0)));
+        assertFalse(MarketHourUtils.isMarketOpen(LocalDateTime.of(2025, 8, 16, 12, 0)));
+    }
+}
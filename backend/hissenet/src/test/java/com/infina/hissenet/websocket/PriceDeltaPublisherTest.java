@@ -0,0 +1,141 @@
+package com.infina.hissenet.websocket;
+
+import com.infina.hissenet.dto.response.CombinedStockData;
+import com.infina.hissenet.dto.response.PriceStreamMessage;
+import com.infina.hissenet.properties.StockProperties;
+import com.infina.hissenet.service.abstracts.IPriceSnapshotBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceDeltaPublisherTest {
+
+    private static final String TOPIC = "/topic/prices";
+
+    @Mock private SimpMessagingTemplate template;
+    @Mock private IPriceSnapshotBuffer snapshotBuffer;
+
+    private PriceSubscriptionRegistry subscriptions;
+    private PriceDeltaPublisher publisher;
+
+    @BeforeEach
+    void init() {
+        StockProperties props = new StockProperties();
+        props.getScheduler().getPublish().setTopic(TOPIC);
+        subscriptions = new PriceSubscriptionRegistry(props);
+        subscriptions.subscribe("s1", "sub-0", TOPIC);
+        publisher = new PriceDeltaPublisher(template, props, subscriptions, snapshotBuffer);
+    }
+
+    private CombinedStockData stock(String code, String last) {
+        return new CombinedStockData(code, null, null, null, null, null, new BigDecimal(last),
+                null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void whenFirstSnapshotPublished_thenAllItemsSentAsFirstDelta() {
+        PriceStreamMessage sent = publisher.publish(List.of(stock("THYAO", "300"), stock("SISE", "40")));
+
+        assertEquals(PriceStreamMessage.Type.DELTA, sent.type());
+        assertEquals(1L, sent.seq());
+        assertEquals(2, sent.items().size());
+        assertTrue(sent.removed().isEmpty());
+        verify(template).convertAndSend(TOPIC, sent);
+    }
+
+    @Test
+    void whenSnapshotUnchanged_thenNothingSent() {
+        publisher.publish(List.of(stock("THYAO", "300")));
+
+        assertNull(publisher.publish(List.of(stock("THYAO", "300"))));
+
+        verify(snapshotBuffer, times(1)).update(anyLong(), anyList());
+        verify(template, times(1)).convertAndSend(eq(TOPIC), any(Object.class));
+    }
+
+    @Test
+    void whenSomeSymbolsChangeOrDisappear_thenOnlyThoseSent() {
+        publisher.publish(List.of(stock("THYAO", "300"), stock("SISE", "40"), stock("AKBNK", "55")));
+
+        PriceStreamMessage sent = publisher.publish(List.of(stock("THYAO", "301"), stock("SISE", "40")));
+
+        assertEquals(2L, sent.seq());
+        assertEquals(List.of(stock("THYAO", "301")), sent.items());
+        assertEquals(List.of("AKBNK"), sent.removed());
+        verify(snapshotBuffer).update(2L, List.of(stock("THYAO", "301"), stock("SISE", "40")));
+    }
+
+    @Test
+    void whenSnapshotRequested_thenFullStateAtLatestSeqReturned() {
+        publisher.publish(List.of(stock("THYAO", "300"), stock("SISE", "40")));
+        publisher.publish(List.of(stock("THYAO", "301"), stock("SISE", "40")));
+
+        PriceStreamMessage snapshot = publisher.currentSnapshot();
+
+        assertEquals(PriceStreamMessage.Type.SNAPSHOT, snapshot.type());
+        assertEquals(2L, snapshot.seq());
+        assertEquals(List.of(stock("THYAO", "301"), stock("SISE", "40")), snapshot.items());
+    }
+
+    @Test
+    void whenHeartbeat_thenSentOnlyAfterFirstDelta() {
+        publisher.publishHeartbeat();
+        verifyNoInteractions(template);
+
+        publisher.publish(List.of(stock("THYAO", "300")));
+        publisher.publishHeartbeat();
+
+        verify(template).convertAndSend(eq(TOPIC), argThat((Object m) ->
+                m instanceof PriceStreamMessage msg
+                        && msg.type() == PriceStreamMessage.Type.HEARTBEAT
+                        && msg.seq() == 1L));
+    }
+
+    @Test
+    void whenSymbolWatched_thenOnlyThatSymbolSentOnItsTopic() {
+        subscriptions.subscribe("s2", "sub-1", TOPIC + "/THYAO");
+
+        publisher.publish(List.of(stock("THYAO", "300"), stock("SISE", "40")));
+
+        verify(template).convertAndSend(TOPIC + "/THYAO", stock("THYAO", "300"));
+        verify(template, never()).convertAndSend(eq(TOPIC + "/SISE"), any(Object.class));
+    }
+
+    @Test
+    void whenSymbolWatchedInLowerCase_thenSentOnUpperCaseTopic() {
+        subscriptions.subscribe("s2", "sub-1", TOPIC + "/thyao");
+
+        publisher.publish(List.of(stock("THYAO", "300")));
+
+        verify(template).convertAndSend(TOPIC + "/THYAO", stock("THYAO", "300"));
+        assertEquals(TOPIC + "/THYAO", publisher.symbolTopic(" thyao "));
+        assertEquals(stock("THYAO", "300"), publisher.current("thyao"));
+    }
+
+    @Test
+    void whenNobodySubscribed_thenNothingSerializedButSeqAdvances() {
+        subscriptions.disconnect("s1");
+
+        PriceStreamMessage sent = publisher.publish(List.of(stock("THYAO", "300")));
+        publisher.publishHeartbeat();
+
+        assertEquals(1L, sent.seq());
+        assertEquals(1L, publisher.currentSnapshot().seq());
+        assertEquals(stock("THYAO", "300"), publisher.current("THYAO"));
+        verifyNoInteractions(template);
+    }
+}
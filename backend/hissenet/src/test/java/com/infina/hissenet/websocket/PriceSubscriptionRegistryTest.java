@@ -0,0 +1,78 @@
+package com.infina.hissenet.websocket;
+
+import com.infina.hissenet.properties.StockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSubscriptionRegistryTest {
+
+    private PriceSubscriptionRegistry registry;
+
+    @BeforeEach
+    void init() {
+        StockProperties props = new StockProperties();
+        props.getScheduler().getPublish().setTopic("/topic/prices");
+        registry = new PriceSubscriptionRegistry(props);
+    }
+
+    private Message<byte[]> frame(StompCommand command, String session, String subscription, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(session);
+        accessor.setSubscriptionId(subscription);
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void whenSubscribeAndUnsubscribeFramesSent_thenCountsFollow() {
+        registry.preSend(frame(StompCommand.SUBSCRIBE, "s1", "0", "/topic/prices/THYAO"), null);
+        registry.preSend(frame(StompCommand.SUBSCRIBE, "s2", "0", "/topic/prices/THYAO"), null);
+        assertEquals(2, registry.getSubscriberCount("/topic/prices/THYAO"));
+
+        registry.preSend(frame(StompCommand.UNSUBSCRIBE, "s1", "0", null), null);
+        assertEquals(1, registry.getSubscriberCount("/topic/prices/THYAO"));
+        assertTrue(registry.hasSubscribers("/topic/prices/THYAO"));
+    }
+
+    @Test
+    void whenSessionDisconnects_thenAllItsSubscriptionsReleased() {
+        registry.subscribe("s1", "0", "/topic/prices/THYAO");
+        registry.subscribe("s1", "1", "/topic/prices/SISE");
+        registry.subscribe("s2", "0", "/topic/prices/SISE");
+
+        registry.preSend(frame(StompCommand.DISCONNECT, "s1", null, null), null);
+
+        assertFalse(registry.hasSubscribers("/topic/prices/THYAO"));
+        assertEquals(1, registry.getSubscriberCount("/topic/prices/SISE"));
+    }
+
+    @Test
+    void whenUnknownSubscriptionRemoved_thenCountsUntouched() {
+        registry.subscribe("s1", "0", "/topic/prices");
+
+        registry.unsubscribe("s1", "9");
+        registry.unsubscribe("s9", "0");
+        registry.disconnect("s9");
+
+        assertEquals(1, registry.getSubscriberCount("/topic/prices"));
+    }
+
+    @Test
+    void whenSymbolSubscribedInLowerCase_thenFrameRewrittenAndCountedUnderUpperCase() {
+        Message<?> forwarded = registry.preSend(frame(StompCommand.SUBSCRIBE, "s1", "0", "/topic/prices/ thyao"), null);
+
+        assertEquals("/topic/prices/THYAO", StompHeaderAccessor.wrap(forwarded).getDestination());
+        assertEquals(1, registry.getSubscriberCount("/topic/prices/THYAO"));
+        assertTrue(registry.hasSubscribers("/topic/prices/thyao"));
+
+        registry.preSend(frame(StompCommand.UNSUBSCRIBE, "s1", "0", null), null);
+        assertFalse(registry.hasSubscribers("/topic/prices/THYAO"));
+    }
+}
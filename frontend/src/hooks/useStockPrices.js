@@ -1,41 +1,85 @@
 import { useState, useEffect, useRef } from 'react';
 import stockService from '../server/websocket/stock';
 
+const DELTA_TOPIC = '/topic/prices';
+const SNAPSHOT_TOPIC = '/app/prices/snapshot';
+
+// Sunucu önce tam liste (SNAPSHOT), sonra sıra numaralı değişiklikler (DELTA) gönderir.
+// Sıra atlanırsa snapshot yeniden istenir.
 export default function useStockPrices() {
   const [stocks, setStocks] = useState([]);
-  const toplamMesaj = useRef(0);
+  const fiyatlar = useRef(new Map());
+  const sonSeq = useRef(-1);
+  const bekleyenler = useRef([]);
 
   useEffect(() => {
-    console.log('HOOK[PRICES] başlatıldı → /topic/prices abonesi olunuyor');
-
-    const onMsg = (data) => {
-      const diziMi = Array.isArray(data);
-      const uzunluk = diziMi ? data.length : -1;
-      const boyut = (JSON.stringify(data) || '').length;
-      toplamMesaj.current += 1;
-
-      console.log(
-        'HOOK[PRICES] mesaj #%d dizi=%s uzunluk=%d boyut=%d karakter',
-        toplamMesaj.current,
-        diziMi,
-        uzunluk,
-        boyut
-      );
-
-      if (!diziMi) {
-        console.warn('HOOK[PRICES] gelen veri dizi değil → %o', data);
-        setStocks([]);
-        return;
+    console.log('HOOK[PRICES] başlatıldı → %s abonesi olunuyor', DELTA_TOPIC);
+
+    const yayinla = () => setStocks(Array.from(fiyatlar.current.values()));
+
+    const deltaUygula = (msg) => {
+      (msg.items || []).forEach((s) => fiyatlar.current.set(s.code, s));
+      (msg.removed || []).forEach((code) => fiyatlar.current.delete(code));
+      sonSeq.current = msg.seq;
+    };
+
+    const snapshotIste = () => {
+      console.warn('HOOK[PRICES] sıra kaydı (son=%d) → snapshot yeniden isteniyor', sonSeq.current);
+      sonSeq.current = -1;
+      bekleyenler.current = [];
+      stockService.unsubscribe(SNAPSHOT_TOPIC);
+      stockService.subscribe(SNAPSHOT_TOPIC, onSnapshot);
+    };
+
+    function onSnapshot(msg) {
+      stockService.unsubscribe(SNAPSHOT_TOPIC);
+      fiyatlar.current = new Map((msg.items || []).map((s) => [s.code, s]));
+      sonSeq.current = msg.seq;
+
+      // Snapshot beklenirken gelen deltalar sırayla uygulanır
+      const kuyruk = bekleyenler.current;
+      bekleyenler.current = [];
+      for (const d of kuyruk) {
+        if (d.seq <= sonSeq.current) continue;
+        if (d.seq !== sonSeq.current + 1) {
+          snapshotIste();
+          return;
+        }
+        deltaUygula(d);
       }
+      console.log('HOOK[PRICES] snapshot alındı seq=%d adet=%d', sonSeq.current, fiyatlar.current.size);
+      yayinla();
+    }
 
-      setStocks(data);
+    const onDelta = (msg) => {
+      if (!msg || typeof msg.seq !== 'number') {
+        console.warn('HOOK[PRICES] beklenmeyen mesaj → %o', msg);
+        return;
+      }
+      if (sonSeq.current < 0) {
+        if (msg.type === 'DELTA') bekleyenler.current.push(msg);
+        return;
+      }
+      if (msg.type === 'HEARTBEAT') {
+        if (msg.seq !== sonSeq.current) snapshotIste();
+        return;
+      }
+      if (msg.seq <= sonSeq.current) return;
+      if (msg.seq !== sonSeq.current + 1) {
+        snapshotIste();
+        return;
+      }
+      deltaUygula(msg);
+      yayinla();
     };
 
-    stockService.subscribe('/topic/prices', onMsg);
+    stockService.subscribe(DELTA_TOPIC, onDelta);
+    stockService.subscribe(SNAPSHOT_TOPIC, onSnapshot);
 
     return () => {
-      console.log('HOOK[PRICES] sonlandırıldı → /topic/prices aboneliği iptal ediliyor');
-      stockService.unsubscribe('/topic/prices');
+      console.log('HOOK[PRICES] sonlandırıldı → %s aboneliği iptal ediliyor', DELTA_TOPIC);
+      stockService.unsubscribe(DELTA_TOPIC);
+      stockService.unsubscribe(SNAPSHOT_TOPIC);
     };
   }, []);
 